@@ -0,0 +1,40 @@
+package com.checkmate.chess.benchmark;
+
+/**
+ * Standard positions the move-path benchmarks run on, each with one legal move for the side
+ * to move. Move generation cost grows with the number of pieces and pieces' mobility, so the
+ * three phases bracket what a real game goes through.
+ */
+public enum BenchmarkPosition {
+
+  /** Ruy Lopez after 3.Bb5, black to play a6. */
+  OPENING("r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3", "a7", "a6"),
+
+  /** Queen's Gambit Declined after 6...Nbd7, white to play Rc1. */
+  MIDDLEGAME("r1bq1rk1/pppnbppp/4pn2/3p2B1/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 3 7", "a1", "c1"),
+
+  /** King and pawn ending, white to play Kh4. */
+  ENDGAME("8/2k5/3p4/p2P1p2/P4P2/6K1/8/8 w - - 0 45", "g3", "h4");
+
+  private final String fen;
+  private final String from;
+  private final String to;
+
+  BenchmarkPosition(final String fen, final String from, final String to) {
+    this.fen = fen;
+    this.from = from;
+    this.to = to;
+  }
+
+  public String fen() {
+    return fen;
+  }
+
+  public String from() {
+    return from;
+  }
+
+  public String to() {
+    return to;
+  }
+}
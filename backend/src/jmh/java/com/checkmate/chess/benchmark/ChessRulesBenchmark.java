@@ -0,0 +1,42 @@
+package com.checkmate.chess.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.checkmate.chess.service.ChessRulesService;
+
+/**
+ * Benchmarks for {@link ChessRulesService}: each call parses the FEN and generates legal moves,
+ * which is what the stateless move path pays per request.
+ */
+@State(Scope.Benchmark)
+public class ChessRulesBenchmark {
+
+  @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+  private BenchmarkPosition position;
+
+  private ChessRulesService rules;
+
+  @Setup
+  public void setUp() {
+    rules = new ChessRulesService();
+  }
+
+  @Benchmark
+  public boolean isLegalMove() {
+    return rules.isLegalMove(position.fen(), position.from(), position.to());
+  }
+
+  @Benchmark
+  public String makeMove() {
+    return rules.makeMove(position.fen(), position.from(), position.to(), null);
+  }
+
+  @Benchmark
+  public String moveNotation() {
+    return rules.getMoveNotation(position.fen(), position.from(), position.to());
+  }
+}
@@ -0,0 +1,84 @@
+package com.checkmate.chess.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.checkmate.chess.model.Game;
+import com.checkmate.chess.model.Move;
+import com.checkmate.chess.repository.MoveRepository;
+import com.checkmate.chess.service.MoveService;
+import com.checkmate.chess.service.PgnService;
+
+/**
+ * Benchmarks for PGN text: export of a finished game with {@link PgnService} and the
+ * movetext the {@link MoveService} builds from the move rows for the game state.
+ * The repository is an in-memory stub so only the string work is measured.
+ */
+@State(Scope.Benchmark)
+public class PgnBenchmark {
+
+  private static final String[] OPENING_LINE = {
+      "e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7",
+      "Re1", "b5", "Bb3", "d6", "c3", "O-O", "h3", "Nb8", "d4", "Nbd7"
+  };
+
+  /** Game length in plies. */
+  @Param({"40", "120"})
+  private int plies;
+
+  private Game finishedGame;
+  private PgnService pgnService;
+  private MoveService moveService;
+
+  @Setup
+  public void setUp() {
+    final List<String> notations = new ArrayList<>(plies);
+    for (int ply = 0; ply < plies; ply++) {
+      notations.add(OPENING_LINE[ply % OPENING_LINE.length]);
+    }
+
+    finishedGame = new Game();
+    finishedGame.setId(UUID.randomUUID());
+    finishedGame.setCreatedAt(LocalDateTime.now());
+    finishedGame.setResult("DRAW");
+    finishedGame.setTimeControl("blitz");
+
+    final List<Move> moves = new ArrayList<>(plies);
+    for (int ply = 0; ply < plies; ply++) {
+      moves.add(new Move(finishedGame, ply, notations.get(ply), (short) 0, null));
+    }
+
+    final MoveRepository repository = stubRepository(moves);
+    pgnService = new PgnService(repository);
+    moveService = new MoveService(repository);
+  }
+
+  @Benchmark
+  public String generatePgn() {
+    return pgnService.generatePgn(finishedGame);
+  }
+
+  @Benchmark
+  public String movetext() {
+    return moveService.getMovetext(finishedGame);
+  }
+
+  private static MoveRepository stubRepository(final List<Move> moves) {
+    return (MoveRepository) Proxy.newProxyInstance(
+        MoveRepository.class.getClassLoader(),
+        new Class<?>[] {MoveRepository.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "findByGameIdOrderByPlyAsc" -> moves;
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
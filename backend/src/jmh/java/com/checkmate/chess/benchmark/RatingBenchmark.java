@@ -0,0 +1,38 @@
+package com.checkmate.chess.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.checkmate.chess.rating.Glicko2;
+import com.checkmate.chess.service.RatingService;
+
+/**
+ * Benchmark for the Elo expected score, computed twice per rated game.
+ */
+@State(Scope.Benchmark)
+public class RatingBenchmark {
+
+  /** Rating difference between the players. */
+  @Param({"0", "250", "800"})
+  private int difference;
+
+  private RatingService ratingService;
+  private int playerRating;
+  private int opponentRating;
+
+  @Setup
+  public void setUp() {
+    // Only the pure calculation is measured, so no repositories are needed
+    ratingService = new RatingService(null, null, new Glicko2(0.5, 86_400_000L));
+    playerRating = 1500;
+    opponentRating = 1500 + difference;
+  }
+
+  @Benchmark
+  public double calculateExpectedScore() {
+    return ratingService.calculateExpectedScore(playerRating, opponentRating);
+  }
+}
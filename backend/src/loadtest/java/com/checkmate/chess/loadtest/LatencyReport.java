@@ -0,0 +1,123 @@
+package com.checkmate.chess.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Latency histograms of a load run.
+ * Values are recorded in microseconds. Each metric is written as a percentile distribution
+ * ({@code .hgrm}, in milliseconds) and as an HdrHistogram log ({@code .hlog}) that
+ * HistogramLogAnalyzer and similar tools can compare across builds; {@code summary.txt} holds
+ * the p50, p99 and p999 of every metric.
+ */
+final class LatencyReport {
+
+  enum Metric {
+    /** Move sent until the mover receives its own broadcast. */
+    MOVE("move"),
+    /** Move sent until the opponent's session receives the broadcast. */
+    BROADCAST("broadcast"),
+    /** Time between consecutive clock messages of a ranked game. */
+    CLOCK_INTERVAL("clock-interval");
+
+    private final String fileName;
+
+    Metric(String fileName) {
+      this.fileName = fileName;
+    }
+  }
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private final Map<Metric, Histogram> histograms = new EnumMap<>(Metric.class);
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private volatile long startMillis = System.currentTimeMillis();
+
+  LatencyReport() {
+    for (Metric metric : Metric.values()) {
+      histograms.put(metric, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+    }
+  }
+
+  void recordNanos(Metric metric, long nanos) {
+    histograms.get(metric).recordValue(
+        Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+  }
+
+  void recordTimeout() {
+    timeouts.incrementAndGet();
+  }
+
+  void recordError() {
+    errors.incrementAndGet();
+  }
+
+  /**
+   * Drop everything recorded so far, e.g. at the end of the ramp-up.
+   */
+  void reset() {
+    histograms.values().forEach(Histogram::reset);
+    timeouts.set(0);
+    errors.set(0);
+    startMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Write the report files.
+   *
+   * @param directory the run directory, created if missing
+   * @param settings the run settings, recorded in the summary
+   * @return the summary text
+   */
+  String write(Path directory, LoadTestSettings settings) throws IOException {
+    Files.createDirectories(directory);
+    final long endMillis = System.currentTimeMillis();
+    final StringBuilder summary = new StringBuilder()
+        .append("settings: ").append(settings).append('\n')
+        .append(String.format("measured: %.1f s, timeouts: %d, errors: %d%n",
+            (endMillis - startMillis) / 1000.0, timeouts.get(), errors.get()))
+        .append(String.format("%-16s %10s %10s %10s %10s %10s%n",
+            "metric (ms)", "count", "p50", "p99", "p999", "max"));
+
+    for (Metric metric : Metric.values()) {
+      final Histogram histogram = histograms.get(metric).copy();
+      histogram.setStartTimeStamp(startMillis);
+      histogram.setEndTimeStamp(endMillis);
+
+      try (PrintStream out = new PrintStream(
+          Files.newOutputStream(directory.resolve(metric.fileName + ".hgrm")))) {
+        histogram.outputPercentileDistribution(out, 1000.0);
+      }
+      try (PrintStream out = new PrintStream(
+          Files.newOutputStream(directory.resolve(metric.fileName + ".hlog")))) {
+        final HistogramLogWriter writer = new HistogramLogWriter(out);
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(startMillis);
+        writer.outputLegend();
+        writer.outputIntervalHistogram(histogram);
+      }
+
+      summary.append(String.format("%-16s %10d %10.2f %10.2f %10.2f %10.2f%n",
+          metric.fileName,
+          histogram.getTotalCount(),
+          histogram.getValueAtPercentile(50) / 1000.0,
+          histogram.getValueAtPercentile(99) / 1000.0,
+          histogram.getValueAtPercentile(99.9) / 1000.0,
+          histogram.getMaxValue() / 1000.0));
+    }
+
+    Files.writeString(directory.resolve("summary.txt"), summary);
+    return summary.toString();
+  }
+}
@@ -0,0 +1,242 @@
+package com.checkmate.chess.loadtest;
+
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.github.bhlangonijr.chesslib.Side;
+
+/**
+ * End-to-end load driver.
+ * Opens one STOMP session per guest game and per ranked player against a running server
+ * (see {@code ./gradlew loadtestServer}), plays random legal games at the configured move rate,
+ * keeps ranked players cycling through matchmaking and follows the clocks of their games.
+ * Games are started evenly over the ramp-up; latencies are recorded for the measured period
+ * after it and written as HdrHistogram reports to a timestamped run directory.
+ * Settings are {@code loadtest.*} system properties, see {@link LoadTestSettings}.
+ */
+public final class LoadDriver {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+  private final LoadTestSettings settings;
+  private final LatencyReport report = new LatencyReport();
+  private final ServerApi api;
+  private final WebSocketStompClient stompClient;
+  private final ScheduledExecutorService scheduler;
+  private final Map<UUID, PlayedGame> rankedGames = new ConcurrentHashMap<>();
+  private final Map<UUID, ServerApi.Player> rankedPlayers = new ConcurrentHashMap<>();
+  private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+  private final AtomicLong gameCounter = new AtomicLong();
+  private final AtomicLong userCounter = new AtomicLong();
+  private final String runId = Long.toHexString(System.nanoTime() & 0xFFFFFFL);
+  private volatile boolean stopping;
+
+  LoadDriver(LoadTestSettings settings) {
+    this.settings = settings;
+    this.api = new ServerApi(settings.baseUrl());
+    this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+    this.stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+    this.scheduler = Executors.newScheduledThreadPool(
+        Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new LoadDriver(LoadTestSettings.fromSystemProperties()).run();
+  }
+
+  void run() throws Exception {
+    logger.info("Starting {} guest games and {} ranked pairs ({} sessions) against {}",
+        settings.guestGames(), settings.rankedPairs(), settings.sessions(), settings.baseUrl());
+
+    final int starts = settings.guestGames() + settings.rankedPairs();
+    final long spacingMicros = starts == 0 ? 0 : settings.rampUp().toNanos() / 1000 / starts;
+    for (int i = 0; i < starts; i++) {
+      final Runnable start = i < settings.guestGames()
+          ? () -> startGuestGame(null)
+          : this::startRankedPair;
+      scheduler.schedule(start, spacingMicros * i, TimeUnit.MICROSECONDS);
+    }
+
+    Thread.sleep(settings.rampUp().toMillis());
+    report.reset();
+    logger.info("Ramp-up done with {} sessions, measuring for {}",
+        sessions.size(), settings.duration());
+    Thread.sleep(settings.duration().toMillis());
+    stopping = true;
+
+    final Path runDirectory = settings.reportDirectory()
+        .resolve(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()));
+    final String summary = report.write(runDirectory, settings);
+    System.out.print(summary);
+    logger.info("Report written to {}", runDirectory.toAbsolutePath());
+
+    scheduler.shutdownNow();
+    for (StompSession session : sessions) {
+      try {
+        session.disconnect();
+      } catch (RuntimeException e) {
+        // Already closed by the server
+      }
+    }
+    stompClient.stop();
+  }
+
+  private void startGuestGame(StompSession existing) {
+    if (stopping) {
+      return;
+    }
+    StompSession session = existing;
+    try {
+      if (session == null) {
+        session = connect();
+      }
+      final StompSession gameSession = session;
+      final ServerApi.GuestGame guest =
+          api.createGuestGame("lt" + runId + "-" + userCounter.incrementAndGet());
+      final PlayedGame game = newGame(guest.gameId(), finished -> {
+        if (finished.needsResign()) {
+          resignQuietly(guest.gameId(), guest.guestUserId());
+        }
+        startGuestGame(gameSession);
+      });
+      game.attach(Side.WHITE, session, guest.guestUserId());
+      game.attach(Side.BLACK, session, guest.guestUserId());
+      game.start();
+    } catch (Exception e) {
+      logger.debug("Could not start a guest game", e);
+      report.recordError();
+      final StompSession retrySession = session;
+      scheduler.schedule(() -> startGuestGame(retrySession), 1, TimeUnit.SECONDS);
+    }
+  }
+
+  private void startRankedPair() {
+    startRankedPlayer();
+    startRankedPlayer();
+  }
+
+  private void startRankedPlayer() {
+    try {
+      final ServerApi.Player player =
+          api.register("lt" + runId + "r" + userCounter.incrementAndGet());
+      final StompSession session = connect();
+      rankedPlayers.put(player.userId(), player);
+      session.subscribe("/queue/matchmaking/" + player.userId(),
+          new MatchFoundHandler(player, session));
+      api.joinQueue(player, settings.timeControl());
+    } catch (Exception e) {
+      logger.debug("Could not start a ranked player", e);
+      report.recordError();
+    }
+  }
+
+  private void onMatchFound(ServerApi.Player player, StompSession session, Map<?, ?> message) {
+    final UUID gameId = UUID.fromString((String) message.get("gameId"));
+    final Side side = "white".equals(message.get("color")) ? Side.WHITE : Side.BLACK;
+    final PlayedGame game = rankedGames.computeIfAbsent(gameId,
+        id -> newGame(id, this::onRankedGameFinished));
+    if (game.attach(side, session, player.userId())) {
+      game.start();
+    }
+  }
+
+  private void onRankedGameFinished(PlayedGame game) {
+    rankedGames.remove(game.gameId());
+    final Map<Side, UUID> players = game.playerIds();
+    if (game.needsResign()) {
+      resignQuietly(game.gameId(), players.get(Side.WHITE));
+    }
+    if (stopping) {
+      return;
+    }
+    for (UUID userId : players.values()) {
+      try {
+        api.joinQueue(rankedPlayers.get(userId), settings.timeControl());
+      } catch (RuntimeException e) {
+        logger.debug("Could not re-queue {}", userId, e);
+        report.recordError();
+      }
+    }
+  }
+
+  private PlayedGame newGame(UUID gameId, Consumer<PlayedGame> onFinished) {
+    // Seeded by start order, so the same build replays the same move choices
+    final Random random = new Random(settings.seed() * 1_000_003L + gameCounter.incrementAndGet());
+    return new PlayedGame(gameId, settings, report, scheduler, random, onFinished);
+  }
+
+  private StompSession connect() throws Exception {
+    final StompSession session = stompClient
+        .connectAsync(settings.webSocketUrl(), new StompSessionHandlerAdapter() {
+          @Override
+          public void handleException(StompSession session, StompCommand command,
+              StompHeaders headers, byte[] payload, Throwable exception) {
+            report.recordError();
+          }
+
+          @Override
+          public void handleTransportError(StompSession session, Throwable exception) {
+            report.recordError();
+          }
+        })
+        .get(30, TimeUnit.SECONDS);
+    sessions.add(session);
+    return session;
+  }
+
+  private void resignQuietly(UUID gameId, UUID playerId) {
+    try {
+      api.resign(gameId, playerId);
+    } catch (RuntimeException e) {
+      logger.debug("Could not resign game {}", gameId, e);
+    }
+  }
+
+  /**
+   * Seats a ranked player in the game matchmaking put them in.
+   */
+  private final class MatchFoundHandler implements StompFrameHandler {
+
+    private final ServerApi.Player player;
+    private final StompSession session;
+
+    MatchFoundHandler(ServerApi.Player player, StompSession session) {
+      this.player = player;
+      this.session = session;
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return Map.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      onMatchFound(player, session, (Map<?, ?>) payload);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.checkmate.chess.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a load run, read from {@code loadtest.*} system properties.
+ *
+ * @param baseUrl HTTP base URL of the server under test
+ * @param guestGames concurrent guest games, each driven by one STOMP session playing both sides
+ * @param rankedPairs pairs of registered players cycling through matchmaking, one session each
+ * @param movesPerMinute average move rate of every game
+ * @param rampUp time over which games are started; nothing is recorded before it ends
+ * @param duration measured time after the ramp-up
+ * @param maxPlies plies after which a game is resigned and replaced
+ * @param timeControl time control ranked players queue for
+ * @param seed seed of the move choices, so runs of the same build play the same games
+ * @param reportDirectory directory that receives one sub-directory per run
+ */
+public record LoadTestSettings(
+    String baseUrl,
+    int guestGames,
+    int rankedPairs,
+    int movesPerMinute,
+    Duration rampUp,
+    Duration duration,
+    int maxPlies,
+    String timeControl,
+    long seed,
+    Path reportDirectory) {
+
+  public static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        property("base-url", "http://localhost:8080"),
+        Integer.parseInt(property("guest-games", "1000")),
+        Integer.parseInt(property("ranked-pairs", "500")),
+        Integer.parseInt(property("moves-per-minute", "20")),
+        Duration.ofSeconds(Long.parseLong(property("ramp-up-seconds", "60"))),
+        Duration.ofSeconds(Long.parseLong(property("duration-seconds", "300"))),
+        Integer.parseInt(property("max-plies", "120")),
+        property("time-control", "blitz"),
+        Long.parseLong(property("seed", "42")),
+        Path.of(property("report-dir", "build/loadtest")));
+  }
+
+  public String webSocketUrl() {
+    // Raw WebSocket transport of the SockJS endpoint
+    return baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+  }
+
+  public long moveIntervalMillis() {
+    return 60_000L / Math.max(1, movesPerMinute);
+  }
+
+  public int sessions() {
+    return guestGames + 2 * rankedPairs;
+  }
+
+  private static String property(String name, String defaultValue) {
+    return System.getProperty("loadtest." + name, defaultValue);
+  }
+}
@@ -0,0 +1,225 @@
+package com.checkmate.chess.loadtest;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import com.checkmate.chess.loadtest.LatencyReport.Metric;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * One game played by the driver: random legal moves at the configured rate, sent over STOMP by
+ * the session of the side to move. The board follows the server's broadcasts, so the next move
+ * is only chosen once the previous one has come back.
+ */
+final class PlayedGame {
+
+  private static final long MOVE_TIMEOUT_SECONDS = 10;
+  private static final long FIRST_MOVE_DELAY_MILLIS = 500;
+
+  /** Payload of {@code /app/game/{gameId}/move}. */
+  record MoveRequest(String from, String to, String promotion) {}
+
+  private final UUID gameId;
+  private final LoadTestSettings settings;
+  private final LatencyReport report;
+  private final ScheduledExecutorService scheduler;
+  private final Random random;
+  private final Consumer<PlayedGame> onFinished;
+  private final Map<Side, StompSession> sessions = new EnumMap<>(Side.class);
+  private final Map<Side, UUID> playerIds = new EnumMap<>(Side.class);
+  private final List<StompSession.Subscription> subscriptions = new ArrayList<>();
+  private final Board board = new Board();
+
+  // Guarded by this
+  private Side mover;
+  private long sentAtNanos;
+  private long lastClockNanos;
+  private int ply;
+  private boolean finished;
+  private boolean needsResign;
+
+  PlayedGame(
+      UUID gameId,
+      LoadTestSettings settings,
+      LatencyReport report,
+      ScheduledExecutorService scheduler,
+      Random random,
+      Consumer<PlayedGame> onFinished) {
+    this.gameId = gameId;
+    this.settings = settings;
+    this.report = report;
+    this.scheduler = scheduler;
+    this.random = random;
+    this.onFinished = onFinished;
+  }
+
+  UUID gameId() {
+    return gameId;
+  }
+
+  synchronized Map<Side, UUID> playerIds() {
+    return Map.copyOf(playerIds);
+  }
+
+  /**
+   * Whether the server still considers the game running, so the driver has to resign it.
+   */
+  synchronized boolean needsResign() {
+    return needsResign;
+  }
+
+  /**
+   * Seat a player.
+   *
+   * @return true once both sides are seated
+   */
+  synchronized boolean attach(Side side, StompSession session, UUID playerId) {
+    sessions.put(side, session);
+    playerIds.put(side, playerId);
+    return sessions.size() == 2;
+  }
+
+  /**
+   * Subscribe the seated sessions to the game and schedule the first move.
+   */
+  synchronized void start() {
+    final StompSession white = sessions.get(Side.WHITE);
+    for (StompSession session : new LinkedHashSet<>(sessions.values())) {
+      subscriptions.add(session.subscribe(
+          "/topic/game/" + gameId + "/moves", handler(payload -> onMove(session, payload))));
+    }
+    subscriptions.add(white.subscribe(
+        "/topic/game/" + gameId + "/clock", handler(payload -> onClock())));
+    subscriptions.add(white.subscribe(
+        "/topic/game/" + gameId + "/end", handler(payload -> onEnd())));
+    // Give the opponent's subscription time to reach the broker before the first broadcast
+    scheduler.schedule(this::sendMove, FIRST_MOVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void sendMove() {
+    if (finished) {
+      return;
+    }
+    if (board.isMated() || board.isStaleMate()) {
+      finish(false);
+      return;
+    }
+    if (ply >= settings.maxPlies() || board.isDraw()) {
+      finish(true);
+      return;
+    }
+
+    final List<Move> legalMoves = board.legalMoves();
+    final Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+    mover = board.getSideToMove();
+    final int sentPly = ply;
+    sentAtNanos = System.nanoTime();
+    try {
+      sessions.get(mover).send("/app/game/" + gameId + "/move", new MoveRequest(
+          move.getFrom().name().toLowerCase(),
+          move.getTo().name().toLowerCase(),
+          promotion(move.getPromotion())));
+    } catch (RuntimeException e) {
+      report.recordError();
+      finish(true);
+      return;
+    }
+    scheduler.schedule(() -> checkTimeout(sentPly), MOVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  private synchronized void onMove(StompSession receiver, Map<?, ?> payload) {
+    if (finished || mover == null) {
+      return;
+    }
+    final long elapsed = System.nanoTime() - sentAtNanos;
+    if (receiver != sessions.get(mover)) {
+      report.recordNanos(Metric.BROADCAST, elapsed);
+      return;
+    }
+    report.recordNanos(Metric.MOVE, elapsed);
+    board.loadFromFen((String) payload.get("fen"));
+    ply++;
+
+    // Spread moves uniformly around the configured rate so games do not move in lockstep
+    final long interval = settings.moveIntervalMillis();
+    final long delay = interval / 2 + random.nextLong(Math.max(1, interval));
+    scheduler.schedule(this::sendMove, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void onClock() {
+    final long now = System.nanoTime();
+    if (lastClockNanos != 0) {
+      report.recordNanos(Metric.CLOCK_INTERVAL, now - lastClockNanos);
+    }
+    lastClockNanos = now;
+  }
+
+  private synchronized void onEnd() {
+    finish(false);
+  }
+
+  private synchronized void checkTimeout(int sentPly) {
+    if (!finished && ply == sentPly) {
+      report.recordTimeout();
+      finish(true);
+    }
+  }
+
+  private void finish(boolean resign) {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    needsResign = resign;
+    for (StompSession.Subscription subscription : subscriptions) {
+      try {
+        subscription.unsubscribe();
+      } catch (RuntimeException e) {
+        // The session is gone, nothing left to unsubscribe from
+      }
+    }
+    scheduler.execute(() -> onFinished.accept(this));
+  }
+
+  private static String promotion(Piece piece) {
+    if (piece == null || piece == Piece.NONE) {
+      return null;
+    }
+    return switch (piece.getPieceType()) {
+      case KNIGHT -> "n";
+      case BISHOP -> "b";
+      case ROOK -> "r";
+      default -> "q";
+    };
+  }
+
+  private static StompFrameHandler handler(Consumer<Map<?, ?>> consumer) {
+    return new StompFrameHandler() {
+      @Override
+      public Type getPayloadType(StompHeaders headers) {
+        return Map.class;
+      }
+
+      @Override
+      public void handleFrame(StompHeaders headers, Object payload) {
+        consumer.accept((Map<?, ?>) payload);
+      }
+    };
+  }
+}
@@ -0,0 +1,87 @@
+package com.checkmate.chess.loadtest;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The REST calls the load driver needs, against the public API.
+ */
+final class ServerApi {
+
+  /**
+   * A registered player.
+   *
+   * @param userId the user ID
+   * @param token the JWT for authenticated endpoints
+   */
+  record Player(UUID userId, String token) {}
+
+  /**
+   * A guest game.
+   *
+   * @param gameId the game ID
+   * @param guestUserId the guest's user ID
+   */
+  record GuestGame(UUID gameId, UUID guestUserId) {}
+
+  private final RestClient rest;
+
+  ServerApi(String baseUrl) {
+    this.rest = RestClient.builder().baseUrl(baseUrl).build();
+  }
+
+  /**
+   * Create a guest game against a computer-named opponent; the driver plays both sides.
+   *
+   * @return the game
+   */
+  GuestGame createGuestGame(String guestUsername) {
+    final Map<?, ?> body = rest.post()
+        .uri("/api/games/guest")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Map.of("guestUsername", guestUsername))
+        .retrieve()
+        .body(Map.class);
+    final Map<?, ?> data = (Map<?, ?>) body.get("data");
+    return new GuestGame(
+        UUID.fromString((String) data.get("gameId")),
+        UUID.fromString((String) data.get("guestUserId")));
+  }
+
+  Player register(String username) {
+    final Map<?, ?> body = rest.post()
+        .uri("/api/auth/register")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Map.of(
+            "email", username + "@loadtest.local",
+            "username", username,
+            "password", "loadtest-password"))
+        .retrieve()
+        .body(Map.class);
+    return new Player(UUID.fromString((String) body.get("userId")), (String) body.get("token"));
+  }
+
+  void joinQueue(Player player, String timeControl) {
+    rest.post()
+        .uri(builder -> builder.path("/api/matchmaking/queue")
+            .queryParam("userId", player.userId())
+            .queryParam("timeControl", timeControl)
+            .build())
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + player.token())
+        .retrieve()
+        .toBodilessEntity();
+  }
+
+  void resign(UUID gameId, UUID playerId) {
+    rest.post()
+        .uri(builder -> builder.path("/api/games/{gameId}/resign")
+            .queryParam("playerId", playerId)
+            .build(gameId))
+        .retrieve()
+        .toBodilessEntity();
+  }
+}
@@ -0,0 +1,320 @@
+package com.checkmate.chess.clock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.model.GameClock;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory clock engine keyed by game ID.
+ * Remaining time is computed from monotonic timestamps, and flag fall is detected by a
+ * timer armed at the exact deadline of the side to move instead of by polling.
+ * The engine never touches the database; persistence is left to the callers, who take a
+ * {@link Checkpoint} before recording what their transaction may still roll back. Flag falls are
+ * handed to their listeners on a virtual thread each, so a listener waiting on the database
+ * does not hold up the timer, and the deadlines of other games, behind it. Until a listener has
+ * ended the game and cleared the flag, the game counts as flagged: moves are refused and its
+ * clock is not brought back.
+ */
+@Component
+public class ClockEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClockEngine.class);
+
+  private final ConcurrentMap<UUID, LiveClock> clocks = new ConcurrentHashMap<>();
+  private final ConcurrentMap<UUID, ScheduledFuture<?>> flagTimers = new ConcurrentHashMap<>();
+  private final Set<UUID> flagged = ConcurrentHashMap.newKeySet();
+  private final ScheduledThreadPoolExecutor flagTimer;
+  private final ExecutorService flagHandlers;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public ClockEngine(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+    this.flagTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "clock-flag-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.flagTimer.setRemoveOnCancelPolicy(true);
+    this.flagHandlers = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("clock-flag-", 0).factory());
+  }
+
+  /**
+   * Start tracking a clock, resuming from its persisted state.
+   *
+   * @param clock the persisted clock
+   */
+  public void start(GameClock clock) {
+    final LiveClock liveClock = new LiveClock(
+        clock.getGameId(),
+        clock.getWhiteTimeMs(),
+        clock.getBlackTimeMs(),
+        clock.getIncrementMs(),
+        clock.getDelayMs(),
+        clock.getCurrentTurn(),
+        clock.isPaused(),
+        System.nanoTime());
+    clocks.put(clock.getGameId(), liveClock);
+    armFlagTimer(liveClock);
+  }
+
+  public boolean isRunning(UUID gameId) {
+    return clocks.containsKey(gameId);
+  }
+
+  public Set<UUID> gameIds() {
+    return Set.copyOf(clocks.keySet());
+  }
+
+  /**
+   * Check whether a flag has fallen in a game that has not been ended on time yet.
+   *
+   * @param gameId the game ID
+   * @return true from the flag fall until {@link #clearFlag}
+   */
+  public boolean isFlagged(UUID gameId) {
+    return flagged.contains(gameId);
+  }
+
+  /**
+   * Forget a flag fall once the game has been ended on time, or left to the instance owning it.
+   *
+   * @param gameId the game ID
+   */
+  public void clearFlag(UUID gameId) {
+    flagged.remove(gameId);
+  }
+
+  /**
+   * Record a move: charge the mover, add the increment and start the opponent's clock.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @return the clock after the move, empty if the game has no running clock
+   * @throws IllegalStateException if the mover's flag has already fallen or it is not their turn
+   */
+  public Optional<ClockSnapshot> recordMove(UUID gameId, String player) {
+    return recordMove(gameId, player, 0);
+  }
+
+  /**
+   * Record a move, taking a lag compensation credit off the think time charged.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @param creditMs network transit credited to the mover, see {@link LagCompensator}
+   * @return the clock after the move, empty if the game has no running clock
+   * @throws IllegalStateException if the mover's flag has already fallen or it is not their turn
+   */
+  public Optional<ClockSnapshot> recordMove(UUID gameId, String player, long creditMs) {
+    final LiveClock liveClock = clocks.get(gameId);
+    if (liveClock == null) {
+      if (flagged.contains(gameId)) {
+        throw new IllegalStateException("Time has expired");
+      }
+      return Optional.empty();
+    }
+
+    final ClockSnapshot snapshot;
+    synchronized (liveClock) {
+      final long now = System.nanoTime();
+      if (liveClock.isFlagged(now)) {
+        throw new IllegalStateException("Time has expired");
+      }
+      snapshot = liveClock.recordMove(player, now, creditMs);
+    }
+    armFlagTimer(liveClock);
+    return Optional.of(snapshot);
+  }
+
+  /**
+   * Record a premove: like {@link #recordMove}, but the mover is charged no think time since
+   * the move was played the moment the turn started.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @return the clock after the move, empty if the game has no running clock
+   * @throws IllegalStateException if the mover's flag has already fallen or it is not their turn
+   */
+  public Optional<ClockSnapshot> recordPremove(UUID gameId, String player) {
+    // The whole think time is credited
+    return recordMove(gameId, player, Long.MAX_VALUE);
+  }
+
+  public Optional<ClockSnapshot> snapshot(UUID gameId) {
+    final LiveClock liveClock = clocks.get(gameId);
+    return liveClock == null ? Optional.empty() : Optional.of(liveClock.snapshot(System.nanoTime()));
+  }
+
+  /**
+   * Snapshot every running clock.
+   *
+   * @return snapshots keyed by game ID
+   */
+  public Map<UUID, ClockSnapshot> snapshots() {
+    final long now = System.nanoTime();
+    final Map<UUID, ClockSnapshot> snapshots = new HashMap<>(clocks.size() * 2);
+    clocks.forEach((gameId, liveClock) -> snapshots.put(gameId, liveClock.snapshot(now)));
+    return snapshots;
+  }
+
+  public void pause(UUID gameId) {
+    final LiveClock liveClock = clocks.get(gameId);
+    if (liveClock != null) {
+      liveClock.pause(System.nanoTime());
+      cancelFlagTimer(gameId);
+    }
+  }
+
+  public void resume(UUID gameId) {
+    final LiveClock liveClock = clocks.get(gameId);
+    if (liveClock != null) {
+      liveClock.resume(System.nanoTime());
+      armFlagTimer(liveClock);
+    }
+  }
+
+  /**
+   * Stop tracking a clock, typically because the game ended.
+   *
+   * @param gameId the game ID
+   * @return the final clock, empty if the game had no running clock
+   */
+  public Optional<ClockSnapshot> stop(UUID gameId) {
+    cancelFlagTimer(gameId);
+    final LiveClock liveClock = clocks.remove(gameId);
+    return liveClock == null ? Optional.empty() : Optional.of(liveClock.snapshot(System.nanoTime()));
+  }
+
+  /**
+   * Capture the clock of a game so that what is recorded on it afterwards can be taken back.
+   *
+   * @param gameId the game ID
+   * @return the checkpoint, of no clock if the game has no running clock
+   */
+  public Checkpoint checkpoint(UUID gameId) {
+    final LiveClock liveClock = clocks.get(gameId);
+    return new Checkpoint(gameId, liveClock, liveClock == null ? null : liveClock.state());
+  }
+
+  /**
+   * Put a clock back to a checkpoint because what was recorded since rolled back. A clock
+   * stopped since runs again and a clock started where there was none stops; a clock started
+   * afresh since, or one whose flag has fallen since, is left alone.
+   *
+   * @param checkpoint the checkpoint
+   */
+  public void rollback(Checkpoint checkpoint) {
+    final LiveClock liveClock = checkpoint.liveClock;
+    if (liveClock == null) {
+      stop(checkpoint.gameId);
+      return;
+    }
+    if (flagged.contains(checkpoint.gameId)
+        || clocks.computeIfAbsent(checkpoint.gameId, id -> liveClock) != liveClock) {
+      return;
+    }
+    liveClock.restore(checkpoint.state);
+    if (liveClock.isPaused()) {
+      cancelFlagTimer(liveClock.getGameId());
+    } else {
+      armFlagTimer(liveClock);
+    }
+  }
+
+  public int size() {
+    return clocks.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flagTimer.shutdownNow();
+    flagHandlers.shutdown();
+  }
+
+  private void armFlagTimer(LiveClock liveClock) {
+    if (liveClock.isPaused()) {
+      return;
+    }
+    final UUID gameId = liveClock.getGameId();
+    final long delayNanos = Math.max(0, liveClock.nanosUntilFlag(System.nanoTime()));
+    final ScheduledFuture<?> timer =
+        flagTimer.schedule(() -> onDeadline(liveClock), delayNanos, TimeUnit.NANOSECONDS);
+    final ScheduledFuture<?> previous = flagTimers.put(gameId, timer);
+    if (previous != null) {
+      previous.cancel(false);
+    }
+  }
+
+  private void cancelFlagTimer(UUID gameId) {
+    final ScheduledFuture<?> timer = flagTimers.remove(gameId);
+    if (timer != null) {
+      timer.cancel(false);
+    }
+  }
+
+  private void onDeadline(LiveClock liveClock) {
+    final UUID gameId = liveClock.getGameId();
+    final ClockSnapshot finalClock;
+    synchronized (liveClock) {
+      final long now = System.nanoTime();
+      if (clocks.get(gameId) != liveClock || liveClock.isPaused()) {
+        return;
+      }
+      if (!liveClock.isFlagged(now)) {
+        // A move or a resume raced the timer; it has already been re-armed
+        return;
+      }
+      finalClock = liveClock.snapshot(now);
+      // Flagged before it stops running, so a move never finds the game without either
+      flagged.add(gameId);
+      clocks.remove(gameId, liveClock);
+    }
+    flagTimers.remove(gameId);
+
+    logger.info("Flag fell for {} in game {}", finalClock.currentTurn(), gameId);
+    flagHandlers.execute(() -> publishFlagFall(gameId, finalClock));
+  }
+
+  private void publishFlagFall(UUID gameId, ClockSnapshot finalClock) {
+    try {
+      eventPublisher.publishEvent(new FlagFallEvent(gameId, finalClock.currentTurn(), finalClock));
+    } catch (RuntimeException e) {
+      logger.error("Error handling flag fall for game {}", gameId, e);
+    }
+  }
+
+  /**
+   * State of the clock of a game at some point, see {@link #checkpoint}.
+   */
+  public static final class Checkpoint {
+
+    private final UUID gameId;
+    private final LiveClock liveClock;
+    private final LiveClock.State state;
+
+    private Checkpoint(UUID gameId, LiveClock liveClock, LiveClock.State state) {
+      this.gameId = gameId;
+      this.liveClock = liveClock;
+      this.state = state;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.checkmate.chess.clock;
+
+/**
+ * Point-in-time view of a running clock.
+ *
+ * @param whiteTimeMs white's remaining time in milliseconds
+ * @param blackTimeMs black's remaining time in milliseconds
+ * @param currentTurn the side whose clock is running, "white" or "black"
+ * @param paused true if the clock is paused
+ */
+public record ClockSnapshot(
+    long whiteTimeMs,
+    long blackTimeMs,
+    String currentTurn,
+    boolean paused) {}
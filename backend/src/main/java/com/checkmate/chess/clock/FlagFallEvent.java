@@ -0,0 +1,12 @@
+package com.checkmate.chess.clock;
+
+import java.util.UUID;
+
+/**
+ * Published by the {@link ClockEngine} when a player's time runs out.
+ *
+ * @param gameId the game ID
+ * @param loser the side that ran out of time, "white" or "black"
+ * @param finalClock the clock at the moment of the flag fall
+ */
+public record FlagFallEvent(UUID gameId, String loser, ClockSnapshot finalClock) {}
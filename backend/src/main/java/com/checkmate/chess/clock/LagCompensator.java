@@ -0,0 +1,190 @@
+package com.checkmate.chess.clock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+import com.checkmate.chess.metrics.GameMetrics;
+
+/**
+ * Credits players the network transit of their moves so that a slow connection does not cost
+ * clock time.
+ * The transit of a move is the time the server measured from broadcasting the opponent's move
+ * to receiving the answer, less the think time the client reports for it. Each credit is capped
+ * at {@code app.clock.lag.max-credit-ms}, and a player can only draw on a quota of
+ * {@code app.clock.lag.quota-ms} that refills by {@code app.clock.lag.quota-refill-ms} per
+ * move, so a client misreporting its think time gains little.
+ * A credit is only drawn from the quota once the move's transaction commits, so a move retried
+ * after a rollback is credited from the same quota again instead of twice.
+ * State lives in memory only and is dropped when the game ends.
+ */
+@Component
+public class LagCompensator {
+
+  private static final Logger logger = LoggerFactory.getLogger(LagCompensator.class);
+
+  private final ConcurrentMap<UUID, GameLag> games = new ConcurrentHashMap<>();
+  private final GameMetrics gameMetrics;
+  private final long maxCreditMs;
+  private final long quotaMs;
+  private final long quotaRefillMs;
+
+  public LagCompensator(
+      GameMetrics gameMetrics,
+      @Value("${app.clock.lag.max-credit-ms:500}") long maxCreditMs,
+      @Value("${app.clock.lag.quota-ms:2000}") long quotaMs,
+      @Value("${app.clock.lag.quota-refill-ms:250}") long quotaRefillMs) {
+    this.gameMetrics = gameMetrics;
+    this.maxCreditMs = Math.max(0, maxCreditMs);
+    this.quotaMs = Math.max(0, quotaMs);
+    this.quotaRefillMs = Math.max(0, quotaRefillMs);
+  }
+
+  /**
+   * Take the time of a move's broadcast as the start of the opponent's transit.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMoveMade(MoveMadeEvent event) {
+    recordBroadcast(event.gameId(), System.nanoTime());
+  }
+
+  /**
+   * Work out the credit for a move that just arrived and draw it from the mover's quota once
+   * the move commits.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @param clientThinkMs the think time the client measured, null if it sent none
+   * @return the milliseconds to take off the time charged, 0 without a report to compare
+   */
+  public long credit(UUID gameId, String player, Long clientThinkMs) {
+    return credit(gameId, player, clientThinkMs, System.nanoTime());
+  }
+
+  void recordBroadcast(UUID gameId, long nowNanos) {
+    final GameLag game = games.computeIfAbsent(gameId, id -> new GameLag());
+    synchronized (game) {
+      game.broadcastNanos = nowNanos;
+    }
+  }
+
+  long credit(UUID gameId, String player, Long clientThinkMs, long nowNanos) {
+    // Without a broadcast of the opponent's move there is nothing to measure from
+    final GameLag game = games.get(gameId);
+    if (game == null || clientThinkMs == null) {
+      return 0;
+    }
+
+    final long creditMs;
+    final long transitMs;
+    synchronized (game) {
+      final long serverMs = TimeUnit.NANOSECONDS.toMillis(nowNanos - game.broadcastNanos);
+      transitMs = Math.max(0, serverMs - Math.max(0, clientThinkMs));
+      creditMs = Math.min(transitMs, Math.min(maxCreditMs, available(game, player)));
+    }
+    afterCommit(() -> draw(game, player, transitMs, creditMs));
+    return creditMs;
+  }
+
+  /**
+   * Look up what a player has been credited so far.
+   *
+   * @param gameId the game ID
+   * @param player "white" or "black"
+   * @return the player's credits, empty before their first compensated move
+   */
+  public Optional<LagStats> stats(UUID gameId, String player) {
+    final GameLag game = games.get(gameId);
+    if (game == null) {
+      return Optional.empty();
+    }
+    synchronized (game) {
+      return Optional.ofNullable(game.players.get(player))
+          .map(lag -> new LagStats(lag.moves, lag.creditedMs, lag.quotaMs));
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(GameEndedEvent event) {
+    final GameLag game = games.remove(event.gameId());
+    if (game == null) {
+      return;
+    }
+    synchronized (game) {
+      game.players.forEach((player, lag) -> {
+        gameMetrics.recordGameLagCredit(lag.creditedMs);
+        logger.debug("Credited {} {} ms of lag over {} moves in game {}",
+            player, lag.creditedMs, lag.moves, event.gameId());
+      });
+    }
+  }
+
+  private void draw(GameLag game, String player, long transitMs, long creditMs) {
+    synchronized (game) {
+      final PlayerLag lag = game.players.computeIfAbsent(player, p -> new PlayerLag(quotaMs));
+      lag.quotaMs = Math.max(0, available(game, player) - creditMs);
+      lag.creditedMs += creditMs;
+      lag.moves++;
+    }
+    gameMetrics.recordLagCompensation(transitMs, creditMs);
+  }
+
+  /**
+   * The quota of a player after the refill for their next move; the caller holds the lock.
+   */
+  private long available(GameLag game, String player) {
+    final PlayerLag lag = game.players.get(player);
+    return lag == null ? quotaMs : Math.min(quotaMs, lag.quotaMs + quotaRefillMs);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  /**
+   * Lag compensation of one player in one game.
+   *
+   * @param moves the moves credited, including those credited nothing
+   * @param creditedMs the total credit
+   * @param quotaMs the credit still available to the next move
+   */
+  public record LagStats(int moves, long creditedMs, long quotaMs) {}
+
+  private static final class GameLag {
+    private long broadcastNanos;
+    private final Map<String, PlayerLag> players = new HashMap<>();
+  }
+
+  private static final class PlayerLag {
+    private long quotaMs;
+    private long creditedMs;
+    private int moves;
+
+    private PlayerLag(long quotaMs) {
+      this.quotaMs = quotaMs;
+    }
+  }
+}
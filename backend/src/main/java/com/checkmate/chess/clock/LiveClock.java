@@ -0,0 +1,153 @@
+package com.checkmate.chess.clock;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory chess clock driven by monotonic timestamps.
+ * Only the side to move has a running clock; its remaining time is derived from the
+ * stored time and the {@link System#nanoTime()} at which its turn started.
+ */
+final class LiveClock {
+
+  private final UUID gameId;
+  private final long incrementMs;
+  private final long delayMs;
+  private long whiteTimeMs;
+  private long blackTimeMs;
+  private String currentTurn;
+  private long turnStartedNanos;
+  private boolean paused;
+
+  LiveClock(
+      final UUID gameId,
+      final long whiteTimeMs,
+      final long blackTimeMs,
+      final long incrementMs,
+      final long delayMs,
+      final String currentTurn,
+      final boolean paused,
+      final long nowNanos) {
+    this.gameId = gameId;
+    this.whiteTimeMs = whiteTimeMs;
+    this.blackTimeMs = blackTimeMs;
+    this.incrementMs = incrementMs;
+    this.delayMs = delayMs;
+    this.currentTurn = currentTurn;
+    this.paused = paused;
+    this.turnStartedNanos = nowNanos;
+  }
+
+  UUID getGameId() {
+    return gameId;
+  }
+
+  synchronized ClockSnapshot snapshot(final long nowNanos) {
+    if ("white".equals(currentTurn)) {
+      return new ClockSnapshot(remaining(whiteTimeMs, nowNanos), blackTimeMs, currentTurn, paused);
+    }
+    return new ClockSnapshot(whiteTimeMs, remaining(blackTimeMs, nowNanos), currentTurn, paused);
+  }
+
+  /**
+   * Charge the elapsed think time to the player, add the increment and start the opponent's clock.
+   */
+  synchronized ClockSnapshot recordMove(final String player, final long nowNanos) {
+    return recordMove(player, nowNanos, 0);
+  }
+
+  /**
+   * Record a move, taking {@code creditMs} off the time charged: the network transit credited
+   * by lag compensation, or everything for a premove.
+   */
+  synchronized ClockSnapshot recordMove(
+      final String player, final long nowNanos, final long creditMs) {
+    if (!player.equals(currentTurn)) {
+      throw new IllegalStateException("Clock of game " + gameId + " runs for " + currentTurn
+          + ", not " + player);
+    }
+    final long charged = paused ? 0 : Math.max(0, chargeableMs(nowNanos) - creditMs);
+    if ("white".equals(player)) {
+      whiteTimeMs = Math.max(0, whiteTimeMs - charged) + incrementMs;
+      currentTurn = "black";
+    } else {
+      blackTimeMs = Math.max(0, blackTimeMs - charged) + incrementMs;
+      currentTurn = "white";
+    }
+    turnStartedNanos = nowNanos;
+    return snapshot(nowNanos);
+  }
+
+  /**
+   * Capture everything a move, pause or resume changes.
+   */
+  synchronized State state() {
+    return new State(whiteTimeMs, blackTimeMs, currentTurn, turnStartedNanos, paused);
+  }
+
+  /**
+   * Put the clock back to a captured state, as if nothing had been recorded since. The side
+   * to move is charged from when its turn originally started.
+   */
+  synchronized void restore(final State state) {
+    whiteTimeMs = state.whiteTimeMs();
+    blackTimeMs = state.blackTimeMs();
+    currentTurn = state.currentTurn();
+    turnStartedNanos = state.turnStartedNanos();
+    paused = state.paused();
+  }
+
+  synchronized void pause(final long nowNanos) {
+    if (paused) {
+      return;
+    }
+    final long charged = chargeableMs(nowNanos);
+    if ("white".equals(currentTurn)) {
+      whiteTimeMs = Math.max(0, whiteTimeMs - charged);
+    } else {
+      blackTimeMs = Math.max(0, blackTimeMs - charged);
+    }
+    paused = true;
+  }
+
+  synchronized void resume(final long nowNanos) {
+    if (paused) {
+      paused = false;
+      turnStartedNanos = nowNanos;
+    }
+  }
+
+  synchronized boolean isFlagged(final long nowNanos) {
+    return !paused && nanosUntilFlag(nowNanos) <= 0;
+  }
+
+  /**
+   * Time left before the side to move runs out, including any delay still to burn.
+   */
+  synchronized long nanosUntilFlag(final long nowNanos) {
+    final long stored = "white".equals(currentTurn) ? whiteTimeMs : blackTimeMs;
+    final long deadline = turnStartedNanos + TimeUnit.MILLISECONDS.toNanos(delayMs + stored);
+    return deadline - nowNanos;
+  }
+
+  synchronized boolean isPaused() {
+    return paused;
+  }
+
+  synchronized String getCurrentTurn() {
+    return currentTurn;
+  }
+
+  record State(
+      long whiteTimeMs, long blackTimeMs, String currentTurn, long turnStartedNanos,
+      boolean paused) {}
+
+  private long remaining(final long storedMs, final long nowNanos) {
+    return paused ? storedMs : Math.max(0, storedMs - chargeableMs(nowNanos));
+  }
+
+  private long chargeableMs(final long nowNanos) {
+    final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(nowNanos - turnStartedNanos);
+    return Math.max(0, elapsedMs - delayMs);
+  }
+}
@@ -0,0 +1,51 @@
+package com.checkmate.chess.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Name of this instance, used to claim the running clocks and matchmaking queue entries it
+ * serves so that instances sharing a database do not each take them all on after a restart.
+ * A single instance may leave {@code app.node.id} unset. Once instances share a broker
+ * ({@code app.websocket.broker.mode} other than {@code simple}) each needs a name that is
+ * unique and survives restarts, and startup fails without one.
+ */
+@Component
+public class NodeIdentity {
+
+  static final String STANDALONE = "standalone";
+
+  private final String id;
+
+  public NodeIdentity(
+      @Value("${app.node.id:}") final String id,
+      @Value("${app.websocket.broker.mode:simple}") final String brokerMode) {
+    if (id != null && !id.isBlank()) {
+      this.id = id.trim();
+    } else if ("simple".equals(brokerMode)) {
+      this.id = STANDALONE;
+    } else {
+      throw new IllegalStateException("app.node.id must name this instance when "
+          + "app.websocket.broker.mode is '" + brokerMode + "'");
+    }
+  }
+
+  public String id() {
+    return id;
+  }
+
+  /**
+   * Whether this is the only instance, so nothing it runs can be claimed by another.
+   */
+  public boolean isStandalone() {
+    return STANDALONE.equals(id);
+  }
+
+  /**
+   * Check whether this instance owns something claimed by {@code owner}; unclaimed rows,
+   * written before instances claimed them, belong to whoever takes them first.
+   */
+  public boolean owns(final String owner) {
+    return owner == null || id.equals(owner);
+  }
+}
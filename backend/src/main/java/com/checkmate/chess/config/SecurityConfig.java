@@ -4,18 +4,24 @@ import com.checkmate.chess.exception.SecurityConfigurationException;
 import com.checkmate.chess.security.JwtAuthenticationFilter;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -27,9 +33,47 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+  private static final String METRICS_ROLE = "METRICS";
+
   private final JwtAuthenticationFilter jwtAuthFilter;
   private final UserDetailsService userDetailsService;
 
+  @Value("${app.metrics.scrape-username:prometheus}")
+  private String scrapeUsername;
+
+  @Value("${app.metrics.scrape-password:}")
+  private String scrapePassword;
+
+  /**
+   * The Prometheus endpoint is only served to the scraper, over HTTP Basic with the credentials
+   * in {@code app.metrics.scrape-username} and {@code app.metrics.scrape-password}. Without a
+   * password it is closed.
+   */
+  @Bean
+  @Order(1)
+  public SecurityFilterChain metricsSecurityFilterChain(final HttpSecurity http) {
+    try {
+      http.securityMatcher("/actuator/prometheus")
+          .csrf(csrf -> csrf.disable())
+          .authorizeHttpRequests(
+              auth -> {
+                if (scrapePassword.isBlank()) {
+                  auth.anyRequest().denyAll();
+                } else {
+                  auth.anyRequest().hasRole(METRICS_ROLE);
+                }
+              })
+          .httpBasic(Customizer.withDefaults())
+          .sessionManagement(
+              session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+          .authenticationManager(new ProviderManager(scrapeAuthenticationProvider()));
+
+      return http.build();
+    } catch (Exception e) {
+      throw new SecurityConfigurationException("Failed to configure metrics security", e);
+    }
+  }
+
   @Bean
   @SuppressWarnings("Convert2MethodRef")
   public SecurityFilterChain securityFilterChain(final HttpSecurity http) {
@@ -38,7 +82,9 @@ public class SecurityConfig {
           .cors(cors -> cors.configurationSource(corsConfigurationSource()))
           .authorizeHttpRequests(
               auth ->
-                  auth.requestMatchers(
+                  auth.requestMatchers("/api/games/pgn")
+                      .authenticated()
+                      .requestMatchers(
                           "/api/auth/**",
                           "/api/games/guest/**",
                           "/api/games/**",
@@ -65,6 +111,19 @@ public class SecurityConfig {
     return authProvider;
   }
 
+  private AuthenticationProvider scrapeAuthenticationProvider() {
+    final var users = new InMemoryUserDetailsManager();
+    if (!scrapePassword.isBlank()) {
+      users.createUser(User.withUsername(scrapeUsername)
+          .password(passwordEncoder().encode(scrapePassword))
+          .roles(METRICS_ROLE)
+          .build());
+    }
+    final var authProvider = new DaoAuthenticationProvider(users);
+    authProvider.setPasswordEncoder(passwordEncoder());
+    return authProvider;
+  }
+
   @Bean
   public AuthenticationManager authenticationManager(final AuthenticationConfiguration config) {
     try {
@@ -1,18 +1,84 @@
 package com.checkmate.chess.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.checkmate.chess.metrics.WebSocketMetrics;
+import com.checkmate.chess.security.StompAuthenticationInterceptor;
+import com.checkmate.chess.websocket.PostgresBrokerFanout;
+
+/**
+ * STOMP over WebSocket configuration.
+ * The broker behind {@code /topic} and {@code /queue} is chosen with
+ * {@code app.websocket.broker.mode}:
+ * <ul>
+ *   <li>{@code simple}: the in-memory broker; subscriptions are local to one instance</li>
+ *   <li>{@code relay}: an external STOMP broker (e.g. ActiveMQ Artemis or RabbitMQ) shared by
+ *       all instances, at {@code app.websocket.broker.relay.*}</li>
+ *   <li>{@code postgres}: the in-memory broker on every instance, with messages fanned out to
+ *       the others over LISTEN/NOTIFY ({@link PostgresBrokerFanout})</li>
+ * </ul>
+ * Sessions authenticate with the bearer token of their CONNECT frame
+ * ({@link StompAuthenticationInterceptor}).
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+  private static final String[] BROKER_PREFIXES = {"/topic", "/queue"};
+
+  private final WebSocketMetrics webSocketMetrics;
+  private final StompAuthenticationInterceptor stompAuthentication;
+  private final ObjectProvider<PostgresBrokerFanout> brokerFanout;
+  private final String brokerMode;
+  private final String relayHost;
+  private final int relayPort;
+  private final String relayLogin;
+  private final String relayPasscode;
+
+  public WebSocketConfig(
+      final WebSocketMetrics webSocketMetrics,
+      final StompAuthenticationInterceptor stompAuthentication,
+      final ObjectProvider<PostgresBrokerFanout> brokerFanout,
+      @Value("${app.websocket.broker.mode:simple}") final String brokerMode,
+      @Value("${app.websocket.broker.relay.host:localhost}") final String relayHost,
+      @Value("${app.websocket.broker.relay.port:61613}") final int relayPort,
+      @Value("${app.websocket.broker.relay.login:guest}") final String relayLogin,
+      @Value("${app.websocket.broker.relay.passcode:guest}") final String relayPasscode) {
+    this.webSocketMetrics = webSocketMetrics;
+    this.stompAuthentication = stompAuthentication;
+    this.brokerFanout = brokerFanout;
+    this.brokerMode = brokerMode;
+    this.relayHost = relayHost;
+    this.relayPort = relayPort;
+    this.relayLogin = relayLogin;
+    this.relayPasscode = relayPasscode;
+  }
+
   @Override
   public void configureMessageBroker(final MessageBrokerRegistry config) {
-    config.enableSimpleBroker("/topic", "/queue");
+    switch (brokerMode) {
+      case "simple" -> config.enableSimpleBroker(BROKER_PREFIXES);
+      case "relay" -> config.enableStompBrokerRelay(BROKER_PREFIXES)
+          .setRelayHost(relayHost)
+          .setRelayPort(relayPort)
+          .setClientLogin(relayLogin)
+          .setClientPasscode(relayPasscode)
+          .setSystemLogin(relayLogin)
+          .setSystemPasscode(relayPasscode);
+      case "postgres" -> {
+        config.enableSimpleBroker(BROKER_PREFIXES);
+        config.configureBrokerChannel().interceptors(brokerFanout.getObject());
+      }
+      default -> throw new IllegalStateException("Unknown app.websocket.broker.mode '"
+          + brokerMode + "', expected simple, relay or postgres");
+    }
     config.setApplicationDestinationPrefixes("/app");
   }
 
@@ -23,5 +89,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         .setAllowedOrigins("http://localhost:5173", "http://localhost:5174", "http://localhost:3000")
         .withSockJS();
   }
-}
 
+  @Override
+  public void configureClientInboundChannel(final ChannelRegistration registration) {
+    registration.interceptors(stompAuthentication);
+  }
+
+  @Override
+  public void configureClientOutboundChannel(final ChannelRegistration registration) {
+    registration.interceptors(webSocketMetrics);
+  }
+}
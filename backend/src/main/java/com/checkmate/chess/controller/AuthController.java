@@ -48,7 +48,7 @@ public class AuthController {
             );
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-            String token = jwtService.generateToken(userDetails);
+            String token = jwtService.generateToken(user.getId(), userDetails);
 
             AuthResponse response = new AuthResponse();
             response.setToken(token);
@@ -84,7 +84,7 @@ public class AuthController {
 
         User user = userOpt.get();
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user.getId(), userDetails);
 
         AuthResponse response = new AuthResponse();
         response.setToken(token);
@@ -1,17 +1,30 @@
 package com.checkmate.chess.controller;
 
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.checkmate.chess.dto.CreateComputerGameRequest;
 import com.checkmate.chess.dto.CreateComputerGameResponse;
@@ -20,15 +33,18 @@ import com.checkmate.chess.dto.CreateGuestGameResponse;
 import com.checkmate.chess.dto.CreateInvitationRequest;
 import com.checkmate.chess.dto.CreateInvitationResponse;
 import com.checkmate.chess.dto.GameStateResponse;
+import com.checkmate.chess.dto.GameSyncResponse;
 import com.checkmate.chess.dto.JoinInvitationResponse;
 import com.checkmate.chess.dto.MoveDto;
 import com.checkmate.chess.dto.SuccessResponse;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.GameInvitation;
+import com.checkmate.chess.security.JwtPrincipal;
 import com.checkmate.chess.service.GameService;
+import com.checkmate.chess.service.GameSyncService;
 import com.checkmate.chess.service.InvitationService;
 import com.checkmate.chess.service.PgnService;
-import com.checkmate.chess.service.UserService;
+import com.checkmate.chess.service.UserCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -37,10 +53,14 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class GameController {
 
+  private static final int EXPORT_BUFFER_BYTES = 64 * 1024;
+  private static final LocalDate EXPORT_END_OF_TIME = LocalDate.of(9999, 12, 31);
+
   private final GameService gameService;
   private final InvitationService invitationService;
-  private final UserService userService;
+  private final UserCache userCache;
   private final PgnService pgnService;
+  private final GameSyncService gameSyncService;
 
   @PostMapping("/guest")
   public ResponseEntity<SuccessResponse<CreateGuestGameResponse>> createGuestGame(
@@ -61,11 +81,15 @@ public class GameController {
   }
 
   private UUID extractUserId(final Authentication authentication) {
-    // The JWT token contains the email as the subject
+    // Current tokens carry the user ID as a signed claim
+    if (authentication.getPrincipal() instanceof JwtPrincipal principal
+        && principal.isSelfContained()) {
+      return principal.userId();
+    }
+
+    // Older tokens only carry the email as the subject
     final String email = authentication.getName();
-    
-    // Look up the user by email to get the UUID
-    final var user = userService.getUserByEmail(email)
+    final var user = userCache.findByEmail(email)
         .orElseThrow(() -> new IllegalStateException("User not found for email: " + email));
     
     return user.getId();
@@ -83,6 +107,17 @@ public class GameController {
     return ResponseEntity.ok(new SuccessResponse<>("Moves retrieved successfully", moves));
   }
 
+  /**
+   * Catch a reconnecting client up: the moves after {@code since} while they are still
+   * buffered, otherwise the full game state and move list.
+   */
+  @GetMapping("/{gameId}/sync")
+  public ResponseEntity<SuccessResponse<GameSyncResponse>> syncGame(
+      @PathVariable final UUID gameId, @RequestParam(defaultValue = "0") final int since) {
+    final GameSyncResponse response = gameSyncService.sync(gameId, since);
+    return ResponseEntity.ok(new SuccessResponse<>("Game synchronized", response));
+  }
+
   @PostMapping("/{gameId}/resign")
   public ResponseEntity<SuccessResponse<Void>> resignGame(
       @PathVariable final UUID gameId, @RequestParam final UUID playerId) {
@@ -135,5 +170,59 @@ public class GameController {
         .header("Content-Disposition", "attachment; filename=\"game-" + gameId + ".pgn\"")
         .body(pgn);
   }
-}
 
+  /**
+   * Export the caller's finished games as one PGN stream, optionally only those created in a
+   * date range. The games are written while they are read, so the response starts at once and
+   * its size is not limited by server memory. Clients sending {@code Accept-Encoding: gzip} get
+   * the stream gzip-compressed.
+   *
+   * @param userId the player whose games to export; defaults to the caller, who may not ask
+   *     for anyone else
+   * @param from the first creation date, inclusive
+   * @param to the last creation date, inclusive
+   */
+  @GetMapping("/pgn")
+  public ResponseEntity<StreamingResponseBody> exportPgnStream(
+      @RequestParam(required = false) final UUID userId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate to,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          final String acceptEncoding,
+      final Authentication authentication) {
+    final UUID callerId = extractUserId(authentication);
+    if (userId != null && !userId.equals(callerId)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    final LocalDateTime start = (from != null ? from : LocalDate.EPOCH).atStartOfDay();
+    final LocalDateTime end = (to != null ? to.plusDays(1) : EXPORT_END_OF_TIME).atStartOfDay();
+    if (!start.isBefore(end)) {
+      return ResponseEntity.badRequest().build();
+    }
+    final boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+    final StreamingResponseBody body = outputStream -> {
+      final OutputStream target = gzip
+          ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_BYTES)
+          : outputStream;
+      final Writer writer = new BufferedWriter(
+          new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_BYTES);
+      pgnService.exportPgn(callerId, start, end, writer);
+      writer.flush();
+      if (target instanceof GZIPOutputStream gzipStream) {
+        gzipStream.finish();
+      }
+    };
+
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_TYPE, "application/x-chess-pgn")
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"games.pgn\"")
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkmate.chess.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.checkmate.chess.dto.SuccessResponse;
+import com.checkmate.chess.pgnimport.PgnImportReport;
+import com.checkmate.chess.pgnimport.PgnImportService;
+
+/**
+ * REST controller for bulk PGN imports.
+ * Only registered with {@code app.pgn-import.enabled=true}; requires authentication.
+ */
+@RestController
+@RequestMapping("/api/import")
+@ConditionalOnProperty(name = "app.pgn-import.enabled", havingValue = "true")
+public class PgnImportController {
+
+  private final PgnImportService pgnImportService;
+
+  public PgnImportController(PgnImportService pgnImportService) {
+    this.pgnImportService = pgnImportService;
+  }
+
+  /**
+   * Import the games of a PGN file sent as the request body. The body is parsed while it
+   * arrives; send it with {@code Content-Encoding: gzip} to upload it compressed.
+   *
+   * @param body the PGN file
+   * @param contentEncoding gzip for a compressed body
+   * @return counts of imported and rejected games
+   * @throws IOException if the body cannot be read
+   */
+  @PostMapping("/pgn")
+  public ResponseEntity<SuccessResponse<PgnImportReport>> importPgn(
+      InputStream body,
+      @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+      throws IOException {
+    final InputStream pgn = "gzip".equalsIgnoreCase(contentEncoding)
+        ? new GZIPInputStream(body, 64 * 1024)
+        : body;
+    final PgnImportReport report = pgnImportService.importPgn(pgn);
+    return ResponseEntity.ok(new SuccessResponse<>("PGN imported", report));
+  }
+}
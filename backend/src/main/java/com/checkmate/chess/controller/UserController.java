@@ -6,7 +6,8 @@ import com.checkmate.chess.dto.UserStatsResponse;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.User;
 import com.checkmate.chess.repository.GameRepository;
-import com.checkmate.chess.service.UserService;
+import com.checkmate.chess.security.JwtPrincipal;
+import com.checkmate.chess.service.UserCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,17 +19,18 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
 public class UserController {
 
-    private final UserService userService;
+    private final UserCache userCache;
     private final GameRepository gameRepository;
 
-    public UserController(UserService userService, GameRepository gameRepository) {
-        this.userService = userService;
+    public UserController(UserCache userCache, GameRepository gameRepository) {
+        this.userCache = userCache;
         this.gameRepository = gameRepository;
     }
 
@@ -45,7 +47,7 @@ public class UserController {
         }
 
         String email = authentication.getName();
-        Optional<User> userOpt = userService.getUserByEmail(email);
+        Optional<User> userOpt = userCache.findByEmail(email);
 
         if (userOpt.isEmpty()) {
             ErrorResponse error = new ErrorResponse(
@@ -88,10 +90,9 @@ public class UserController {
             return ResponseEntity.status(401).body(error);
         }
 
-        String email = authentication.getName();
-        Optional<User> userOpt = userService.getUserByEmail(email);
+        Optional<UUID> userId = resolveUserId(authentication);
 
-        if (userOpt.isEmpty()) {
+        if (userId.isEmpty()) {
             ErrorResponse error = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
                 "Not Found",
@@ -101,11 +102,10 @@ public class UserController {
             return ResponseEntity.status(404).body(error);
         }
 
-        User user = userOpt.get();
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Game> games = gameRepository.findByWhitePlayerIdOrBlackPlayerId(
-            user.getId(), 
-            user.getId(), 
+            userId.get(), 
+            userId.get(), 
             pageable
         );
 
@@ -125,7 +125,7 @@ public class UserController {
         }
 
         String email = authentication.getName();
-        Optional<User> userOpt = userService.getUserByEmail(email);
+        Optional<User> userOpt = userCache.findByEmail(email);
 
         if (userOpt.isEmpty()) {
             ErrorResponse error = new ErrorResponse(
@@ -154,4 +154,14 @@ public class UserController {
 
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Resolve the user ID from the token claims, falling back to a cached lookup.
+     */
+    private Optional<UUID> resolveUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal && principal.isSelfContained()) {
+            return Optional.of(principal.userId());
+        }
+        return userCache.findByEmail(authentication.getName()).map(User::getId);
+    }
 }
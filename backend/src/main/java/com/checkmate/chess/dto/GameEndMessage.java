@@ -0,0 +1,10 @@
+package com.checkmate.chess.dto;
+
+/**
+ * DTO for game end notifications sent via WebSocket.
+ */
+public record GameEndMessage(
+    String result,
+    String reason,
+    String winner
+) {}
@@ -0,0 +1,24 @@
+package com.checkmate.chess.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State a reconnecting client needs to catch up with a game.
+ * Either {@code moves} holds the moves it missed, or, when those are no longer buffered,
+ * {@code snapshot} is true and {@code state} and {@code history} describe the whole game.
+ *
+ * @param gameId the game ID
+ * @param seq the seq of the last move included; later broadcasts continue from it
+ * @param snapshot true if the response is a full snapshot rather than a delta
+ * @param moves the missed moves in order, null for a snapshot
+ * @param state the game state, null for a delta
+ * @param history every move of the game, null for a delta
+ */
+public record GameSyncResponse(
+    UUID gameId,
+    int seq,
+    boolean snapshot,
+    List<MakeMoveResponse> moves,
+    GameStateResponse state,
+    List<MoveDto> history) {}
@@ -1,4 +1,4 @@
 package com.checkmate.chess.dto;
 
-public record MakeMoveRequest(String from, String to, String promotion, String difficulty) {}
-
+public record MakeMoveRequest(
+    String from, String to, String promotion, String difficulty, Long thinkTimeMs) {}
@@ -1,5 +1,15 @@
 package com.checkmate.chess.dto;
 
+/**
+ * A move as returned to the mover and broadcast to the game's subscribers.
+ *
+ * @param seq the game's ply count after this move; increases by one per move, so a client
+ *     that knows the last seq it applied can ask for exactly the moves it missed
+ */
 public record MakeMoveResponse(
-    String algebraicNotation, String fen, boolean isCheckmate, boolean isStalemate, boolean isCheck) {}
-
+    String algebraicNotation,
+    String fen,
+    boolean isCheckmate,
+    boolean isStalemate,
+    boolean isCheck,
+    int seq) {}
@@ -0,0 +1,14 @@
+package com.checkmate.chess.dto;
+
+import java.util.UUID;
+
+/**
+ * DTO for match found notifications sent via WebSocket to each paired player.
+ */
+public record MatchFoundMessage(
+    UUID gameId,
+    String color,
+    UUID whitePlayerId,
+    UUID blackPlayerId,
+    String timeControl
+) {}
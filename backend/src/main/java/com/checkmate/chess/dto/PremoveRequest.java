@@ -0,0 +1,11 @@
+package com.checkmate.chess.dto;
+
+/**
+ * A premove, or its cancellation, sent by a player waiting for the opponent's move.
+ * The side is the sender's seat in the game, so the request does not name it.
+ *
+ * @param from the origin square, ignored on cancellation
+ * @param to the target square, ignored on cancellation
+ * @param promotion the promotion piece, queen when absent
+ */
+public record PremoveRequest(String from, String to, String promotion) {}
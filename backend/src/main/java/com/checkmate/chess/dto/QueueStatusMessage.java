@@ -0,0 +1,13 @@
+package com.checkmate.chess.dto;
+
+/**
+ * DTO for matchmaking queue status sent via WebSocket while a player waits.
+ * {@code estimatedWaitMs} is null until a pair has formed in the time control.
+ */
+public record QueueStatusMessage(
+    String timeControl,
+    Integer position,
+    Integer queueSize,
+    Long waitedMs,
+    Long estimatedWaitMs
+) {}
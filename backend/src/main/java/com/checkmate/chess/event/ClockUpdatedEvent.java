@@ -0,0 +1,13 @@
+package com.checkmate.chess.event;
+
+import java.util.UUID;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+
+/**
+ * Published when a clock changes outside the regular broadcast tick: after a move and on flag fall.
+ *
+ * @param gameId the game ID
+ * @param clock the clock after the change
+ */
+public record ClockUpdatedEvent(UUID gameId, ClockSnapshot clock) {}
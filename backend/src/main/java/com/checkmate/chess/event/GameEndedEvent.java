@@ -0,0 +1,23 @@
+package com.checkmate.chess.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a game finishes by checkmate, draw, resignation or timeout.
+ *
+ * @param gameId the game ID
+ * @param gameType the game type
+ * @param whitePlayerId the white player ID
+ * @param blackPlayerId the black player ID
+ * @param result the stored game result
+ * @param reason the end reason
+ * @param winner "white", "black", or "draw"
+ */
+public record GameEndedEvent(
+    UUID gameId,
+    String gameType,
+    UUID whitePlayerId,
+    UUID blackPlayerId,
+    String result,
+    String reason,
+    String winner) {}
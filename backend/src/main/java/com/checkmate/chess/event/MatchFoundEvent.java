@@ -0,0 +1,14 @@
+package com.checkmate.chess.event;
+
+import java.util.UUID;
+
+/**
+ * Published when the matchmaker has paired two players and their game has been created.
+ *
+ * @param gameId the new game ID
+ * @param whitePlayerId the white player's user ID
+ * @param blackPlayerId the black player's user ID
+ * @param timeControl the time control both players queued for
+ */
+public record MatchFoundEvent(
+    UUID gameId, UUID whitePlayerId, UUID blackPlayerId, String timeControl) {}
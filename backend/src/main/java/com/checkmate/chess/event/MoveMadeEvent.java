@@ -0,0 +1,18 @@
+package com.checkmate.chess.event;
+
+import java.util.UUID;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+
+/**
+ * Published when a move has been applied to a game.
+ * Listeners that talk to clients or start follow-up work should run after commit.
+ *
+ * @param gameId the game ID
+ * @param gameType the game type, e.g. "COMPUTER" or "ranked"
+ * @param timeControl the time control, or the difficulty for computer games
+ * @param playerColor the side that moved, "white" or "black"
+ * @param move the move as sent to clients
+ */
+public record MoveMadeEvent(
+    UUID gameId, String gameType, String timeControl, String playerColor, MakeMoveResponse move) {}
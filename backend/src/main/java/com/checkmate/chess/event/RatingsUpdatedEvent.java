@@ -0,0 +1,12 @@
+package com.checkmate.chess.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when a batch of game results has been applied to the players' ratings.
+ * Listeners that drop cached users should run after commit.
+ *
+ * @param playerIds the players whose rating or stats changed
+ */
+public record RatingsUpdatedEvent(Set<UUID> playerIds) {}
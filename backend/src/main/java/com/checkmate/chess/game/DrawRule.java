@@ -0,0 +1,27 @@
+package com.checkmate.chess.game;
+
+/**
+ * Draw rules detected on the move path, in the order they are checked after a move.
+ * The automatic rules (fivefold, seventy-five-move) come before the claimable ones so the
+ * recorded reason is the strongest that applies.
+ * Every rule here ends the game as soon as it applies, including threefold repetition and the
+ * fifty-move rule, which FIDE leaves to a claim by the player to move. That is intentional:
+ * there is no arbiter or claim flow, so the server claims the draw on the players' behalf the
+ * moment a claim would be valid, as most online play does.
+ */
+public enum DrawRule {
+  FIVEFOLD_REPETITION("Fivefold repetition"),
+  SEVENTY_FIVE_MOVE_RULE("Seventy-five-move rule"),
+  THREEFOLD_REPETITION("Threefold repetition"),
+  FIFTY_MOVE_RULE("Fifty-move rule");
+
+  private final String reason;
+
+  DrawRule(final String reason) {
+    this.reason = reason;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+}
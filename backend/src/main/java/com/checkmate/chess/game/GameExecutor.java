@@ -0,0 +1,152 @@
+package com.checkmate.chess.game;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single writer per game: every state change of a game goes through the game's mailbox, a
+ * queue drained by one virtual thread at a time, so moves of one game are applied strictly one
+ * after the other without database locks. Games do not share threads, so a change waiting on
+ * the database only holds up its own game while all others proceed in parallel; a mailbox is
+ * dropped as soon as it runs empty, so idle games cost nothing.
+ */
+@Component
+public class GameExecutor {
+
+  private final ConcurrentMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+  private final ThreadLocal<UUID> ownedGame = new ThreadLocal<>();
+  private volatile boolean shutdown;
+
+  /**
+   * Run a task on the thread owning a game and wait for its result.
+   * A task already running on that thread runs inline, so game code may call back in.
+   *
+   * @param gameId the game ID
+   * @param task the task
+   * @return the task's result
+   * @throws RuntimeException whatever the task threw
+   * @throws IllegalStateException if interrupted while waiting; the task may still run
+   * @throws RejectedExecutionException once the executor is shut down
+   */
+  public <T> T call(final UUID gameId, final Supplier<T> task) {
+    if (gameId.equals(ownedGame.get())) {
+      return task.get();
+    }
+
+    final FutureTask<T> future = new FutureTask<>(task::get);
+    submit(gameId, future);
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for game " + gameId, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Run a task on the thread owning a game and wait for it.
+   *
+   * @param gameId the game ID
+   * @param task the task
+   */
+  public void run(final UUID gameId, final Runnable task) {
+    call(gameId, () -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Count the games with tasks queued or running.
+   */
+  public int activeGames() {
+    return mailboxes.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // Queued tasks still run; their callers are waiting for them
+    shutdown = true;
+  }
+
+  private void submit(final UUID gameId, final FutureTask<?> task) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Game executor is shut down");
+    }
+    while (!mailboxes.computeIfAbsent(gameId, Mailbox::new).offer(task)) {
+      // The mailbox ran empty and closed meanwhile; the next one takes the task
+    }
+  }
+
+  /**
+   * Tasks of one game, drained by a virtual thread started when the first one arrives.
+   * Once empty the mailbox closes and leaves the map, so there is never more than one
+   * thread per game.
+   */
+  private final class Mailbox implements Runnable {
+
+    private final UUID gameId;
+    private final Queue<FutureTask<?>> tasks = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+
+    private Mailbox(final UUID gameId) {
+      this.gameId = gameId;
+    }
+
+    private boolean offer(final FutureTask<?> task) {
+      synchronized (this) {
+        if (closed) {
+          return false;
+        }
+        tasks.add(task);
+        if (draining) {
+          return true;
+        }
+        draining = true;
+      }
+      Thread.ofVirtual().name("game-" + gameId).start(this);
+      return true;
+    }
+
+    @Override
+    public void run() {
+      ownedGame.set(gameId);
+      try {
+        while (true) {
+          final FutureTask<?> task;
+          synchronized (this) {
+            task = tasks.poll();
+            if (task == null) {
+              closed = true;
+              mailboxes.remove(gameId, this);
+              return;
+            }
+          }
+          task.run();
+        }
+      } finally {
+        ownedGame.remove();
+      }
+    }
+  }
+}
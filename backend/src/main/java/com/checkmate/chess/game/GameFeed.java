@@ -0,0 +1,139 @@
+package com.checkmate.chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.event.GameEndedEvent;
+
+/**
+ * The last {@code app.game-feed.capacity} moves broadcast for each game, by seq, so a client
+ * that reconnects can catch up on the moves it missed without loading the game's move list.
+ * A ring only holds consecutive moves: a gap (moves broadcast by another instance) restarts it.
+ * Rings are dropped when their game ends or after {@code app.game-feed.idle-minutes} without
+ * a move; callers fall back to a snapshot whenever a ring cannot answer.
+ */
+@Component
+public class GameFeed {
+
+  private final ConcurrentMap<UUID, Ring> rings = new ConcurrentHashMap<>();
+  private final int capacity;
+  private final long idleNanos;
+
+  public GameFeed(
+      @Value("${app.game-feed.capacity:64}") final int capacity,
+      @Value("${app.game-feed.idle-minutes:60}") final long idleMinutes) {
+    this.capacity = Math.max(1, capacity);
+    this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+  }
+
+  /**
+   * Record a move as it is broadcast.
+   *
+   * @param gameId the game ID
+   * @param move the broadcast move
+   */
+  public void record(final UUID gameId, final MakeMoveResponse move) {
+    rings.computeIfAbsent(gameId, id -> new Ring(capacity)).add(move);
+  }
+
+  /**
+   * Moves broadcast after a seq.
+   *
+   * @param gameId the game ID
+   * @param lastSeq the seq of the last move the client applied, 0 for none
+   * @return the moves after {@code lastSeq} in order, possibly none; empty if the feed no
+   *     longer or never held all of them
+   */
+  public Optional<List<MakeMoveResponse>> since(final UUID gameId, final int lastSeq) {
+    final Ring ring = rings.get(gameId);
+    return ring == null ? Optional.empty() : ring.since(lastSeq);
+  }
+
+  /**
+   * Seq of the last move recorded for a game.
+   */
+  public OptionalInt latestSeq(final UUID gameId) {
+    final Ring ring = rings.get(gameId);
+    return ring == null ? OptionalInt.empty() : ring.latestSeq();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(final GameEndedEvent event) {
+    rings.remove(event.gameId());
+  }
+
+  @Scheduled(fixedDelayString = "${app.game-feed.sweep-interval-ms:60000}")
+  public void evictIdle() {
+    final long now = System.nanoTime();
+    rings.values().removeIf(ring -> ring.idleSince(now) > idleNanos);
+  }
+
+  public int size() {
+    return rings.size();
+  }
+
+  /**
+   * Fixed-size buffer of consecutive moves of one game, indexed by seq.
+   */
+  private static final class Ring {
+
+    private final MakeMoveResponse[] moves;
+    // Guarded by this
+    private int firstSeq;
+    private int lastSeq;
+    private long lastRecordNanos = System.nanoTime();
+
+    Ring(final int capacity) {
+      this.moves = new MakeMoveResponse[capacity];
+    }
+
+    synchronized void add(final MakeMoveResponse move) {
+      final int seq = move.seq();
+      if (lastSeq != 0 && seq <= lastSeq) {
+        return;
+      }
+      if (lastSeq == 0 || seq != lastSeq + 1) {
+        firstSeq = seq;
+      }
+      lastSeq = seq;
+      moves[slot(seq)] = move;
+      firstSeq = Math.max(firstSeq, lastSeq - moves.length + 1);
+      lastRecordNanos = System.nanoTime();
+    }
+
+    synchronized Optional<List<MakeMoveResponse>> since(final int seq) {
+      if (seq < firstSeq - 1 || seq > lastSeq) {
+        return Optional.empty();
+      }
+      final List<MakeMoveResponse> missed = new ArrayList<>(lastSeq - seq);
+      for (int next = seq + 1; next <= lastSeq; next++) {
+        missed.add(moves[slot(next)]);
+      }
+      return Optional.of(missed);
+    }
+
+    synchronized OptionalInt latestSeq() {
+      return OptionalInt.of(lastSeq);
+    }
+
+    synchronized long idleSince(final long now) {
+      return now - lastRecordNanos;
+    }
+
+    private int slot(final int seq) {
+      return Math.floorMod(seq, moves.length);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.checkmate.chess.game;
+
+import java.util.UUID;
+
+/**
+ * The parts of a games row that do not change while the game is played, kept on its
+ * {@link LiveGame} so that write-behind moves on a resident game need not load the row.
+ *
+ * @param gameType the game type
+ * @param timeControl the time control
+ * @param whitePlayerId the white player's ID
+ * @param blackPlayerId the black player's ID
+ * @param plyCount the ply count on the row when the game was loaded; the move journal counts
+ *     on from there
+ */
+public record GameInfo(
+    String gameType, String timeControl, UUID whitePlayerId, UUID blackPlayerId, int plyCount) {}
@@ -0,0 +1,105 @@
+package com.checkmate.chess.game;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the changes of a game in a transaction on the game's {@link GameExecutor} thread.
+ * Games and their clocks are versioned: a change that loses to a concurrent writer outside
+ * that thread (the journal flusher, another instance) is rolled back and run again on fresh
+ * state, up to {@code app.persistence.conflict-retries} times, instead of locking rows.
+ * Changes must therefore be safe to repeat after a rollback. Changes that stay in memory run
+ * without a database transaction, but still with its synchronization callbacks.
+ */
+@Component
+public class GameTransactions {
+
+  private static final Logger logger = LoggerFactory.getLogger(GameTransactions.class);
+
+  private final GameExecutor gameExecutor;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate inMemoryTemplate;
+  private final int retries;
+
+  public GameTransactions(
+      final GameExecutor gameExecutor,
+      final PlatformTransactionManager transactionManager,
+      @Value("${app.persistence.conflict-retries:3}") final int retries) {
+    this.gameExecutor = gameExecutor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // Without a transaction to join, SUPPORTS only opens the synchronization scope
+    this.inMemoryTemplate = new TransactionTemplate(transactionManager);
+    this.inMemoryTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+    this.retries = Math.max(0, retries);
+  }
+
+  /**
+   * Run a change of a game and wait for its result.
+   * A caller that already has a transaction keeps the change on its thread and in its
+   * transaction, which cannot follow it elsewhere; ordering and conflicts are then its own.
+   *
+   * @param gameId the game ID
+   * @param change the change
+   * @return the change's result
+   * @throws OptimisticLockingFailureException if the change still conflicts after the retries
+   */
+  public <T> T execute(final UUID gameId, final Supplier<T> change) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return change.get();
+    }
+    return gameExecutor.call(gameId, () -> executeWithRetries(gameId, change));
+  }
+
+  /**
+   * Run a change of a game and wait for it.
+   *
+   * @param gameId the game ID
+   * @param change the change
+   */
+  public void run(final UUID gameId, final Runnable change) {
+    execute(gameId, () -> {
+      change.run();
+      return null;
+    });
+  }
+
+  /**
+   * Run a change of a game that touches no rows, such as a write-behind move on a resident
+   * game, and wait for its result. It runs on the game's thread like {@link #execute}, and
+   * after-commit and rollback callbacks fire as they would there, but no connection is taken.
+   * Rows the change does write after all are written in transactions of their own.
+   *
+   * @param gameId the game ID
+   * @param change the change
+   * @return the change's result
+   */
+  public <T> T executeInMemory(final UUID gameId, final Supplier<T> change) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return change.get();
+    }
+    return gameExecutor.call(gameId, () -> inMemoryTemplate.execute(status -> change.get()));
+  }
+
+  private <T> T executeWithRetries(final UUID gameId, final Supplier<T> change) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> change.get());
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt > retries) {
+          throw e;
+        }
+        logger.debug("Concurrent update of game {}, retrying ({}/{})", gameId, attempt, retries);
+      }
+    }
+  }
+}
@@ -0,0 +1,291 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Resident state of an in-progress game.
+ * Keeps the parsed board and the legal moves of the current position between requests,
+ * so a move is validated, applied and classified without reparsing the FEN.
+ * Repetitions are tracked with the board's 64-bit Zobrist key in a {@link PositionHistory},
+ * and the halfmove clock comes from the board, so draw rules cost O(1) per move.
+ * Each side has one {@link Premove} slot, held here so it is dropped with the game.
+ * Once seeded with the movetext so far, the game extends it with every move, so reading it
+ * does not go through the move rows.
+ */
+public class LiveGame {
+
+  static final int FIFTY_MOVE_PLIES = 100;
+  static final int SEVENTY_FIVE_MOVE_PLIES = 150;
+
+  private final UUID gameId;
+  private final Board board;
+  private final PositionHistory history = new PositionHistory();
+  private List<Move> legalMoves;
+  private String fen;
+  private Premove whitePremove;
+  private Premove blackPremove;
+  private GameInfo info;
+  private StringBuilder movetext;
+  private int movetextPlies;
+
+  public LiveGame(final UUID gameId, final String fen) {
+    this(gameId, fen, List.of());
+  }
+
+  /**
+   * Load a game and replay the positions that can still repeat.
+   *
+   * @param gameId the game ID
+   * @param fen the current position
+   * @param earlierFens positions before the current one since the last irreversible move,
+   *     oldest first; positions older than that are ignored by the halfmove reset anyway
+   */
+  public LiveGame(final UUID gameId, final String fen, final List<String> earlierFens) {
+    this.gameId = gameId;
+    this.board = new Board();
+    for (final String earlierFen : earlierFens) {
+      board.loadFromFen(earlierFen);
+      recordPosition();
+    }
+    this.board.loadFromFen(fen);
+    recordPosition();
+    this.legalMoves = board.legalMoves();
+    // Keep the persisted representation so it can be compared with the games row as-is
+    this.fen = fen;
+  }
+
+  /**
+   * Read the halfmove clock of a FEN without loading a board.
+   *
+   * @param fen the position
+   * @return plies since the last capture or pawn move, 0 if the field is missing
+   */
+  public static int halfmoveClock(final String fen) {
+    final String[] fields = fen.trim().split("\\s+");
+    if (fields.length < 5) {
+      return 0;
+    }
+    try {
+      return Integer.parseInt(fields[4]);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  public UUID getGameId() {
+    return gameId;
+  }
+
+  public synchronized String getFen() {
+    return fen;
+  }
+
+  /**
+   * What the games row says about the game beyond its position.
+   *
+   * @return the game info, empty until attached
+   */
+  public synchronized Optional<GameInfo> getInfo() {
+    return Optional.ofNullable(info);
+  }
+
+  public synchronized void setInfo(final GameInfo info) {
+    this.info = info;
+  }
+
+  /**
+   * The moves so far as PGN movetext, e.g. {@code 1. e4 e5 2. Nf3}.
+   *
+   * @return the movetext, empty until seeded
+   */
+  public synchronized Optional<String> getMovetext() {
+    return movetext == null ? Optional.empty() : Optional.of(movetext.toString());
+  }
+
+  /**
+   * Seed the movetext that later moves are appended to.
+   *
+   * @param movetext the movetext up to the current position
+   * @param plies the number of moves in it
+   */
+  public synchronized void setMovetext(final String movetext, final int plies) {
+    this.movetext = new StringBuilder(movetext);
+    this.movetextPlies = plies;
+  }
+
+  public synchronized String getSideToMove() {
+    return colorOf(board.getSideToMove());
+  }
+
+  /**
+   * Queue a premove for a side that is not to move, replacing its previous one.
+   *
+   * @param color the side, "white" or "black"
+   * @param premove the premove
+   * @throws IllegalStateException if it is that side's turn; its move should be played instead
+   */
+  public synchronized void setPremove(final String color, final Premove premove) {
+    if (color.equals(getSideToMove())) {
+      throw new IllegalStateException("It is " + color + "'s turn");
+    }
+    if ("white".equals(color)) {
+      whitePremove = premove;
+    } else {
+      blackPremove = premove;
+    }
+  }
+
+  /**
+   * Remove and return the premove of the side to move.
+   *
+   * @return the premove to play now, empty if that side queued none
+   */
+  public synchronized Optional<Premove> takePremove() {
+    final Premove premove;
+    if (board.getSideToMove() == Side.WHITE) {
+      premove = whitePremove;
+      whitePremove = null;
+    } else {
+      premove = blackPremove;
+      blackPremove = null;
+    }
+    return Optional.ofNullable(premove);
+  }
+
+  /**
+   * Drop the premove of a side, if any.
+   *
+   * @param color the side, "white" or "black"
+   */
+  public synchronized void cancelPremove(final String color) {
+    if ("white".equals(color)) {
+      whitePremove = null;
+    } else {
+      blackPremove = null;
+    }
+  }
+
+  /**
+   * Validate, apply and classify a move.
+   *
+   * @param from the origin square, e.g. "e7"
+   * @param to the target square, e.g. "e8"
+   * @param promotion the promotion piece ("q", "r", "b", "n"), queen when absent
+   * @return the move outcome
+   * @throws IllegalArgumentException if the move is not legal in the current position
+   */
+  public synchronized MoveResult play(final String from, final String to, final String promotion) {
+    final Move move = findLegalMove(from, to, promotion);
+    if (move == null) {
+      throw new IllegalArgumentException("Illegal move");
+    }
+
+    final String san = SanNotation.describe(board, move, legalMoves);
+    final String playerColor = colorOf(board.getSideToMove());
+
+    board.doMove(move);
+    legalMoves = board.legalMoves();
+    fen = board.getFen();
+    final int repetitions = recordPosition();
+
+    final boolean isCheck = board.isKingAttacked();
+    final boolean noMoves = legalMoves.isEmpty();
+    final String notation = SanNotation.withSuffix(san, isCheck, isCheck && noMoves);
+    appendMovetext(notation);
+
+    return new MoveResult(
+        notation,
+        fen,
+        playerColor,
+        isCheck,
+        isCheck && noMoves,
+        !isCheck && noMoves,
+        noMoves ? null : drawRule(repetitions, board.getHalfMoveCounter()),
+        MoveCodec.encode(move));
+  }
+
+  /**
+   * Rule that draws the game in the current position; mate and stalemate are handled by the
+   * caller and take precedence. Claimable rules are returned too and end the game like the
+   * automatic ones, see {@link DrawRule}.
+   */
+  static DrawRule drawRule(final int repetitions, final int halfmoveClock) {
+    if (repetitions >= 5) {
+      return DrawRule.FIVEFOLD_REPETITION;
+    }
+    if (halfmoveClock >= SEVENTY_FIVE_MOVE_PLIES) {
+      return DrawRule.SEVENTY_FIVE_MOVE_RULE;
+    }
+    if (repetitions >= 3) {
+      return DrawRule.THREEFOLD_REPETITION;
+    }
+    if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+      return DrawRule.FIFTY_MOVE_RULE;
+    }
+    return null;
+  }
+
+  private void appendMovetext(final String notation) {
+    if (movetext == null) {
+      return;
+    }
+    if (movetextPlies > 0) {
+      movetext.append(' ');
+    }
+    if (movetextPlies % 2 == 0) {
+      movetext.append(movetextPlies / 2 + 1).append(". ");
+    }
+    movetext.append(notation);
+    movetextPlies++;
+  }
+
+  private int recordPosition() {
+    return history.record(board.getZobristKey(), board.getHalfMoveCounter() == 0);
+  }
+
+  private Move findLegalMove(final String from, final String to, final String promotion) {
+    final Square fromSquare;
+    final Square toSquare;
+    try {
+      fromSquare = Square.valueOf(from.toUpperCase());
+      toSquare = Square.valueOf(to.toUpperCase());
+    } catch (RuntimeException e) {
+      return null;
+    }
+
+    final PieceType promotionType = promotion == null ? null : promotionType(promotion);
+    for (final Move legalMove : legalMoves) {
+      if (legalMove.getFrom() != fromSquare || legalMove.getTo() != toSquare) {
+        continue;
+      }
+      final Piece promoted = legalMove.getPromotion();
+      if (promoted == Piece.NONE || promotion == null && promoted.getPieceType() == PieceType.QUEEN
+          || promoted.getPieceType() == promotionType) {
+        return legalMove;
+      }
+    }
+    return null;
+  }
+
+  private static PieceType promotionType(final String promotion) {
+    return switch (promotion.toLowerCase()) {
+      case "r" -> PieceType.ROOK;
+      case "b" -> PieceType.BISHOP;
+      case "n" -> PieceType.KNIGHT;
+      default -> PieceType.QUEEN;
+    };
+  }
+
+  private static String colorOf(final Side side) {
+    return side == Side.WHITE ? "white" : "black";
+  }
+}
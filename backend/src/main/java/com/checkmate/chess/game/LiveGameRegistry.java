@@ -0,0 +1,82 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of resident {@link LiveGame} instances, one per in-progress game.
+ * The games row stays the source of truth: a live game whose FEN no longer matches
+ * the persisted one (e.g. after a rolled back move) is rebuilt from the row.
+ */
+@Component
+public class LiveGameRegistry {
+
+  private final ConcurrentMap<UUID, LiveGame> games = new ConcurrentHashMap<>();
+
+  /**
+   * Get the live game for a game, loading it from the persisted FEN when absent or stale.
+   *
+   * @param gameId the game ID
+   * @param persistedFen the current FEN stored on the games row
+   * @return the live game
+   */
+  public LiveGame acquire(final UUID gameId, final String persistedFen) {
+    return acquire(gameId, persistedFen, List::of);
+  }
+
+  /**
+   * Get the live game for a game, replaying recent positions when it has to be rebuilt so
+   * repetitions that started before the rebuild are still counted.
+   *
+   * @param gameId the game ID
+   * @param persistedFen the current FEN stored on the games row
+   * @param earlierFens loads the positions before the current one since the last irreversible
+   *     move, oldest first; only called on a rebuild, never while the map is locked since it
+   *     may query the database
+   * @return the live game
+   */
+  public LiveGame acquire(
+      final UUID gameId, final String persistedFen, final Supplier<List<String>> earlierFens) {
+    List<String> fens = null;
+    while (true) {
+      final LiveGame live = games.get(gameId);
+      if (live != null && live.getFen().equals(persistedFen)) {
+        return live;
+      }
+      if (fens == null) {
+        fens = earlierFens.get();
+      }
+      final LiveGame rebuilt = new LiveGame(gameId, persistedFen, fens);
+      final boolean installed = live == null
+          ? games.putIfAbsent(gameId, rebuilt) == null
+          : games.replace(gameId, live, rebuilt);
+      if (installed) {
+        return rebuilt;
+      }
+      // Another thread installed or replaced the game in the meantime; check it again
+    }
+  }
+
+  public Optional<LiveGame> find(final UUID gameId) {
+    return Optional.ofNullable(games.get(gameId));
+  }
+
+  /**
+   * Drop a game that is no longer in progress.
+   *
+   * @param gameId the game ID
+   */
+  public void evict(final UUID gameId) {
+    games.remove(gameId);
+  }
+
+  public int size() {
+    return games.size();
+  }
+}
@@ -0,0 +1,131 @@
+package com.checkmate.chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * 16-bit move encoding for the moves table.
+ * Bits 0-5 hold the origin square, bits 6-11 the target square and bits 12-14 the
+ * promotion piece type (0 none, 1 knight, 2 bishop, 3 rook, 4 queen). Squares are numbered
+ * a1 = 0 to h8 = 63. The side is implied by the position the move is played from, so a code
+ * only decodes against a board.
+ */
+public final class MoveCodec {
+
+  /** Plies between stored FEN checkpoints; replaying a position costs at most this many moves. */
+  public static final int CHECKPOINT_INTERVAL = 16;
+
+  private static final int SQUARE_MASK = 0x3F;
+  private static final PieceType[] PROMOTIONS = {
+      null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+  };
+
+  private MoveCodec() {
+  }
+
+  public static boolean isCheckpoint(final int ply) {
+    return ply % CHECKPOINT_INTERVAL == 0;
+  }
+
+  /**
+   * Ply of the nearest checkpoint at or before a ply.
+   */
+  public static int checkpointBefore(final int ply) {
+    return ply - ply % CHECKPOINT_INTERVAL;
+  }
+
+  public static short encode(final Move move) {
+    int code = move.getFrom().ordinal() | move.getTo().ordinal() << 6;
+    final Piece promotion = move.getPromotion();
+    if (promotion != null && promotion != Piece.NONE) {
+      code |= promotionIndex(promotion.getPieceType()) << 12;
+    }
+    return (short) code;
+  }
+
+  /**
+   * Decode a move for the side to move on a board.
+   *
+   * @param code the encoded move
+   * @param sideToMove the side playing the move
+   * @return the chesslib move
+   */
+  public static Move decode(final short code, final Side sideToMove) {
+    final Square from = Square.squareAt(code & SQUARE_MASK);
+    final Square to = Square.squareAt(code >> 6 & SQUARE_MASK);
+    final int promotion = code >> 12 & 0x7;
+    if (promotion == 0) {
+      return new Move(from, to);
+    }
+    return new Move(from, to, Piece.make(sideToMove, PROMOTIONS[promotion]));
+  }
+
+  /**
+   * Replay encoded moves from a checkpoint.
+   *
+   * @param checkpointFen the position after the checkpoint ply
+   * @param codes the moves played after the checkpoint, in order
+   * @return the FEN after each of those moves
+   * @throws IllegalStateException if a code is not legal in the position it is replayed in
+   */
+  public static List<String> replay(final String checkpointFen, final List<Short> codes) {
+    final Board board = new Board();
+    board.loadFromFen(checkpointFen);
+    final List<String> fens = new ArrayList<>(codes.size());
+    for (final Short code : codes) {
+      final Move move = decode(code, board.getSideToMove());
+      if (!board.legalMoves().contains(move)) {
+        throw new IllegalStateException("Stored move " + move + " is not legal in " + board.getFen());
+      }
+      board.doMove(move);
+      fens.add(board.getFen());
+    }
+    return fens;
+  }
+
+  /**
+   * Find the move that leads from one position to another, for rows stored before moves were
+   * encoded. Move counters are ignored when comparing positions.
+   *
+   * @param fenBefore the position before the move
+   * @param fenAfter the position after the move
+   * @return the encoded move
+   * @throws IllegalArgumentException if no legal move connects the positions
+   */
+  public static short deriveCode(final String fenBefore, final String fenAfter) {
+    final Board board = new Board();
+    board.loadFromFen(fenBefore);
+    final String target = placementAndState(fenAfter);
+    for (final Move move : board.legalMoves()) {
+      board.doMove(move);
+      final boolean matches = placementAndState(board.getFen()).equals(target);
+      board.undoMove();
+      if (matches) {
+        return encode(move);
+      }
+    }
+    throw new IllegalArgumentException("No legal move from " + fenBefore + " to " + fenAfter);
+  }
+
+  private static String placementAndState(final String fen) {
+    final String[] fields = fen.trim().split("\\s+");
+    // Placement, side to move and castling rights; en passant and counters vary by writer
+    return fields[0] + ' ' + fields[1] + ' ' + fields[2];
+  }
+
+  private static int promotionIndex(final PieceType type) {
+    for (int i = 1; i < PROMOTIONS.length; i++) {
+      if (PROMOTIONS[i] == type) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Not a promotion piece: " + type);
+  }
+}
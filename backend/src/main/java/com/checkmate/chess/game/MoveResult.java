@@ -0,0 +1,24 @@
+package com.checkmate.chess.game;
+
+/**
+ * Outcome of a move applied to a {@link LiveGame}: validation, application and
+ * classification are produced together in a single pass over the position.
+ *
+ * @param algebraicNotation the move in SAN, including check or mate suffix
+ * @param fen the position after the move
+ * @param playerColor the side that made the move, "white" or "black"
+ * @param isCheck true if the side to move is in check
+ * @param isCheckmate true if the side to move is mated
+ * @param isStalemate true if the side to move has no legal move and is not in check
+ * @param drawRule the repetition or move-count rule that draws the game, null if none
+ * @param moveCode the move in {@link MoveCodec} form, as stored in the moves table
+ */
+public record MoveResult(
+    String algebraicNotation,
+    String fen,
+    String playerColor,
+    boolean isCheck,
+    boolean isCheckmate,
+    boolean isStalemate,
+    DrawRule drawRule,
+    short moveCode) {}
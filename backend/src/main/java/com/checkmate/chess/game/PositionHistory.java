@@ -0,0 +1,32 @@
+package com.checkmate.chess.game;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Occurrence counts of Zobrist position keys since the last irreversible move.
+ * A capture or pawn move makes every earlier position unreachable, so the counts are cleared
+ * then; recording a position and reading its count are both constant time.
+ */
+final class PositionHistory {
+
+  private final Map<Long, Integer> occurrences = new HashMap<>();
+
+  /**
+   * Record the position reached by a move.
+   *
+   * @param zobristKey the 64-bit key of the position
+   * @param irreversible true if the move reset the halfmove clock
+   * @return how many times the position has now occurred
+   */
+  int record(final long zobristKey, final boolean irreversible) {
+    if (irreversible) {
+      occurrences.clear();
+    }
+    return occurrences.merge(zobristKey, 1, Integer::sum);
+  }
+
+  int size() {
+    return occurrences.size();
+  }
+}
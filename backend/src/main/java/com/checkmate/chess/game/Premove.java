@@ -0,0 +1,11 @@
+package com.checkmate.chess.game;
+
+/**
+ * A move queued by a player while waiting for the opponent, played by the server as soon as
+ * the opponent has moved. It is only validated then, against the position it is played in.
+ *
+ * @param from the origin square, e.g. "e7"
+ * @param to the target square, e.g. "e5"
+ * @param promotion the promotion piece ("q", "r", "b", "n"), queen when absent
+ */
+public record Premove(String from, String to, String promotion) {}
@@ -0,0 +1,119 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Standard Algebraic Notation (SAN) formatting for chesslib moves.
+ * The body of the notation is computed on the position before the move is played,
+ * the check/mate suffix is appended once the resulting position is known.
+ */
+public final class SanNotation {
+
+  private SanNotation() {
+  }
+
+  /**
+   * Describe a move without its check or mate suffix.
+   *
+   * @param board the position before the move
+   * @param move the legal move to describe
+   * @param legalMoves the legal moves of that position, used for disambiguation
+   * @return the SAN body, e.g. "Nbd7", "exd6" or "O-O"
+   */
+  public static String describe(final Board board, final Move move, final List<Move> legalMoves) {
+    final Square from = move.getFrom();
+    final Square to = move.getTo();
+    final Piece piece = board.getPiece(from);
+    final PieceType pieceType = piece.getPieceType();
+
+    if (pieceType == PieceType.KING && Math.abs(from.getFile().ordinal() - to.getFile().ordinal()) == 2) {
+      return to.getFile().ordinal() > from.getFile().ordinal() ? "O-O" : "O-O-O";
+    }
+
+    final boolean isPawn = pieceType == PieceType.PAWN;
+    final boolean isCapture = board.getPiece(to) != Piece.NONE
+        || (isPawn && from.getFile() != to.getFile());
+
+    final StringBuilder san = new StringBuilder(8);
+
+    if (isPawn) {
+      if (isCapture) {
+        san.append(fileOf(from));
+      }
+    } else {
+      san.append(piece.getFenSymbol().toUpperCase());
+      san.append(disambiguation(board, move, piece, legalMoves));
+    }
+
+    if (isCapture) {
+      san.append('x');
+    }
+
+    san.append(to.toString().toLowerCase());
+
+    if (move.getPromotion() != Piece.NONE) {
+      san.append('=').append(move.getPromotion().getFenSymbol().toUpperCase());
+    }
+
+    return san.toString();
+  }
+
+  /**
+   * Append the check or mate marker to a SAN body.
+   *
+   * @param san the SAN body
+   * @param isCheck true if the move gives check
+   * @param isCheckmate true if the move mates
+   * @return the complete SAN string
+   */
+  public static String withSuffix(final String san, final boolean isCheck, final boolean isCheckmate) {
+    if (isCheckmate) {
+      return san + "#";
+    }
+    return isCheck ? san + "+" : san;
+  }
+
+  private static String disambiguation(
+      final Board board, final Move move, final Piece piece, final List<Move> legalMoves) {
+    final Square from = move.getFrom();
+    boolean ambiguous = false;
+    boolean sameFile = false;
+    boolean sameRank = false;
+
+    for (final Move other : legalMoves) {
+      if (other.getTo() != move.getTo()
+          || other.getFrom() == from
+          || board.getPiece(other.getFrom()) != piece) {
+        continue;
+      }
+      ambiguous = true;
+      sameFile |= other.getFrom().getFile() == from.getFile();
+      sameRank |= other.getFrom().getRank() == from.getRank();
+    }
+
+    if (!ambiguous) {
+      return "";
+    }
+    if (!sameFile) {
+      return fileOf(from);
+    }
+    if (!sameRank) {
+      return rankOf(from);
+    }
+    return from.toString().toLowerCase();
+  }
+
+  private static String fileOf(final Square square) {
+    return square.getFile().getNotation().toLowerCase();
+  }
+
+  private static String rankOf(final Square square) {
+    return square.getRank().getNotation();
+  }
+}
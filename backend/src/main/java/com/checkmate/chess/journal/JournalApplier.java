@@ -0,0 +1,107 @@
+package com.checkmate.chess.journal;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.model.Game;
+import com.checkmate.chess.model.GameClock;
+import com.checkmate.chess.repository.GameClockRepository;
+import com.checkmate.chess.repository.GameRepository;
+import com.checkmate.chess.service.MoveService;
+
+/**
+ * Writes journaled moves to the games, moves and game_clocks tables.
+ * Applying is idempotent: an entry whose ply is already stored is skipped, so a batch can be
+ * replayed after a failed flush or a crash between the database commit and segment deletion.
+ */
+@Component
+public class JournalApplier {
+
+  private static final Logger logger = LoggerFactory.getLogger(JournalApplier.class);
+
+  private final GameRepository gameRepository;
+  private final GameClockRepository clockRepository;
+  private final MoveService moveService;
+
+  public JournalApplier(
+      GameRepository gameRepository,
+      GameClockRepository clockRepository,
+      MoveService moveService) {
+    this.gameRepository = gameRepository;
+    this.clockRepository = clockRepository;
+    this.moveService = moveService;
+  }
+
+  /**
+   * Store a batch of entries in one transaction of its own, independent of any caller's.
+   *
+   * @param entries the entries in append order
+   * @return the number of moves stored
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public int apply(List<JournalEntry> entries) {
+    final Set<UUID> gameIds = entries.stream()
+        .map(JournalEntry::gameId)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    final Map<UUID, Game> games = gameRepository.findAllById(gameIds).stream()
+        .collect(Collectors.toMap(Game::getId, Function.identity()));
+    final Map<UUID, GameClock> clocks = clockRepository.findByGameIdIn(gameIds).stream()
+        .collect(Collectors.toMap(GameClock::getGameId, Function.identity()));
+    final Map<UUID, GameClock> touchedClocks = new HashMap<>();
+
+    int stored = 0;
+    for (JournalEntry entry : entries) {
+      final Game game = games.get(entry.gameId());
+      if (game == null) {
+        logger.warn("Dropping journaled move {} of unknown game {}", entry.ply(), entry.gameId());
+        continue;
+      }
+      if (entry.ply() < game.getPlyCount() || !"IN_PROGRESS".equals(game.getStatus())) {
+        continue;
+      }
+      if (entry.ply() > game.getPlyCount()) {
+        logger.error("Journaled move {} of game {} does not follow stored ply count {}",
+            entry.ply(), entry.gameId(), game.getPlyCount());
+        continue;
+      }
+
+      moveService.saveMove(game, entry.algebraicNotation(), entry.moveCode(), entry.fen());
+      game.setCurrentFen(entry.fen());
+      if (entry.endsGame()) {
+        game.endGame(entry.result(), entry.endReason());
+      }
+      stored++;
+
+      final GameClock clock = clocks.get(entry.gameId());
+      if (clock != null && entry.clock() != null) {
+        apply(clock, entry.clock());
+        touchedClocks.put(clock.getGameId(), clock);
+      }
+    }
+
+    gameRepository.saveAll(games.values());
+    clockRepository.saveAll(touchedClocks.values());
+    return stored;
+  }
+
+  private static void apply(GameClock clock, ClockSnapshot snapshot) {
+    clock.setWhiteTimeMs(snapshot.whiteTimeMs());
+    clock.setBlackTimeMs(snapshot.blackTimeMs());
+    clock.setCurrentTurn(snapshot.currentTurn());
+    clock.setLastMoveTime(LocalDateTime.now());
+  }
+}
@@ -0,0 +1,33 @@
+package com.checkmate.chess.journal;
+
+import java.util.UUID;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+
+/**
+ * One move as recorded in the {@link MoveJournal}, carrying everything the synchronous path
+ * would have written to the games, moves and game_clocks tables.
+ *
+ * @param gameId the game ID
+ * @param ply zero-based ply of the move
+ * @param algebraicNotation the move in SAN
+ * @param moveCode the move in MoveCodec form
+ * @param fen the position after the move
+ * @param result the game result if the move ended the game, otherwise null
+ * @param endReason the end reason if the move ended the game, otherwise null
+ * @param clock the clock after the move, null for untimed games
+ */
+public record JournalEntry(
+    UUID gameId,
+    int ply,
+    String algebraicNotation,
+    short moveCode,
+    String fen,
+    String result,
+    String endReason,
+    ClockSnapshot clock) {
+
+  public boolean endsGame() {
+    return result != null;
+  }
+}
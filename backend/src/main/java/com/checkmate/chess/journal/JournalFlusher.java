@@ -0,0 +1,280 @@
+package com.checkmate.chess.journal;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Copies the {@link MoveJournal} to the database.
+ * A background thread drains the journal every {@code app.persistence.journal.flush-interval-ms}
+ * and stores the entries in transactions of up to {@code app.persistence.journal.batch-size}.
+ * A batch that fails is split into one transaction per game, so one game the database rejects
+ * does not hold back the others. The failed games stay in the journal and are retried on the
+ * next pass; a game that keeps failing {@code app.persistence.journal.max-attempts} times while
+ * other games are stored is treated as poison and its entries, including later ones, are parked
+ * in the journal's dead-letter file. Segments left by a previous run are replayed once all beans
+ * exist, before the web server accepts moves.
+ */
+@Component
+public class JournalFlusher implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(JournalFlusher.class);
+
+  private final MoveJournal journal;
+  private final JournalApplier applier;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final ScheduledExecutorService flusher;
+  private final Set<UUID> parkedGames = ConcurrentHashMap.newKeySet();
+
+  // Guarded by this
+  private final Map<UUID, Integer> failedAttempts = new HashMap<>();
+  private volatile long pendingSinceNanos;
+
+  public JournalFlusher(
+      MoveJournal journal,
+      JournalApplier applier,
+      @Value("${app.persistence.journal.flush-interval-ms:200}") long flushIntervalMs,
+      @Value("${app.persistence.journal.batch-size:500}") int batchSize,
+      @Value("${app.persistence.journal.max-attempts:3}") int maxAttempts) {
+    this.journal = journal;
+    this.applier = applier;
+    this.batchSize = Math.max(1, batchSize);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    if (!journal.isEnabled()) {
+      this.flusher = null;
+      return;
+    }
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "journal-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.flusher.scheduleWithFixedDelay(
+        this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Replay what the previous run journaled but did not store.
+   * Fails startup if the database rejects it, leaving the segments for the next attempt.
+   */
+  @Override
+  public synchronized void afterSingletonsInstantiated() {
+    if (!journal.isEnabled()) {
+      return;
+    }
+    final MoveJournal.Batch recovered = journal.recover();
+    if (recovered.isEmpty()) {
+      return;
+    }
+    final Outcome outcome = store(recovered.entries());
+    if (outcome.failure() != null) {
+      throw outcome.failure();
+    }
+    journal.complete(recovered);
+    logger.info("Recovered {} journaled moves from {} segments, {} were not yet stored",
+        recovered.entries().size(), recovered.segments().size(), outcome.stored());
+  }
+
+  /**
+   * Store everything journaled so far, parking the entries of games that keep failing.
+   *
+   * @throws RuntimeException if the database rejects entries that are not parked; those stay
+   *     journaled, everything else is stored
+   */
+  public synchronized void flush() {
+    final MoveJournal.Batch batch = journal.drain();
+    if (batch.isEmpty()) {
+      return;
+    }
+    final Outcome outcome = store(batch.entries());
+    if (outcome.failure() != null) {
+      // The segments hold the retried entries too, so they stay until those are stored
+      journal.requeue(new MoveJournal.Batch(outcome.retry(), batch.segments()));
+      final Set<UUID> retried = outcome.retry().stream()
+          .map(JournalEntry::gameId)
+          .collect(Collectors.toSet());
+      // Release the games that ended in entries that are stored or parked
+      journal.complete(new MoveJournal.Batch(batch.entries().stream()
+          .filter(entry -> !retried.contains(entry.gameId()))
+          .toList(), List.of()));
+      if (pendingSinceNanos == 0) {
+        pendingSinceNanos = System.nanoTime();
+      }
+      throw outcome.failure();
+    }
+    journal.complete(batch);
+    pendingSinceNanos = 0;
+  }
+
+  /**
+   * Number of journaled moves not yet in the database.
+   */
+  public int pendingCount() {
+    return journal.pendingCount();
+  }
+
+  /**
+   * How long moves have been waiting since a flush first failed to store them.
+   *
+   * @return the wait, zero while every flush succeeds
+   */
+  public Duration pendingAge() {
+    final long since = pendingSinceNanos;
+    return since == 0 ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - since);
+  }
+
+  /**
+   * Bring a game's row up to date before it is changed outside the journal, e.g. on
+   * resignation or flag fall, and stop tracking it.
+   *
+   * @param gameId the game ID
+   * @throws RuntimeException if moves of the game could not be stored
+   */
+  public void settle(UUID gameId) {
+    if (!journal.isEnabled()) {
+      return;
+    }
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      // Other games failing does not keep this one from being settled
+      if (journal.hasPending(gameId)) {
+        throw e;
+      }
+    }
+    journal.release(gameId);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (flusher == null) {
+      return;
+    }
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushQuietly();
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      logger.error("Journal flush failed, {} moves pending", journal.pendingCount(), e);
+    }
+  }
+
+  /**
+   * Store entries in batches, falling back to one transaction per game for a batch that fails.
+   */
+  private Outcome store(List<JournalEntry> entries) {
+    final List<JournalEntry> parked = new ArrayList<>();
+    final Map<UUID, List<JournalEntry>> failed = new LinkedHashMap<>();
+    final List<JournalEntry> live = new ArrayList<>(entries.size());
+    for (JournalEntry entry : entries) {
+      (parkedGames.contains(entry.gameId()) ? parked : live).add(entry);
+    }
+
+    int stored = 0;
+    boolean anyStored = false;
+    RuntimeException failure = null;
+    for (int from = 0; from < live.size(); from += batchSize) {
+      final List<JournalEntry> chunk = live.subList(from, Math.min(live.size(), from + batchSize));
+      final Map<UUID, List<JournalEntry>> games = byGame(chunk);
+      // A game with failed earlier moves cannot store later ones, so such a batch is split
+      if (games.keySet().stream().noneMatch(failed::containsKey)) {
+        try {
+          stored += applier.apply(chunk);
+          anyStored = true;
+          games.keySet().forEach(failedAttempts::remove);
+          continue;
+        } catch (RuntimeException e) {
+          failure = e;
+          if (games.size() == 1) {
+            failed.put(chunk.get(0).gameId(), new ArrayList<>(chunk));
+            continue;
+          }
+        }
+      }
+      for (Map.Entry<UUID, List<JournalEntry>> game : games.entrySet()) {
+        if (failed.containsKey(game.getKey())) {
+          failed.get(game.getKey()).addAll(game.getValue());
+          continue;
+        }
+        try {
+          stored += applier.apply(game.getValue());
+          anyStored = true;
+          failedAttempts.remove(game.getKey());
+        } catch (RuntimeException e) {
+          failure = e;
+          failed.put(game.getKey(), new ArrayList<>(game.getValue()));
+        }
+      }
+    }
+
+    final List<JournalEntry> retry = new ArrayList<>();
+    for (Map.Entry<UUID, List<JournalEntry>> game : failed.entrySet()) {
+      // Without another game stored the database may just be down, which is not the game's fault
+      final int attempts = anyStored
+          ? failedAttempts.merge(game.getKey(), 1, Integer::sum)
+          : failedAttempts.getOrDefault(game.getKey(), 0);
+      if (attempts >= maxAttempts) {
+        logger.error("Parking {} journaled moves of game {} after {} failed attempts",
+            game.getValue().size(), game.getKey(), attempts, failure);
+        parkedGames.add(game.getKey());
+        failedAttempts.remove(game.getKey());
+        parked.addAll(game.getValue());
+      } else {
+        retry.addAll(game.getValue());
+      }
+    }
+    try {
+      journal.park(parked);
+    } catch (UncheckedIOException e) {
+      logger.error("Could not park {} journaled moves, keeping them", parked.size(), e);
+      retry.addAll(parked);
+      failure = e;
+    }
+    return new Outcome(stored, retry, retry.isEmpty() ? null : failure);
+  }
+
+  private static Map<UUID, List<JournalEntry>> byGame(List<JournalEntry> entries) {
+    final Map<UUID, List<JournalEntry>> games = new LinkedHashMap<>();
+    for (JournalEntry entry : entries) {
+      games.computeIfAbsent(entry.gameId(), id -> new ArrayList<>()).add(entry);
+    }
+    return games;
+  }
+
+  /**
+   * Result of storing a list of entries.
+   *
+   * @param stored the number of moves stored
+   * @param retry the entries to keep journaled, in append order per game
+   * @param failure the last error, null if nothing has to be retried
+   */
+  private record Outcome(int stored, List<JournalEntry> retry, RuntimeException failure) {}
+}
@@ -0,0 +1,45 @@
+package com.checkmate.chess.journal;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the moves of the {@link MoveJournal} that are not yet in the database.
+ * Down once a flush has been failing for longer than
+ * {@code app.persistence.journal.max-pending-age-ms}; parked dead letters are reported but
+ * need manual repair rather than a restart.
+ */
+@Component("journal")
+public class JournalHealthIndicator implements HealthIndicator {
+
+  private final MoveJournal journal;
+  private final JournalFlusher flusher;
+  private final Duration maxPendingAge;
+
+  public JournalHealthIndicator(
+      MoveJournal journal,
+      JournalFlusher flusher,
+      @Value("${app.persistence.journal.max-pending-age-ms:60000}") long maxPendingAgeMs) {
+    this.journal = journal;
+    this.flusher = flusher;
+    this.maxPendingAge = Duration.ofMillis(maxPendingAgeMs);
+  }
+
+  @Override
+  public Health health() {
+    if (!journal.isEnabled()) {
+      return Health.up().withDetail("enabled", false).build();
+    }
+    final Duration age = flusher.pendingAge();
+    final Health.Builder health = age.compareTo(maxPendingAge) > 0 ? Health.down() : Health.up();
+    return health
+        .withDetail("pending", flusher.pendingCount())
+        .withDetail("pendingAgeMs", age.toMillis())
+        .withDetail("deadLettered", journal.deadLetterCount())
+        .build();
+  }
+}
@@ -0,0 +1,446 @@
+package com.checkmate.chess.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only move journal for write-behind persistence.
+ * When {@code app.persistence.write-behind.enabled} is set, moves are appended here instead of
+ * being written to the database on the request thread; the {@link JournalFlusher} later copies
+ * them to the database in batches. Records are length-prefixed and CRC-checked, written to
+ * numbered segment files in {@code app.persistence.journal.directory} and forced to disk before
+ * the move is acknowledged unless {@code app.persistence.journal.fsync} is off. Each flush seals
+ * the active segment; sealed segments are deleted once their entries are in the database, and
+ * segments found on startup are replayed before the application serves moves. Entries the
+ * database keeps rejecting are parked in a dead-letter file that is never replayed.
+ */
+@Component
+public class MoveJournal {
+
+  private static final Logger logger = LoggerFactory.getLogger(MoveJournal.class);
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String DEAD_LETTER_FILE = "dead-letter.log";
+  private static final byte FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 8;
+  private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+  /**
+   * Entries handed to the database together with the segment files that hold them.
+   *
+   * @param entries the entries, in append order
+   * @param segments the sealed segment files to delete once the entries are stored
+   */
+  public record Batch(List<JournalEntry> entries, List<Path> segments) {
+
+    static final Batch EMPTY = new Batch(List.of(), List.of());
+
+    public boolean isEmpty() {
+      return entries.isEmpty() && segments.isEmpty();
+    }
+  }
+
+  private final boolean enabled;
+  private final Path directory;
+  private final boolean fsync;
+  private final ConcurrentMap<UUID, Integer> nextPly = new ConcurrentHashMap<>();
+  private final Set<UUID> ended = ConcurrentHashMap.newKeySet();
+  private final List<Path> recoveredSegments;
+  private final AtomicLong deadLettered = new AtomicLong();
+
+  // Guarded by this
+  private List<JournalEntry> pending = new ArrayList<>();
+  private final List<Path> sealed = new ArrayList<>();
+  private long segmentIndex;
+  private Path segment;
+  private FileChannel channel;
+
+  public MoveJournal(
+      @Value("${app.persistence.write-behind.enabled:false}") boolean enabled,
+      @Value("${app.persistence.journal.directory:data/journal}") String directory,
+      @Value("${app.persistence.journal.fsync:true}") boolean fsync) {
+    this.enabled = enabled;
+    this.directory = Path.of(directory);
+    this.fsync = fsync;
+    if (!enabled) {
+      this.recoveredSegments = List.of();
+      return;
+    }
+    try {
+      Files.createDirectories(this.directory);
+      this.recoveredSegments = listSegments();
+      this.segmentIndex = recoveredSegments.isEmpty()
+          ? 0 : indexOf(recoveredSegments.get(recoveredSegments.size() - 1));
+      openNextSegment();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open move journal in " + this.directory, e);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Durably record a move. Callers must append the moves of one game in play order.
+   *
+   * @param entry the move
+   * @throws UncheckedIOException if the record could not be written; the move must then be
+   *     treated as not played
+   */
+  public void append(JournalEntry entry) {
+    if (!enabled) {
+      throw new IllegalStateException("Write-behind persistence is disabled");
+    }
+    final ByteBuffer record = frame(encode(entry));
+    synchronized (this) {
+      try {
+        while (record.hasRemaining()) {
+          channel.write(record);
+        }
+        if (fsync) {
+          channel.force(false);
+        }
+      } catch (IOException e) {
+        // A partial record ends the segment for replay, so later appends go to a fresh one
+        rollQuietly();
+        throw new UncheckedIOException("Could not append to move journal " + segment, e);
+      }
+      pending.add(entry);
+    }
+    nextPly.put(entry.gameId(), entry.ply() + 1);
+    if (entry.endsGame()) {
+      ended.add(entry.gameId());
+    }
+  }
+
+  /**
+   * Ply of the next move of a game, counting moves not yet in the database.
+   *
+   * @param gameId the game ID
+   * @param persistedPlyCount the ply count stored on the games row
+   * @return the zero-based ply the next move will have
+   */
+  public int nextPly(UUID gameId, int persistedPlyCount) {
+    return nextPly.getOrDefault(gameId, persistedPlyCount);
+  }
+
+  /**
+   * Check whether a journaled move ended a game whose row may still read in progress.
+   */
+  public boolean isEnded(UUID gameId) {
+    return ended.contains(gameId);
+  }
+
+  /**
+   * Stop tracking a game whose row is up to date and no longer in progress.
+   *
+   * @param gameId the game ID
+   */
+  public void release(UUID gameId) {
+    nextPly.remove(gameId);
+    ended.remove(gameId);
+  }
+
+  /**
+   * Take everything appended so far and seal the segment holding it.
+   *
+   * @return the entries to store, empty if there are none
+   */
+  public synchronized Batch drain() {
+    if (!enabled) {
+      return Batch.EMPTY;
+    }
+    if (!pending.isEmpty()) {
+      roll();
+    }
+    if (pending.isEmpty() && sealed.isEmpty()) {
+      return Batch.EMPTY;
+    }
+    final Batch batch = new Batch(pending, List.copyOf(sealed));
+    pending = new ArrayList<>();
+    sealed.clear();
+    return batch;
+  }
+
+  /**
+   * Discard the segments of a batch whose entries are now stored.
+   *
+   * @param batch a drained or recovered batch
+   */
+  public void complete(Batch batch) {
+    for (Path file : batch.segments()) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // Replaying it again is harmless, entries already stored are skipped
+        logger.warn("Could not delete flushed journal segment {}", file, e);
+      }
+    }
+    for (JournalEntry entry : batch.entries()) {
+      if (entry.endsGame()) {
+        release(entry.gameId());
+      }
+    }
+  }
+
+  /**
+   * Put back a batch that could not be stored, ahead of anything appended since.
+   *
+   * @param batch a drained batch
+   */
+  public synchronized void requeue(Batch batch) {
+    pending.addAll(0, batch.entries());
+    sealed.addAll(0, batch.segments());
+  }
+
+  /**
+   * Read the segments left over from the previous run.
+   * A record cut short by a crash ends its segment; everything before it is returned.
+   *
+   * @return the recovered entries and their segments
+   */
+  public Batch recover() {
+    final List<JournalEntry> entries = new ArrayList<>();
+    for (Path file : recoveredSegments) {
+      try {
+        entries.addAll(readSegment(file));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read journal segment " + file, e);
+      }
+    }
+    return new Batch(entries, recoveredSegments);
+  }
+
+  public synchronized int pendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Check whether moves of a game are journaled but not yet handed to the database.
+   */
+  public synchronized boolean hasPending(UUID gameId) {
+    return pending.stream().anyMatch(entry -> entry.gameId().equals(gameId));
+  }
+
+  /**
+   * Move entries that cannot be stored out of the way, into a dead-letter file kept for manual
+   * repair. Callers drop the entries afterwards, so their segments can be deleted.
+   *
+   * @param entries the entries to park
+   * @throws UncheckedIOException if the entries could not be written
+   */
+  public void park(List<JournalEntry> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    final Path file = directory.resolve(DEAD_LETTER_FILE);
+    synchronized (deadLettered) {
+      try (FileChannel out = FileChannel.open(file,
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+        for (JournalEntry entry : entries) {
+          final ByteBuffer record = frame(encode(entry));
+          while (record.hasRemaining()) {
+            out.write(record);
+          }
+        }
+        out.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not write journal dead letters to " + file, e);
+      }
+      deadLettered.addAndGet(entries.size());
+    }
+  }
+
+  /**
+   * Number of entries parked by this run.
+   */
+  public long deadLetterCount() {
+    return deadLettered.get();
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.warn("Could not close journal segment {}", segment, e);
+    }
+  }
+
+  static List<JournalEntry> readSegment(Path file) throws IOException {
+    final List<JournalEntry> entries = new ArrayList<>();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        final int length;
+        try {
+          length = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        if (length <= 0 || length > MAX_RECORD_BYTES) {
+          logger.warn("Journal segment {} ends in a corrupt record", file);
+          break;
+        }
+        final byte[] payload = new byte[length];
+        final int checksum;
+        try {
+          checksum = in.readInt();
+          in.readFully(payload);
+        } catch (EOFException e) {
+          logger.warn("Journal segment {} ends in a partial record", file);
+          break;
+        }
+        if (checksum != checksum(payload)) {
+          logger.warn("Journal segment {} ends in a record with a bad checksum", file);
+          break;
+        }
+        entries.add(decode(payload));
+      }
+    }
+    return entries;
+  }
+
+  static byte[] encode(JournalEntry entry) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(FORMAT_VERSION);
+      out.writeLong(entry.gameId().getMostSignificantBits());
+      out.writeLong(entry.gameId().getLeastSignificantBits());
+      out.writeInt(entry.ply());
+      out.writeUTF(entry.algebraicNotation());
+      out.writeShort(entry.moveCode());
+      out.writeUTF(entry.fen());
+      writeOptional(out, entry.result());
+      writeOptional(out, entry.endReason());
+      final ClockSnapshot clock = entry.clock();
+      out.writeBoolean(clock != null);
+      if (clock != null) {
+        out.writeLong(clock.whiteTimeMs());
+        out.writeLong(clock.blackTimeMs());
+        out.writeUTF(clock.currentTurn());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static JournalEntry decode(byte[] payload) throws IOException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    final byte version = in.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unknown journal record version " + version);
+    }
+    final UUID gameId = new UUID(in.readLong(), in.readLong());
+    final int ply = in.readInt();
+    final String notation = in.readUTF();
+    final short moveCode = in.readShort();
+    final String fen = in.readUTF();
+    final String result = readOptional(in);
+    final String endReason = readOptional(in);
+    final ClockSnapshot clock = in.readBoolean()
+        ? new ClockSnapshot(in.readLong(), in.readLong(), in.readUTF(), false)
+        : null;
+    return new JournalEntry(gameId, ply, notation, moveCode, fen, result, endReason, clock);
+  }
+
+  private static ByteBuffer frame(byte[] payload) {
+    final ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+    record.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+    return record;
+  }
+
+  private static int checksum(byte[] payload) {
+    final CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  private static void writeOptional(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readOptional(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private void roll() {
+    try {
+      channel.close();
+      sealed.add(segment);
+      openNextSegment();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not roll move journal in " + directory, e);
+    }
+  }
+
+  private void rollQuietly() {
+    try {
+      roll();
+    } catch (UncheckedIOException e) {
+      logger.error("Could not roll move journal after a failed append", e);
+    }
+  }
+
+  private void openNextSegment() throws IOException {
+    segmentIndex++;
+    segment = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+    channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> {
+            final String name = file.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static long indexOf(Path file) {
+    final String name = file.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
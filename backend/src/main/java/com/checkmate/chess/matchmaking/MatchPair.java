@@ -0,0 +1,9 @@
+package com.checkmate.chess.matchmaking;
+
+/**
+ * Two players paired by the matchmaker; {@code first} is the one who waited longer.
+ *
+ * @param first the longer-waiting player
+ * @param second the opponent chosen for them
+ */
+public record MatchPair(QueuedPlayer first, QueuedPlayer second) {}
@@ -0,0 +1,148 @@
+package com.checkmate.chess.matchmaking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory matchmaker with one rating-indexed pool per time control.
+ * The allowed rating difference starts at {@code app.matchmaking.base-window} and widens by
+ * {@code app.matchmaking.window-growth-per-second} while a player waits, up to
+ * {@code app.matchmaking.max-window}. Persistence is left to the callers; the
+ * matchmaking_queue table only mirrors this state for restarts.
+ * Wait estimates come from an exponentially weighted moving average of the waits of players
+ * that were actually paired in each time control.
+ */
+@Component
+public class Matchmaker {
+
+  private static final double WAIT_SMOOTHING = 0.2;
+
+  private final int baseWindow;
+  private final int windowGrowthPerSecond;
+  private final int maxWindow;
+  private final ConcurrentMap<String, RatingPool> pools = new ConcurrentHashMap<>();
+  private final ConcurrentMap<UUID, String> timeControlByUser = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Double> averageWaitMillis = new ConcurrentHashMap<>();
+
+  public Matchmaker(
+      @Value("${app.matchmaking.base-window:200}") int baseWindow,
+      @Value("${app.matchmaking.window-growth-per-second:10}") int windowGrowthPerSecond,
+      @Value("${app.matchmaking.max-window:600}") int maxWindow) {
+    this.baseWindow = baseWindow;
+    this.windowGrowthPerSecond = windowGrowthPerSecond;
+    this.maxWindow = Math.max(baseWindow, maxWindow);
+  }
+
+  /**
+   * Add a player, replacing any entry they have in another pool.
+   *
+   * @param player the player to queue
+   */
+  public void enqueue(QueuedPlayer player) {
+    final String previous = timeControlByUser.put(player.userId(), player.timeControl());
+    if (previous != null && !previous.equals(player.timeControl())) {
+      pool(previous).remove(player.userId());
+    }
+    pool(player.timeControl()).add(player);
+  }
+
+  /**
+   * Remove a player from whichever pool they are in.
+   *
+   * @param userId the user ID
+   * @return true if the player was queued
+   */
+  public boolean dequeue(UUID userId) {
+    final String timeControl = timeControlByUser.remove(userId);
+    return timeControl != null && pool(timeControl).remove(userId);
+  }
+
+  /**
+   * Pair as many waiting players of a time control as the rating windows allow.
+   *
+   * @param timeControl the time control
+   * @param nowMillis the current time in epoch milliseconds
+   * @return the pairs formed; these players are no longer queued
+   */
+  public List<MatchPair> pair(String timeControl, long nowMillis) {
+    final List<MatchPair> pairs =
+        pool(timeControl).pairAll(nowMillis, player -> allowedDifference(player, nowMillis));
+    for (MatchPair pair : pairs) {
+      timeControlByUser.remove(pair.first().userId(), timeControl);
+      timeControlByUser.remove(pair.second().userId(), timeControl);
+      recordWait(timeControl, pair.first().waitedMillis(nowMillis));
+      recordWait(timeControl, pair.second().waitedMillis(nowMillis));
+    }
+    return pairs;
+  }
+
+  /**
+   * Position and wait estimate for every player waiting in a time control.
+   *
+   * @param timeControl the time control
+   * @param nowMillis the current time in epoch milliseconds
+   * @return one status per waiting player, in join order
+   */
+  public List<QueueStatus> statuses(String timeControl, long nowMillis) {
+    final List<QueuedPlayer> players = pool(timeControl).inJoinOrder();
+    final Double average = averageWaitMillis.get(timeControl);
+    final List<QueueStatus> statuses = new ArrayList<>(players.size());
+    for (int i = 0; i < players.size(); i++) {
+      final QueuedPlayer player = players.get(i);
+      final long waited = player.waitedMillis(nowMillis);
+      final Long estimate = average == null ? null : Math.max(0, Math.round(average) - waited);
+      statuses.add(new QueueStatus(player, i + 1, players.size(), waited, estimate));
+    }
+    return statuses;
+  }
+
+  /**
+   * Time controls that currently have a pool, waiting players or not.
+   */
+  public Set<String> timeControls() {
+    return Set.copyOf(pools.keySet());
+  }
+
+  /**
+   * Allowed rating difference for a player who has waited until {@code nowMillis}.
+   */
+  public int allowedDifference(QueuedPlayer player, long nowMillis) {
+    final long widened = baseWindow + player.waitedMillis(nowMillis) / 1000 * windowGrowthPerSecond;
+    return (int) Math.min(maxWindow, widened);
+  }
+
+  public boolean isQueued(UUID userId) {
+    return timeControlByUser.containsKey(userId);
+  }
+
+  public int size(String timeControl) {
+    return pool(timeControl).size();
+  }
+
+  /**
+   * Queue sizes per time control, for monitoring.
+   */
+  public Map<String, Integer> sizes() {
+    final Map<String, Integer> sizes = new TreeMap<>();
+    pools.forEach((timeControl, pool) -> sizes.put(timeControl, pool.size()));
+    return sizes;
+  }
+
+  private void recordWait(String timeControl, long waitedMillis) {
+    averageWaitMillis.merge(timeControl, (double) waitedMillis,
+        (average, sample) -> average + WAIT_SMOOTHING * (sample - average));
+  }
+
+  private RatingPool pool(String timeControl) {
+    return pools.computeIfAbsent(timeControl, key -> new RatingPool());
+  }
+}
@@ -0,0 +1,13 @@
+package com.checkmate.chess.matchmaking;
+
+/**
+ * Where a waiting player stands in their pool.
+ *
+ * @param player the queued player
+ * @param position 1-based position by join order
+ * @param queueSize number of players waiting in the same time control
+ * @param waitedMillis how long the player has waited so far
+ * @param estimatedWaitMillis expected remaining wait, null until a pair has formed in this pool
+ */
+public record QueueStatus(
+    QueuedPlayer player, int position, int queueSize, long waitedMillis, Long estimatedWaitMillis) {}
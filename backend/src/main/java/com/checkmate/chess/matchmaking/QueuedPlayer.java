@@ -0,0 +1,18 @@
+package com.checkmate.chess.matchmaking;
+
+import java.util.UUID;
+
+/**
+ * A player waiting in a matchmaking pool.
+ *
+ * @param userId the user ID
+ * @param rating the rating at the time of joining
+ * @param timeControl the requested time control
+ * @param joinedAtMillis when the player joined, in epoch milliseconds
+ */
+public record QueuedPlayer(UUID userId, int rating, String timeControl, long joinedAtMillis) {
+
+  long waitedMillis(long nowMillis) {
+    return Math.max(0, nowMillis - joinedAtMillis);
+  }
+}
@@ -0,0 +1,122 @@
+package com.checkmate.chess.matchmaking;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * Waiting players of one time control, indexed by rating.
+ * Players with the same rating are kept in join order, so the tree gives nearest-rating
+ * lookups in O(log n) and a full pairing pass costs O(n log n).
+ */
+final class RatingPool {
+
+  private final NavigableMap<Integer, Deque<QueuedPlayer>> byRating = new TreeMap<>();
+  private final Map<UUID, QueuedPlayer> byUser = new HashMap<>();
+
+  synchronized void add(QueuedPlayer player) {
+    remove(player.userId());
+    byRating.computeIfAbsent(player.rating(), rating -> new ArrayDeque<>()).addLast(player);
+    byUser.put(player.userId(), player);
+  }
+
+  synchronized boolean remove(UUID userId) {
+    final QueuedPlayer player = byUser.remove(userId);
+    if (player == null) {
+      return false;
+    }
+    final Deque<QueuedPlayer> bucket = byRating.get(player.rating());
+    bucket.remove(player);
+    if (bucket.isEmpty()) {
+      byRating.remove(player.rating());
+    }
+    return true;
+  }
+
+  synchronized boolean contains(UUID userId) {
+    return byUser.containsKey(userId);
+  }
+
+  synchronized int size() {
+    return byUser.size();
+  }
+
+  /**
+   * Waiting players in join order.
+   */
+  synchronized List<QueuedPlayer> inJoinOrder() {
+    final List<QueuedPlayer> players = new ArrayList<>(byUser.values());
+    players.sort(Comparator.comparingLong(QueuedPlayer::joinedAtMillis));
+    return players;
+  }
+
+  /**
+   * Pair as many players as possible.
+   * Players are visited longest-waiting first; each takes the nearest-rated opponent within
+   * its own window, which is the widest window of the two since it has waited longer.
+   *
+   * @param nowMillis the current time in epoch milliseconds
+   * @param window the allowed rating difference for a player at {@code nowMillis}
+   * @return the pairs formed, already removed from the pool
+   */
+  synchronized List<MatchPair> pairAll(long nowMillis, ToIntFunction<QueuedPlayer> window) {
+    final List<MatchPair> pairs = new ArrayList<>();
+    if (byUser.size() < 2) {
+      return pairs;
+    }
+
+    for (QueuedPlayer player : inJoinOrder()) {
+      if (!byUser.containsKey(player.userId())) {
+        continue; // Already taken as someone's opponent
+      }
+      final QueuedPlayer opponent = nearest(player, window.applyAsInt(player));
+      if (opponent != null) {
+        remove(player.userId());
+        remove(opponent.userId());
+        pairs.add(new MatchPair(player, opponent));
+      }
+    }
+    return pairs;
+  }
+
+  private QueuedPlayer nearest(QueuedPlayer player, int allowed) {
+    final int rating = player.rating();
+    final QueuedPlayer above = firstOther(
+        byRating.subMap(rating, true, rating + allowed, true), player);
+    final QueuedPlayer below = firstOther(
+        byRating.subMap(rating - allowed, true, rating, false).descendingMap(), player);
+
+    if (above == null) {
+      return below;
+    }
+    if (below == null) {
+      return above;
+    }
+    final int aboveDistance = above.rating() - rating;
+    final int belowDistance = rating - below.rating();
+    if (aboveDistance != belowDistance) {
+      return aboveDistance < belowDistance ? above : below;
+    }
+    return above.joinedAtMillis() <= below.joinedAtMillis() ? above : below;
+  }
+
+  private static QueuedPlayer firstOther(
+      NavigableMap<Integer, Deque<QueuedPlayer>> range, QueuedPlayer self) {
+    for (Deque<QueuedPlayer> bucket : range.values()) {
+      for (QueuedPlayer candidate : bucket) {
+        if (!candidate.userId().equals(self.userId())) {
+          return candidate;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,85 @@
+package com.checkmate.chess.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the Stockfish engine pool.
+ *
+ * <ul>
+ *   <li>{@code checkmate.engine.workers}: busy and idle engine processes, next to
+ *       {@code checkmate.engine.capacity}; busy divided by capacity is the pool utilization</li>
+ *   <li>{@code checkmate.engine.checkout.wait}: time a request waited for a worker, tagged with
+ *       whether it got one</li>
+ *   <li>{@code checkmate.engine.search}: time a worker spent searching</li>
+ *   <li>{@code checkmate.engine.fallbacks}: moves generated by chesslib instead of the engine</li>
+ * </ul>
+ */
+@Component
+public class EngineMetrics {
+
+  private final MeterRegistry registry;
+  private final Timer checkoutAcquired;
+  private final Timer checkoutFailed;
+  private final Timer search;
+  private final Counter fallbacks;
+
+  public EngineMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    this.checkoutAcquired = checkoutTimer("acquired");
+    this.checkoutFailed = checkoutTimer("failed");
+    this.search = Timer.builder("checkmate.engine.search")
+        .description("Time an engine worker spent on one search")
+        .register(registry);
+    this.fallbacks = Counter.builder("checkmate.engine.fallbacks")
+        .description("Computer moves generated without the engine")
+        .register(registry);
+  }
+
+  /**
+   * Expose the size of the engine pool.
+   *
+   * @param busy workers checked out for a search
+   * @param idle workers waiting for a search
+   * @param capacity the maximum number of workers
+   */
+  public void bindPool(Supplier<Number> busy, Supplier<Number> idle, Supplier<Number> capacity) {
+    Gauge.builder("checkmate.engine.workers", busy)
+        .description("Engine processes by state")
+        .tag("state", "busy")
+        .register(registry);
+    Gauge.builder("checkmate.engine.workers", idle)
+        .description("Engine processes by state")
+        .tag("state", "idle")
+        .register(registry);
+    Gauge.builder("checkmate.engine.capacity", capacity)
+        .description("Maximum number of engine processes")
+        .register(registry);
+  }
+
+  public void recordCheckout(long waitNanos, boolean acquired) {
+    (acquired ? checkoutAcquired : checkoutFailed).record(waitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordSearch(long nanos) {
+    search.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordFallback() {
+    fallbacks.increment();
+  }
+
+  private Timer checkoutTimer(String outcome) {
+    return Timer.builder("checkmate.engine.checkout.wait")
+        .description("Time a request waited for an engine worker")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+}
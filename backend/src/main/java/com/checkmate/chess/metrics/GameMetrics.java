@@ -0,0 +1,207 @@
+package com.checkmate.chess.metrics;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the move path and the clock broadcast.
+ *
+ * <ul>
+ *   <li>{@code checkmate.move.validation}: applying a move to the resident board, tagged with
+ *       whether it was accepted</li>
+ *   <li>{@code checkmate.move.persist}: writing an accepted move, until commit for the database
+ *       and until the fsync for the move journal</li>
+ *   <li>{@code checkmate.games.active}: games that moved on this node and have not ended, by game
+ *       type and time control</li>
+ *   <li>{@code checkmate.clock.tick.lag}, {@code checkmate.clock.tick.duration} and
+ *       {@code checkmate.clock.broadcasts}: how late each clock broadcast starts, how long it
+ *       takes and how many messages it sends</li>
+ *   <li>{@code checkmate.clock.lag.transit}, {@code checkmate.clock.lag.credit} and
+ *       {@code checkmate.clock.lag.game.credit}: the network transit measured for a move, the
+ *       clock time credited for it, and the total credited to each player of a finished game</li>
+ * </ul>
+ */
+@Component
+public class GameMetrics {
+
+  private final MeterRegistry registry;
+  private final Timer movesAccepted;
+  private final Timer movesRejected;
+  private final Timer clockTickLag;
+  private final Timer clockTickDuration;
+  private final Counter clockBroadcasts;
+  private final DistributionSummary lagTransit;
+  private final DistributionSummary lagCredit;
+  private final DistributionSummary gameLagCredit;
+  private final ConcurrentMap<UUID, ActiveKey> activeGames = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ActiveKey, AtomicInteger> activeCounts = new ConcurrentHashMap<>();
+
+  public GameMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    this.movesAccepted = validationTimer("accepted");
+    this.movesRejected = validationTimer("rejected");
+    this.clockTickLag = Timer.builder("checkmate.clock.tick.lag")
+        .description("Delay of a clock broadcast past its one-second schedule")
+        .register(registry);
+    this.clockTickDuration = Timer.builder("checkmate.clock.tick.duration")
+        .description("Time to send one round of clock updates")
+        .register(registry);
+    this.clockBroadcasts = Counter.builder("checkmate.clock.broadcasts")
+        .description("Clock updates sent to game topics")
+        .register(registry);
+    this.lagTransit = DistributionSummary.builder("checkmate.clock.lag.transit")
+        .description("Network transit of a move, server-measured less client-reported time")
+        .baseUnit("milliseconds")
+        .register(registry);
+    this.lagCredit = DistributionSummary.builder("checkmate.clock.lag.credit")
+        .description("Clock time credited to a move for its network transit")
+        .baseUnit("milliseconds")
+        .register(registry);
+    this.gameLagCredit = DistributionSummary.builder("checkmate.clock.lag.game.credit")
+        .description("Clock time credited to one player over a finished game")
+        .baseUnit("milliseconds")
+        .register(registry);
+  }
+
+  /**
+   * Record how long validating and applying a move took.
+   *
+   * @param nanos the elapsed time
+   * @param accepted false if the move was rejected as illegal or out of turn
+   */
+  public void recordMoveValidation(long nanos, boolean accepted) {
+    (accepted ? movesAccepted : movesRejected).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Record the database write of a move that started at {@code startNanos}.
+   * Inside a transaction the time is taken when it completes, since the rows are only flushed
+   * at commit; a rolled back write is tagged as failed.
+   *
+   * @param startNanos {@link System#nanoTime()} before the write
+   */
+  public void recordMovePersisted(long startNanos) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      persistTimer("database", "committed")
+          .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        final String outcome = status == STATUS_COMMITTED ? "committed" : "failed";
+        persistTimer("database", outcome)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      }
+    });
+  }
+
+  /**
+   * Record an append to the move journal; the move is durable once the append returns.
+   *
+   * @param nanos the elapsed time, including the fsync
+   */
+  public void recordMoveJournaled(long nanos) {
+    persistTimer("journal", "committed").record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Record one round of clock broadcasts.
+   *
+   * @param lagNanos how late the round started
+   * @param durationNanos how long the round took
+   * @param messages the number of clock updates sent
+   */
+  public void recordClockTick(long lagNanos, long durationNanos, int messages) {
+    clockTickLag.record(Math.max(0, lagNanos), TimeUnit.NANOSECONDS);
+    clockTickDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    clockBroadcasts.increment(messages);
+  }
+
+  /**
+   * Record the lag compensation of one move.
+   *
+   * @param transitMs the network transit measured
+   * @param creditMs the clock time credited, after the cap and the quota
+   */
+  public void recordLagCompensation(long transitMs, long creditMs) {
+    lagTransit.record(transitMs);
+    lagCredit.record(creditMs);
+  }
+
+  /**
+   * Record the lag compensation of one player over a finished game.
+   *
+   * @param creditMs the total clock time credited
+   */
+  public void recordGameLagCredit(long creditMs) {
+    gameLagCredit.record(creditMs);
+  }
+
+  /**
+   * Count a game as active from its first move on this node.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMoveMade(MoveMadeEvent event) {
+    final ActiveKey key = new ActiveKey(
+        MetricTags.gameType(event.gameType()), MetricTags.timeControl(event.timeControl()));
+    if (activeGames.putIfAbsent(event.gameId(), key) == null) {
+      activeCount(key).incrementAndGet();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(GameEndedEvent event) {
+    final ActiveKey key = activeGames.remove(event.gameId());
+    if (key != null) {
+      activeCount(key).decrementAndGet();
+    }
+  }
+
+  private AtomicInteger activeCount(ActiveKey key) {
+    return activeCounts.computeIfAbsent(key, k -> {
+      final AtomicInteger count = new AtomicInteger();
+      Gauge.builder("checkmate.games.active", count, AtomicInteger::get)
+          .description("Games in progress that moved on this node")
+          .tag("type", k.gameType())
+          .tag("time.control", k.timeControl())
+          .register(registry);
+      return count;
+    });
+  }
+
+  private Timer validationTimer(String outcome) {
+    return Timer.builder("checkmate.move.validation")
+        .description("Time to validate and apply a move on the resident board")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  private Timer persistTimer(String store, String outcome) {
+    // Registration is idempotent; the registry returns the existing timer
+    return Timer.builder("checkmate.move.persist")
+        .description("Time to persist an accepted move")
+        .tag("store", store)
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  private record ActiveKey(String gameType, String timeControl) {}
+}
@@ -0,0 +1,53 @@
+package com.checkmate.chess.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.matchmaking.Matchmaker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the matchmaking queue, per time control.
+ *
+ * <ul>
+ *   <li>{@code checkmate.matchmaking.queue.depth}: players waiting in the in-memory pool</li>
+ *   <li>{@code checkmate.matchmaking.wait}: time a player waited until paired</li>
+ * </ul>
+ */
+@Component
+public class MatchmakingMetrics {
+
+  private final Map<String, Timer> waits = new ConcurrentHashMap<>();
+  private final MeterRegistry registry;
+
+  public MatchmakingMetrics(MeterRegistry registry, Matchmaker matchmaker) {
+    this.registry = registry;
+    for (String timeControl : MetricTags.TIME_CONTROLS) {
+      Gauge.builder("checkmate.matchmaking.queue.depth", matchmaker, m -> m.size(timeControl))
+          .description("Players waiting for an opponent")
+          .tag("time.control", timeControl)
+          .register(registry);
+    }
+  }
+
+  /**
+   * Record the wait of a player who has just been paired.
+   *
+   * @param timeControl the time control the player queued for
+   * @param waitedMillis time from joining the queue until pairing
+   */
+  public void recordWait(String timeControl, long waitedMillis) {
+    waits.computeIfAbsent(MetricTags.timeControl(timeControl), tag ->
+        Timer.builder("checkmate.matchmaking.wait")
+            .description("Time from joining the queue until paired")
+            .tag("time.control", tag)
+            .register(registry))
+        .record(Math.max(0, waitedMillis), TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,71 @@
+package com.checkmate.chess.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tag values of the application metrics.
+ * Game types and time controls come from client input (invitations accept any string), so
+ * every value is mapped onto a fixed set and anything else is reported as {@code other}.
+ */
+final class MetricTags {
+
+  static final String OTHER = "other";
+  static final String NONE = "none";
+
+  static final List<String> TIME_CONTROLS = List.of("bullet", "blitz", "rapid", "classical");
+  private static final Set<String> DIFFICULTIES = Set.of("beginner", "intermediate", "advanced");
+  private static final Set<String> GAME_TYPES = Set.of("guest", "computer", "private", "ranked");
+
+  private MetricTags() {
+  }
+
+  static String gameType(String gameType) {
+    return bounded(gameType, GAME_TYPES);
+  }
+
+  /**
+   * Time control tag; computer games store their difficulty in the time control column.
+   */
+  static String timeControl(String timeControl) {
+    if (timeControl == null || timeControl.isBlank()) {
+      return NONE;
+    }
+    final String normalized = timeControl.trim().toLowerCase(Locale.ROOT);
+    if (TIME_CONTROLS.contains(normalized) || DIFFICULTIES.contains(normalized)) {
+      return normalized;
+    }
+    return OTHER;
+  }
+
+  /**
+   * Kind of STOMP destination, without the game or user ID it contains.
+   */
+  static String destination(String destination) {
+    if (destination == null) {
+      return NONE;
+    }
+    if (destination.startsWith("/topic/game/")) {
+      final int slash = destination.lastIndexOf('/');
+      return switch (destination.substring(slash + 1)) {
+        case "moves" -> "game.moves";
+        case "clock" -> "game.clock";
+        case "end" -> "game.end";
+        default -> "game.other";
+      };
+    }
+    if (destination.startsWith("/queue/matchmaking/")) {
+      return destination.endsWith("/status") ? "matchmaking.status" : "matchmaking.match";
+    }
+    return OTHER;
+  }
+
+  private static String bounded(String value, Set<String> known) {
+    if (value == null || value.isBlank()) {
+      return NONE;
+    }
+    final String normalized = value.trim().toLowerCase(Locale.ROOT);
+    return known.contains(normalized) ? normalized : OTHER;
+  }
+}
@@ -0,0 +1,78 @@
+package com.checkmate.chess.metrics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics of the STOMP endpoint.
+ *
+ * <ul>
+ *   <li>{@code checkmate.websocket.sessions}: connected STOMP sessions</li>
+ *   <li>{@code checkmate.websocket.messages.outbound}: messages delivered to sessions, by kind
+ *       of destination; every subscriber of a topic counts, so this is the broadcast fan-out</li>
+ * </ul>
+ * Registered as an interceptor of the client outbound channel in
+ * {@link com.checkmate.chess.config.WebSocketConfig}.
+ */
+@Component
+public class WebSocketMetrics implements ChannelInterceptor {
+
+  private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+  private final Map<String, Counter> outbound = new ConcurrentHashMap<>();
+  private final MeterRegistry registry;
+
+  public WebSocketMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    Gauge.builder("checkmate.websocket.sessions", sessions, Set::size)
+        .description("Connected STOMP sessions")
+        .register(registry);
+  }
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    final String sessionId =
+        SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (sessionId != null) {
+      sessions.add(sessionId);
+    }
+  }
+
+  @EventListener
+  public void onDisconnected(SessionDisconnectEvent event) {
+    sessions.remove(event.getSessionId());
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    final MessageHeaders headers = message.getHeaders();
+    if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE) {
+      outboundCounter(MetricTags.destination(SimpMessageHeaderAccessor.getDestination(headers)))
+          .increment();
+    }
+    return message;
+  }
+
+  private Counter outboundCounter(String destination) {
+    return outbound.computeIfAbsent(destination, tag ->
+        Counter.builder("checkmate.websocket.messages.outbound")
+            .description("Messages delivered to STOMP sessions")
+            .tag("destination", tag)
+            .register(registry));
+  }
+}
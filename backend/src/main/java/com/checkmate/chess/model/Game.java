@@ -26,6 +26,14 @@ public class Game {
   @JoinColumn(name = "black_player_id")
   private User blackPlayer;
 
+  /** White's name for games imported from PGN, whose players have no account. */
+  @Column(name = "white_name", length = 100)
+  private String whiteName;
+
+  /** Black's name for games imported from PGN, whose players have no account. */
+  @Column(name = "black_name", length = 100)
+  private String blackName;
+
   @Column(name = "game_type", nullable = false)
   private String gameType;
 
@@ -38,6 +46,9 @@ public class Game {
   @Column(columnDefinition = "TEXT")
   private String pgn;
 
+  @Column(name = "ply_count", nullable = false)
+  private Integer plyCount = 0;
+
   @Column(nullable = false)
   private String status;
 
@@ -52,6 +63,10 @@ public class Game {
   @Column(name = "ended_at")
   private LocalDateTime endedAt;
 
+  /** Optimistic lock; conflicting writers are retried by {@code GameTransactions}. */
+  @Version
+  private Long version;
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -55,6 +56,14 @@ public class GameClock {
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt;
 
+  /** Instance whose engine runs the clock, see {@code NodeIdentity}. */
+  @Column(name = "owner_node", length = 64)
+  private String ownerNode;
+
+  /** Optimistic lock; conflicting writers are retried by {@code GameTransactions}. */
+  @Version
+  private Long version;
+
   public GameClock(UUID gameId, Long initialTimeMs, Long incrementMs, Long delayMs) {
     this.gameId = gameId;
     this.whiteTimeMs = initialTimeMs;
@@ -40,6 +40,10 @@ public class MatchmakingQueue {
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt;
 
+  /** Instance whose matchmaker holds the player, see {@code NodeIdentity}. */
+  @Column(name = "owner_node", length = 64)
+  private String ownerNode;
+
   public MatchmakingQueue(UUID userId, Integer rating, String timeControl) {
     this.userId = userId;
     this.rating = rating;
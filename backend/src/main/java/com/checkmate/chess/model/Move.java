@@ -31,7 +31,16 @@ public class Move {
   @Column(name = "algebraic_notation", nullable = false)
   private String algebraicNotation;
 
-  @Column(name = "fen_after_move", nullable = false, columnDefinition = "TEXT")
+  /** Zero-based half-move index within the game. */
+  @Column(name = "ply", nullable = false)
+  private Integer ply;
+
+  /** The move in MoveCodec form; null only for rows not yet backfilled. */
+  @Column(name = "move_code")
+  private Short moveCode;
+
+  /** Position after the move, stored only at checkpoint plies (see MoveCodec). */
+  @Column(name = "fen_after_move", columnDefinition = "TEXT")
   private String fenAfterMove;
 
   @Column(name = "time_remaining")
@@ -47,14 +56,16 @@ public class Move {
 
   public Move(
       final Game game,
-      final Integer moveNumber,
-      final String playerColor,
+      final Integer ply,
       final String algebraicNotation,
+      final Short moveCode,
       final String fenAfterMove) {
     this.game = game;
-    this.moveNumber = moveNumber;
-    this.playerColor = playerColor;
+    this.ply = ply;
+    this.moveNumber = ply / 2 + 1;
+    this.playerColor = ply % 2 == 0 ? "white" : "black";
     this.algebraicNotation = algebraicNotation;
+    this.moveCode = moveCode;
     this.fenAfterMove = fenAfterMove;
   }
 }
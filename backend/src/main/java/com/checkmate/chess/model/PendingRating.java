@@ -0,0 +1,49 @@
+package com.checkmate.chess.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entity representing a finished ranked game whose rating has not been applied yet.
+ * Written in the transaction that ends the game and deleted in the one that rates it, so a
+ * result survives a crash between the two.
+ */
+@Entity
+@Table(name = "rating_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PendingRating {
+
+  @Id
+  @Column(name = "game_id")
+  private UUID gameId;
+
+  @Column(name = "white_player_id", nullable = false)
+  private UUID whitePlayerId;
+
+  @Column(name = "black_player_id", nullable = false)
+  private UUID blackPlayerId;
+
+  @Column(name = "winner", nullable = false)
+  private String winner; // "white", "black", "draw"
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  public PendingRating(UUID gameId, UUID whitePlayerId, UUID blackPlayerId, String winner) {
+    this.gameId = gameId;
+    this.whitePlayerId = whitePlayerId;
+    this.blackPlayerId = blackPlayerId;
+    this.winner = winner;
+    this.createdAt = LocalDateTime.now();
+  }
+}
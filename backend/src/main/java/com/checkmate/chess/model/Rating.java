@@ -13,6 +13,8 @@ import jakarta.persistence.Table;
 /**
  * Entity representing a rating history entry.
  * Tracks ELO rating changes over time for analysis.
+ * Also holds the opponent's Glicko-2 rating at game time; rows stay pending until the
+ * rating period they belong to is closed.
  */
 @Entity
 @Table(name = "ratings")
@@ -25,7 +27,7 @@ public class Rating {
   @Column(name = "user_id", nullable = false)
   private UUID userId;
 
-  @Column(name = "game_id", nullable = false)
+  @Column(name = "game_id")
   private UUID gameId;
 
   @Column(name = "old_rating", nullable = false)
@@ -43,6 +45,15 @@ public class Rating {
   @Column(name = "game_result", nullable = false)
   private String gameResult; // "win", "loss", "draw"
 
+  @Column(name = "opponent_glicko_rating", nullable = false)
+  private Double opponentGlickoRating;
+
+  @Column(name = "opponent_glicko_rd", nullable = false)
+  private Double opponentGlickoRd;
+
+  @Column(name = "glicko_applied", nullable = false)
+  private Boolean glickoApplied = false;
+
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt;
 
@@ -116,6 +127,30 @@ public class Rating {
     this.gameResult = gameResult;
   }
 
+  public Double getOpponentGlickoRating() {
+    return opponentGlickoRating;
+  }
+
+  public void setOpponentGlickoRating(Double opponentGlickoRating) {
+    this.opponentGlickoRating = opponentGlickoRating;
+  }
+
+  public Double getOpponentGlickoRd() {
+    return opponentGlickoRd;
+  }
+
+  public void setOpponentGlickoRd(Double opponentGlickoRd) {
+    this.opponentGlickoRd = opponentGlickoRd;
+  }
+
+  public Boolean getGlickoApplied() {
+    return glickoApplied;
+  }
+
+  public void setGlickoApplied(Boolean glickoApplied) {
+    this.glickoApplied = glickoApplied;
+  }
+
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
@@ -42,6 +42,18 @@ public class User {
   @Column(name = "draws")
   private Integer draws = 0;
 
+  @Column(name = "glicko_rating")
+  private Double glickoRating = 1500.0;
+
+  @Column(name = "glicko_rd")
+  private Double glickoRd = 350.0;
+
+  @Column(name = "glicko_volatility")
+  private Double glickoVolatility = 0.06;
+
+  @Column(name = "glicko_period")
+  private Long glickoPeriod;
+
   @Column(name = "is_guest")
   private Boolean isGuest = false;
 
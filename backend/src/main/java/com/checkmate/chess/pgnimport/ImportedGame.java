@@ -0,0 +1,43 @@
+package com.checkmate.chess.pgnimport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A validated game ready to be written to the games and moves tables.
+ *
+ * @param id the game ID, generated on import
+ * @param whiteName the White tag, at most 100 characters
+ * @param blackName the Black tag, at most 100 characters
+ * @param timeControl bullet, blitz, rapid or classical, null if the TimeControl tag is unknown
+ * @param result WHITE_WINS, BLACK_WINS, DRAW, or null for an unfinished game
+ * @param endReason how the game ended
+ * @param pgn the movetext in the app's format, e.g. "1. e4 e5 2. Nf3"
+ * @param finalFen the position after the last move
+ * @param playedAt when the game was played, from the Date tag
+ * @param moves the moves in order
+ */
+public record ImportedGame(
+    UUID id,
+    String whiteName,
+    String blackName,
+    String timeControl,
+    String result,
+    String endReason,
+    String pgn,
+    String finalFen,
+    LocalDateTime playedAt,
+    List<ImportedMove> moves) {
+
+  /**
+   * One validated move.
+   *
+   * @param ply zero-based half-move index
+   * @param san the canonical SAN of the move, with check or mate suffix
+   * @param code the move in MoveCodec form
+   * @param fenAfter the position after the move at checkpoint plies, else null
+   */
+  public record ImportedMove(int ply, String san, short code, String fenAfter) {
+  }
+}
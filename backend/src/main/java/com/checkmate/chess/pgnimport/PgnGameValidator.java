@@ -0,0 +1,377 @@
+package com.checkmate.chess.pgnimport;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.checkmate.chess.game.MoveCodec;
+import com.checkmate.chess.game.SanNotation;
+import com.checkmate.chess.pgnimport.ImportedGame.ImportedMove;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Replays the movetext of a {@link PgnRecord} on a chesslib board and turns it into an
+ * {@link ImportedGame}.
+ * Every move must resolve to exactly one legal move; its SAN is stored in the form the app
+ * writes itself, so imported and played games read the same. Comments, variations, NAGs and
+ * annotation glyphs are dropped. Games from a set-up position or of another variant are
+ * rejected, since stored moves are replayed from the standard start.
+ * Stateless and safe to use from several threads.
+ */
+public final class PgnGameValidator {
+
+  private static final String STARTING_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+  private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+  private static final int MAX_NAME = 100;
+  private static final int MAX_END_REASON = 100;
+  private static final int MAX_SAN = 20;
+
+  private PgnGameValidator() {
+  }
+
+  /**
+   * Validate a game.
+   *
+   * @param record the game as read
+   * @param importedAt the time stored for games without a usable Date tag
+   * @return the game with its moves
+   * @throws IllegalArgumentException if the game cannot be imported; the message says why
+   */
+  public static ImportedGame validate(PgnRecord record, LocalDateTime importedAt) {
+    checkStandardStart(record);
+
+    final Board board = new Board();
+    final List<ImportedMove> moves = new ArrayList<>(96);
+    final StringBuilder pgn = new StringBuilder(512);
+    String movetextResult = null;
+    List<Move> legalMoves = board.legalMoves();
+
+    final String text = record.movetext();
+    final int length = text.length();
+    int depth = 0;
+    int i = 0;
+    while (i < length && movetextResult == null) {
+      final char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '{') {
+        i = skipPast(text, i, '}');
+      } else if (c == ';') {
+        i = skipPast(text, i, '\n');
+      } else if (c == '(') {
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth = Math.max(0, depth - 1);
+        i++;
+      } else {
+        final int end = tokenEnd(text, i);
+        final String token = text.substring(i, end);
+        i = end;
+        if (depth > 0 || token.charAt(0) == '$' || token.equals("e.p.")) {
+          continue;
+        }
+        if (isResult(token)) {
+          movetextResult = token;
+          continue;
+        }
+        final String san = stripMoveNumber(token);
+        if (san.isEmpty()) {
+          continue;
+        }
+
+        final int ply = moves.size();
+        final Move move = resolve(board, legalMoves, san, ply);
+        final String body = SanNotation.describe(board, move, legalMoves);
+        board.doMove(move);
+        legalMoves = board.legalMoves();
+        final boolean isCheck = board.isKingAttacked();
+        final String notation =
+            SanNotation.withSuffix(body, isCheck, isCheck && legalMoves.isEmpty());
+
+        moves.add(new ImportedMove(ply, notation, MoveCodec.encode(move),
+            MoveCodec.isCheckpoint(ply) ? board.getFen() : null));
+        appendToPgn(pgn, ply, notation);
+      }
+    }
+
+    final String pgnResult = record.tag("Result") != null ? record.tag("Result") : movetextResult;
+    return new ImportedGame(
+        UUID.randomUUID(),
+        truncate(record.tag("White"), MAX_NAME),
+        truncate(record.tag("Black"), MAX_NAME),
+        timeControl(record.tag("TimeControl")),
+        result(pgnResult),
+        truncate(endReason(board, legalMoves, record.tag("Termination")), MAX_END_REASON),
+        pgn.toString(),
+        board.getFen(),
+        playedAt(record.tag("Date"), importedAt),
+        moves);
+  }
+
+  /**
+   * Find the legal move a SAN token stands for. Accepts "0-0" castling, "=Q" or "Q"
+   * promotions, "e.p." markers and long forms such as "Ng1f3" or "e2-e4".
+   */
+  static Move resolve(Board board, List<Move> legalMoves, String token, int ply) {
+    String san = stripAnnotations(token);
+
+    if (san.equals("O-O") || san.equals("0-0") || san.equals("O-O-O") || san.equals("0-0-0")) {
+      final boolean kingside = san.length() == 3;
+      for (Move move : legalMoves) {
+        if (isCastle(board, move)
+            && move.getTo().getFile().ordinal() > move.getFrom().getFile().ordinal() == kingside) {
+          return move;
+        }
+      }
+      throw illegal(token, ply, board);
+    }
+
+    PieceType promotion = null;
+    final int equals = san.indexOf('=');
+    if (equals > 0 && equals == san.length() - 2) {
+      promotion = pieceType(san.charAt(equals + 1));
+      san = san.substring(0, equals);
+    } else if (san.length() >= 3 && pieceType(san.charAt(san.length() - 1)) != null
+        && Character.isDigit(san.charAt(san.length() - 2))) {
+      promotion = pieceType(san.charAt(san.length() - 1));
+      san = san.substring(0, san.length() - 1);
+    }
+    if (san.length() < 2 || (equals > 0 && promotion == null)) {
+      throw illegal(token, ply, board);
+    }
+
+    final Square target = square(san.charAt(san.length() - 2), san.charAt(san.length() - 1));
+    String hint = san.substring(0, san.length() - 2);
+    PieceType pieceType = PieceType.PAWN;
+    if (!hint.isEmpty() && Character.isUpperCase(hint.charAt(0))) {
+      pieceType = hint.charAt(0) == 'K' ? PieceType.KING : pieceType(hint.charAt(0));
+      if (pieceType == null) {
+        throw illegal(token, ply, board);
+      }
+      hint = hint.substring(1);
+    }
+
+    int fromFile = -1;
+    int fromRank = -1;
+    for (int k = 0; k < hint.length(); k++) {
+      final char h = hint.charAt(k);
+      if (h >= 'a' && h <= 'h') {
+        fromFile = h - 'a';
+      } else if (h >= '1' && h <= '8') {
+        fromRank = h - '1';
+      } else if (h != 'x' && h != ':' && h != '-') {
+        throw illegal(token, ply, board);
+      }
+    }
+    if (target == null) {
+      throw illegal(token, ply, board);
+    }
+
+    Move match = null;
+    for (Move move : legalMoves) {
+      final Square from = move.getFrom();
+      if (move.getTo() != target
+          || board.getPiece(from).getPieceType() != pieceType
+          || (fromFile >= 0 && from.getFile().ordinal() != fromFile)
+          || (fromRank >= 0 && from.getRank().ordinal() != fromRank)
+          || promotionOf(move) != promotion
+          || (pieceType == PieceType.KING && isCastle(board, move))) {
+        continue;
+      }
+      if (match != null) {
+        throw new IllegalArgumentException(
+            "Ambiguous move " + token + " at ply " + (ply + 1) + " in " + board.getFen());
+      }
+      match = move;
+    }
+    if (match == null) {
+      throw illegal(token, ply, board);
+    }
+    return match;
+  }
+
+  private static void checkStandardStart(PgnRecord record) {
+    final String variant = record.tag("Variant");
+    if (variant != null && !variant.isBlank()
+        && !variant.equalsIgnoreCase("Standard") && !variant.equalsIgnoreCase("chess")) {
+      throw new IllegalArgumentException("Unsupported variant " + variant);
+    }
+    final String fen = record.tag("FEN");
+    if ("1".equals(record.tag("SetUp")) || (fen != null && !fen.equals(STARTING_FEN))) {
+      throw new IllegalArgumentException("Games from a set-up position are not supported");
+    }
+  }
+
+  private static void appendToPgn(StringBuilder pgn, int ply, String notation) {
+    if (!pgn.isEmpty()) {
+      pgn.append(' ');
+    }
+    if (ply % 2 == 0) {
+      pgn.append(ply / 2 + 1).append(". ");
+    }
+    pgn.append(notation);
+  }
+
+  private static String stripAnnotations(String token) {
+    int end = token.length();
+    while (end > 0 && "+#!?".indexOf(token.charAt(end - 1)) >= 0) {
+      end--;
+    }
+    final String san = token.substring(0, end);
+    return san.endsWith("e.p.") ? san.substring(0, san.length() - 4) : san;
+  }
+
+  /**
+   * Drop a leading move number such as "12." or "12..." from a token.
+   */
+  private static String stripMoveNumber(String token) {
+    int k = 0;
+    while (k < token.length() && Character.isDigit(token.charAt(k))) {
+      k++;
+    }
+    if (k == 0 || k == token.length() || token.charAt(k) != '.') {
+      return k == token.length() ? "" : token;
+    }
+    while (k < token.length() && token.charAt(k) == '.') {
+      k++;
+    }
+    return token.substring(k);
+  }
+
+  private static boolean isResult(String token) {
+    return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2")
+        || token.equals("*");
+  }
+
+  private static int tokenEnd(String text, int start) {
+    int end = start + 1;
+    while (end < text.length()) {
+      final char c = text.charAt(end);
+      if (Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == ';') {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  private static int skipPast(String text, int start, char terminator) {
+    final int end = text.indexOf(terminator, start + 1);
+    return end < 0 ? text.length() : end + 1;
+  }
+
+  private static boolean isCastle(Board board, Move move) {
+    return board.getPiece(move.getFrom()).getPieceType() == PieceType.KING
+        && Math.abs(move.getFrom().getFile().ordinal() - move.getTo().getFile().ordinal()) == 2;
+  }
+
+  private static PieceType promotionOf(Move move) {
+    final Piece promotion = move.getPromotion();
+    return promotion == null || promotion == Piece.NONE ? null : promotion.getPieceType();
+  }
+
+  private static PieceType pieceType(char symbol) {
+    return switch (symbol) {
+      case 'Q' -> PieceType.QUEEN;
+      case 'R' -> PieceType.ROOK;
+      case 'B' -> PieceType.BISHOP;
+      case 'N' -> PieceType.KNIGHT;
+      default -> null;
+    };
+  }
+
+  private static Square square(char file, char rank) {
+    if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+      return null;
+    }
+    return Square.squareAt((rank - '1') * 8 + (file - 'a'));
+  }
+
+  private static IllegalArgumentException illegal(String token, int ply, Board board) {
+    return new IllegalArgumentException("Illegal move " + truncate(token, MAX_SAN)
+        + " at ply " + (ply + 1) + " in " + board.getFen());
+  }
+
+  private static String result(String pgnResult) {
+    if (pgnResult == null) {
+      return null;
+    }
+    return switch (pgnResult.strip()) {
+      case "1-0" -> "WHITE_WINS";
+      case "0-1" -> "BLACK_WINS";
+      case "1/2-1/2" -> "DRAW";
+      default -> null;
+    };
+  }
+
+  private static String endReason(Board board, List<Move> legalMoves, String termination) {
+    if (legalMoves.isEmpty()) {
+      return board.isKingAttacked() ? "Checkmate" : "Stalemate";
+    }
+    if (termination == null || termination.isBlank()
+        || termination.equalsIgnoreCase("normal") || termination.equalsIgnoreCase("unterminated")) {
+      return "Imported";
+    }
+    return termination.equalsIgnoreCase("time forfeit") ? "timeout" : termination;
+  }
+
+  /**
+   * Map a TimeControl tag such as "180+2" or "40/7200:3600" onto the app's categories, by
+   * the base time plus 40 increments.
+   */
+  static String timeControl(String tag) {
+    if (tag == null || tag.isBlank() || tag.equals("-") || tag.equals("?")) {
+      return null;
+    }
+    String period = tag.split(":", 2)[0];
+    period = period.substring(period.indexOf('/') + 1);
+    final String[] parts = period.split("\\+", 2);
+    try {
+      final long base = Long.parseLong(parts[0].strip());
+      final long increment = parts.length > 1 ? Long.parseLong(parts[1].strip()) : 0;
+      final long estimated = base + 40 * increment;
+      if (estimated < 180) {
+        return "bullet";
+      }
+      if (estimated < 480) {
+        return "blitz";
+      }
+      return estimated < 1500 ? "rapid" : "classical";
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static LocalDateTime playedAt(String date, LocalDateTime importedAt) {
+    if (date == null || date.indexOf('?') >= 0) {
+      return importedAt;
+    }
+    try {
+      return LocalDate.parse(date.strip(), PGN_DATE).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      return importedAt;
+    }
+  }
+
+  private static String truncate(String value, int maxLength) {
+    if (value == null) {
+      return null;
+    }
+    final String stripped = value.strip();
+    if (stripped.isEmpty() || stripped.equals("?")) {
+      return null;
+    }
+    return stripped.length() <= maxLength ? stripped : stripped.substring(0, maxLength);
+  }
+}
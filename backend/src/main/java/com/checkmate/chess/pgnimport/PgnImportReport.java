@@ -0,0 +1,26 @@
+package com.checkmate.chess.pgnimport;
+
+import java.util.List;
+
+/**
+ * Outcome of a PGN import.
+ *
+ * @param gamesRead games found in the file
+ * @param gamesImported games stored
+ * @param gamesRejected games skipped because they failed validation or could not be stored
+ * @param movesImported moves stored
+ * @param bytesRead bytes of PGN read, after decompression
+ * @param elapsedMillis duration of the import
+ * @param gamesPerMinute import throughput
+ * @param errors the first rejections, as "line N: reason"
+ */
+public record PgnImportReport(
+    long gamesRead,
+    long gamesImported,
+    long gamesRejected,
+    long movesImported,
+    long bytesRead,
+    long elapsedMillis,
+    long gamesPerMinute,
+    List<String> errors) {
+}
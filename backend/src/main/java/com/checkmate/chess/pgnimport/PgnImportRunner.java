@@ -0,0 +1,66 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line PGN import: with {@code app.pgn-import.file} set, imports that file once the
+ * application has started and then shuts it down. Files ending in ".gz" are decompressed
+ * on the fly. Run through {@code ./gradlew importPgn -Pfile=games.pgn}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.pgn-import.file")
+public class PgnImportRunner implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(PgnImportRunner.class);
+
+  private static final int READ_BUFFER_BYTES = 1 << 20;
+
+  private final PgnImportService pgnImportService;
+  private final ConfigurableApplicationContext context;
+  private final Path file;
+
+  public PgnImportRunner(
+      PgnImportService pgnImportService,
+      ConfigurableApplicationContext context,
+      @Value("${app.pgn-import.file}") Path file) {
+    this.pgnImportService = pgnImportService;
+    this.context = context;
+    this.file = file;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    int exitCode = 0;
+    try (InputStream in = open(file)) {
+      final PgnImportReport report = pgnImportService.importPgn(in);
+      report.errors().forEach(error -> logger.warn("Rejected game at {}", error));
+    } catch (Exception e) {
+      logger.error("PGN import of {} failed", file, e);
+      exitCode = 1;
+    }
+    final int status = exitCode;
+    System.exit(SpringApplication.exit(context, () -> status));
+  }
+
+  private static InputStream open(Path file) throws IOException {
+    final InputStream in = new BufferedInputStream(Files.newInputStream(file), READ_BUFFER_BYTES);
+    return file.getFileName().toString().endsWith(".gz")
+        ? new GZIPInputStream(in, READ_BUFFER_BYTES)
+        : in;
+  }
+}
@@ -0,0 +1,258 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports multi-game PGN files into the games and moves tables.
+ * The calling thread parses the stream and hands chunks of {@code app.pgn-import.chunk-size}
+ * games to a pool of {@code app.pgn-import.threads} validators (default: one per core); a
+ * single writer thread stores each validated chunk in one transaction. At most two chunks per
+ * validator are in flight, so memory stays bounded whatever the file size. Invalid games are
+ * skipped and reported, they do not fail the import. Games are not matched against what is
+ * already stored: importing a file twice stores its games twice.
+ */
+@Service
+public class PgnImportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(PgnImportService.class);
+
+  private static final int MAX_REPORTED_ERRORS = 20;
+
+  private final PgnImportWriter writer;
+  private final int threads;
+  private final int chunkSize;
+  private final long progressIntervalNanos;
+
+  public PgnImportService(
+      PgnImportWriter writer,
+      @Value("${app.pgn-import.threads:0}") int threads,
+      @Value("${app.pgn-import.chunk-size:250}") int chunkSize,
+      @Value("${app.pgn-import.progress-interval-ms:10000}") long progressIntervalMs) {
+    this.writer = writer;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.chunkSize = Math.max(1, chunkSize);
+    this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMs);
+  }
+
+  /**
+   * Import every game of a PGN stream. Returns once all games read are stored or rejected.
+   * If reading fails, chunks already stored stay stored.
+   *
+   * @param in the PGN text, UTF-8 or ASCII; not closed
+   * @return counts and the first rejections
+   * @throws IOException if the stream cannot be read
+   */
+  public PgnImportReport importPgn(InputStream in) throws IOException {
+    final CountingInputStream counting = new CountingInputStream(in);
+    final Progress progress = new Progress(counting);
+    final LocalDateTime importedAt = LocalDateTime.now();
+    final int maxInFlight = threads * 2;
+    final Semaphore inFlight = new Semaphore(maxInFlight);
+    final ExecutorService validators =
+        Executors.newFixedThreadPool(threads, namedThreads("pgn-import-validator"));
+    final ExecutorService store =
+        Executors.newSingleThreadExecutor(namedThreads("pgn-import-writer"));
+
+    logger.info("PGN import started with {} validator threads", threads);
+    try {
+      final PgnReader reader =
+          new PgnReader(new InputStreamReader(counting, StandardCharsets.UTF_8));
+      List<PgnRecord> chunk = new ArrayList<>(chunkSize);
+      PgnRecord record;
+      while ((record = reader.next()) != null) {
+        progress.read.incrementAndGet();
+        chunk.add(record);
+        if (chunk.size() == chunkSize) {
+          submit(chunk, importedAt, progress, inFlight, validators, store);
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        submit(chunk, importedAt, progress, inFlight, validators, store);
+      }
+      inFlight.acquire(maxInFlight);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("PGN import interrupted");
+    } finally {
+      validators.shutdownNow();
+      store.shutdownNow();
+    }
+
+    final PgnImportReport report = progress.report();
+    logger.info("PGN import finished: {} games imported, {} rejected, {} moves in {} ms"
+        + " ({} games/min)", report.gamesImported(), report.gamesRejected(),
+        report.movesImported(), report.elapsedMillis(), report.gamesPerMinute());
+    return report;
+  }
+
+  private void submit(
+      List<PgnRecord> chunk,
+      LocalDateTime importedAt,
+      Progress progress,
+      Semaphore inFlight,
+      ExecutorService validators,
+      ExecutorService store) throws InterruptedException {
+    inFlight.acquire();
+    CompletableFuture.supplyAsync(() -> validate(chunk, importedAt, progress), validators)
+        .thenAcceptAsync(games -> write(games, progress), store)
+        .whenComplete((ignored, e) -> {
+          if (e != null) {
+            logger.error("PGN import chunk failed", e);
+          }
+          inFlight.release();
+        });
+  }
+
+  private static List<ImportedGame> validate(
+      List<PgnRecord> chunk, LocalDateTime importedAt, Progress progress) {
+    final List<ImportedGame> games = new ArrayList<>(chunk.size());
+    for (PgnRecord record : chunk) {
+      try {
+        games.add(PgnGameValidator.validate(record, importedAt));
+      } catch (RuntimeException e) {
+        progress.reject(1, "line " + record.line() + ": " + e.getMessage());
+      }
+    }
+    return games;
+  }
+
+  private void write(List<ImportedGame> games, Progress progress) {
+    try {
+      progress.moves.addAndGet(writer.write(games));
+      progress.imported.addAndGet(games.size());
+    } catch (RuntimeException e) {
+      progress.reject(games.size(), "chunk of " + games.size() + " games not stored: "
+          + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+    }
+    progress.logIfDue(progressIntervalNanos);
+  }
+
+  private static ThreadFactory namedThreads(String prefix) {
+    final AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Counters of one import, shared by the reader, validator and writer threads.
+   */
+  private static final class Progress {
+
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong moves = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private final CountingInputStream bytes;
+    private final long startNanos = System.nanoTime();
+    private long lastLogNanos = startNanos;
+
+    Progress(CountingInputStream bytes) {
+      this.bytes = bytes;
+    }
+
+    void reject(int games, String error) {
+      rejected.addAndGet(games);
+      synchronized (errors) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+          errors.add(error);
+        }
+      }
+    }
+
+    /**
+     * Log progress at most once per interval; called from the writer thread only.
+     */
+    void logIfDue(long intervalNanos) {
+      final long now = System.nanoTime();
+      if (now - lastLogNanos < intervalNanos) {
+        return;
+      }
+      lastLogNanos = now;
+      logger.info("PGN import: {} games read, {} imported, {} rejected, {} moves, {} MB,"
+          + " {} games/min", read.get(), imported.get(), rejected.get(), moves.get(),
+          bytes.count() >> 20, perMinute(imported.get(), now - startNanos));
+    }
+
+    PgnImportReport report() {
+      final long elapsedNanos = System.nanoTime() - startNanos;
+      final List<String> reported;
+      synchronized (errors) {
+        reported = List.copyOf(errors);
+      }
+      return new PgnImportReport(read.get(), imported.get(), rejected.get(), moves.get(),
+          bytes.count(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          perMinute(imported.get(), elapsedNanos), reported);
+    }
+
+    private static long perMinute(long games, long elapsedNanos) {
+      return elapsedNanos <= 0
+          ? games : (long) ((double) games * TimeUnit.MINUTES.toNanos(1) / elapsedNanos);
+    }
+  }
+
+  /**
+   * Counts the bytes read through it, for progress reports. Read by one thread at a time.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private volatile long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      final int n = super.read(buffer, offset, length);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    @Override
+    public void close() {
+      // The caller owns the underlying stream
+    }
+
+    long count() {
+      return count;
+    }
+  }
+}
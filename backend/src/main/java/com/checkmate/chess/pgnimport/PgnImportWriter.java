@@ -0,0 +1,96 @@
+package com.checkmate.chess.pgnimport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.checkmate.chess.pgnimport.ImportedGame.ImportedMove;
+
+/**
+ * Writes imported games with JDBC batch inserts, bypassing the entity layer: no persistence
+ * context, no per-row ID generation round trips and no dirty checking. Each call is one
+ * transaction; statements are sent in batches of {@code app.pgn-import.batch-size}, which
+ * defaults to Hibernate's {@code jdbc.batch_size}.
+ */
+@Component
+public class PgnImportWriter {
+
+  private static final String INSERT_GAME = "INSERT INTO games (id, white_name, black_name,"
+      + " game_type, time_control, current_fen, pgn, ply_count, status, result, end_reason,"
+      + " created_at, ended_at, version)"
+      + " VALUES (?, ?, ?, 'IMPORTED', ?, ?, ?, ?, 'FINISHED', ?, ?, ?, ?, 0)";
+  private static final String INSERT_MOVE = "INSERT INTO moves (id, game_id, move_number,"
+      + " player_color, algebraic_notation, ply, move_code, fen_after_move, created_at)"
+      + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+
+  public PgnImportWriter(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.pgn-import.batch-size:${spring.jpa.properties.hibernate.jdbc.batch_size:20}}")
+      int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Store games and their moves in one transaction.
+   *
+   * @param games the validated games
+   * @return the number of moves stored
+   */
+  public int write(List<ImportedGame> games) {
+    if (games.isEmpty()) {
+      return 0;
+    }
+    final List<MoveRow> moves = new ArrayList<>(games.size() * 80);
+    for (ImportedGame game : games) {
+      for (ImportedMove move : game.moves()) {
+        moves.add(new MoveRow(game.id(), game.playedAt(), move));
+      }
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.batchUpdate(INSERT_GAME, games, batchSize, (ps, game) -> {
+        ps.setObject(1, game.id());
+        ps.setString(2, game.whiteName());
+        ps.setString(3, game.blackName());
+        ps.setString(4, game.timeControl());
+        ps.setString(5, game.finalFen());
+        ps.setString(6, game.pgn());
+        ps.setInt(7, game.moves().size());
+        ps.setString(8, game.result());
+        ps.setString(9, game.endReason());
+        ps.setObject(10, game.playedAt());
+        ps.setObject(11, game.playedAt());
+      });
+      jdbcTemplate.batchUpdate(INSERT_MOVE, moves, batchSize, (ps, row) -> {
+        final ImportedMove move = row.move();
+        ps.setObject(1, UUID.randomUUID());
+        ps.setObject(2, row.gameId());
+        ps.setInt(3, move.ply() / 2 + 1);
+        ps.setString(4, move.ply() % 2 == 0 ? "white" : "black");
+        ps.setString(5, move.san());
+        ps.setInt(6, move.ply());
+        ps.setShort(7, move.code());
+        ps.setString(8, move.fenAfter());
+        ps.setObject(9, row.playedAt());
+      });
+    });
+    return moves.size();
+  }
+
+  private record MoveRow(UUID gameId, LocalDateTime playedAt, ImportedMove move) {
+  }
+}
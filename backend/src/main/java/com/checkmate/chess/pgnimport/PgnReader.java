@@ -0,0 +1,132 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits a multi-game PGN stream into {@link PgnRecord}s, one game at a time, so files of
+ * any size are read in constant memory.
+ * A game ends where the tag section of the next one starts or at the end of the stream;
+ * brace comments may span lines and are kept in the movetext. Escape lines starting with
+ * '%' are skipped.
+ */
+public class PgnReader implements Closeable {
+
+  private static final int BUFFER_CHARS = 1 << 16;
+
+  private final BufferedReader reader;
+  private String pendingLine;
+  private long lineNumber;
+
+  public PgnReader(Reader reader) {
+    this.reader = new BufferedReader(reader, BUFFER_CHARS);
+  }
+
+  /**
+   * Read the next game.
+   *
+   * @return the game, or null at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  public PgnRecord next() throws IOException {
+    final Map<String, String> tags = new HashMap<>();
+    final StringBuilder movetext = new StringBuilder(512);
+    long startLine = 0;
+    boolean inComment = false;
+
+    String line;
+    while ((line = nextLine()) != null) {
+      if (!inComment) {
+        if (line.startsWith("%")) {
+          continue;
+        }
+        final String trimmed = line.strip();
+        if (trimmed.isEmpty()) {
+          continue;
+        }
+        if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+          if (!movetext.isEmpty()) {
+            pendingLine = line;
+            return new PgnRecord(tags, movetext.toString(), startLine);
+          }
+          if (tags.isEmpty()) {
+            startLine = lineNumber;
+          }
+          putTag(tags, trimmed);
+          continue;
+        }
+      }
+      if (tags.isEmpty() && movetext.isEmpty()) {
+        startLine = lineNumber;
+      }
+      movetext.append(line).append('\n');
+      inComment = endsInComment(line, inComment);
+    }
+
+    if (tags.isEmpty() && movetext.isEmpty()) {
+      return null;
+    }
+    return new PgnRecord(tags, movetext.toString(), startLine);
+  }
+
+  /**
+   * Line number of the last line read, 1-based.
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private String nextLine() throws IOException {
+    if (pendingLine != null) {
+      final String line = pendingLine;
+      pendingLine = null;
+      return line;
+    }
+    final String line = reader.readLine();
+    if (line != null) {
+      lineNumber++;
+    }
+    return line;
+  }
+
+  /**
+   * Parse a tag pair such as {@code [White "Tal, Mikhail"]}; malformed tags are ignored.
+   */
+  private static void putTag(Map<String, String> tags, String tagLine) {
+    final int nameEnd = tagLine.indexOf(' ');
+    final int valueStart = tagLine.indexOf('"');
+    final int valueEnd = tagLine.lastIndexOf('"');
+    if (nameEnd < 2 || valueStart < nameEnd || valueEnd <= valueStart) {
+      return;
+    }
+    final String value = tagLine.substring(valueStart + 1, valueEnd);
+    tags.put(tagLine.substring(1, nameEnd),
+        value.indexOf('\\') < 0 ? value : value.replace("\\\"", "\"").replace("\\\\", "\\"));
+  }
+
+  /**
+   * Whether a brace comment is still open at the end of a line.
+   */
+  private static boolean endsInComment(String line, boolean inComment) {
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (inComment) {
+        inComment = c != '}';
+      } else if (c == '{') {
+        inComment = true;
+      } else if (c == ';') {
+        return false;
+      }
+    }
+    return inComment;
+  }
+}
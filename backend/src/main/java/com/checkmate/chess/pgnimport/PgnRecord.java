@@ -0,0 +1,17 @@
+package com.checkmate.chess.pgnimport;
+
+import java.util.Map;
+
+/**
+ * One game as read from a PGN file, before its moves are checked.
+ *
+ * @param tags the tag pairs, e.g. "White" to "Carlsen, Magnus"
+ * @param movetext the movetext section with comments and variations still in place
+ * @param line the line of the file the game starts on, for error reports
+ */
+public record PgnRecord(Map<String, String> tags, String movetext, long line) {
+
+  public String tag(String name) {
+    return tags.get(name);
+  }
+}
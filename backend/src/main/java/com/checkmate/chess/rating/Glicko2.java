@@ -0,0 +1,156 @@
+package com.checkmate.chess.rating;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Glicko-2 rating calculator (Glickman, "Example of the Glicko-2 system").
+ * Results are collected per rating period of {@code app.rating.glicko.period-ms} and applied
+ * together when the period closes. {@code app.rating.glicko.tau} constrains volatility change.
+ */
+@Component
+public class Glicko2 {
+
+  static final double SCALE = 173.7178;
+  static final double DEFAULT_RATING = 1500;
+  static final double MAX_RD = 350;
+  private static final double CONVERGENCE = 0.000001;
+
+  private final double tau;
+  private final long periodMs;
+
+  public Glicko2(
+      @Value("${app.rating.glicko.tau:0.5}") double tau,
+      @Value("${app.rating.glicko.period-ms:86400000}") long periodMs) {
+    this.tau = tau;
+    this.periodMs = periodMs;
+  }
+
+  /**
+   * A player's Glicko-2 state on the public (Glicko) scale.
+   *
+   * @param rating the rating
+   * @param rd the rating deviation
+   * @param volatility the rating volatility
+   */
+  public record GlickoRating(double rating, double rd, double volatility) {}
+
+  /**
+   * One game from the rated player's point of view.
+   *
+   * @param opponentRating the opponent's rating at the start of the period
+   * @param opponentRd the opponent's rating deviation at the start of the period
+   * @param score 1 for a win, 0.5 for a draw, 0 for a loss
+   */
+  public record Outcome(double opponentRating, double opponentRd, double score) {}
+
+  /**
+   * Rate a player over one period.
+   *
+   * @param player the player's state at the start of the period
+   * @param idlePeriods earlier periods without games, which only widen the deviation
+   * @param outcomes the games played in the period, empty if none
+   * @return the state at the end of the period
+   */
+  public GlickoRating rate(GlickoRating player, long idlePeriods, List<Outcome> outcomes) {
+    final double mu = (player.rating() - DEFAULT_RATING) / SCALE;
+    final double sigma = player.volatility();
+    final double maxPhi = MAX_RD / SCALE;
+    double phi = player.rd() / SCALE;
+    if (idlePeriods > 0) {
+      phi = Math.min(maxPhi, Math.sqrt(phi * phi + idlePeriods * sigma * sigma));
+    }
+
+    if (outcomes.isEmpty()) {
+      final double widened = Math.min(maxPhi, Math.sqrt(phi * phi + sigma * sigma));
+      return new GlickoRating(player.rating(), widened * SCALE, sigma);
+    }
+
+    double inverseVariance = 0;
+    double improvementSum = 0;
+    for (Outcome outcome : outcomes) {
+      final double opponentMu = (outcome.opponentRating() - DEFAULT_RATING) / SCALE;
+      final double g = g(outcome.opponentRd() / SCALE);
+      final double expected = 1.0 / (1.0 + Math.exp(-g * (mu - opponentMu)));
+      inverseVariance += g * g * expected * (1 - expected);
+      improvementSum += g * (outcome.score() - expected);
+    }
+    final double variance = 1.0 / inverseVariance;
+    final double delta = variance * improvementSum;
+
+    final double newSigma = volatility(phi, sigma, variance, delta);
+    final double phiStar = Math.sqrt(phi * phi + newSigma * newSigma);
+    final double newPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / variance);
+    final double newMu = mu + newPhi * newPhi * improvementSum;
+
+    return new GlickoRating(
+        newMu * SCALE + DEFAULT_RATING, Math.min(maxPhi, newPhi) * SCALE, newSigma);
+  }
+
+  /**
+   * Index of the rating period containing a point in time.
+   */
+  public long periodOf(long epochMillis) {
+    return Math.floorDiv(epochMillis, periodMs);
+  }
+
+  /**
+   * Local start time of a rating period, comparable with entity timestamps.
+   */
+  public LocalDateTime periodStart(long period) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(period * periodMs), ZoneId.systemDefault());
+  }
+
+  private static double g(double phi) {
+    return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+  }
+
+  /**
+   * New volatility by the Illinois variant of regula falsi (step 5 of the paper).
+   */
+  private double volatility(double phi, double sigma, double variance, double delta) {
+    final double a = Math.log(sigma * sigma);
+    final double phiSquared = phi * phi;
+    final double deltaSquared = delta * delta;
+
+    double lower = a;
+    double upper;
+    if (deltaSquared > phiSquared + variance) {
+      upper = Math.log(deltaSquared - phiSquared - variance);
+    } else {
+      int k = 1;
+      while (f(a - k * tau, a, phiSquared, variance, deltaSquared) < 0) {
+        k++;
+      }
+      upper = a - k * tau;
+    }
+
+    double fLower = f(lower, a, phiSquared, variance, deltaSquared);
+    double fUpper = f(upper, a, phiSquared, variance, deltaSquared);
+    while (Math.abs(upper - lower) > CONVERGENCE) {
+      final double next = lower + (lower - upper) * fLower / (fUpper - fLower);
+      final double fNext = f(next, a, phiSquared, variance, deltaSquared);
+      if (fNext * fUpper <= 0) {
+        lower = upper;
+        fLower = fUpper;
+      } else {
+        fLower = fLower / 2;
+      }
+      upper = next;
+      fUpper = fNext;
+    }
+    return Math.exp(lower / 2);
+  }
+
+  private double f(double x, double a, double phiSquared, double variance, double deltaSquared) {
+    final double ex = Math.exp(x);
+    final double denominator = phiSquared + variance + ex;
+    return ex * (deltaSquared - phiSquared - variance - ex) / (2 * denominator * denominator)
+        - (x - a) / (tau * tau);
+  }
+}
@@ -0,0 +1,194 @@
+package com.checkmate.chess.rating;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.model.PendingRating;
+import com.checkmate.chess.repository.PendingRatingRepository;
+import com.checkmate.chess.service.RatingService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous, batched rating updates.
+ * Finished ranked games are queued after their transaction commits and applied by a single
+ * background thread, up to {@code app.rating.batch-size} games per transaction every
+ * {@code app.rating.flush-interval-ms}. Ending a game therefore never waits on rating work or
+ * locks player rows. If the queue is full the update is applied on the caller's thread, and a
+ * batch that fails is retried one game at a time so one bad result cannot drop the others.
+ *
+ * <p>The queue is only the fast path: each result is also written to the rating outbox in the
+ * transaction that ends the game, and removed in the one that rates it. The outbox is swept
+ * into the queue on startup and every {@code app.rating.sweep-interval-ms}, so results lost
+ * with the process or dropped by a failed batch are rated later.
+ */
+@Component
+public class RatingPipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(RatingPipeline.class);
+
+  private final RatingService ratingService;
+  private final PendingRatingRepository pendingRatingRepository;
+  private final int batchSize;
+  private final int maxPending;
+  private final BlockingQueue<RatingUpdate> queue;
+  private final ScheduledExecutorService flusher;
+
+  public RatingPipeline(
+      RatingService ratingService,
+      PendingRatingRepository pendingRatingRepository,
+      @Value("${app.rating.batch-size:100}") int batchSize,
+      @Value("${app.rating.flush-interval-ms:500}") long flushIntervalMs,
+      @Value("${app.rating.max-pending:10000}") int maxPending,
+      @Value("${app.rating.sweep-interval-ms:60000}") long sweepIntervalMs) {
+    this.ratingService = ratingService;
+    this.pendingRatingRepository = pendingRatingRepository;
+    this.batchSize = Math.max(1, batchSize);
+    this.maxPending = maxPending;
+    this.queue = new LinkedBlockingQueue<>(maxPending);
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "rating-pipeline");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.flusher.scheduleWithFixedDelay(
+        this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    // Entries younger than one interval are normally still on their way through the queue
+    this.flusher.scheduleWithFixedDelay(
+        () -> sweep(LocalDateTime.now().minus(Duration.ofMillis(sweepIntervalMs))),
+        sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Record a ranked game in the rating outbox, in the transaction that ends it.
+   *
+   * @param event the game end event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void recordPending(GameEndedEvent event) {
+    if (isRanked(event)) {
+      pendingRatingRepository.save(new PendingRating(
+          event.gameId(), event.whitePlayerId(), event.blackPlayerId(), event.winner()));
+    }
+  }
+
+  /**
+   * Queue a ranked game for rating once its end has committed.
+   *
+   * @param event the game end event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(GameEndedEvent event) {
+    if (isRanked(event)) {
+      submit(new RatingUpdate(
+          event.gameId(), event.whitePlayerId(), event.blackPlayerId(), event.winner()));
+    }
+  }
+
+  /**
+   * Queue every game left in the outbox by a previous run.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    flusher.execute(() -> sweep(LocalDateTime.now()));
+  }
+
+  /**
+   * Queue the outbox entries recorded before a cutoff, oldest first.
+   *
+   * @param before the cutoff time
+   * @return the number of games queued
+   */
+  public int sweep(LocalDateTime before) {
+    try {
+      List<PendingRating> pending = pendingRatingRepository
+          .findByCreatedAtBeforeOrderByCreatedAtAsc(before, PageRequest.of(0, maxPending));
+      for (PendingRating entry : pending) {
+        submit(new RatingUpdate(entry.getGameId(), entry.getWhitePlayerId(),
+            entry.getBlackPlayerId(), entry.getWinner()));
+      }
+      if (!pending.isEmpty()) {
+        logger.info("Queued {} unrated games from the rating outbox", pending.size());
+      }
+      return pending.size();
+    } catch (RuntimeException e) {
+      logger.error("Rating outbox sweep failed", e);
+      return 0;
+    }
+  }
+
+  /**
+   * Queue a game result for the next batch.
+   *
+   * @param update the result to rate
+   */
+  public void submit(RatingUpdate update) {
+    if (!queue.offer(update)) {
+      logger.warn("Rating queue full, rating game {} synchronously", update.gameId());
+      applyEach(List.of(update));
+    }
+  }
+
+  /**
+   * Apply everything queued so far, one batch per transaction.
+   */
+  public void flush() {
+    List<RatingUpdate> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      try {
+        ratingService.applyBatch(batch);
+      } catch (RuntimeException e) {
+        logger.error("Rating batch of {} games failed, retrying individually", batch.size(), e);
+        applyEach(batch);
+      }
+      batch = new ArrayList<>(batchSize);
+    }
+  }
+
+  public int pendingCount() {
+    return queue.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  private static boolean isRanked(GameEndedEvent event) {
+    return "ranked".equalsIgnoreCase(event.gameType());
+  }
+
+  private void applyEach(List<RatingUpdate> updates) {
+    for (RatingUpdate update : updates) {
+      try {
+        ratingService.applyBatch(List.of(update));
+      } catch (RuntimeException e) {
+        logger.error("Error rating game {}", update.gameId(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.checkmate.chess.rating;
+
+import java.util.UUID;
+
+/**
+ * A finished ranked game waiting to be rated.
+ *
+ * @param gameId the game ID, null for results not tied to a stored game
+ * @param whitePlayerId the white player's user ID
+ * @param blackPlayerId the black player's user ID
+ * @param winner "white", "black", or "draw"
+ */
+public record RatingUpdate(UUID gameId, UUID whitePlayerId, UUID blackPlayerId, String winner) {}
@@ -1,9 +1,14 @@
 package com.checkmate.chess.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.checkmate.chess.model.GameClock;
@@ -22,4 +27,45 @@ public interface GameClockRepository extends JpaRepository<GameClock, UUID> {
    * @return optional clock
    */
   Optional<GameClock> findByGameId(UUID gameId);
+
+  /**
+   * Find the clocks of several games.
+   *
+   * @param gameIds the game IDs
+   * @return the clocks that exist
+   */
+  List<GameClock> findByGameIdIn(Collection<UUID> gameIds);
+
+  /**
+   * Find clocks of games still in progress that an instance ran, or that nobody has claimed.
+   *
+   * @param node the instance name
+   * @return clocks of active games the instance may run
+   */
+  @Query("SELECT c FROM GameClock c, Game g WHERE g.id = c.gameId AND g.status = 'IN_PROGRESS'"
+      + " AND (c.ownerNode = :node OR c.ownerNode IS NULL)")
+  List<GameClock> findActiveClocksOf(@Param("node") String node);
+
+  /**
+   * Find which of several clocks are now run by other instances.
+   *
+   * @param gameIds the game IDs
+   * @param node the instance name
+   * @return the IDs of the games whose clock another instance claimed
+   */
+  @Query("SELECT c.gameId FROM GameClock c WHERE c.gameId IN :gameIds AND c.ownerNode <> :node")
+  List<UUID> findClaimedElsewhere(
+      @Param("gameIds") Collection<UUID> gameIds, @Param("node") String node);
+
+  /**
+   * Claim a clock nobody has claimed yet.
+   *
+   * @param gameId the game ID
+   * @param node the instance name
+   * @return 1 if this call claimed it, 0 if another instance was first
+   */
+  @Modifying
+  @Query("UPDATE GameClock c SET c.ownerNode = :node"
+      + " WHERE c.gameId = :gameId AND c.ownerNode IS NULL")
+  int claimUnowned(@Param("gameId") UUID gameId, @Param("node") String node);
 }
@@ -1,11 +1,14 @@
 package com.checkmate.chess.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.checkmate.chess.model.Game;
@@ -18,5 +21,11 @@ public interface GameRepository extends JpaRepository<Game, UUID> {
   List<Game> findByStatus(String status);
   
   Page<Game> findByWhitePlayerIdOrBlackPlayerId(UUID whitePlayerId, UUID blackPlayerId, Pageable pageable);
+
+  /**
+   * Stored ply count of a game, without loading the row.
+   */
+  @Query("SELECT g.plyCount FROM Game g WHERE g.id = :gameId")
+  Optional<Integer> findPlyCountById(@Param("gameId") UUID gameId);
 }
 
@@ -1,15 +1,22 @@
 package com.checkmate.chess.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.checkmate.chess.model.MatchmakingQueue;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Repository for MatchmakingQueue entity.
  * Provides access to matchmaking queue data.
@@ -40,4 +47,47 @@ public interface MatchmakingQueueRepository extends JpaRepository<MatchmakingQue
    * @return list of expired entries
    */
   List<MatchmakingQueue> findByCreatedAtBefore(LocalDateTime time);
+
+  /**
+   * Find the entries an instance holds in memory, or that nobody has claimed, oldest first.
+   *
+   * @param node the instance name
+   * @return the entries the instance may restore
+   */
+  @Query("SELECT q FROM MatchmakingQueue q WHERE q.ownerNode = :node OR q.ownerNode IS NULL"
+      + " ORDER BY q.createdAt")
+  List<MatchmakingQueue> findRestorable(@Param("node") String node);
+
+  /**
+   * Claim an entry nobody has claimed yet.
+   *
+   * @param id the entry ID
+   * @param node the instance name
+   * @return 1 if this call claimed it, 0 if another instance was first
+   */
+  @Modifying
+  @Query("UPDATE MatchmakingQueue q SET q.ownerNode = :node"
+      + " WHERE q.id = :id AND q.ownerNode IS NULL")
+  int claimUnowned(@Param("id") UUID id, @Param("node") String node);
+
+  /**
+   * Lock the entries of users about to be paired, so no other instance pairs them at the same
+   * time. Users missing from the result have left the queue or were paired elsewhere.
+   *
+   * @param userIds the user IDs
+   * @return the entries still queued
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT q FROM MatchmakingQueue q WHERE q.userId IN :userIds ORDER BY q.userId")
+  List<MatchmakingQueue> lockByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Delete the queue entries of paired users in a single statement.
+   *
+   * @param userIds the user IDs
+   * @return number of entries deleted
+   */
+  @Modifying
+  @Query("DELETE FROM MatchmakingQueue q WHERE q.userId IN :userIds")
+  int deleteByUserIdIn(@Param("userIds") Collection<UUID> userIds);
 }
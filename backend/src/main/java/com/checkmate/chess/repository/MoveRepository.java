@@ -1,20 +1,73 @@
 package com.checkmate.chess.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.Move;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MoveRepository extends JpaRepository<Move, UUID> {
-  List<Move> findByGameOrderByMoveNumberAsc(Game game);
-  
-  List<Move> findByGameIdOrderByMoveNumberAsc(UUID gameId);
+  String PGN_EXPORT_SELECT = "SELECT new com.checkmate.chess.repository.PgnExportRow("
+      + "g.id, g.createdAt, COALESCE(w.username, g.whiteName),"
+      + " COALESCE(b.username, g.blackName), g.result, g.timeControl, g.plyCount,"
+      + " m.ply, m.algebraicNotation)"
+      + " FROM Game g LEFT JOIN g.whitePlayer w LEFT JOIN g.blackPlayer b"
+      + " LEFT JOIN Move m ON m.game = g";
+
+  String PGN_EXPORT_ORDER = " ORDER BY g.createdAt, g.id, m.ply";
 
   long countByGame(Game game);
+
+  List<Move> findByGameIdAndPlyBetweenOrderByPlyAsc(UUID gameId, int fromPly, int toPly);
+
+  List<Move> findByGameIdOrderByPlyAsc(UUID gameId);
+
+  @Query("SELECT DISTINCT m.game.id FROM Move m WHERE m.moveCode IS NULL")
+  List<UUID> findGameIdsWithUnencodedMoves(Pageable pageable);
+
+  /**
+   * Moves of every finished game created in {@code [from, to)}, grouped by game in creation
+   * order. Must be consumed inside a transaction; rows are fetched from a cursor in batches.
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(PGN_EXPORT_SELECT
+      + " WHERE g.status = 'FINISHED' AND g.createdAt >= :from AND g.createdAt < :to"
+      + PGN_EXPORT_ORDER)
+  Stream<PgnExportRow> streamPgnExport(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /**
+   * Moves of every finished game of a player created in {@code [from, to)}, grouped by game in
+   * creation order. Must be consumed inside a transaction; rows are fetched from a cursor in
+   * batches.
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(PGN_EXPORT_SELECT
+      + " WHERE (w.id = :userId OR b.id = :userId) AND g.status = 'FINISHED'"
+      + " AND g.createdAt >= :from AND g.createdAt < :to"
+      + PGN_EXPORT_ORDER)
+  Stream<PgnExportRow> streamPgnExportForUser(
+      @Param("userId") UUID userId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
 }
 
@@ -0,0 +1,43 @@
+package com.checkmate.chess.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.checkmate.chess.model.PendingRating;
+
+/**
+ * Repository for PendingRating entity.
+ * Provides access to the outbox of finished ranked games awaiting rating.
+ */
+@Repository
+public interface PendingRatingRepository extends JpaRepository<PendingRating, UUID> {
+
+  /**
+   * Find the oldest pending games queued before a specific time.
+   *
+   * @param time the cutoff time
+   * @param pageable the maximum number of entries
+   * @return pending entries, oldest first
+   */
+  List<PendingRating> findByCreatedAtBeforeOrderByCreatedAtAsc(
+      LocalDateTime time, Pageable pageable);
+
+  /**
+   * Claim a game for rating by deleting its entry. A concurrent claim of the same game
+   * waits for this one's transaction and then deletes nothing.
+   *
+   * @param gameId the game ID
+   * @return 1 if this transaction claimed the game, 0 if it was already rated
+   */
+  @Modifying
+  @Query("DELETE FROM PendingRating p WHERE p.gameId = :gameId")
+  int claim(@Param("gameId") UUID gameId);
+}
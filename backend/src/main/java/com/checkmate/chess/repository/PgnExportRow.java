@@ -0,0 +1,29 @@
+package com.checkmate.chess.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of the bulk PGN export cursor: a move together with the header fields of its game.
+ * Games without moves appear once with a null ply and notation.
+ *
+ * @param gameId the game ID
+ * @param createdAt when the game was created
+ * @param whitePlayer the white player's username or imported name, null if neither is known
+ * @param blackPlayer the black player's username or imported name, null if neither is known
+ * @param result the stored game result
+ * @param timeControl the time control
+ * @param plyCount the number of moves of the game
+ * @param ply the zero-based ply of the move
+ * @param algebraicNotation the move in SAN
+ */
+public record PgnExportRow(
+    UUID gameId,
+    LocalDateTime createdAt,
+    String whitePlayer,
+    String blackPlayer,
+    String result,
+    String timeControl,
+    Integer plyCount,
+    Integer ply,
+    String algebraicNotation) {}
@@ -1,5 +1,6 @@
 package com.checkmate.chess.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,4 +31,12 @@ public interface RatingRepository extends JpaRepository<Rating, UUID> {
    * @return list of rating entries for that game
    */
   List<Rating> findByGameId(UUID gameId);
+
+  /**
+   * Find game results not yet applied to Glicko-2 ratings from before a period boundary.
+   *
+   * @param time the start of the current rating period
+   * @return pending rating entries
+   */
+  List<Rating> findByGlickoAppliedFalseAndCreatedAtBefore(LocalDateTime time);
 }
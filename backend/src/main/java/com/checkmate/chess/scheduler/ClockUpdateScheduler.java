@@ -1,6 +1,8 @@
 package com.checkmate.chess.scheduler;
 
-import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,65 +10,70 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.checkmate.chess.clock.ClockEngine;
+import com.checkmate.chess.clock.ClockSnapshot;
 import com.checkmate.chess.dto.ClockUpdateMessage;
-import com.checkmate.chess.model.GameClock;
-import com.checkmate.chess.repository.GameClockRepository;
-import com.checkmate.chess.service.ChessClockService;
+import com.checkmate.chess.metrics.GameMetrics;
 
 /**
  * Scheduler for chess clock updates.
  * Sends clock state to clients every second via WebSocket.
+ * Clocks are read from the in-memory {@link ClockEngine}; flag fall is detected by the
+ * engine itself, so this broadcast never touches the database. The engine only holds the
+ * clocks this instance owns, so with several instances each clock is broadcast once.
+ * Each round records how late it started, how long it took and how many updates it sent.
  */
 @Component
 public class ClockUpdateScheduler {
 
   private static final Logger logger = LoggerFactory.getLogger(ClockUpdateScheduler.class);
+  private static final long TICK_MS = 1000;
 
-  private final GameClockRepository clockRepository;
-  private final ChessClockService clockService;
+  private final ClockEngine clockEngine;
   private final SimpMessagingTemplate messagingTemplate;
+  private final GameMetrics gameMetrics;
+  private long lastTickNanos;
 
   public ClockUpdateScheduler(
-      GameClockRepository clockRepository,
-      ChessClockService clockService,
-      SimpMessagingTemplate messagingTemplate) {
-    this.clockRepository = clockRepository;
-    this.clockService = clockService;
+      ClockEngine clockEngine, SimpMessagingTemplate messagingTemplate, GameMetrics gameMetrics) {
+    this.clockEngine = clockEngine;
     this.messagingTemplate = messagingTemplate;
+    this.gameMetrics = gameMetrics;
   }
 
   /**
-   * Send clock updates every second for all active games.
+   * Send clock updates every second for all running clocks.
    */
-  @Scheduled(fixedRate = 1000)
+  @Scheduled(fixedRate = TICK_MS)
   public void sendClockUpdates() {
+    final long start = System.nanoTime();
+    final long lag = lastTickNanos == 0
+        ? 0
+        : start - lastTickNanos - TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+    lastTickNanos = start;
+    int sent = 0;
     try {
-      List<GameClock> activeClocks = clockRepository.findAll();
-      
-      for (GameClock clock : activeClocks) {
-        if (!clock.isPaused()) {
-          // Check for timeout
-          boolean timeout = clockService.checkTimeout(clock.getGameId());
-          
-          if (!timeout) {
-            // Send clock update
-            ClockUpdateMessage message = new ClockUpdateMessage(
-                clock.getWhiteTimeMs(),
-                clock.getBlackTimeMs(),
-                clock.getCurrentTurn()
-            );
-            
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + clock.getGameId() + "/clock",
-                message
-            );
-          }
+      Map<UUID, ClockSnapshot> snapshots = clockEngine.snapshots();
+
+      for (Map.Entry<UUID, ClockSnapshot> entry : snapshots.entrySet()) {
+        ClockSnapshot snapshot = entry.getValue();
+        if (!snapshot.paused()) {
+          ClockUpdateMessage message = new ClockUpdateMessage(
+              snapshot.whiteTimeMs(),
+              snapshot.blackTimeMs(),
+              snapshot.currentTurn()
+          );
+
+          messagingTemplate.convertAndSend(
+              "/topic/game/" + entry.getKey() + "/clock",
+              message
+          );
+          sent++;
         }
       }
-    } catch (IllegalArgumentException e) {
-      logger.error("Invalid clock or game data: {}", e.getMessage());
     } catch (RuntimeException e) {
       logger.error("Error sending clock updates", e);
     }
+    gameMetrics.recordClockTick(lag, System.nanoTime() - start, sent);
   }
 }
@@ -6,6 +6,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.checkmate.chess.service.MatchmakingService;
+import com.checkmate.chess.websocket.MatchmakingNotifier;
 
 /**
  * Scheduler for matchmaking operations.
@@ -17,14 +18,19 @@ public class MatchmakingScheduler {
   private static final Logger logger = LoggerFactory.getLogger(MatchmakingScheduler.class);
 
   private final MatchmakingService matchmakingService;
+  private final MatchmakingNotifier matchmakingNotifier;
 
-  public MatchmakingScheduler(MatchmakingService matchmakingService) {
+  public MatchmakingScheduler(
+      MatchmakingService matchmakingService,
+      MatchmakingNotifier matchmakingNotifier) {
     this.matchmakingService = matchmakingService;
+    this.matchmakingNotifier = matchmakingNotifier;
   }
 
   /**
    * Process matchmaking pairing every 2 seconds.
-   * Pairs players with compatible ratings in the queue.
+   * Pairs players with compatible ratings in the queue, then pushes the queue status to
+   * everyone still waiting.
    */
   @Scheduled(fixedRate = 2000)
   public void processPairing() {
@@ -33,6 +39,7 @@ public class MatchmakingScheduler {
     } catch (Exception e) {
       logger.error("Error processing matchmaking pairing", e);
     }
+    matchmakingNotifier.broadcastQueueStatus();
   }
 
   /**
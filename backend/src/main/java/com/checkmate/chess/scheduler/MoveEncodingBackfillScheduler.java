@@ -0,0 +1,66 @@
+package com.checkmate.chess.scheduler;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.service.MoveService;
+
+/**
+ * Scheduler for the move encoding backfill.
+ * Encodes moves stored before the compact format, a batch of games per run and one
+ * transaction per game, until none are left. Games that cannot be encoded are logged and
+ * skipped for the lifetime of the process.
+ */
+@Component
+@ConditionalOnProperty(name = "app.moves.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class MoveEncodingBackfillScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(MoveEncodingBackfillScheduler.class);
+
+  private final MoveService moveService;
+  private final int batchSize;
+  private final Set<UUID> failedGames = ConcurrentHashMap.newKeySet();
+
+  public MoveEncodingBackfillScheduler(
+      MoveService moveService,
+      @Value("${app.moves.backfill.batch-size:50}") int batchSize) {
+    this.moveService = moveService;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Encode the next batch of legacy games.
+   */
+  @Scheduled(fixedDelayString = "${app.moves.backfill.interval-ms:30000}")
+  public void encodeLegacyMoves() {
+    try {
+      List<UUID> gameIds = moveService.findGamesToEncode(batchSize + failedGames.size());
+      int encoded = 0;
+      for (UUID gameId : gameIds) {
+        if (failedGames.contains(gameId)) {
+          continue;
+        }
+        try {
+          encoded += moveService.encodeLegacyMoves(gameId);
+        } catch (RuntimeException e) {
+          failedGames.add(gameId);
+          logger.warn("Cannot encode moves of game {}: {}", gameId, e.getMessage());
+        }
+      }
+      if (encoded > 0) {
+        logger.info("Encoded {} legacy moves", encoded);
+      }
+    } catch (Exception e) {
+      logger.error("Error encoding legacy moves", e);
+    }
+  }
+}
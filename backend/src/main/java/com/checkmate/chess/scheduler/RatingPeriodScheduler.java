@@ -0,0 +1,36 @@
+package com.checkmate.chess.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.service.RatingService;
+
+/**
+ * Scheduler for Glicko-2 rating periods.
+ * Checks every minute whether the previous period still has results to apply.
+ */
+@Component
+public class RatingPeriodScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(RatingPeriodScheduler.class);
+
+  private final RatingService ratingService;
+
+  public RatingPeriodScheduler(RatingService ratingService) {
+    this.ratingService = ratingService;
+  }
+
+  /**
+   * Close the previous rating period once its results are complete.
+   */
+  @Scheduled(fixedDelayString = "${app.rating.glicko.check-interval-ms:60000}")
+  public void closeRatingPeriod() {
+    try {
+      ratingService.closeRatingPeriod();
+    } catch (Exception e) {
+      logger.error("Error closing rating period", e);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.checkmate.chess.security;
 
 import java.io.IOException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -39,18 +40,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     try {
       final var jwt = authHeader.substring(7);
-      final var userEmail = jwtService.extractUsername(jwt);
+      // Signature and expiry are checked here, once per request
+      final var principal = jwtService.validateAndExtract(jwt);
 
-      if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        final var userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-        if (jwtService.isTokenValid(jwt, userDetails)) {
-          final var authToken =
-              new UsernamePasswordAuthenticationToken(
-                  userDetails, null, userDetails.getAuthorities());
-          authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-          SecurityContextHolder.getContext().setAuthentication(authToken);
+      if (principal.username() != null
+          && SecurityContextHolder.getContext().getAuthentication() == null) {
+        final UsernamePasswordAuthenticationToken authToken;
+        if (principal.isSelfContained()) {
+          // Identity and roles come from the signed claims; no database round-trip
+          authToken = new UsernamePasswordAuthenticationToken(
+              principal,
+              null,
+              principal.roles().stream().map(SimpleGrantedAuthority::new).toList());
+        } else {
+          // Tokens issued before the uid/roles claims existed still need a lookup
+          final var userDetails = this.userDetailsService.loadUserByUsername(principal.username());
+          authToken = new UsernamePasswordAuthenticationToken(
+              userDetails, null, userDetails.getAuthorities());
         }
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
       }
     } catch (Exception e) {
       log.debug("JWT validation failed: {}", e.getMessage());
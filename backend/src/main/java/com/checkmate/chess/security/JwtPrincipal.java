@@ -0,0 +1,32 @@
+package com.checkmate.chess.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identity carried by a validated JWT.
+ * Used directly as the authentication principal, so {@link #getName()} keeps returning the
+ * subject for code that reads {@code Authentication.getName()}.
+ *
+ * @param username the token subject (the user's email, or the username for guests)
+ * @param userId the user ID from the {@code uid} claim, null for tokens issued without it
+ * @param roles the granted roles from the {@code roles} claim
+ * @param expiresAt when the token expires
+ */
+public record JwtPrincipal(String username, UUID userId, List<String> roles, Instant expiresAt)
+    implements Principal {
+
+  @Override
+  public String getName() {
+    return username;
+  }
+
+  /**
+   * Whether the token carries everything needed to authenticate without a user lookup.
+   */
+  public boolean isSelfContained() {
+    return userId != null;
+  }
+}
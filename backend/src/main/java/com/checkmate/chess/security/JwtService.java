@@ -1,26 +1,67 @@
 package com.checkmate.chess.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import jakarta.annotation.PostConstruct;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+/**
+ * Issues and validates HS256 JWTs.
+ * The signing key and parser are built once from {@code jwt.secret} and reused for every
+ * request; they are only rebuilt if the configured secret changes.
+ * Tokens carry the user ID and roles as signed claims so requests can be authenticated
+ * without loading the user.
+ */
 @Service
 public class JwtService {
 
+  public static final String USER_ID_CLAIM = "uid";
+  public static final String ROLES_CLAIM = "roles";
+
   @Value("${jwt.secret}")
   private String secret;
 
   @Value("${jwt.expiration}")
   private long jwtExpiration;
 
+  private volatile SigningKeys signingKeys;
+
+  @PostConstruct
+  void init() {
+    signingKeys();
+  }
+
+  /**
+   * Validate a token and extract its principal, parsing it exactly once.
+   *
+   * @param token the compact JWT
+   * @return the principal carried by the token
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or wrongly signed
+   */
+  public JwtPrincipal validateAndExtract(final String token) {
+    final var claims = extractAllClaims(token);
+    final var userId = claims.get(USER_ID_CLAIM, String.class);
+    final List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    return new JwtPrincipal(
+        claims.getSubject(),
+        userId != null ? UUID.fromString(userId) : null,
+        roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+        claims.getExpiration().toInstant());
+  }
+
   public String extractUsername(final String token) {
     return extractClaim(token, Claims::getSubject);
   }
@@ -34,14 +75,30 @@ public class JwtService {
     return generateToken(Map.of(), userDetails);
   }
 
+  /**
+   * Generate a token that carries the user ID, so requests need no user lookup.
+   *
+   * @param userId the user ID
+   * @param userDetails the user details
+   * @return the signed token
+   */
+  public String generateToken(final UUID userId, final UserDetails userDetails) {
+    return generateToken(Map.of(USER_ID_CLAIM, userId.toString()), userDetails);
+  }
+
   public String generateToken(final Map<String, Object> extraClaims, final UserDetails userDetails) {
     return buildToken(extraClaims, userDetails, jwtExpiration);
   }
 
   private String buildToken(
       final Map<String, Object> extraClaims, final UserDetails userDetails, final long expiration) {
+    final Map<String, Object> claims = new HashMap<>();
+    claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .toList());
+    claims.putAll(extraClaims);
     return Jwts.builder()
-        .claims(extraClaims)
+        .claims(claims)
         .subject(userDetails.getUsername())
         .issuedAt(new Date(System.currentTimeMillis()))
         .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -50,29 +107,30 @@ public class JwtService {
   }
 
   public boolean isTokenValid(final String token, final UserDetails userDetails) {
-    final var username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    final var claims = extractAllClaims(token);
+    return claims.getSubject().equals(userDetails.getUsername())
+        && !claims.getExpiration().before(new Date());
   }
 
-  private boolean isTokenExpired(final String token) {
-    return extractExpiration(token).before(new Date());
+  private Claims extractAllClaims(final String token) {
+    return signingKeys().parser().parseSignedClaims(token).getPayload();
   }
 
-  private Date extractExpiration(final String token) {
-    return extractClaim(token, Claims::getExpiration);
+  private SecretKey getSignInKey() {
+    return signingKeys().key();
   }
 
-  private Claims extractAllClaims(final String token) {
-    return Jwts.parser()
-        .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+  private SigningKeys signingKeys() {
+    final var current = signingKeys;
+    if (current != null && current.secret().equals(secret)) {
+      return current;
+    }
+    final var key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    final var rebuilt = new SigningKeys(secret, key, Jwts.parser().verifyWith(key).build());
+    signingKeys = rebuilt;
+    return rebuilt;
   }
 
-  private Key getSignInKey() {
-    final var keyBytes = Decoders.BASE64.decode(secret);
-    return Keys.hmacShaKeyFor(keyBytes);
-  }
+  private record SigningKeys(String secret, SecretKey key, JwtParser parser) {}
 }
 
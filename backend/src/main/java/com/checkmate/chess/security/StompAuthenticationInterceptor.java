@@ -0,0 +1,96 @@
+package com.checkmate.chess.security;
+
+import java.security.Principal;
+import java.util.UUID;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import com.checkmate.chess.model.User;
+import com.checkmate.chess.service.UserCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates a STOMP session with the bearer token in the {@code Authorization} header of
+ * its CONNECT frame, as {@link JwtAuthenticationFilter} does for HTTP requests. The session
+ * keeps the {@link JwtPrincipal}, so message handlers know who sent each message; a session
+ * without a valid token stays anonymous.
+ * Matchmaking queues ({@code /queue/matchmaking/{userId}/...}) are per player and only fed by
+ * the server: a session may subscribe to its own player's queues and send to none.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+  private static final String MATCHMAKING_PREFIX = "/queue/matchmaking/";
+
+  private final JwtService jwtService;
+  private final UserCache userCache;
+
+  @Override
+  public Message<?> preSend(final Message<?> message, final MessageChannel channel) {
+    final StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null) {
+      return message;
+    }
+    if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+      authenticate(accessor);
+    } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+        || StompCommand.SEND.equals(accessor.getCommand())) {
+      authorize(accessor);
+    }
+    return message;
+  }
+
+  private void authenticate(final StompHeaderAccessor accessor) {
+    final String authHeader = accessor.getFirstNativeHeader("Authorization");
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+      return;
+    }
+
+    try {
+      accessor.setUser(jwtService.validateAndExtract(authHeader.substring(7)));
+    } catch (Exception e) {
+      log.debug("STOMP JWT validation failed: {}", e.getMessage());
+    }
+  }
+
+  private void authorize(final StompHeaderAccessor accessor) {
+    final String destination = accessor.getDestination();
+    if (destination == null || !destination.startsWith(MATCHMAKING_PREFIX)) {
+      return;
+    }
+    if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+      final String owner = destination.substring(MATCHMAKING_PREFIX.length()).split("/", 2)[0];
+      final UUID userId = userId(accessor.getUser());
+      if (userId != null && userId.toString().equalsIgnoreCase(owner)) {
+        return;
+      }
+    }
+    log.debug("Refused STOMP {} to {}", accessor.getCommand(), destination);
+    throw new AccessDeniedException("Not allowed on " + destination);
+  }
+
+  private UUID userId(final Principal principal) {
+    if (principal == null) {
+      return null;
+    }
+    // Current tokens carry the user ID as a signed claim
+    if (principal instanceof JwtPrincipal jwt && jwt.isSelfContained()) {
+      return jwt.userId();
+    }
+
+    // Older tokens only carry the email as the subject
+    return userCache.findByEmail(principal.getName()).map(User::getId).orElse(null);
+  }
+}
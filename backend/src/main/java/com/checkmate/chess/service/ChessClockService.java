@@ -1,14 +1,35 @@
 package com.checkmate.chess.service;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.clock.ClockEngine;
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.clock.FlagFallEvent;
+import com.checkmate.chess.clock.LagCompensator;
+import com.checkmate.chess.config.NodeIdentity;
+import com.checkmate.chess.event.ClockUpdatedEvent;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.game.GameTransactions;
+import com.checkmate.chess.game.LiveGameRegistry;
+import com.checkmate.chess.journal.JournalFlusher;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.GameClock;
 import com.checkmate.chess.repository.GameClockRepository;
@@ -17,6 +38,20 @@ import com.checkmate.chess.repository.GameRepository;
 /**
  * Service for chess clock management.
  * Handles time tracking, increments, delays, and timeout detection.
+ * Running clocks live in the {@link ClockEngine}; the game_clocks table is only
+ * written when a clock starts, on moves, and when the game ends.
+ * Changes made outside a move run through {@link GameTransactions}, on the game's thread and
+ * retried when they lose to a concurrent writer of the versioned clock or game.
+ * Each clock row names the instance running it ({@link NodeIdentity}): an instance only
+ * resumes its own clocks after a restart, takes a clock over when a move of the game reaches
+ * it, and stops running clocks another instance has since taken over.
+ * Recording a move joins the caller's transaction rather than opening one, since a
+ * write-behind move on a resident game runs without; only a takeover then writes its row.
+ * The engine is changed before the transaction recording a move commits, so the moves that
+ * follow in the same transaction see the new clock; if it rolls back instead, the engine
+ * clock is put back to where it was when the transaction first touched it, and a clock taken
+ * over by it stops again. Between a flag fall and the commit ending the game on time, moves
+ * are refused rather than taking over the clock from its stale row.
  */
 @Service
 public class ChessClockService {
@@ -25,6 +60,14 @@ public class ChessClockService {
 
   private final GameClockRepository clockRepository;
   private final GameRepository gameRepository;
+  private final ClockEngine clockEngine;
+  private final LagCompensator lagCompensator;
+  private final LiveGameRegistry liveGameRegistry;
+  private final JournalFlusher journalFlusher;
+  private final GameTransactions gameTransactions;
+  private final NodeIdentity nodeIdentity;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Object checkpointsKey = new Object();
 
   // Time control configurations (in milliseconds)
   private static final Map<String, Long> TIME_CONTROLS = new HashMap<>();
@@ -36,13 +79,41 @@ public class ChessClockService {
     TIME_CONTROLS.put("classical", 1800000L); // 30 minutes
   }
 
-  public ChessClockService(GameClockRepository clockRepository, GameRepository gameRepository) {
+  public ChessClockService(
+      GameClockRepository clockRepository,
+      GameRepository gameRepository,
+      ClockEngine clockEngine,
+      LagCompensator lagCompensator,
+      LiveGameRegistry liveGameRegistry,
+      JournalFlusher journalFlusher,
+      GameTransactions gameTransactions,
+      NodeIdentity nodeIdentity,
+      ApplicationEventPublisher eventPublisher) {
     this.clockRepository = clockRepository;
     this.gameRepository = gameRepository;
+    this.clockEngine = clockEngine;
+    this.lagCompensator = lagCompensator;
+    this.liveGameRegistry = liveGameRegistry;
+    this.journalFlusher = journalFlusher;
+    this.gameTransactions = gameTransactions;
+    this.nodeIdentity = nodeIdentity;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Check whether a time control runs a clock.
+   *
+   * @param timeControl the time control
+   * @return true for bullet, blitz, rapid and classical
+   */
+  public boolean isTimed(String timeControl) {
+    return timeControl != null && TIME_CONTROLS.containsKey(timeControl);
   }
 
   /**
    * Initialize clock for a game.
+   * The engine clock only starts running once the game has committed, so a rolled back
+   * pairing leaves no clock behind and white's time does not run before the game exists.
    *
    * @param gameId the game ID
    * @param timeControl the time control
@@ -54,62 +125,270 @@ public class ChessClockService {
     Long delay = 0L; // No delay by default
 
     GameClock clock = new GameClock(gameId, initialTime, increment, delay);
+    clock.setOwnerNode(nodeIdentity.id());
     clockRepository.save(clock);
+    afterCommit(() -> clockEngine.start(clock));
 
     logger.info("Initialized clock for game {} with {} ms", gameId, initialTime);
   }
 
   /**
-   * Update clock after time elapsed.
+   * Record a move on the running clock and persist the resulting times.
+   * A clock that is not resident (e.g. after a restart, or when another instance ran it) is
+   * claimed and resumed from its row first.
    *
    * @param gameId the game ID
-   * @param player "white" or "black"
-   * @param elapsedMs milliseconds elapsed
+   * @param player the side that moved, "white" or "black"
+   * @return the clock after the move, empty if the game has no clock
+   * @throws IllegalStateException if the mover's flag has fallen
    */
   @Transactional
-  public void updateClock(UUID gameId, String player, Long elapsedMs) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+  public Optional<ClockSnapshot> recordMove(UUID gameId, String player) {
+    return recordMove(gameId, player, true);
+  }
+
+  /**
+   * Record a move on the running clock.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @param persist false when the times travel with the move through the move journal
+   * @return the clock after the move, empty if the game has no clock
+   */
+  @Transactional
+  public Optional<ClockSnapshot> recordMove(UUID gameId, String player, boolean persist) {
+    return recordMove(gameId, player, persist, null);
+  }
+
+  /**
+   * Record a move on the running clock, crediting the mover the network transit of the move
+   * as far as the {@link LagCompensator} allows.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @param persist false when the times travel with the move through the move journal
+   * @param clientThinkMs the think time reported by the mover's client, null for no credit
+   * @return the clock after the move, empty if the game has no clock
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public Optional<ClockSnapshot> recordMove(
+      UUID gameId, String player, boolean persist, Long clientThinkMs) {
+    return record(gameId, player, persist, false, clientThinkMs);
+  }
+
+  /**
+   * Record a premove, played by the server the moment the player's turn started: no think
+   * time is charged, the increment is still added.
+   *
+   * @param gameId the game ID
+   * @param player the side that moved, "white" or "black"
+   * @param persist false when the times travel with the move through the move journal
+   * @return the clock after the move, empty if the game has no clock
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public Optional<ClockSnapshot> recordPremove(UUID gameId, String player, boolean persist) {
+    return record(gameId, player, persist, true, null);
+  }
 
-    if (clock.isPaused()) {
-      return; // Don't update if paused
+  private Optional<ClockSnapshot> record(
+      UUID gameId, String player, boolean persist, boolean premove, Long clientThinkMs) {
+    undoOnRollback(gameId);
+    // Checked in this order since the engine flags a game before its clock stops running
+    if (!clockEngine.isRunning(gameId) && !clockEngine.isFlagged(gameId)) {
+      clockRepository.findByGameId(gameId).ifPresent(this::takeOver);
     }
 
-    // Handle delay
-    long timeToDeduct = elapsedMs;
-    if (clock.getDelayMs() > 0) {
-      timeToDeduct = Math.max(0, elapsedMs - clock.getDelayMs());
+    Optional<ClockSnapshot> snapshot = premove
+        ? clockEngine.recordPremove(gameId, player)
+        : clockEngine.recordMove(
+            gameId, player, lagCompensator.credit(gameId, player, clientThinkMs));
+    snapshot.ifPresent(value -> {
+      if (persist) {
+        persist(gameId, value);
+      }
+      eventPublisher.publishEvent(new ClockUpdatedEvent(gameId, value));
+    });
+    return snapshot;
+  }
+
+  /**
+   * Stop the running clock of a finished game and persist its final times.
+   *
+   * @param gameId the game ID
+   */
+  @Transactional
+  public void stopClock(UUID gameId) {
+    stopClock(gameId, true);
+  }
+
+  /**
+   * Stop the running clock of a finished game.
+   *
+   * @param gameId the game ID
+   * @param persist false when the final times travel with the last move through the move journal
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public void stopClock(UUID gameId, boolean persist) {
+    undoOnRollback(gameId);
+    clockEngine.stop(gameId).ifPresent(snapshot -> {
+      if (persist) {
+        persist(gameId, snapshot);
+      }
+    });
+  }
+
+  /**
+   * End the game when the clock engine reports a flag fall.
+   *
+   * @param event the flag fall event
+   */
+  @EventListener
+  public void onFlagFall(FlagFallEvent event) {
+    gameTransactions.run(event.gameId(), () -> {
+      Optional<String> owner = clockRepository.findByGameId(event.gameId())
+          .map(GameClock::getOwnerNode)
+          .filter(node -> !nodeIdentity.owns(node));
+      if (owner.isPresent()) {
+        // This engine ran a stale copy; the owner's engine decides when the flag falls
+        logger.info("Ignoring flag fall of game {}, its clock runs on {}",
+            event.gameId(), owner.get());
+        afterCommit(() -> clockEngine.clearFlag(event.gameId()));
+        return;
+      }
+      // Whatever a move racing the flag may have started again
+      clockEngine.stop(event.gameId());
+      journalFlusher.settle(event.gameId());
+      persist(event.gameId(), event.finalClock());
+      eventPublisher.publishEvent(new ClockUpdatedEvent(event.gameId(), event.finalClock()));
+
+      gameRepository.findById(event.gameId())
+          .filter(game -> "IN_PROGRESS".equals(game.getStatus()))
+          .ifPresent(game -> {
+            String winner = "white".equals(event.loser()) ? "black" : "white";
+            game.endGame(winner, "timeout");
+            gameRepository.save(game);
+            liveGameRegistry.evict(game.getId());
+            eventPublisher.publishEvent(new GameEndedEvent(
+                game.getId(),
+                game.getGameType(),
+                game.getWhitePlayer().getId(),
+                game.getBlackPlayer().getId(),
+                game.getResult(),
+                game.getEndReason(),
+                winner));
+            logger.info("Game {} ended by timeout, winner: {}", game.getId(), winner);
+          });
+      afterCommit(() -> clockEngine.clearFlag(event.gameId()));
+    });
+  }
+
+  /**
+   * Resume the clocks of in-progress games after a restart so flag fall keeps being detected.
+   * Only clocks this instance ran, or unclaimed ones it manages to claim, are resumed.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void restoreActiveClocks() {
+    String node = nodeIdentity.id();
+    List<GameClock> activeClocks = clockRepository.findActiveClocksOf(node).stream()
+        .filter(clock -> node.equals(clock.getOwnerNode())
+            || clockRepository.claimUnowned(clock.getGameId(), node) == 1)
+        .toList();
+    afterCommit(() -> activeClocks.forEach(clockEngine::start));
+    if (!activeClocks.isEmpty()) {
+      logger.info("Restored {} running clocks", activeClocks.size());
     }
+  }
 
-    // Deduct time
-    if ("white".equals(player)) {
-      clock.setWhiteTimeMs(Math.max(0, clock.getWhiteTimeMs() - timeToDeduct));
-    } else {
-      clock.setBlackTimeMs(Math.max(0, clock.getBlackTimeMs() - timeToDeduct));
+  /**
+   * Stop running the clocks that other instances have taken over since, so their flag timers
+   * and clock broadcasts do not compete with the owner's.
+   */
+  @Scheduled(fixedDelayString = "${app.clock.ownership-check-ms:5000}")
+  @Transactional(readOnly = true)
+  public void releaseClaimedClocks() {
+    Set<UUID> running = clockEngine.gameIds();
+    if (nodeIdentity.isStandalone() || running.isEmpty()) {
+      return;
+    }
+    List<UUID> claimed = clockRepository.findClaimedElsewhere(running, nodeIdentity.id());
+    claimed.forEach(clockEngine::stop);
+    if (!claimed.isEmpty()) {
+      logger.info("Stopped {} clocks now run by other instances", claimed.size());
     }
+  }
 
-    clockRepository.save(clock);
+  private void takeOver(GameClock clock) {
+    if (!nodeIdentity.id().equals(clock.getOwnerNode())) {
+      clock.setOwnerNode(nodeIdentity.id());
+      clockRepository.save(clock);
+    }
+    clockEngine.start(clock);
+  }
+
+  private void persist(UUID gameId, ClockSnapshot snapshot) {
+    clockRepository.findByGameId(gameId).ifPresent(clock -> {
+      clock.setWhiteTimeMs(snapshot.whiteTimeMs());
+      clock.setBlackTimeMs(snapshot.blackTimeMs());
+      clock.setCurrentTurn(snapshot.currentTurn());
+      clock.setLastMoveTime(LocalDateTime.now());
+      clockRepository.save(clock);
+    });
   }
 
   /**
-   * Add increment after a move.
+   * Update clock after time elapsed.
    *
    * @param gameId the game ID
    * @param player "white" or "black"
+   * @param elapsedMs milliseconds elapsed
    */
-  @Transactional
-  public void addIncrement(UUID gameId, String player) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+  public void updateClock(UUID gameId, String player, Long elapsedMs) {
+    gameTransactions.run(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+
+      if (clock.isPaused()) {
+        return; // Don't update if paused
+      }
+
+      // Handle delay
+      long timeToDeduct = elapsedMs;
+      if (clock.getDelayMs() > 0) {
+        timeToDeduct = Math.max(0, elapsedMs - clock.getDelayMs());
+      }
 
-    if (clock.getIncrementMs() > 0) {
+      // Deduct time
       if ("white".equals(player)) {
-        clock.setWhiteTimeMs(clock.getWhiteTimeMs() + clock.getIncrementMs());
+        clock.setWhiteTimeMs(Math.max(0, clock.getWhiteTimeMs() - timeToDeduct));
       } else {
-        clock.setBlackTimeMs(clock.getBlackTimeMs() + clock.getIncrementMs());
+        clock.setBlackTimeMs(Math.max(0, clock.getBlackTimeMs() - timeToDeduct));
       }
+
       clockRepository.save(clock);
-    }
+    });
+  }
+
+  /**
+   * Add increment after a move.
+   *
+   * @param gameId the game ID
+   * @param player "white" or "black"
+   */
+  public void addIncrement(UUID gameId, String player) {
+    gameTransactions.run(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+
+      if (clock.getIncrementMs() > 0) {
+        if ("white".equals(player)) {
+          clock.setWhiteTimeMs(clock.getWhiteTimeMs() + clock.getIncrementMs());
+        } else {
+          clock.setBlackTimeMs(clock.getBlackTimeMs() + clock.getIncrementMs());
+        }
+        clockRepository.save(clock);
+      }
+    });
   }
 
   /**
@@ -118,27 +397,29 @@ public class ChessClockService {
    * @param gameId the game ID
    * @return true if timeout occurred
    */
-  @Transactional
   public boolean checkTimeout(UUID gameId) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+    return gameTransactions.execute(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
 
-    boolean whiteTimeout = clock.getWhiteTimeMs() <= 0;
-    boolean blackTimeout = clock.getBlackTimeMs() <= 0;
+      boolean whiteTimeout = clock.getWhiteTimeMs() <= 0;
+      boolean blackTimeout = clock.getBlackTimeMs() <= 0;
 
-    if (whiteTimeout || blackTimeout) {
-      Game game = gameRepository.findById(gameId)
-          .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+      if (whiteTimeout || blackTimeout) {
+        Game game = gameRepository.findById(gameId)
+            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
-      String winner = whiteTimeout ? "black" : "white";
-      game.endGame(winner, "timeout");
-      gameRepository.save(game);
+        String winner = whiteTimeout ? "black" : "white";
+        game.endGame(winner, "timeout");
+        gameRepository.save(game);
+        liveGameRegistry.evict(gameId);
 
-      logger.info("Game {} ended by timeout, winner: {}", gameId, winner);
-      return true;
-    }
+        logger.info("Game {} ended by timeout, winner: {}", gameId, winner);
+        return true;
+      }
 
-    return false;
+      return false;
+    });
   }
 
   /**
@@ -146,13 +427,14 @@ public class ChessClockService {
    *
    * @param gameId the game ID
    */
-  @Transactional
   public void switchTurn(UUID gameId) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+    gameTransactions.run(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
 
-    clock.setCurrentTurn("white".equals(clock.getCurrentTurn()) ? "black" : "white");
-    clockRepository.save(clock);
+      clock.setCurrentTurn("white".equals(clock.getCurrentTurn()) ? "black" : "white");
+      clockRepository.save(clock);
+    });
   }
 
   /**
@@ -163,6 +445,12 @@ public class ChessClockService {
    * @return remaining time in milliseconds
    */
   public Long getRemainingTime(UUID gameId, String player) {
+    Optional<ClockSnapshot> running = clockEngine.snapshot(gameId);
+    if (running.isPresent()) {
+      ClockSnapshot snapshot = running.get();
+      return "white".equals(player) ? snapshot.whiteTimeMs() : snapshot.blackTimeMs();
+    }
+
     GameClock clock = clockRepository.findByGameId(gameId)
         .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
 
@@ -174,13 +462,15 @@ public class ChessClockService {
    *
    * @param gameId the game ID
    */
-  @Transactional
   public void pauseClock(UUID gameId) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+    gameTransactions.run(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
 
-    clock.setPaused(true);
-    clockRepository.save(clock);
+      clock.setPaused(true);
+      clockRepository.save(clock);
+      afterCommit(() -> clockEngine.pause(gameId));
+    });
   }
 
   /**
@@ -188,13 +478,15 @@ public class ChessClockService {
    *
    * @param gameId the game ID
    */
-  @Transactional
   public void resumeClock(UUID gameId) {
-    GameClock clock = clockRepository.findByGameId(gameId)
-        .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
+    gameTransactions.run(gameId, () -> {
+      GameClock clock = clockRepository.findByGameId(gameId)
+          .orElseThrow(() -> new IllegalArgumentException("Clock not found"));
 
-    clock.setPaused(false);
-    clockRepository.save(clock);
+      clock.setPaused(false);
+      clockRepository.save(clock);
+      afterCommit(() -> clockEngine.resume(gameId));
+    });
   }
 
   /**
@@ -209,4 +501,50 @@ public class ChessClockService {
       default -> 0L;
     };
   }
+
+  /**
+   * Remember the engine clock of a game as the current transaction first finds it, and put it
+   * back if the transaction rolls back, so that a retried move is charged from the original
+   * start of the turn and only once, and a clock the transaction took over does not run on.
+   */
+  private void undoOnRollback(UUID gameId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    Map<UUID, ClockEngine.Checkpoint> checkpoints = checkpoints();
+    checkpoints.computeIfAbsent(gameId, clockEngine::checkpoint);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<UUID, ClockEngine.Checkpoint> checkpoints() {
+    Object bound = TransactionSynchronizationManager.getResource(checkpointsKey);
+    if (bound != null) {
+      return (Map<UUID, ClockEngine.Checkpoint>) bound;
+    }
+    Map<UUID, ClockEngine.Checkpoint> checkpoints = new HashMap<>();
+    TransactionSynchronizationManager.bindResource(checkpointsKey, checkpoints);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(checkpointsKey);
+        if (status == STATUS_ROLLED_BACK) {
+          checkpoints.values().forEach(clockEngine::rollback);
+        }
+      }
+    });
+    return checkpoints;
+  }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
 }
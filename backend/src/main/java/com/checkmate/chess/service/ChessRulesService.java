@@ -1,7 +1,12 @@
 package com.checkmate.chess.service;
 
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
+import com.checkmate.chess.game.DrawRule;
+import com.checkmate.chess.game.LiveGame;
+import com.checkmate.chess.game.SanNotation;
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Piece;
 import com.github.bhlangonijr.chesslib.Square;
@@ -115,8 +120,9 @@ public class ChessRulesService {
       final Square fromSquare = Square.valueOf(from.toUpperCase());
       final Square toSquare = Square.valueOf(to.toUpperCase());
 
+      final List<Move> legalMoves = board.legalMoves();
       Move matchingMove = null;
-      for (final Move legalMove : board.legalMoves()) {
+      for (final Move legalMove : legalMoves) {
         if (legalMove.getFrom().equals(fromSquare) && legalMove.getTo().equals(toSquare)) {
           matchingMove = legalMove;
           break;
@@ -127,102 +133,14 @@ public class ChessRulesService {
         return from.toLowerCase() + to.toLowerCase();
       }
 
-      final Piece piece = board.getPiece(fromSquare);
-      final Piece captured = board.getPiece(toSquare);
-      final boolean isCapture = captured != Piece.NONE;
-
+      final String san = SanNotation.describe(board, matchingMove, legalMoves);
       board.doMove(matchingMove);
-      final boolean isCheck = board.isKingAttacked();
-      final boolean isCheckmate = board.isMated();
-      board.undoMove();
-
-      final StringBuilder san = new StringBuilder();
-
-      if (matchingMove.toString().equals("O-O") || matchingMove.toString().equals("O-O-O")) {
-        return matchingMove.toString() + (isCheckmate ? "#" : isCheck ? "+" : "");
-      }
-
-      final String pieceSymbol = piece.getFenSymbol().toUpperCase();
-
-      if (!pieceSymbol.equals("P")) {
-        san.append(pieceSymbol);
-
-        boolean needsDisambiguation = false;
-        String disambiguation = "";
-
-        for (final Move otherMove : board.legalMoves()) {
-          if (!otherMove.equals(matchingMove) &&
-              otherMove.getTo().equals(toSquare) &&
-              board.getPiece(otherMove.getFrom()) == piece) {
-            needsDisambiguation = true;
-            if (otherMove.getFrom().getFile() != fromSquare.getFile()) {
-              disambiguation = String.valueOf(fromSquare.getFile().getNotation()).toLowerCase();
-            } else if (otherMove.getFrom().getRank() != fromSquare.getRank()) {
-              disambiguation = String.valueOf(fromSquare.getRank().getNotation());
-            } else {
-              disambiguation = fromSquare.toString().toLowerCase();
-            }
-            break;
-          }
-        }
-
-        if (needsDisambiguation) {
-          san.append(disambiguation);
-        }
-      } else if (isCapture) {
-        san.append(String.valueOf(fromSquare.getFile().getNotation()).toLowerCase());
-      }
-
-      if (isCapture) {
-        san.append("x");
-      }
-
-      san.append(toSquare.toString().toLowerCase());
-
-      if (matchingMove.getPromotion() != Piece.NONE) {
-        san.append("=").append(matchingMove.getPromotion().getFenSymbol().toUpperCase());
-      }
-
-      if (isCheckmate) {
-        san.append("#");
-      } else if (isCheck) {
-        san.append("+");
-      }
-
-      return san.toString();
+      return SanNotation.withSuffix(san, board.isKingAttacked(), board.isMated());
     } catch (Exception e) {
       return from + to;
     }
   }
 
-  /**
-   * Check if the current position has occurred three times (threefold repetition).
-   * 
-   * @param fen The current FEN position
-   * @param positionHistory List of all FEN positions in the game
-   * @return true if threefold repetition has occurred
-   */
-  public boolean isThreefoldRepetition(final String fen, final java.util.List<String> positionHistory) {
-    if (positionHistory == null || positionHistory.isEmpty()) {
-      return false;
-    }
-
-    // Extract just the position part of FEN (ignore move counters)
-    final String currentPosition = extractPosition(fen);
-    
-    int count = 0;
-    for (final String historicalFen : positionHistory) {
-      if (extractPosition(historicalFen).equals(currentPosition)) {
-        count++;
-        if (count >= 3) {
-          return true;
-        }
-      }
-    }
-    
-    return false;
-  }
-
   /**
    * Check if the fifty-move rule applies (50 moves without capture or pawn move).
    * 
@@ -248,13 +166,24 @@ public class ChessRulesService {
   }
 
   /**
-   * Extract the position part of FEN (first 4 fields, ignoring move counters).
+   * Find the rule that draws the game once a move is played, the same check the move path
+   * makes; threefold and fifty-move end the game there as well, see {@link DrawRule}.
+   *
+   * @param earlierFens positions before the current one since the last irreversible move,
+   *     oldest first
+   * @param fen the current position
+   * @param from the origin square
+   * @param to the target square
+   * @param promotion the promotion piece, queen when absent
+   * @return the draw rule, null if the game goes on
+   * @throws IllegalArgumentException if the move is not legal in the current position
    */
-  private String extractPosition(final String fen) {
-    final String[] parts = fen.split(" ");
-    if (parts.length >= 4) {
-      return String.join(" ", parts[0], parts[1], parts[2], parts[3]);
-    }
-    return fen;
+  public DrawRule drawRuleAfterMove(
+      final List<String> earlierFens,
+      final String fen,
+      final String from,
+      final String to,
+      final String promotion) {
+    return new LiveGame(null, fen, earlierFens).play(from, to, promotion).drawRule();
   }
 }
@@ -1,22 +1,39 @@
 package com.checkmate.chess.service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.checkmate.chess.clock.ClockSnapshot;
 import com.checkmate.chess.dto.CreateComputerGameResponse;
 import com.checkmate.chess.dto.CreateGuestGameResponse;
 import com.checkmate.chess.dto.GameStateResponse;
 import com.checkmate.chess.dto.MakeMoveResponse;
 import com.checkmate.chess.dto.MoveDto;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
 import com.checkmate.chess.exception.ResourceNotFoundException;
+import com.checkmate.chess.game.GameInfo;
+import com.checkmate.chess.game.GameTransactions;
+import com.checkmate.chess.game.LiveGame;
+import com.checkmate.chess.game.LiveGameRegistry;
+import com.checkmate.chess.game.MoveResult;
+import com.checkmate.chess.game.Premove;
+import com.checkmate.chess.journal.JournalEntry;
+import com.checkmate.chess.journal.JournalFlusher;
+import com.checkmate.chess.journal.MoveJournal;
+import com.checkmate.chess.metrics.GameMetrics;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.repository.GameRepository;
 import com.checkmate.chess.security.JwtService;
@@ -34,9 +51,14 @@ public class GameService {
   private final MoveService moveService;
   private final ChessRulesService chessRulesService;
   private final JwtService jwtService;
-  private final RatingService ratingService;
-  private final StockfishService stockfishService;
   private final InvitationService invitationService;
+  private final LiveGameRegistry liveGameRegistry;
+  private final ChessClockService chessClockService;
+  private final MoveJournal moveJournal;
+  private final JournalFlusher journalFlusher;
+  private final GameMetrics gameMetrics;
+  private final ApplicationEventPublisher eventPublisher;
+  private final GameTransactions gameTransactions;
 
   @Transactional
   public CreateGuestGameResponse createGuestGame(final String guestUsername) {
@@ -55,7 +77,7 @@ public class GameService {
         .password(guestUser.getPasswordHash())
         .authorities("ROLE_GUEST")
         .build();
-    final String token = jwtService.generateToken(userDetails);
+    final String token = jwtService.generateToken(guestUser.getId(), userDetails);
 
     return new CreateGuestGameResponse(
         game.getId(), guestUser.getId(), guestIsWhite ? "white" : "black", token);
@@ -144,10 +166,10 @@ public class GameService {
     
     return new GameStateResponse(
         game.getId(),
-        game.getCurrentFen(),
+        currentFen(game),
         game.getStatus(),
         game.getResult(),
-        game.getPgn(),
+        movetext(game),
         game.getWhitePlayer().getId(),
         game.getBlackPlayer().getId(),
         game.getGameType(),
@@ -166,69 +188,391 @@ public class GameService {
     return moveService.getGameMovesAsDto(game);
   }
 
-  @Transactional
+  /**
+   * Play a move, then the opponent's premove if one is queued. Moves of one game are applied
+   * one at a time on the game's thread, so two submissions racing each other never both
+   * validate against the same position.
+   */
   public MakeMoveResponse makeMove(final UUID gameId, final String from, final String to, final String promotion) {
+    return makeMove(gameId, from, to, promotion, null);
+  }
+
+  /**
+   * Play a move whose client reported how long the player thought about it. The clock credits
+   * the player for the difference to the time the server measured, the network transit, within
+   * the bounds of the {@link com.checkmate.chess.clock.LagCompensator}.
+   * With write-behind persistence a move on a resident game touches no rows, so it runs
+   * without a database transaction.
+   *
+   * @param gameId the game ID
+   * @param from the origin square
+   * @param to the target square
+   * @param promotion the promotion piece, queen when absent
+   * @param thinkTimeMs the think time measured by the client, null if it sent none
+   * @return the move
+   */
+  public MakeMoveResponse makeMove(final UUID gameId, final String from, final String to,
+      final String promotion, final Long thinkTimeMs) {
+    final Supplier<MakeMoveResponse> move = () -> {
+      final MakeMoveResponse response =
+          applyMove(gameId, from, to, promotion, false, thinkTimeMs);
+      playPremoves(gameId);
+      return response;
+    };
+    return moveJournal.isEnabled() && liveGameRegistry.find(gameId).isPresent()
+        ? gameTransactions.executeInMemory(gameId, move)
+        : gameTransactions.execute(gameId, move);
+  }
+
+  /**
+   * Queue a premove for a player waiting for the opponent's move. The server plays it right
+   * after that move, in the same step and without charging think time, so network latency
+   * does not come off the player's clock. If the opponent has already moved it is played
+   * at once, as a normal move. The side is the one the player sits on.
+   *
+   * @param gameId the game ID
+   * @param playerId the player sending the premove
+   * @param from the origin square
+   * @param to the target square
+   * @param promotion the promotion piece, queen when absent
+   * @return the move if it was played at once, empty if it was queued
+   * @throws AccessDeniedException if the player does not play in the game
+   */
+  public Optional<MakeMoveResponse> premove(final UUID gameId, final UUID playerId,
+      final String from, final String to, final String promotion) {
+    return gameTransactions.execute(gameId, () -> {
+      final Game game = findById(gameId);
+      final String side = seatOf(game, playerId);
+      if (!isInProgress(game)) {
+        throw new IllegalStateException("Game is not in progress");
+      }
+      final LiveGame liveGame = liveGame(game);
+      if (!side.equals(liveGame.getSideToMove())) {
+        liveGame.setPremove(side, new Premove(from, to, promotion));
+        return Optional.empty();
+      }
+      final MakeMoveResponse response = applyMove(gameId, from, to, promotion, false, null);
+      playPremoves(gameId);
+      return Optional.of(response);
+    });
+  }
+
+  /**
+   * Drop a player's queued premove, if any.
+   *
+   * @param gameId the game ID
+   * @param playerId the player whose premove to drop
+   * @throws AccessDeniedException if the player does not play in the game
+   */
+  public void cancelPremove(final UUID gameId, final UUID playerId) {
+    gameTransactions.run(gameId, () -> {
+      final String side = seatOf(findById(gameId), playerId);
+      liveGameRegistry.find(gameId).ifPresent(liveGame -> liveGame.cancelPremove(side));
+    });
+  }
+
+  /**
+   * The side a player sits on, taken from the game rather than from anything the client says.
+   */
+  private static String seatOf(final Game game, final UUID playerId) {
+    if (game.getWhitePlayer() != null && game.getWhitePlayer().getId().equals(playerId)) {
+      return "white";
+    }
+    if (game.getBlackPlayer() != null && game.getBlackPlayer().getId().equals(playerId)) {
+      return "black";
+    }
+    throw new AccessDeniedException("Not a player of game " + game.getId());
+  }
+
+  /**
+   * Play queued premoves while the side to move has one; when both players premove, they
+   * keep answering each other. A premove that is not legal in the position it meets is
+   * dropped.
+   */
+  private void playPremoves(final UUID gameId) {
+    Optional<Premove> premove = liveGameRegistry.find(gameId).flatMap(LiveGame::takePremove);
+    while (premove.isPresent()) {
+      final Premove next = premove.get();
+      try {
+        applyMove(gameId, next.from(), next.to(), next.promotion(), true, null);
+      } catch (IllegalArgumentException e) {
+        logger.debug("Dropped illegal premove {}-{} in game {}", next.from(), next.to(), gameId);
+        return;
+      }
+      premove = liveGameRegistry.find(gameId).flatMap(LiveGame::takePremove);
+    }
+  }
+
+  private MakeMoveResponse applyMove(final UUID gameId, final String from, final String to,
+      final String promotion, final boolean premove, final Long thinkTimeMs) {
+    if (moveJournal.isEnabled()) {
+      return makeJournaledMove(residentGame(gameId), from, to, promotion, premove, thinkTimeMs);
+    }
+
     final Game game = findById(gameId);
+    if (!isInProgress(game)) {
+      throw new IllegalStateException("Game is not in progress");
+    }
+
+    // Validation, application and classification happen in one pass on the resident board
+    final LiveGame liveGame = liveGame(game);
+    final MoveResult result = play(liveGame, from, to, promotion);
+
+    if (chessClockService.isTimed(game.getTimeControl())) {
+      recordClock(gameId, result.playerColor(), true, premove, thinkTimeMs);
+    }
+
+    final long persistStart = System.nanoTime();
+    moveService.saveMove(game, result.algebraicNotation(), result.moveCode(), result.fen());
+    game.setCurrentFen(result.fen());
+
+    final Ending ending = Ending.of(result);
+    if (ending != null) {
+      game.endGame(ending.result(), ending.reason());
+    }
+    gameRepository.save(game);
+    gameMetrics.recordMovePersisted(persistStart);
+
+    final MakeMoveResponse response = toResponse(result, game.getPlyCount());
+    eventPublisher.publishEvent(new MoveMadeEvent(
+        gameId, game.getGameType(), game.getTimeControl(), result.playerColor(), response));
 
     if (!"IN_PROGRESS".equals(game.getStatus())) {
-      throw new IllegalStateException("Game is not in progress");
+      liveGameRegistry.evict(gameId);
+      chessClockService.stopClock(gameId);
+      publishGameEnded(game);
+    }
+
+    return response;
+  }
+
+  /**
+   * Write-behind variant of {@link #makeMove}: the resident live game is authoritative and the
+   * move is appended to the move journal instead of being written to the games and moves rows,
+   * which catch up within one journal flush interval. Everything the move needs to know about
+   * the game comes from the live game, so the row is not read either.
+   */
+  private MakeMoveResponse makeJournaledMove(final LiveGame liveGame, final String from,
+      final String to, final String promotion, final boolean premove, final Long thinkTimeMs) {
+    final UUID gameId = liveGame.getGameId();
+    final GameInfo info = liveGame.getInfo().orElseThrow();
+    final boolean timed = chessClockService.isTimed(info.timeControl());
+
+    final MoveResult result;
+    final Ending ending;
+    final int ply;
+    // Play and append under the game's lock so the journal holds its moves in play order
+    synchronized (liveGame) {
+      if (moveJournal.isEnded(gameId)) {
+        throw new IllegalStateException("Game is not in progress");
+      }
+      final String fenBefore = liveGame.getFen();
+      final Optional<String> movetextBefore = liveGame.getMovetext();
+      result = play(liveGame, from, to, promotion);
+      ending = Ending.of(result);
+      final ClockSnapshot clock = timed
+          ? recordClock(gameId, result.playerColor(), false, premove, thinkTimeMs).orElse(null)
+          : null;
+      ply = moveJournal.nextPly(gameId, info.plyCount());
+      final long persistStart = System.nanoTime();
+      try {
+        moveJournal.append(new JournalEntry(
+            gameId,
+            ply,
+            result.algebraicNotation(),
+            result.moveCode(),
+            result.fen(),
+            ending != null ? ending.result() : null,
+            ending != null ? ending.reason() : null,
+            clock));
+        gameMetrics.recordMoveJournaled(System.nanoTime() - persistStart);
+      } catch (RuntimeException e) {
+        // Take the move back; earlier positions are forgotten, which only delays repetition draws
+        final LiveGame restored = liveGameRegistry.acquire(gameId, fenBefore);
+        restored.setInfo(info);
+        movetextBefore.ifPresent(text -> restored.setMovetext(text, ply));
+        throw e;
+      }
     }
 
-    if (!chessRulesService.isLegalMove(game.getCurrentFen(), from, to)) {
-      throw new IllegalArgumentException("Illegal move");
+    final MakeMoveResponse response = toResponse(result, ply + 1);
+    eventPublisher.publishEvent(new MoveMadeEvent(
+        gameId, info.gameType(), info.timeControl(), result.playerColor(), response));
+
+    if (ending != null) {
+      liveGameRegistry.evict(gameId);
+      chessClockService.stopClock(gameId, false);
+      eventPublisher.publishEvent(new GameEndedEvent(
+          gameId,
+          info.gameType(),
+          info.whitePlayerId(),
+          info.blackPlayerId(),
+          ending.result(),
+          ending.reason(),
+          "DRAW".equals(ending.result()) ? "draw" : result.playerColor()));
     }
 
-    final String newFen = chessRulesService.makeMove(game.getCurrentFen(), from, to, promotion);
-    final String notation = chessRulesService.getMoveNotation(game.getCurrentFen(), from, to);
+    return response;
+  }
 
-    moveService.saveMove(game, notation, newFen);
+  /**
+   * Play a move on the resident board, timing the validation.
+   */
+  private MoveResult play(
+      final LiveGame liveGame, final String from, final String to, final String promotion) {
+    final long start = System.nanoTime();
+    try {
+      final MoveResult result = liveGame.play(from, to, promotion);
+      gameMetrics.recordMoveValidation(System.nanoTime() - start, true);
+      return result;
+    } catch (RuntimeException e) {
+      gameMetrics.recordMoveValidation(System.nanoTime() - start, false);
+      throw e;
+    }
+  }
 
-    game.setCurrentFen(newFen);
-    gameRepository.save(game);
+  /**
+   * Record a move on the game's clock; premoves are charged no think time.
+   */
+  private Optional<ClockSnapshot> recordClock(final UUID gameId, final String player,
+      final boolean persist, final boolean premove, final Long thinkTimeMs) {
+    return premove
+        ? chessClockService.recordPremove(gameId, player, persist)
+        : chessClockService.recordMove(gameId, player, persist, thinkTimeMs);
+  }
 
-    final boolean isCheckmate = chessRulesService.isCheckmate(newFen);
-    final boolean isStalemate = chessRulesService.isStalemate(newFen);
-    final boolean isCheck = chessRulesService.isCheck(newFen);
-
-    if (isCheckmate) {
-      game.endGame("CHECKMATE", "Checkmate");
-      gameRepository.save(game);
-      updateRatingsIfRanked(game);
-    } else if (isStalemate) {
-      game.endGame("DRAW", "Stalemate");
-      gameRepository.save(game);
-      updateRatingsIfRanked(game);
+  /**
+   * The live game to play on. With write-behind persistence a resident live game is ahead of
+   * its row, so only a game that is not resident is loaded.
+   */
+  private LiveGame liveGame(final Game game) {
+    if (!moveJournal.isEnabled()) {
+      return acquireLiveGame(game);
     }
+    return liveGameRegistry.find(game.getId()).orElseGet(() -> acquireLiveGame(game));
+  }
 
-    return new MakeMoveResponse(notation, newFen, isCheckmate, isStalemate, isCheck);
+  /**
+   * The live game to play a write-behind move on. Games leave the registry when they end, so a
+   * resident game is in progress unless a journaled move ended it, which the move checks;
+   * only a game that is not resident is loaded, and checked here.
+   */
+  private LiveGame residentGame(final UUID gameId) {
+    return liveGameRegistry.find(gameId)
+        .filter(liveGame -> liveGame.getInfo().isPresent())
+        .orElseGet(() -> {
+          final Game game = findById(gameId);
+          if (!isInProgress(game)) {
+            throw new IllegalStateException("Game is not in progress");
+          }
+          return acquireLiveGame(game);
+        });
+  }
+
+  private LiveGame acquireLiveGame(final Game game) {
+    final LiveGame liveGame = liveGameRegistry.acquire(game.getId(), game.getCurrentFen(),
+        () -> moveService.findRepeatablePositions(game, LiveGame.halfmoveClock(game.getCurrentFen())));
+    if (liveGame.getInfo().isEmpty()) {
+      // Loaded just now, on the game's thread, so no move can slip in before the seed
+      liveGame.setInfo(new GameInfo(
+          game.getGameType(),
+          game.getTimeControl(),
+          game.getWhitePlayer().getId(),
+          game.getBlackPlayer().getId(),
+          game.getPlyCount()));
+      liveGame.setMovetext(moveService.getMovetext(game), game.getPlyCount());
+    }
+    return liveGame;
+  }
+
+  private static MakeMoveResponse toResponse(final MoveResult result, final int seq) {
+    return new MakeMoveResponse(
+        result.algebraicNotation(),
+        result.fen(),
+        result.isCheckmate(),
+        result.isStalemate(),
+        result.isCheck(),
+        seq);
+  }
+
+  /**
+   * Result and reason of a move that ends the game.
+   */
+  private record Ending(String result, String reason) {
+
+    static Ending of(final MoveResult result) {
+      if (result.isCheckmate()) {
+        return new Ending("CHECKMATE", "Checkmate");
+      }
+      if (result.isStalemate()) {
+        return new Ending("DRAW", "Stalemate");
+      }
+      if (result.drawRule() != null) {
+        return new Ending("DRAW", result.drawRule().getReason());
+      }
+      return null;
+    }
+  }
+
+  private boolean isInProgress(final Game game) {
+    return "IN_PROGRESS".equals(game.getStatus()) && !moveJournal.isEnded(game.getId());
+  }
+
+  /**
+   * Current position of a game; with write-behind persistence a resident live game is ahead
+   * of the games row.
+   */
+  private String currentFen(final Game game) {
+    if (!moveJournal.isEnabled()) {
+      return game.getCurrentFen();
+    }
+    return liveGameRegistry.find(game.getId()).map(LiveGame::getFen).orElse(game.getCurrentFen());
+  }
+
+  /**
+   * Movetext of a game, from its resident live game when that is at the position of the row,
+   * or ahead of it with write-behind persistence, so a read does not go through every move row.
+   */
+  private String movetext(final Game game) {
+    return liveGameRegistry.find(game.getId())
+        .filter(liveGame -> moveJournal.isEnabled()
+            || liveGame.getFen().equals(game.getCurrentFen()))
+        .flatMap(LiveGame::getMovetext)
+        .orElseGet(() -> moveService.getMovetext(game));
   }
 
-  @Transactional
   public void resignGame(final UUID gameId, final UUID playerId) {
+    gameTransactions.run(gameId, () -> applyResignation(gameId));
+  }
+
+  private void applyResignation(final UUID gameId) {
+    journalFlusher.settle(gameId);
     final Game game = findById(gameId);
     game.endGame("RESIGNATION", "Player resigned");
     gameRepository.save(game);
-    updateRatingsIfRanked(game);
+    liveGameRegistry.evict(gameId);
+    chessClockService.stopClock(gameId);
+    publishGameEnded(game);
   }
 
   /**
-   * Update ratings if game is ranked.
+   * Announce the end of a game; ratings and broadcasts react after commit.
    */
-  private void updateRatingsIfRanked(Game game) {
-    if ("ranked".equalsIgnoreCase(game.getGameType())) {
-      String result = determineWinner(game);
-      ratingService.updateRatings(
-          game.getWhitePlayer().getId(),
-          game.getBlackPlayer().getId(),
-          result
-      );
-    }
+  private void publishGameEnded(final Game game) {
+    eventPublisher.publishEvent(new GameEndedEvent(
+        game.getId(),
+        game.getGameType(),
+        game.getWhitePlayer().getId(),
+        game.getBlackPlayer().getId(),
+        game.getResult(),
+        game.getEndReason(),
+        determineWinner(game)));
   }
 
   /**
    * Determine winner from game result.
    */
-  private String determineWinner(Game game) {
+  private String determineWinner(final Game game) {
     if ("DRAW".equals(game.getResult())) {
       return "draw";
     }
@@ -239,42 +583,16 @@ public class GameService {
   }
 
   /**
-   * Generate and make computer move.
-   * Returns the move response or null if game ended.
+   * Get the position the computer should search, if it is the computer's turn.
+   * Returns empty if the game is over or it is the human's turn.
    */
-  @Transactional
-  public MakeMoveResponse makeComputerMove(final UUID gameId, final String difficulty) {
+  @Transactional(readOnly = true)
+  public Optional<String> findComputerTurnFen(final UUID gameId) {
     final Game game = findById(gameId);
-
-    if (!"IN_PROGRESS".equals(game.getStatus())) {
-      return null;
-    }
-
-    try {
-      // Get best move from Stockfish
-      final String uciMove = stockfishService.getBestMove(game.getCurrentFen(), difficulty);
-      
-      logger.info("Stockfish returned UCI move: {} for game {}", uciMove, gameId);
-      
-      // Validate UCI move format
-      if (uciMove == null || uciMove.length() < 4) {
-        logger.error("Invalid UCI move format: {}", uciMove);
-        return null;
-      }
-      
-      // Parse UCI move (e.g., "e2e4" -> from="e2", to="e4", or "e7e8q" for promotion)
-      final String from = uciMove.substring(0, 2);
-      final String to = uciMove.substring(2, 4);
-      final String promotion = uciMove.length() > 4 ? uciMove.substring(4, 5) : null;
-      
-      logger.info("Parsed move: from={}, to={}, promotion={}", from, to, promotion);
-
-      // Make the move
-      return makeMove(gameId, from, to, promotion);
-    } catch (Exception e) {
-      logger.error("Error making computer move for game {}", gameId, e);
-      return null;
+    if (!isInProgress(game) || !isComputerTurn(game)) {
+      return Optional.empty();
     }
+    return Optional.of(currentFen(game));
   }
 
   /**
@@ -282,8 +600,12 @@ public class GameService {
    */
   @Transactional(readOnly = true)
   public boolean isComputerTurn(final UUID gameId) {
-    final Game game = findById(gameId);
-    
+    return isComputerTurn(findById(gameId));
+  }
+
+  private boolean isComputerTurn(final Game game) {
+    final UUID gameId = game.getId();
+
     logger.info("Checking computer turn for game {}: gameType={}", gameId, game.getGameType());
     
     if (!"COMPUTER".equals(game.getGameType())) {
@@ -291,7 +613,7 @@ public class GameService {
       return false;
     }
 
-    final String currentTurn = chessRulesService.getCurrentTurn(game.getCurrentFen());
+    final String currentTurn = chessRulesService.getCurrentTurn(currentFen(game));
     final com.checkmate.chess.model.User whitePlayer = game.getWhitePlayer();
     final com.checkmate.chess.model.User blackPlayer = game.getBlackPlayer();
     
@@ -0,0 +1,70 @@
+package com.checkmate.chess.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.checkmate.chess.dto.GameStateResponse;
+import com.checkmate.chess.dto.GameSyncResponse;
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.dto.MoveDto;
+import com.checkmate.chess.game.GameFeed;
+import com.checkmate.chess.repository.GameRepository;
+
+/**
+ * Catches reconnecting clients up with a game.
+ * Missed moves come from the in-memory {@link GameFeed}; the game and its full move list are
+ * only loaded when the feed cannot prove it holds every missed move. With a single instance
+ * (the simple broker) the feed sees every move; with several, another instance may have
+ * handled the latest moves, so the feed is checked against the stored ply count first.
+ */
+@Service
+public class GameSyncService {
+
+  private final GameFeed gameFeed;
+  private final GameService gameService;
+  private final GameRepository gameRepository;
+  private final boolean singleInstance;
+
+  public GameSyncService(
+      GameFeed gameFeed,
+      GameService gameService,
+      GameRepository gameRepository,
+      @Value("${app.websocket.broker.mode:simple}") String brokerMode) {
+    this.gameFeed = gameFeed;
+    this.gameService = gameService;
+    this.gameRepository = gameRepository;
+    this.singleInstance = "simple".equals(brokerMode);
+  }
+
+  /**
+   * Moves a client missed since the last one it applied, or a snapshot.
+   *
+   * @param gameId the game ID
+   * @param lastSeq the seq of the last move the client applied, 0 for none
+   * @return the missed moves, or the whole game if they are not all buffered
+   */
+  public GameSyncResponse sync(UUID gameId, int lastSeq) {
+    final Optional<List<MakeMoveResponse>> missed = gameFeed.since(gameId, lastSeq);
+    if (missed.isPresent() && isCurrent(gameId)) {
+      return new GameSyncResponse(
+          gameId, lastSeq + missed.get().size(), false, missed.get(), null, null);
+    }
+
+    final GameStateResponse state = gameService.getGameState(gameId);
+    final List<MoveDto> history = gameService.getGameMoves(gameId);
+    return new GameSyncResponse(gameId, history.size(), true, null, state, history);
+  }
+
+  private boolean isCurrent(UUID gameId) {
+    if (singleInstance) {
+      return true;
+    }
+    final int latest = gameFeed.latestSeq(gameId).orElse(0);
+    // With write-behind persistence the feed may be ahead of the row, never behind it
+    return gameRepository.findPlyCountById(gameId).map(stored -> latest >= stored).orElse(false);
+  }
+}
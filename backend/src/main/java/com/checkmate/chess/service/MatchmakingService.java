@@ -1,15 +1,32 @@
 package com.checkmate.chess.service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.checkmate.chess.config.NodeIdentity;
+import com.checkmate.chess.event.MatchFoundEvent;
+import com.checkmate.chess.matchmaking.MatchPair;
+import com.checkmate.chess.matchmaking.Matchmaker;
+import com.checkmate.chess.matchmaking.QueuedPlayer;
+import com.checkmate.chess.metrics.MatchmakingMetrics;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.MatchmakingQueue;
 import com.checkmate.chess.model.User;
@@ -20,26 +37,47 @@ import com.checkmate.chess.repository.UserRepository;
 /**
  * Service for matchmaking logic.
  * Manages queue and pairs players based on rating and time control.
+ * Pairing runs against the in-memory {@link Matchmaker}; the matchmaking_queue table is a
+ * durable mirror that is written on join, leave and pairing, and read back on startup.
+ * Each row names the instance whose matchmaker holds the player ({@link NodeIdentity}), so a
+ * restarting instance only restores its own players, and pairing locks the rows of the paired
+ * players first, so a player queued on two instances is only ever paired by one of them.
+ * Each created game is announced with a {@link MatchFoundEvent} that players receive over STOMP.
  */
 @Service
 public class MatchmakingService {
 
   private static final Logger logger = LoggerFactory.getLogger(MatchmakingService.class);
-  private static final int MAX_RATING_DIFFERENCE = 200;
   private static final int QUEUE_TIMEOUT_MINUTES = 5;
+  private static final List<String> TIME_CONTROLS = List.of("bullet", "blitz", "rapid", "classical");
 
   private final MatchmakingQueueRepository queueRepository;
   private final UserRepository userRepository;
   private final GameRepository gameRepository;
+  private final ChessClockService clockService;
+  private final Matchmaker matchmaker;
+  private final MatchmakingMetrics matchmakingMetrics;
+  private final NodeIdentity nodeIdentity;
+  private final ApplicationEventPublisher eventPublisher;
   private final Random random = new Random();
 
   public MatchmakingService(
       MatchmakingQueueRepository queueRepository,
       UserRepository userRepository,
-      GameRepository gameRepository) {
+      GameRepository gameRepository,
+      ChessClockService clockService,
+      Matchmaker matchmaker,
+      MatchmakingMetrics matchmakingMetrics,
+      NodeIdentity nodeIdentity,
+      ApplicationEventPublisher eventPublisher) {
     this.queueRepository = queueRepository;
     this.userRepository = userRepository;
     this.gameRepository = gameRepository;
+    this.clockService = clockService;
+    this.matchmaker = matchmaker;
+    this.matchmakingMetrics = matchmakingMetrics;
+    this.nodeIdentity = nodeIdentity;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -59,9 +97,11 @@ public class MatchmakingService {
     // Remove existing queue entry if any
     queueRepository.findByUserId(userId).ifPresent(queueRepository::delete);
 
-    // Add to queue
+    // Add to queue: the row is the durable mirror, the matchmaker holds the live state
     MatchmakingQueue entry = new MatchmakingQueue(userId, user.getEloRating(), timeControl);
+    entry.setOwnerNode(nodeIdentity.id());
     queueRepository.save(entry);
+    afterCommit(() -> matchmaker.enqueue(toQueuedPlayer(entry)));
 
     logger.info("User {} joined {} queue with rating {}", 
         user.getUsername(), timeControl, user.getEloRating());
@@ -80,7 +120,7 @@ public class MatchmakingService {
     }
     
     String normalized = timeControl.toLowerCase().trim();
-    if (!List.of("bullet", "blitz", "rapid", "classical").contains(normalized)) {
+    if (!TIME_CONTROLS.contains(normalized)) {
       throw new IllegalArgumentException(
           "Invalid time control: " + timeControl + 
           ". Must be one of: bullet, blitz, rapid, classical");
@@ -94,6 +134,7 @@ public class MatchmakingService {
    */
   @Transactional
   public void leaveQueue(UUID userId) {
+    matchmaker.dequeue(userId);
     queueRepository.findByUserId(userId).ifPresent(entry -> {
       queueRepository.delete(entry);
       logger.info("User {} left matchmaking queue", userId);
@@ -102,62 +143,90 @@ public class MatchmakingService {
 
   /**
    * Process matchmaking for all time controls.
-   * Pairs players with similar ratings.
+   * Pairs as many players as the rating windows allow, creates all games in this transaction
+   * and removes the paired players from the mirror table in one statement.
+   * The mirror rows of the paired players are locked first; a player whose row is gone, or
+   * queued for another time control, has left or was paired by another instance and is
+   * dropped, and their partner waits for the next round.
+   * If the transaction rolls back, the paired players are put back in the queue.
    */
   @Transactional
   public void processPairing() {
-    String[] timeControls = {"bullet", "blitz", "rapid", "classical"};
-    
-    for (String timeControl : timeControls) {
-      processPairingForTimeControl(timeControl);
+    long now = System.currentTimeMillis();
+    List<MatchPair> pairs = new ArrayList<>();
+    for (String timeControl : TIME_CONTROLS) {
+      pairs.addAll(matchmaker.pair(timeControl, now));
     }
-  }
 
-  /**
-   * Process pairing for a specific time control.
-   */
-  private void processPairingForTimeControl(String timeControl) {
-    List<MatchmakingQueue> queue = queueRepository
-        .findByTimeControlOrderByCreatedAtAsc(timeControl);
+    if (pairs.isEmpty()) {
+      return;
+    }
+    requeueOnRollback(pairs);
 
-    if (queue.size() < 2) {
-      return; // Need at least 2 players
+    Set<UUID> userIds = new HashSet<>();
+    for (MatchPair pair : pairs) {
+      userIds.add(pair.first().userId());
+      userIds.add(pair.second().userId());
+      recordWait(pair.first(), now);
+      recordWait(pair.second(), now);
     }
+    Map<UUID, String> waiting = new HashMap<>();
+    queueRepository.lockByUserIdIn(userIds)
+        .forEach(entry -> waiting.put(entry.getUserId(), entry.getTimeControl()));
+    Map<UUID, User> users = new HashMap<>();
+    userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
 
-    // Try to match first two players with compatible ratings
-    for (int i = 0; i < queue.size() - 1; i++) {
-      MatchmakingQueue player1 = queue.get(i);
-      
-      for (int j = i + 1; j < queue.size(); j++) {
-        MatchmakingQueue player2 = queue.get(j);
-        
-        if (canMatch(player1, player2)) {
-          createGame(player1, player2, timeControl);
-          queueRepository.delete(player1);
-          queueRepository.delete(player2);
-          return; // Match found, exit
-        }
+    List<Game> games = new ArrayList<>();
+    for (MatchPair pair : pairs) {
+      User user1 = waitingUser(pair.first(), waiting, users, userIds);
+      User user2 = waitingUser(pair.second(), waiting, users, userIds);
+      if (user1 == null || user2 == null) {
+        // A user vanished or left while queued; give the remaining player another chance
+        requeueIfPresent(pair.first(), user1, userIds);
+        requeueIfPresent(pair.second(), user2, userIds);
+        continue;
       }
+      games.add(createGame(user1, user2, pair.first().timeControl()));
+    }
+
+    gameRepository.saveAll(games);
+    for (Game game : games) {
+      clockService.initializeClock(game.getId(), game.getTimeControl());
+      eventPublisher.publishEvent(new MatchFoundEvent(
+          game.getId(),
+          game.getWhitePlayer().getId(),
+          game.getBlackPlayer().getId(),
+          game.getTimeControl()));
     }
+    if (!userIds.isEmpty()) {
+      queueRepository.deleteByUserIdIn(userIds);
+    }
+
+    logger.info("Created {} ranked games from {} queued players", games.size(), pairs.size() * 2);
   }
 
   /**
-   * Check if two players can be matched.
+   * Rebuild the in-memory queue from the mirror table after a restart.
+   * Only this instance's players, or unclaimed ones it manages to claim, are restored.
    */
-  private boolean canMatch(MatchmakingQueue player1, MatchmakingQueue player2) {
-    int ratingDiff = Math.abs(player1.getRating() - player2.getRating());
-    return ratingDiff <= MAX_RATING_DIFFERENCE;
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void restoreQueue() {
+    String node = nodeIdentity.id();
+    List<MatchmakingQueue> entries = queueRepository.findRestorable(node).stream()
+        .filter(entry -> node.equals(entry.getOwnerNode())
+            || queueRepository.claimUnowned(entry.getId(), node) == 1)
+        .toList();
+    afterCommit(() -> entries.forEach(entry -> matchmaker.enqueue(toQueuedPlayer(entry))));
+    if (!entries.isEmpty()) {
+      logger.info("Restored {} matchmaking queue entries", entries.size());
+    }
   }
 
   /**
    * Create a game between two matched players.
    */
-  private void createGame(MatchmakingQueue player1, MatchmakingQueue player2, String timeControl) {
-    User user1 = userRepository.findById(player1.getUserId())
-        .orElseThrow(() -> new IllegalArgumentException("User 1 not found"));
-    User user2 = userRepository.findById(player2.getUserId())
-        .orElseThrow(() -> new IllegalArgumentException("User 2 not found"));
-
+  private Game createGame(User user1, User user2, String timeControl) {
     // Randomly assign colors
     boolean user1IsWhite = random.nextBoolean();
     
@@ -167,13 +236,59 @@ public class MatchmakingService {
     game.setGameType("ranked");
     game.setTimeControl(timeControl);
     game.setCurrentFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
-    game.setStatus("in_progress");
-    
-    gameRepository.save(game);
+    game.setStatus("IN_PROGRESS");
 
-    logger.info("Created ranked game {} between {} (rating {}) and {} (rating {})",
-        game.getId(), user1.getUsername(), player1.getRating(),
-        user2.getUsername(), player2.getRating());
+    logger.debug("Pairing {} (rating {}) with {} (rating {}) for {}",
+        user1.getUsername(), user1.getEloRating(),
+        user2.getUsername(), user2.getEloRating(), timeControl);
+    return game;
+  }
+
+  private void requeueIfPresent(QueuedPlayer player, User user, Set<UUID> pairedIds) {
+    if (user != null) {
+      matchmaker.enqueue(player);
+      pairedIds.remove(player.userId());
+    }
+  }
+
+  /**
+   * Look up a paired player whose mirror row is still there for the time control they were
+   * paired in; otherwise the row is no longer this pairing's to delete.
+   */
+  private User waitingUser(
+      QueuedPlayer player, Map<UUID, String> waiting, Map<UUID, User> users, Set<UUID> pairedIds) {
+    if (player.timeControl().equals(waiting.get(player.userId()))) {
+      return users.get(player.userId());
+    }
+    pairedIds.remove(player.userId());
+    return null;
+  }
+
+  private void recordWait(QueuedPlayer player, long now) {
+    matchmakingMetrics.recordWait(player.timeControl(), now - player.joinedAtMillis());
+  }
+
+  private void requeueOnRollback(List<MatchPair> pairs) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          for (MatchPair pair : pairs) {
+            matchmaker.enqueue(pair.first());
+            matchmaker.enqueue(pair.second());
+          }
+          logger.warn("Pairing rolled back, re-queued {} players", pairs.size() * 2);
+        }
+      }
+    });
+  }
+
+  private QueuedPlayer toQueuedPlayer(MatchmakingQueue entry) {
+    long joinedAt = entry.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    return new QueuedPlayer(entry.getUserId(), entry.getRating(), entry.getTimeControl(), joinedAt);
   }
 
   /**
@@ -185,8 +300,22 @@ public class MatchmakingService {
     List<MatchmakingQueue> expired = queueRepository.findByCreatedAtBefore(cutoff);
     
     if (!expired.isEmpty()) {
+      expired.forEach(entry -> matchmaker.dequeue(entry.getUserId()));
       queueRepository.deleteAll(expired);
       logger.info("Removed {} expired matchmaking entries", expired.size());
     }
   }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
 }
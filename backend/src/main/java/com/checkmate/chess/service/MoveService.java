@@ -1,11 +1,15 @@
 package com.checkmate.chess.service;
 
 import com.checkmate.chess.dto.MoveDto;
+import com.checkmate.chess.game.MoveCodec;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.Move;
 import com.checkmate.chess.repository.MoveRepository;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,39 +17,180 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class MoveService {
 
+  private static final String STARTING_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
   private final MoveRepository moveRepository;
 
+  /**
+   * Append a move to the game's move log.
+   * The next ply is carried on the game row, so each move costs one insert plus a constant
+   * amount of work on the (already loaded) game; PGN is built from the move rows on read.
+   * The move is stored as a 16-bit code; the FEN is kept only at checkpoint plies.
+   */
   @Transactional
-  public Move saveMove(final Game game, final String notation, final String fenAfterMove) {
-    final long moveCount = moveRepository.countByGame(game);
-    final int moveNumber = (int) (moveCount / 2) + 1;
-    final String color = moveCount % 2 == 0 ? "white" : "black";
-
-    final Move move = new Move(game, moveNumber, color, notation, fenAfterMove);
+  public Move saveMove(
+      final Game game, final String notation, final short moveCode, final String fenAfterMove) {
+    final int ply = game.getPlyCount();
+    final Move move = new Move(game, ply, notation, moveCode,
+        MoveCodec.isCheckpoint(ply) ? fenAfterMove : null);
     final Move savedMove = moveRepository.save(move);
+    game.setPlyCount(ply + 1);
 
-    final List<Move> allMoves = moveRepository.findByGameOrderByMoveNumberAsc(game);
-    final StringBuilder pgnBuilder = new StringBuilder();
+    return savedMove;
+  }
 
-    for (int i = 0; i < allMoves.size(); i++) {
-      final Move m = allMoves.get(i);
-      if (i % 2 == 0) {
-        pgnBuilder.append(m.getMoveNumber()).append(". ");
+  /**
+   * The game's moves as PGN movetext, e.g. {@code 1. e4 e5 2. Nf3}.
+   *
+   * @param game the game
+   * @return the movetext, empty before the first move
+   */
+  @Transactional(readOnly = true)
+  public String getMovetext(final Game game) {
+    final List<Move> moves = moveRepository.findByGameIdOrderByPlyAsc(game.getId());
+    final StringBuilder movetext = new StringBuilder(moves.size() * 6);
+    for (int ply = 0; ply < moves.size(); ply++) {
+      if (ply > 0) {
+        movetext.append(' ');
       }
-      pgnBuilder.append(m.getAlgebraicNotation()).append(" ");
+      if (ply % 2 == 0) {
+        movetext.append(ply / 2 + 1).append(". ");
+      }
+      movetext.append(moves.get(ply).getAlgebraicNotation());
     }
+    return movetext.toString();
+  }
 
-    game.setPgn(pgnBuilder.toString().trim());
+  /**
+   * Positions before the current one that can still repeat, oldest first.
+   * With a halfmove clock of n, the last n positions before the current one are reachable
+   * again; the seventy-five-move rule ends the game before n exceeds 150. When no pawn has
+   * moved and nothing has been captured yet, the starting position is one of them.
+   *
+   * @param game the game, whose ply count points just past the current position
+   * @param halfmoveClock the halfmove clock of the current position
+   * @return FENs after each of those moves, preceded by the starting FEN when it is in reach
+   */
+  @Transactional(readOnly = true)
+  public List<String> findRepeatablePositions(final Game game, final int halfmoveClock) {
+    final int currentPly = game.getPlyCount() - 1;
+    if (halfmoveClock <= 0 || currentPly < 0) {
+      return List.of();
+    }
+    final List<String> positions = new ArrayList<>();
+    // Ply -1 stands for the starting position
+    final int firstPly = currentPly - halfmoveClock;
+    if (firstPly < 0) {
+      positions.add(STARTING_FEN);
+    }
+    final int fromPly = Math.max(0, firstPly);
+    if (fromPly < currentPly) {
+      positions.addAll(findPositions(game.getId(), fromPly, currentPly - 1));
+    }
+    return positions;
+  }
 
-    return savedMove;
+  /**
+   * Reconstruct the positions after a range of plies by replaying encoded moves from the
+   * nearest stored checkpoint.
+   *
+   * @param gameId the game ID
+   * @param fromPly the first ply, inclusive
+   * @param toPly the last ply, inclusive
+   * @return the FEN after each ply in the range
+   */
+  @Transactional(readOnly = true)
+  public List<String> findPositions(final UUID gameId, final int fromPly, final int toPly) {
+    final int checkpoint = MoveCodec.checkpointBefore(fromPly);
+    final List<Move> rows = moveRepository.findByGameIdAndPlyBetweenOrderByPlyAsc(
+        gameId, checkpoint, toPly);
+    final List<String> positions = replay(rows);
+    return positions.subList(Math.min(positions.size(), fromPly - checkpoint), positions.size());
+  }
+
+  /**
+   * FEN after each row: stored FENs are used as they are, moves in between are replayed.
+   */
+  private List<String> replay(final List<Move> rows) {
+    final List<String> fens = new ArrayList<>(rows.size());
+    final List<Short> pending = new ArrayList<>();
+    String base = null;
+    for (final Move row : rows) {
+      if (row.getFenAfterMove() != null) {
+        fens.addAll(replaySegment(base, pending));
+        base = row.getFenAfterMove();
+        fens.add(base);
+      } else if (base == null) {
+        throw new IllegalStateException(
+            "No checkpoint before ply " + row.getPly() + " of game " + row.getGame().getId());
+      } else {
+        pending.add(row.getMoveCode());
+      }
+    }
+    fens.addAll(replaySegment(base, pending));
+    return fens;
+  }
+
+  private List<String> replaySegment(final String base, final List<Short> pending) {
+    if (pending.isEmpty()) {
+      return List.of();
+    }
+    final List<String> fens = MoveCodec.replay(base, pending);
+    pending.clear();
+    return fens;
+  }
+
+  /**
+   * Games that still have moves stored before encoding was introduced.
+   *
+   * @param limit maximum number of game IDs
+   * @return game IDs to backfill
+   */
+  @Transactional(readOnly = true)
+  public List<UUID> findGamesToEncode(final int limit) {
+    return moveRepository.findGameIdsWithUnencodedMoves(PageRequest.of(0, limit));
+  }
+
+  /**
+   * Encode the legacy moves of a game and drop their FENs outside checkpoint plies.
+   * The move is recovered from consecutive positions; games always started from the
+   * standard position before encoding existed.
+   *
+   * @param gameId the game ID
+   * @return number of moves encoded
+   */
+  @Transactional
+  public int encodeLegacyMoves(final UUID gameId) {
+    final List<Move> rows = moveRepository.findByGameIdOrderByPlyAsc(gameId);
+    String previousFen = STARTING_FEN;
+    int encoded = 0;
+    for (final Move row : rows) {
+      final String fen;
+      if (row.getMoveCode() == null) {
+        fen = row.getFenAfterMove();
+        row.setMoveCode(MoveCodec.deriveCode(previousFen, fen));
+        encoded++;
+      } else if (row.getFenAfterMove() != null) {
+        fen = row.getFenAfterMove();
+      } else {
+        fen = MoveCodec.replay(previousFen, List.of(row.getMoveCode())).get(0);
+      }
+      if (!MoveCodec.isCheckpoint(row.getPly())) {
+        row.setFenAfterMove(null);
+      }
+      previousFen = fen;
+    }
+    moveRepository.saveAll(rows);
+    return encoded;
   }
 
   public List<Move> getGameMoves(final Game game) {
-    return moveRepository.findByGameOrderByMoveNumberAsc(game);
+    return moveRepository.findByGameIdOrderByPlyAsc(game.getId());
   }
 
   public List<MoveDto> getGameMovesAsDto(final Game game) {
-    return moveRepository.findByGameOrderByMoveNumberAsc(game).stream()
+    return moveRepository.findByGameIdOrderByPlyAsc(game.getId()).stream()
         .map(move -> new MoveDto(
             move.getMoveNumber(),
             move.getPlayerColor(),
@@ -3,10 +3,18 @@ package com.checkmate.chess.service;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.Move;
 import com.checkmate.chess.repository.MoveRepository;
+import com.checkmate.chess.repository.PgnExportRow;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service for generating PGN (Portable Game Notation) format from games.
@@ -14,6 +22,8 @@ import java.util.List;
 @Service
 public class PgnService {
 
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
     private final MoveRepository moveRepository;
 
     public PgnService(MoveRepository moveRepository) {
@@ -30,81 +40,145 @@ public class PgnService {
         StringBuilder pgn = new StringBuilder();
 
         // Add PGN headers
-        appendHeaders(pgn, game);
+        String result = getPgnResult(game.getResult(), game.getPlyCount());
+        appendHeaders(pgn, game.getCreatedAt(), getPlayerName(game, true),
+            getPlayerName(game, false), result, game.getTimeControl());
 
         // Add moves
         appendMoves(pgn, game);
 
         // Add result
-        appendResult(pgn, game);
+        pgn.append(result).append("\n");
 
         return pgn.toString();
     }
 
-    private void appendHeaders(StringBuilder pgn, Game game) {
+    /**
+     * Write every finished game created in {@code [from, to)}, optionally only those of one
+     * player, as one PGN stream in creation order. Games still being played are left out.
+     * Games and their moves are read from a single cursor and each game is written as soon as
+     * its last move has been read, so memory use does not grow with the number of games.
+     *
+     * @param userId the player whose games to export, or null for all players
+     * @param from the earliest creation time, inclusive
+     * @param to the latest creation time, exclusive
+     * @param out the destination; not flushed or closed
+     * @return the number of games written
+     */
+    @Transactional(readOnly = true)
+    public int exportPgn(UUID userId, LocalDateTime from, LocalDateTime to, Writer out)
+            throws IOException {
+        try (Stream<PgnExportRow> rows = userId == null
+                ? moveRepository.streamPgnExport(from, to)
+                : moveRepository.streamPgnExportForUser(userId, from, to)) {
+            StringBuilder pgn = new StringBuilder(1024);
+            PgnExportRow game = null;
+            String result = null;
+            int games = 0;
+            int moveIndex = 0;
+
+            Iterator<PgnExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PgnExportRow row = iterator.next();
+                if (game == null || !game.gameId().equals(row.gameId())) {
+                    if (game != null) {
+                        writeGame(out, pgn, result);
+                        games++;
+                    }
+                    game = row;
+                    result = getPgnResult(row.result(), row.plyCount());
+                    moveIndex = 0;
+                    pgn.setLength(0);
+                    appendHeaders(pgn, row.createdAt(), playerName(row.whitePlayer()),
+                        playerName(row.blackPlayer()), result, row.timeControl());
+                }
+                if (row.algebraicNotation() != null) {
+                    appendMove(pgn, moveIndex++, row.algebraicNotation());
+                }
+            }
+            if (game != null) {
+                writeGame(out, pgn, result);
+                games++;
+            }
+            return games;
+        }
+    }
+
+    private void writeGame(Writer out, StringBuilder pgn, String result) throws IOException {
+        pgn.append("\n");
+        pgn.append(result).append("\n");
+        // Blank line between games
+        pgn.append("\n");
+        out.append(pgn);
+    }
+
+    private void appendHeaders(StringBuilder pgn, LocalDateTime createdAt, String white,
+            String black, String result, String timeControl) {
         pgn.append("[Event \"CheckMate Game\"]\n");
         pgn.append("[Site \"CheckMate.com\"]\n");
-        
-        String date = game.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy.MM.dd"));
+
+        String date = createdAt.format(PGN_DATE);
         pgn.append("[Date \"").append(date).append("\"]\n");
-        
-        pgn.append("[White \"").append(getPlayerName(game, true)).append("\"]\n");
-        pgn.append("[Black \"").append(getPlayerName(game, false)).append("\"]\n");
-        
-        pgn.append("[Result \"").append(getPgnResult(game)).append("\"]\n");
-        
-        if (game.getTimeControl() != null) {
-            pgn.append("[TimeControl \"").append(game.getTimeControl()).append("\"]\n");
+
+        pgn.append("[White \"").append(white).append("\"]\n");
+        pgn.append("[Black \"").append(black).append("\"]\n");
+
+        pgn.append("[Result \"").append(result).append("\"]\n");
+
+        if (timeControl != null) {
+            pgn.append("[TimeControl \"").append(timeControl).append("\"]\n");
         }
-        
+
         pgn.append("\n");
     }
 
     private void appendMoves(StringBuilder pgn, Game game) {
-        List<Move> moves = moveRepository.findByGameIdOrderByMoveNumberAsc(game.getId());
-        
-        int moveNumber = 1;
-        boolean isWhiteMove = true;
-        
-        for (Move move : moves) {
-            if (isWhiteMove) {
-                pgn.append(moveNumber).append(". ");
-            }
-            
-            pgn.append(move.getAlgebraicNotation()).append(" ");
-            
-            if (!isWhiteMove) {
-                moveNumber++;
-            }
-            isWhiteMove = !isWhiteMove;
+        List<Move> moves = moveRepository.findByGameIdOrderByPlyAsc(game.getId());
+
+        for (int i = 0; i < moves.size(); i++) {
+            appendMove(pgn, i, moves.get(i).getAlgebraicNotation());
         }
-        
+
         pgn.append("\n");
     }
 
-    private void appendResult(StringBuilder pgn, Game game) {
-        pgn.append(getPgnResult(game)).append("\n");
+    private void appendMove(StringBuilder pgn, int index, String notation) {
+        if (index % 2 == 0) {
+            pgn.append(index / 2 + 1).append(". ");
+        }
+        pgn.append(notation).append(" ");
     }
 
     private String getPlayerName(Game game, boolean isWhite) {
         if (isWhite) {
             return game.getWhitePlayer() != null ? 
-                game.getWhitePlayer().getUsername() : "Guest";
+                game.getWhitePlayer().getUsername() : playerName(game.getWhiteName());
         } else {
             return game.getBlackPlayer() != null ? 
-                game.getBlackPlayer().getUsername() : "Guest";
+                game.getBlackPlayer().getUsername() : playerName(game.getBlackName());
         }
     }
 
-    private String getPgnResult(Game game) {
-        if (game.getResult() == null) {
+    private String playerName(String username) {
+        return username != null ? username : "Guest";
+    }
+
+    /**
+     * Map a stored result onto its PGN form. Imported games store the winner's side, games
+     * lost on time the winner's color. Checkmate and resignation go against the side to move,
+     * as in {@link GameService}, so the winner follows from the number of moves.
+     */
+    private String getPgnResult(String result, Integer plyCount) {
+        if (result == null) {
             return "*";
         }
-        
-        return switch (game.getResult()) {
-            case "WHITE_WINS" -> "1-0";
-            case "BLACK_WINS" -> "0-1";
+
+        return switch (result) {
+            case "WHITE_WINS", "white" -> "1-0";
+            case "BLACK_WINS", "black" -> "0-1";
             case "DRAW" -> "1/2-1/2";
+            case "CHECKMATE", "RESIGNATION" -> plyCount == null ? "*"
+                : plyCount % 2 == 1 ? "1-0" : "0-1";
             default -> "*";
         };
     }
@@ -1,20 +1,34 @@
 package com.checkmate.chess.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.checkmate.chess.event.RatingsUpdatedEvent;
 import com.checkmate.chess.model.Rating;
 import com.checkmate.chess.model.User;
+import com.checkmate.chess.rating.Glicko2;
+import com.checkmate.chess.rating.RatingPipeline;
+import com.checkmate.chess.rating.RatingUpdate;
+import com.checkmate.chess.repository.PendingRatingRepository;
 import com.checkmate.chess.repository.RatingRepository;
 import com.checkmate.chess.repository.UserRepository;
 
 /**
  * Service for ELO rating calculations.
  * Implements standard ELO rating system with K-factor adjustments.
+ * Game results arrive in batches from {@link RatingPipeline}; Elo is applied per game in
+ * order, while Glicko-2 results are recorded and applied when their rating period closes.
  */
 @Service
 public class RatingService {
@@ -23,10 +37,21 @@ public class RatingService {
 
   private final RatingRepository ratingRepository;
   private final UserRepository userRepository;
+  private final PendingRatingRepository pendingRatingRepository;
+  private final Glicko2 glicko2;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public RatingService(RatingRepository ratingRepository, UserRepository userRepository) {
+  public RatingService(
+      RatingRepository ratingRepository,
+      UserRepository userRepository,
+      PendingRatingRepository pendingRatingRepository,
+      Glicko2 glicko2,
+      ApplicationEventPublisher eventPublisher) {
     this.ratingRepository = ratingRepository;
     this.userRepository = userRepository;
+    this.pendingRatingRepository = pendingRatingRepository;
+    this.glicko2 = glicko2;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -38,11 +63,105 @@ public class RatingService {
    */
   @Transactional
   public void updateRatings(UUID whitePlayerId, UUID blackPlayerId, String result) {
-    User whitePlayer = userRepository.findById(whitePlayerId)
-        .orElseThrow(() -> new IllegalArgumentException("White player not found"));
-    User blackPlayer = userRepository.findById(blackPlayerId)
-        .orElseThrow(() -> new IllegalArgumentException("Black player not found"));
+    applyBatch(List.of(new RatingUpdate(null, whitePlayerId, blackPlayerId, result)));
+  }
+
+  /**
+   * Apply the Elo changes of many games in one transaction.
+   * Players are loaded once and games are applied in order, so a player in several games of
+   * the batch is rated on their running rating. Each stored game is claimed from the rating
+   * outbox first, so a game queued twice (e.g. by the outbox sweep) is only rated once.
+   * Games with an unknown player are skipped.
+   *
+   * @param updates the finished games, oldest first
+   */
+  @Transactional
+  public void applyBatch(List<RatingUpdate> updates) {
+    List<RatingUpdate> claimed = new ArrayList<>(updates.size());
+    Set<UUID> playerIds = new HashSet<>();
+    for (RatingUpdate update : updates) {
+      if (update.gameId() != null && pendingRatingRepository.claim(update.gameId()) == 0) {
+        logger.debug("Game {} is already rated", update.gameId());
+        continue;
+      }
+      claimed.add(update);
+      playerIds.add(update.whitePlayerId());
+      playerIds.add(update.blackPlayerId());
+    }
+    if (claimed.isEmpty()) {
+      return;
+    }
+    Map<UUID, User> players = new HashMap<>();
+    userRepository.findAllById(playerIds).forEach(user -> players.put(user.getId(), user));
 
+    List<Rating> history = new ArrayList<>(claimed.size() * 2);
+    for (RatingUpdate update : claimed) {
+      User whitePlayer = players.get(update.whitePlayerId());
+      User blackPlayer = players.get(update.blackPlayerId());
+      if (whitePlayer == null || blackPlayer == null) {
+        logger.warn("Skipping rating for game {}: player not found", update.gameId());
+        continue;
+      }
+      applyElo(update, whitePlayer, blackPlayer, history);
+    }
+
+    userRepository.saveAll(players.values());
+    ratingRepository.saveAll(history);
+    eventPublisher.publishEvent(new RatingsUpdatedEvent(Set.copyOf(players.keySet())));
+    logger.info("Rated {} games", history.size() / 2);
+  }
+
+  /**
+   * Close the previous Glicko-2 rating period if any of its results are still pending.
+   * Each player with results is rated once on all of them; deviation growth for periods in
+   * which they did not play is applied lazily here as well.
+   *
+   * @return number of players rated
+   */
+  @Transactional
+  public int closeRatingPeriod() {
+    long currentPeriod = glicko2.periodOf(System.currentTimeMillis());
+    long closedPeriod = currentPeriod - 1;
+    List<Rating> pending = ratingRepository.findByGlickoAppliedFalseAndCreatedAtBefore(
+        glicko2.periodStart(currentPeriod));
+    if (pending.isEmpty()) {
+      return 0;
+    }
+
+    Map<UUID, List<Glicko2.Outcome>> outcomesByPlayer = new HashMap<>();
+    for (Rating result : pending) {
+      outcomesByPlayer.computeIfAbsent(result.getUserId(), id -> new ArrayList<>())
+          .add(new Glicko2.Outcome(
+              result.getOpponentGlickoRating(),
+              result.getOpponentGlickoRd(),
+              getScore(result.getGameResult())));
+      result.setGlickoApplied(true);
+    }
+
+    List<User> players = userRepository.findAllById(outcomesByPlayer.keySet());
+    for (User player : players) {
+      Long lastPeriod = player.getGlickoPeriod();
+      long idlePeriods = lastPeriod == null ? 0 : Math.max(0, closedPeriod - lastPeriod - 1);
+      Glicko2.GlickoRating rated = glicko2.rate(
+          new Glicko2.GlickoRating(
+              player.getGlickoRating(), player.getGlickoRd(), player.getGlickoVolatility()),
+          idlePeriods,
+          outcomesByPlayer.get(player.getId()));
+      player.setGlickoRating(rated.rating());
+      player.setGlickoRd(rated.rd());
+      player.setGlickoVolatility(rated.volatility());
+      player.setGlickoPeriod(closedPeriod);
+    }
+
+    userRepository.saveAll(players);
+    ratingRepository.saveAll(pending);
+    logger.info("Closed rating period {} for {} players", closedPeriod, players.size());
+    return players.size();
+  }
+
+  private void applyElo(RatingUpdate update, User whitePlayer, User blackPlayer,
+                        List<Rating> history) {
+    String result = update.winner();
     int whiteOldRating = whitePlayer.getEloRating();
     int blackOldRating = blackPlayer.getEloRating();
 
@@ -62,19 +181,18 @@ public class RatingService {
     int whiteChange = (int) Math.round(whiteK * (whiteScore - whiteExpected));
     int blackChange = (int) Math.round(blackK * (blackScore - blackExpected));
 
-    // Update ratings
+    // Save rating history against the pre-game ratings of both sides
+    history.add(ratingHistory(whitePlayer, whiteOldRating, whiteChange, blackPlayer, whiteScore,
+        update.gameId()));
+    history.add(ratingHistory(blackPlayer, blackOldRating, blackChange, whitePlayer, blackScore,
+        update.gameId()));
+
+    // Update ratings; game counts are left as they were, they pick the K-factor bracket
     whitePlayer.setEloRating(whiteOldRating + whiteChange);
     blackPlayer.setEloRating(blackOldRating + blackChange);
 
-    userRepository.save(whitePlayer);
-    userRepository.save(blackPlayer);
-
-    // Save rating history
-    saveRatingHistory(whitePlayer, whiteOldRating, whiteChange, blackOldRating, result, null);
-    saveRatingHistory(blackPlayer, blackOldRating, blackChange, whiteOldRating, result, null);
-
-    logger.info("Updated ratings: White {} -> {}, Black {} -> {}",
-        whiteOldRating, whitePlayer.getEloRating(),
+    logger.debug("Updated ratings for game {}: White {} -> {}, Black {} -> {}",
+        update.gameId(), whiteOldRating, whitePlayer.getEloRating(),
         blackOldRating, blackPlayer.getEloRating());
   }
 
@@ -120,19 +238,29 @@ public class RatingService {
     }
   }
 
+  private double getScore(String gameResult) {
+    return switch (gameResult) {
+      case "win" -> 1.0;
+      case "loss" -> 0.0;
+      default -> 0.5;
+    };
+  }
+
   /**
-   * Save rating history entry.
+   * Build a rating history entry.
    */
-  private void saveRatingHistory(User player, int oldRating, int change,
-                                   int opponentRating, String gameResult, UUID gameId) {
+  private Rating ratingHistory(User player, int oldRating, int change, User opponent,
+                               double score, UUID gameId) {
     Rating rating = new Rating();
     rating.setUserId(player.getId());
     rating.setGameId(gameId);
     rating.setOldRating(oldRating);
     rating.setNewRating(oldRating + change);
     rating.setRatingChange(change);
-    rating.setOpponentRating(opponentRating);
-    rating.setGameResult(gameResult);
-    ratingRepository.save(rating);
+    rating.setOpponentRating(opponent.getEloRating());
+    rating.setOpponentGlickoRating(opponent.getGlickoRating());
+    rating.setOpponentGlickoRd(opponent.getGlickoRd());
+    rating.setGameResult(score == 1.0 ? "win" : score == 0.0 ? "loss" : "draw");
+    return rating;
   }
 }
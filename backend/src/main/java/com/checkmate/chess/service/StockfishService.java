@@ -1,27 +1,46 @@
 package com.checkmate.chess.service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.checkmate.chess.metrics.EngineMetrics;
+
 /**
  * Service for Stockfish chess engine integration.
  * Generates computer moves using UCI protocol.
+ *
+ * <p>Requests are served by a bounded pool of engine processes. A worker is checked out for
+ * exactly one search, reset with {@code ucinewgame} and the requested skill level, and checked
+ * back in afterwards, so concurrent games never share a UCI pipe. Workers are started lazily up
+ * to {@code stockfish.pool-size}; when all are busy, callers wait up to
+ * {@code stockfish.checkout-timeout-ms} before falling back to chesslib. A worker that crashes,
+ * overruns its search or does not finish the UCI handshake within
+ * {@code stockfish.handshake-timeout-ms} is destroyed and replaced on the next checkout.
+ * Pool occupancy, checkout waits, search times and fallbacks are reported to {@link EngineMetrics}.
  */
 @Service
 public class StockfishService {
 
   private static final Logger logger = LoggerFactory.getLogger(StockfishService.class);
   private static final int MOVE_TIME_MS = 1000; // 1 second per move
+  private static final long SEARCH_GRACE_MS = 2000; // Engine must answer within movetime + grace
+  private static final long START_RETRY_BACKOFF_MS = 30000; // Don't respawn a missing binary per call
   private static final Map<String, Integer> DIFFICULTY_LEVELS = new HashMap<>();
 
   static {
@@ -30,10 +49,31 @@ public class StockfishService {
     DIFFICULTY_LEVELS.put("advanced", 19);     // Skill level 18-20
   }
 
-  private Process stockfishProcess;
-  private BufferedReader reader;
-  private PrintWriter writer;
+  @Value("${stockfish.path:stockfish}")
+  private String enginePath = "stockfish";
+
+  @Value("${stockfish.pool-size:2}")
+  private int poolSize = 2;
+
+  @Value("${stockfish.checkout-timeout-ms:3000}")
+  private long checkoutTimeoutMs = 3000;
+
+  @Value("${stockfish.handshake-timeout-ms:5000}")
+  private long handshakeTimeoutMs = 5000;
+
+  private final AtomicInteger startedWorkers = new AtomicInteger();
+  private final AtomicInteger workerIds = new AtomicInteger();
   private final Random random = new Random();
+  private final EngineMetrics engineMetrics;
+  private volatile BlockingQueue<StockfishWorker> idleWorkers;
+  private volatile ScheduledExecutorService watchdog;
+  private volatile long engineUnavailableUntil;
+  private volatile boolean shutdown;
+
+  public StockfishService(EngineMetrics engineMetrics) {
+    this.engineMetrics = engineMetrics;
+    engineMetrics.bindPool(this::busyWorkers, this::idleWorkerCount, () -> poolSize);
+  }
 
   /**
    * Get best move for given position and difficulty.
@@ -45,14 +85,26 @@ public class StockfishService {
   public String getBestMove(String fen, String difficulty) {
     validateDifficulty(difficulty);
     int skillLevel = getSkillLevel(difficulty);
-    
+
+    StockfishWorker worker = null;
+    boolean healthy = false;
     try {
-      ensureEngineRunning();
-      return generateMove(fen, skillLevel);
+      worker = timedCheckout();
+      String bestMove = generateMove(worker, fen, skillLevel);
+      healthy = true;
+      return bestMove;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted while waiting for a Stockfish worker");
+      return generateFallbackMove(fen, skillLevel);
     } catch (Exception e) {
       logger.error("Error generating move", e);
       // Fallback to random legal move if engine fails
       return generateFallbackMove(fen, skillLevel);
+    } finally {
+      if (worker != null) {
+        checkin(worker, healthy);
+      }
     }
   }
 
@@ -70,98 +122,147 @@ public class StockfishService {
     return level;
   }
 
-  /**
-   * Ensure Stockfish engine is running.
-   */
-  private void ensureEngineRunning() throws IOException {
-    if (stockfishProcess == null || !stockfishProcess.isAlive()) {
-      startEngine();
+  private StockfishWorker timedCheckout() throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    boolean acquired = false;
+    try {
+      StockfishWorker worker = checkout();
+      acquired = true;
+      return worker;
+    } finally {
+      engineMetrics.recordCheckout(System.nanoTime() - start, acquired);
     }
   }
 
   /**
-   * Start Stockfish engine process.
+   * Check out an idle worker, starting a new one while the pool is below capacity.
+   * Blocks up to the checkout timeout when every worker is busy.
    */
-  private void startEngine() throws IOException {
-    try {
-      // Try to start Stockfish (assumes it's in PATH)
-      stockfishProcess = new ProcessBuilder("stockfish").start();
-      
-      reader = new BufferedReader(
-          new InputStreamReader(stockfishProcess.getInputStream()));
-      writer = new PrintWriter(
-          new OutputStreamWriter(stockfishProcess.getOutputStream()), true);
-
-      // Initialize UCI
-      sendCommand("uci");
-      waitForResponse("uciok");
-      
-      logger.info("Stockfish engine started successfully");
-    } catch (IOException e) {
-      logger.warn("Stockfish not found in PATH, using fallback mode");
-      throw e;
+  private StockfishWorker checkout() throws IOException, InterruptedException {
+    if (shutdown) {
+      throw new IllegalStateException("Stockfish pool is shut down");
     }
+    BlockingQueue<StockfishWorker> idle = idleWorkers();
+
+    StockfishWorker worker = idle.poll();
+    if (worker == null) {
+      worker = startWorkerIfBelowCapacity();
+    }
+    if (worker == null) {
+      worker = idle.poll(checkoutTimeoutMs, TimeUnit.MILLISECONDS);
+      if (worker == null) {
+        throw new IllegalStateException(
+            "No Stockfish worker available within " + checkoutTimeoutMs + " ms");
+      }
+    }
+    if (!worker.isAlive()) {
+      logger.warn("Stockfish worker {} died while idle, restarting", worker.getId());
+      retire(worker);
+      worker = startWorkerIfBelowCapacity();
+      if (worker == null) {
+        throw new IllegalStateException("Could not replace crashed Stockfish worker");
+      }
+    }
+    return worker;
   }
 
   /**
-   * Generate move using Stockfish.
+   * Return a worker to the pool, or retire it if the search failed.
    */
-  private String generateMove(String fen, int skillLevel) throws IOException {
-    // Set skill level
-    sendCommand("setoption name Skill Level value " + skillLevel);
-    
-    // Set position
-    sendCommand("position fen " + fen);
-    
-    // Calculate move with time limit
-    sendCommand("go movetime " + MOVE_TIME_MS);
-    
-    // Wait for bestmove response
-    String bestMove = waitForBestMove();
-    
-    if (bestMove == null || bestMove.isEmpty()) {
-      throw new IllegalStateException("No move generated");
+  private void checkin(StockfishWorker worker, boolean healthy) {
+    if (healthy && worker.isAlive() && !shutdown) {
+      idleWorkers().offer(worker);
+    } else {
+      retire(worker);
     }
-    
-    return bestMove;
   }
 
-  /**
-   * Send command to engine.
-   */
-  private void sendCommand(String command) {
-    writer.println(command);
-    logger.debug("Sent to engine: {}", command);
+  private StockfishWorker startWorkerIfBelowCapacity() throws IOException {
+    if (System.currentTimeMillis() < engineUnavailableUntil) {
+      throw new IOException("Stockfish unavailable, retrying after backoff");
+    }
+    int started = startedWorkers.get();
+    while (started < poolSize) {
+      if (startedWorkers.compareAndSet(started, started + 1)) {
+        try {
+          return StockfishWorker.start(
+              workerIds.incrementAndGet(), enginePath, watchdog, handshakeTimeoutMs);
+        } catch (IOException e) {
+          startedWorkers.decrementAndGet();
+          engineUnavailableUntil = System.currentTimeMillis() + START_RETRY_BACKOFF_MS;
+          logger.warn("Could not start Stockfish at '{}', using fallback mode: {}",
+              enginePath, e.getMessage());
+          throw e;
+        }
+      }
+      started = startedWorkers.get();
+    }
+    return null;
   }
 
-  /**
-   * Wait for specific response from engine.
-   */
-  private void waitForResponse(String expected) throws IOException {
-    String line;
-    while ((line = reader.readLine()) != null) {
-      logger.debug("Engine: {}", line);
-      if (line.contains(expected)) {
-        return;
+  private void retire(StockfishWorker worker) {
+    worker.destroy();
+    startedWorkers.decrementAndGet();
+    logger.info("Stockfish worker {} retired", worker.getId());
+  }
+
+  private int idleWorkerCount() {
+    BlockingQueue<StockfishWorker> idle = idleWorkers;
+    return idle == null ? 0 : idle.size();
+  }
+
+  private int busyWorkers() {
+    return Math.max(0, startedWorkers.get() - idleWorkerCount());
+  }
+
+  private BlockingQueue<StockfishWorker> idleWorkers() {
+    BlockingQueue<StockfishWorker> idle = idleWorkers;
+    if (idle == null) {
+      synchronized (this) {
+        idle = idleWorkers;
+        if (idle == null) {
+          idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+          watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stockfish-watchdog");
+            thread.setDaemon(true);
+            return thread;
+          });
+          idleWorkers = idle;
+        }
       }
     }
+    return idle;
   }
 
   /**
-   * Wait for bestmove response.
+   * Generate move using a checked-out worker.
+   * The worker is killed if it does not answer within the search deadline, which unblocks the
+   * read and causes it to be retired on checkin.
    */
-  private String waitForBestMove() throws IOException {
-    String line;
-    while ((line = reader.readLine()) != null) {
-      logger.debug("Engine: {}", line);
-      if (line.startsWith("bestmove")) {
-        String[] parts = line.split(" ");
-        if (parts.length >= 2) {
-          return parts[1]; // Return the move (e.g., "e2e4")
-        }
+  private String generateMove(StockfishWorker worker, String fen, int skillLevel)
+      throws IOException {
+    ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+      logger.warn("Stockfish worker {} exceeded search deadline, killing it", worker.getId());
+      worker.destroy();
+    }, MOVE_TIME_MS + SEARCH_GRACE_MS, TimeUnit.MILLISECONDS);
+
+    try {
+      // Per-request isolation: clear previous game state and re-apply skill level
+      worker.prepare(skillLevel);
+
+      // Calculate move with time limit
+      long searchStart = System.nanoTime();
+      String bestMove = worker.search(fen, MOVE_TIME_MS);
+      engineMetrics.recordSearch(System.nanoTime() - searchStart);
+
+      if (bestMove == null || bestMove.isEmpty() || "(none)".equals(bestMove)) {
+        throw new IllegalStateException("No move generated");
       }
+
+      return bestMove;
+    } finally {
+      deadline.cancel(false);
     }
-    return null;
   }
 
   /**
@@ -170,6 +271,7 @@ public class StockfishService {
    */
   private String generateFallbackMove(String fen, int skillLevel) {
     logger.warn("Using fallback move generation with chesslib (skill level: {})", skillLevel);
+    engineMetrics.recordFallback();
     
     try {
       // Use chesslib to parse position and generate legal moves
@@ -270,13 +372,20 @@ public class StockfishService {
   }
 
   /**
-   * Shutdown engine.
+   * Shutdown engine pool.
    */
+  @PreDestroy
   public void shutdown() {
-    if (stockfishProcess != null && stockfishProcess.isAlive()) {
-      sendCommand("quit");
-      stockfishProcess.destroy();
-      logger.info("Stockfish engine shut down");
+    shutdown = true;
+    BlockingQueue<StockfishWorker> idle = idleWorkers;
+    if (idle != null) {
+      StockfishWorker worker;
+      while ((worker = idle.poll()) != null) {
+        worker.quit();
+        startedWorkers.decrementAndGet();
+      }
+      watchdog.shutdownNow();
+      logger.info("Stockfish engine pool shut down");
     }
   }
 }
@@ -0,0 +1,135 @@
+package com.checkmate.chess.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single Stockfish process speaking UCI over its standard streams.
+ * A worker is used by one caller at a time; {@link StockfishService} owns the pool.
+ */
+class StockfishWorker {
+
+  private static final Logger logger = LoggerFactory.getLogger(StockfishWorker.class);
+
+  private final int id;
+  private final Process process;
+  private final BufferedReader reader;
+  private final PrintWriter writer;
+
+  private StockfishWorker(int id, Process process) {
+    this.id = id;
+    this.process = process;
+    this.reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    this.writer = new PrintWriter(new OutputStreamWriter(process.getOutputStream()), true);
+  }
+
+  /**
+   * Start an engine process and complete the UCI handshake.
+   * A process that does not answer within {@code handshakeTimeoutMs} is killed by the
+   * watchdog, which unblocks the read.
+   *
+   * @param id the worker number, used in logs
+   * @param enginePath the Stockfish executable
+   * @param watchdog the scheduler enforcing the handshake deadline
+   * @param handshakeTimeoutMs how long the engine has to answer {@code uciok}
+   * @return the ready worker
+   * @throws IOException if the process cannot be started, dies or hangs during the handshake
+   */
+  static StockfishWorker start(int id, String enginePath, ScheduledExecutorService watchdog,
+      long handshakeTimeoutMs) throws IOException {
+    Process process = new ProcessBuilder(enginePath).redirectErrorStream(true).start();
+    StockfishWorker worker = new StockfishWorker(id, process);
+    ScheduledFuture<?> deadline = watchdog.schedule(
+        process::destroyForcibly, handshakeTimeoutMs, TimeUnit.MILLISECONDS);
+    try {
+      worker.sendCommand("uci");
+      worker.waitForResponse("uciok");
+    } catch (IOException e) {
+      worker.destroy();
+      if (deadline.isDone()) {
+        throw new IOException(
+            "Engine " + id + " did not complete the UCI handshake within "
+                + handshakeTimeoutMs + " ms", e);
+      }
+      throw e;
+    } finally {
+      deadline.cancel(false);
+    }
+    logger.info("Stockfish worker {} started", id);
+    return worker;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  boolean isAlive() {
+    return process.isAlive();
+  }
+
+  /**
+   * Reset per-request state: clear the previous game and apply the skill level.
+   */
+  void prepare(int skillLevel) throws IOException {
+    sendCommand("ucinewgame");
+    sendCommand("setoption name Skill Level value " + skillLevel);
+    sendCommand("isready");
+    waitForResponse("readyok");
+  }
+
+  /**
+   * Search a position for a fixed time.
+   *
+   * @return the best move in UCI format
+   */
+  String search(String fen, int moveTimeMs) throws IOException {
+    sendCommand("position fen " + fen);
+    sendCommand("go movetime " + moveTimeMs);
+
+    String line;
+    while ((line = reader.readLine()) != null) {
+      logger.debug("Engine {}: {}", id, line);
+      if (line.startsWith("bestmove")) {
+        String[] parts = line.split(" ");
+        return parts.length >= 2 ? parts[1] : null;
+      }
+    }
+    throw new IOException("Engine " + id + " closed its output");
+  }
+
+  void quit() {
+    if (process.isAlive()) {
+      sendCommand("quit");
+    }
+    destroy();
+  }
+
+  void destroy() {
+    process.destroy();
+  }
+
+  private void sendCommand(String command) {
+    writer.println(command);
+    logger.debug("Sent to engine {}: {}", id, command);
+  }
+
+  private void waitForResponse(String expected) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      logger.debug("Engine {}: {}", id, line);
+      if (line.contains(expected)) {
+        return;
+      }
+    }
+    throw new IOException("Engine " + id + " closed its output");
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkmate.chess.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.event.RatingsUpdatedEvent;
+import com.checkmate.chess.model.User;
+import com.checkmate.chess.repository.UserRepository;
+
+/**
+ * Bounded, TTL-evicting cache of users by email for endpoints that need the full entity.
+ * Authentication itself no longer loads users; this only serves profile-style reads.
+ * Entries expire after {@code app.user-cache.ttl-ms}, the least recently used entry is dropped
+ * beyond {@code app.user-cache.max-size}, and players are evicted once new ratings of theirs
+ * have committed so ratings and stats are not served stale.
+ * Disable with {@code app.user-cache.enabled=false}.
+ */
+@Component
+public class UserCache {
+
+  private final UserRepository userRepository;
+  private final boolean enabled;
+  private final long ttlNanos;
+  private final Map<String, Entry> entries;
+
+  public UserCache(
+      UserRepository userRepository,
+      @Value("${app.user-cache.enabled:true}") boolean enabled,
+      @Value("${app.user-cache.max-size:10000}") int maxSize,
+      @Value("${app.user-cache.ttl-ms:30000}") long ttlMs) {
+    this.userRepository = userRepository;
+    this.enabled = enabled;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Find a user by email, loading it on a miss or after expiry.
+   *
+   * @param email the user's email
+   * @return the user, empty if none exists
+   */
+  public Optional<User> findByEmail(String email) {
+    if (!enabled) {
+      return userRepository.findByEmail(email);
+    }
+
+    final long now = System.nanoTime();
+    synchronized (entries) {
+      final Entry entry = entries.get(email);
+      if (entry != null && now - entry.loadedAt() < ttlNanos) {
+        return Optional.of(entry.user());
+      }
+    }
+
+    final Optional<User> user = userRepository.findByEmail(email);
+    synchronized (entries) {
+      user.ifPresentOrElse(
+          value -> entries.put(email, new Entry(value, now)),
+          () -> entries.remove(email));
+    }
+    return user;
+  }
+
+  public void evict(String email) {
+    synchronized (entries) {
+      entries.remove(email);
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Drop rated players after their new ratings and stats have committed; evicting at game end
+   * would let a read before the asynchronous rating re-cache the old values.
+   *
+   * @param event the ratings update event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRatingsUpdated(RatingsUpdatedEvent event) {
+    final Set<UUID> playerIds = event.playerIds();
+    synchronized (entries) {
+      entries.values().removeIf(entry -> playerIds.contains(entry.user().getId()));
+    }
+  }
+
+  private record Entry(User user, long loadedAt) {}
+}
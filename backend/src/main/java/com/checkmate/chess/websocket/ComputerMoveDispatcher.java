@@ -0,0 +1,271 @@
+package com.checkmate.chess.websocket;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+import com.checkmate.chess.service.GameService;
+import com.checkmate.chess.service.StockfishService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Computer-move pipeline for games against the engine.
+ * A reply is scheduled after a short thinking delay, searched on a virtual thread while
+ * holding one of a bounded number of search permits, and applied in its own transaction.
+ * The engine search runs outside any transaction. Replies are triggered by
+ * {@link MoveMadeEvent} after the human's move commits, broadcast like any other move by
+ * {@link GameEventBroadcaster}, and cancelled by {@link GameEndedEvent}. At most one reply is
+ * pending per game; a request arriving while it runs, such as a human premove played right
+ * after the computer's move, is picked up by checking the turn again once the reply is done.
+ * When {@code app.computer-move.max-pending} replies are pending, further requests are
+ * deferred and retried until there is room, so no game is left waiting for a reply that was
+ * never scheduled.
+ */
+@Component
+public class ComputerMoveDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(ComputerMoveDispatcher.class);
+  private static final String DEFAULT_DIFFICULTY = "intermediate";
+  private static final long RETRY_DELAY_MS = 250;
+
+  private final GameService gameService;
+  private final StockfishService stockfishService;
+  private final long thinkDelayMs;
+  private final int maxPending;
+  private final Semaphore searchPermits;
+  private final ScheduledThreadPoolExecutor delayTimer;
+  private final ExecutorService searchExecutor;
+  private final ConcurrentMap<UUID, ComputerTurn> pending = new ConcurrentHashMap<>();
+  private final Set<UUID> deferred = ConcurrentHashMap.newKeySet();
+
+  public ComputerMoveDispatcher(
+      GameService gameService,
+      StockfishService stockfishService,
+      @Value("${app.computer-move.think-delay-ms:300}") long thinkDelayMs,
+      @Value("${app.computer-move.max-concurrent:${stockfish.pool-size:2}}") int maxConcurrent,
+      @Value("${app.computer-move.max-pending:256}") int maxPending) {
+    this.gameService = gameService;
+    this.stockfishService = stockfishService;
+    this.thinkDelayMs = thinkDelayMs;
+    this.maxPending = maxPending;
+    this.searchPermits = new Semaphore(Math.max(1, maxConcurrent), true);
+    this.delayTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "computer-move-delay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.delayTimer.setRemoveOnCancelPolicy(true);
+    this.searchExecutor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("computer-move-", 0).factory());
+  }
+
+  /**
+   * Schedule the computer's reply once a move in a computer game has committed.
+   * The computer's own moves land here too and are ignored because their turn is still pending.
+   *
+   * @param event the move event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMoveMade(MoveMadeEvent event) {
+    final MakeMoveResponse move = event.move();
+    if ("COMPUTER".equals(event.gameType()) && !move.isCheckmate() && !move.isStalemate()) {
+      dispatch(event.gameId(), event.timeControl());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(GameEndedEvent event) {
+    cancel(event.gameId());
+  }
+
+  /**
+   * Schedule a computer reply if it is the computer's turn once the delay has passed.
+   *
+   * @param gameId the game ID
+   * @param difficulty the engine difficulty, defaults to intermediate when blank
+   * @return false if the pipeline is saturated and the request was deferred for a retry
+   */
+  public boolean dispatch(UUID gameId, String difficulty) {
+    if (pending.size() >= maxPending) {
+      if (deferred.add(gameId)) {
+        logger.warn("Computer move pipeline saturated ({} pending), retrying game {} in {} ms",
+            pending.size(), gameId, RETRY_DELAY_MS);
+        delayTimer.schedule(
+            () -> retry(gameId, difficulty), RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+      }
+      return false;
+    }
+
+    final String effectiveDifficulty = difficulty != null && !difficulty.isEmpty()
+        ? difficulty
+        : DEFAULT_DIFFICULTY;
+    final ComputerTurn turn = new ComputerTurn(gameId, effectiveDifficulty);
+    if (pending.putIfAbsent(gameId, turn) != null) {
+      logger.debug("Computer move already pending for game {}", gameId);
+      return true;
+    }
+
+    turn.future = delayTimer.schedule(() -> startSearch(turn), thinkDelayMs, TimeUnit.MILLISECONDS);
+    return true;
+  }
+
+  /**
+   * Cancel the pending computer reply for a game, if any. A reply still waiting or searching
+   * is interrupted; one already being applied is left to finish, since the game may have ended
+   * with that very move.
+   *
+   * @param gameId the game ID
+   */
+  public void cancel(UUID gameId) {
+    deferred.remove(gameId);
+    final ComputerTurn turn = pending.remove(gameId);
+    if (turn != null && turn.cancel()) {
+      final Future<?> future = turn.future;
+      if (future != null) {
+        future.cancel(true);
+      }
+      logger.info("Cancelled pending computer move for game {}", gameId);
+    }
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    delayTimer.shutdownNow();
+    searchExecutor.shutdownNow();
+  }
+
+  private void retry(UUID gameId, String difficulty) {
+    if (deferred.remove(gameId)) {
+      dispatch(gameId, difficulty);
+    }
+  }
+
+  private void startSearch(ComputerTurn turn) {
+    if (!turn.cancelled) {
+      turn.future = searchExecutor.submit(() -> run(turn));
+    }
+  }
+
+  private void run(ComputerTurn turn) {
+    try {
+      searchPermits.acquire();
+      try {
+        play(turn);
+      } finally {
+        searchPermits.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.info("Computer move for game {} interrupted", turn.gameId);
+    } catch (RuntimeException e) {
+      logger.error("Error generating computer move for game {}", turn.gameId, e);
+    } finally {
+      pending.remove(turn.gameId, turn);
+    }
+    if (turn.played && !turn.cancelled) {
+      redispatchIfComputerTurn(turn);
+    }
+  }
+
+  /**
+   * Dispatch again if the computer is to move once more, because a move that asked for a
+   * reply while this turn was still pending was taken for a duplicate.
+   */
+  private void redispatchIfComputerTurn(ComputerTurn turn) {
+    try {
+      if (gameService.findComputerTurnFen(turn.gameId).isPresent()) {
+        dispatch(turn.gameId, turn.difficulty);
+      }
+    } catch (RuntimeException e) {
+      logger.error("Error checking the computer's turn in game {}", turn.gameId, e);
+    }
+  }
+
+  private void play(ComputerTurn turn) {
+    final Optional<String> fen = gameService.findComputerTurnFen(turn.gameId);
+    if (fen.isEmpty()) {
+      logger.info("Not computer's turn for game {}, skipping computer move", turn.gameId);
+      return;
+    }
+
+    final String uciMove = stockfishService.getBestMove(fen.get(), turn.difficulty);
+    logger.info("Stockfish returned UCI move: {} for game {}", uciMove, turn.gameId);
+
+    if (uciMove == null || uciMove.length() < 4) {
+      logger.error("Invalid UCI move format: {}", uciMove);
+      return;
+    }
+    if (Thread.currentThread().isInterrupted() || !turn.startApplying()) {
+      return;
+    }
+
+    // Parse UCI move (e.g., "e2e4" -> from="e2", to="e4", or "e7e8q" for promotion)
+    final String from = uciMove.substring(0, 2);
+    final String to = uciMove.substring(2, 4);
+    final String promotion = uciMove.length() > 4 ? uciMove.substring(4, 5) : null;
+
+    // Broadcast happens via MoveMadeEvent once makeMove commits
+    final MakeMoveResponse response = gameService.makeMove(turn.gameId, from, to, promotion);
+    turn.played = true;
+    logger.info("Computer played {} in game {}", response.algebraicNotation(), turn.gameId);
+  }
+
+  private static final class ComputerTurn {
+    private final UUID gameId;
+    private final String difficulty;
+    private volatile Future<?> future;
+    private volatile boolean cancelled;
+    private volatile boolean played;
+    private boolean applying;
+
+    private ComputerTurn(UUID gameId, String difficulty) {
+      this.gameId = gameId;
+      this.difficulty = difficulty;
+    }
+
+    /**
+     * Mark the turn cancelled.
+     *
+     * @return true if its move is not being applied yet and it may be interrupted
+     */
+    private synchronized boolean cancel() {
+      cancelled = true;
+      return !applying;
+    }
+
+    /**
+     * Commit to applying the move; from here on cancelling no longer interrupts.
+     *
+     * @return false if the turn was cancelled first
+     */
+    private synchronized boolean startApplying() {
+      if (cancelled) {
+        return false;
+      }
+      applying = true;
+      return true;
+    }
+  }
+}
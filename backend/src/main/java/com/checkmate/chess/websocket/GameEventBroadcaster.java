@@ -0,0 +1,62 @@
+package com.checkmate.chess.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.dto.ClockUpdateMessage;
+import com.checkmate.chess.dto.GameEndMessage;
+import com.checkmate.chess.event.ClockUpdatedEvent;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+import com.checkmate.chess.game.GameFeed;
+
+/**
+ * Single fan-out point from game domain events to STOMP topics.
+ * Events are delivered after the publishing transaction commits, so clients never see a
+ * move that could still be rolled back. Moves are recorded in the {@link GameFeed} before they
+ * are sent, so a client that reconnects can catch up on whatever it missed.
+ */
+@Component
+public class GameEventBroadcaster {
+
+  private static final Logger logger = LoggerFactory.getLogger(GameEventBroadcaster.class);
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final GameFeed gameFeed;
+
+  public GameEventBroadcaster(SimpMessagingTemplate messagingTemplate, GameFeed gameFeed) {
+    this.messagingTemplate = messagingTemplate;
+    this.gameFeed = gameFeed;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMoveMade(MoveMadeEvent event) {
+    gameFeed.record(event.gameId(), event.move());
+    send("/topic/game/" + event.gameId() + "/moves", event.move());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onClockUpdated(ClockUpdatedEvent event) {
+    ClockSnapshot clock = event.clock();
+    send("/topic/game/" + event.gameId() + "/clock",
+        new ClockUpdateMessage(clock.whiteTimeMs(), clock.blackTimeMs(), clock.currentTurn()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onGameEnded(GameEndedEvent event) {
+    send("/topic/game/" + event.gameId() + "/end",
+        new GameEndMessage(event.result(), event.reason(), event.winner()));
+  }
+
+  private void send(String destination, Object payload) {
+    try {
+      messagingTemplate.convertAndSend(destination, payload);
+    } catch (RuntimeException e) {
+      logger.error("Error broadcasting to {}", destination, e);
+    }
+  }
+}
@@ -1,19 +1,22 @@
 package com.checkmate.chess.websocket;
 
+import java.security.Principal;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
 
 import com.checkmate.chess.dto.MakeMoveRequest;
 import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.dto.PremoveRequest;
+import com.checkmate.chess.model.User;
+import com.checkmate.chess.security.JwtPrincipal;
 import com.checkmate.chess.service.GameService;
+import com.checkmate.chess.service.UserCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,70 +26,64 @@ public class GameWebSocketHandler {
 
   private static final Logger logger = LoggerFactory.getLogger(GameWebSocketHandler.class);
   private final GameService gameService;
-  private final SimpMessagingTemplate messagingTemplate;
+  private final UserCache userCache;
 
+  /**
+   * Apply a player's move. The move is broadcast to {@code /topic/game/{gameId}/moves} by
+   * {@link GameEventBroadcaster} once it has committed, and a computer reply, if due, is
+   * scheduled by {@link ComputerMoveDispatcher}. The think time the client measured, if sent,
+   * lets the clock credit the player for the move's network transit.
+   */
   @MessageMapping("/game/{gameId}/move")
-  @SendTo("/topic/game/{gameId}/moves")
-  public MakeMoveResponse handleMove(
+  public void handleMove(
       @DestinationVariable final UUID gameId, final MakeMoveRequest request) {
-    logger.info("Received move for game {}: from={}, to={}, promotion={}, difficulty={}", 
-        gameId, request.from(), request.to(), request.promotion(), request.difficulty());
-    
-    final MakeMoveResponse response = 
-        gameService.makeMove(gameId, request.from(), request.to(), request.promotion());
-    
-    logger.info("Move processed successfully. Response: {}, checking if computer turn...", 
-        response.algebraicNotation());
-    
-    // Trigger computer move asynchronously if it's computer's turn
-    triggerComputerMoveIfNeeded(gameId, request.difficulty());
-    
-    return response;
+    logger.info("Received move for game {}: from={}, to={}, promotion={}",
+        gameId, request.from(), request.to(), request.promotion());
+
+    final MakeMoveResponse response =
+        gameService.makeMove(gameId, request.from(), request.to(), request.promotion(),
+            request.thinkTimeMs());
+
+    logger.info("Move processed successfully: {}", response.algebraicNotation());
   }
 
-  private void triggerComputerMoveIfNeeded(final UUID gameId, final String difficulty) {
-    logger.info("triggerComputerMoveIfNeeded called for game {}, difficulty={}", gameId, difficulty);
-    
-    CompletableFuture.runAsync(() -> {
-      try {
-        // Add a small delay to ensure the previous move transaction is committed
-        Thread.sleep(100);
-        
-        final boolean isComputerTurn = gameService.isComputerTurn(gameId);
-        logger.info("Is computer turn for game {}: {}", gameId, isComputerTurn);
-        
-        if (isComputerTurn) {
-          final String effectiveDifficulty = difficulty != null && !difficulty.isEmpty() 
-              ? difficulty 
-              : "intermediate";
-          logger.info("Generating computer move for game {} with difficulty {}", 
-              gameId, effectiveDifficulty);
-          
-          // Small delay to simulate thinking
-          Thread.sleep(300);
-          
-          final MakeMoveResponse computerMove = 
-              gameService.makeComputerMove(gameId, effectiveDifficulty);
-          
-          if (computerMove != null) {
-            logger.info("Computer move generated: {}, sending to WebSocket...", 
-                computerMove.algebraicNotation());
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + gameId + "/moves", computerMove);
-            logger.info("Computer move sent successfully to /topic/game/{}/moves", gameId);
-          } else {
-            logger.warn("Computer move was null for game {}", gameId);
-          }
-        } else {
-          logger.info("Not computer's turn for game {}, skipping computer move", gameId);
-        }
-      } catch (InterruptedException e) {
-        logger.error("Computer move thread interrupted for game {}", gameId, e);
-        Thread.currentThread().interrupt();
-      } catch (Exception e) {
-        logger.error("Error generating computer move for game {}", gameId, e);
-      }
-    });
+  /**
+   * Queue a premove, played by the server as soon as the opponent has moved. Like moves, it is
+   * broadcast to {@code /topic/game/{gameId}/moves} once played. The premove is for the side
+   * the sender plays; only the game's players may send one.
+   */
+  @MessageMapping("/game/{gameId}/premove")
+  public void handlePremove(@DestinationVariable final UUID gameId,
+      final PremoveRequest request, final Principal principal) {
+    final UUID playerId = playerId(principal);
+    logger.debug("Received premove for game {}: player={}, from={}, to={}",
+        gameId, playerId, request.from(), request.to());
+
+    gameService.premove(gameId, playerId, request.from(), request.to(), request.promotion());
   }
-}
 
+  /**
+   * Drop the sender's queued premove.
+   */
+  @MessageMapping("/game/{gameId}/premove/cancel")
+  public void handleCancelPremove(
+      @DestinationVariable final UUID gameId, final Principal principal) {
+    gameService.cancelPremove(gameId, playerId(principal));
+  }
+
+  private UUID playerId(final Principal principal) {
+    if (principal == null) {
+      throw new AccessDeniedException("Premoves need an authenticated session");
+    }
+    // Current tokens carry the user ID as a signed claim
+    if (principal instanceof JwtPrincipal jwt && jwt.isSelfContained()) {
+      return jwt.userId();
+    }
+
+    // Older tokens only carry the email as the subject
+    final String email = principal.getName();
+    return userCache.findByEmail(email)
+        .map(User::getId)
+        .orElseThrow(() -> new AccessDeniedException("User not found for email: " + email));
+  }
+}
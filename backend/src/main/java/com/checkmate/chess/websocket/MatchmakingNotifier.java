@@ -0,0 +1,72 @@
+package com.checkmate.chess.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.checkmate.chess.dto.MatchFoundMessage;
+import com.checkmate.chess.dto.QueueStatusMessage;
+import com.checkmate.chess.event.MatchFoundEvent;
+import com.checkmate.chess.matchmaking.Matchmaker;
+import com.checkmate.chess.matchmaking.QueueStatus;
+
+/**
+ * Pushes matchmaking state to waiting players so clients never poll.
+ * Each player has two destinations: {@code /queue/matchmaking/{userId}} receives the match,
+ * {@code /queue/matchmaking/{userId}/status} receives position and estimated wait. Only the
+ * player's own sessions may subscribe to them
+ * ({@link com.checkmate.chess.security.StompAuthenticationInterceptor}).
+ */
+@Component
+public class MatchmakingNotifier {
+
+  private static final Logger logger = LoggerFactory.getLogger(MatchmakingNotifier.class);
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final Matchmaker matchmaker;
+
+  public MatchmakingNotifier(SimpMessagingTemplate messagingTemplate, Matchmaker matchmaker) {
+    this.messagingTemplate = messagingTemplate;
+    this.matchmaker = matchmaker;
+  }
+
+  /**
+   * Tell both players about their game once it has committed.
+   *
+   * @param event the match event
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMatchFound(MatchFoundEvent event) {
+    send("/queue/matchmaking/" + event.whitePlayerId(), new MatchFoundMessage(
+        event.gameId(), "white", event.whitePlayerId(), event.blackPlayerId(), event.timeControl()));
+    send("/queue/matchmaking/" + event.blackPlayerId(), new MatchFoundMessage(
+        event.gameId(), "black", event.whitePlayerId(), event.blackPlayerId(), event.timeControl()));
+  }
+
+  /**
+   * Send every waiting player their current position and estimated wait.
+   */
+  public void broadcastQueueStatus() {
+    long now = System.currentTimeMillis();
+    for (String timeControl : matchmaker.timeControls()) {
+      for (QueueStatus status : matchmaker.statuses(timeControl, now)) {
+        send("/queue/matchmaking/" + status.player().userId() + "/status", new QueueStatusMessage(
+            timeControl,
+            status.position(),
+            status.queueSize(),
+            status.waitedMillis(),
+            status.estimatedWaitMillis()));
+      }
+    }
+  }
+
+  private void send(String destination, Object payload) {
+    try {
+      messagingTemplate.convertAndSend(destination, payload);
+    } catch (RuntimeException e) {
+      logger.error("Error sending matchmaking update to {}", destination, e);
+    }
+  }
+}
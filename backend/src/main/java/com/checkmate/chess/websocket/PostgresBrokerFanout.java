@@ -0,0 +1,262 @@
+package com.checkmate.chess.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Inter-node fan-out of broker messages over PostgreSQL LISTEN/NOTIFY, for
+ * {@code app.websocket.broker.mode=postgres}.
+ * Every node keeps its in-memory simple broker. Messages the application sends to
+ * {@code /topic} and {@code /queue} are delivered locally as before and also published on a
+ * NOTIFY channel; the other nodes pass them to their own broker, so a subscriber receives a
+ * game's messages whichever node handled the move.
+ * Publishing runs on a thread of its own with a dedicated connection, off the move path;
+ * a second connection listens. Both sit outside the pool, which would otherwise report them
+ * as leaked. Delivery is best effort: messages sent while a connection is re-established,
+ * or beyond the 8000-byte NOTIFY limit, reach local subscribers only.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "postgres")
+public class PostgresBrokerFanout implements ChannelInterceptor, SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(PostgresBrokerFanout.class);
+
+  /** Header marking a message received from another node, so it is not published again. */
+  static final String ORIGIN_HEADER = "checkmate-origin-node";
+
+  // NOTIFY payloads must be shorter than 8000 bytes
+  private static final int MAX_NOTIFICATION_BYTES = 7999;
+  private static final int MAX_BATCH = 100;
+  private static final long POLL_MS = 500;
+  private static final long RECONNECT_DELAY_MS = 1000;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+  private final String url;
+  private final String username;
+  private final String password;
+  private final String channel;
+  private final BlockingQueue<String> outbox;
+  private final List<Thread> workers = new ArrayList<>(2);
+  private volatile boolean running = true;
+
+  public PostgresBrokerFanout(
+      ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+      @Value("${spring.datasource.url}") String url,
+      @Value("${spring.datasource.username:}") String username,
+      @Value("${spring.datasource.password:}") String password,
+      @Value("${app.websocket.broker.postgres.channel:checkmate_stomp}") String channel,
+      @Value("${app.websocket.broker.postgres.queue-capacity:10000}") int queueCapacity) {
+    if (!channel.matches("[a-z_][a-z0-9_]*")) {
+      throw new IllegalArgumentException("Invalid NOTIFY channel name: " + channel);
+    }
+    this.messagingTemplate = messagingTemplate;
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.channel = channel;
+    this.outbox = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+  }
+
+  /**
+   * Start publishing and listening once the messaging infrastructure exists.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    workers.add(startWorker("broker-fanout-publisher", this::publish));
+    workers.add(startWorker("broker-fanout-listener", this::listen));
+    logger.info("Broker fan-out on NOTIFY channel {} started as node {}", channel, nodeId);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    for (Thread worker : workers) {
+      worker.interrupt();
+    }
+    for (Thread worker : workers) {
+      try {
+        worker.join(TimeUnit.SECONDS.toMillis(2));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Queue messages on their way to the local broker for the other nodes.
+   */
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel messageChannel) {
+    final MessageHeaders headers = message.getHeaders();
+    if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+        || headers.containsKey(ORIGIN_HEADER)
+        || !(message.getPayload() instanceof byte[] payload)) {
+      return message;
+    }
+    final String destination = SimpMessageHeaderAccessor.getDestination(headers);
+    if (destination == null) {
+      return message;
+    }
+
+    final Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+    final String notification = nodeId + '\n' + destination + '\n'
+        + (contentType != null ? contentType : "") + '\n'
+        + Base64.getEncoder().encodeToString(payload);
+    if (notification.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFICATION_BYTES) {
+      logger.warn("Message to {} is too large for NOTIFY ({} bytes), delivered locally only",
+          destination, payload.length);
+    } else if (!outbox.offer(notification)) {
+      logger.warn("Broker fan-out queue full, message to {} delivered locally only", destination);
+    }
+    return message;
+  }
+
+  /**
+   * Pass a notification from another node to the local broker; this node's own are ignored.
+   *
+   * @param notification the NOTIFY payload
+   */
+  void deliver(String notification) {
+    final String[] parts = notification.split("\n", 4);
+    if (parts.length != 4 || parts[0].equals(nodeId)) {
+      return;
+    }
+    final SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    accessor.setDestination(parts[1]);
+    if (!parts[2].isEmpty()) {
+      accessor.setContentType(MimeType.valueOf(parts[2]));
+    }
+    accessor.setHeader(ORIGIN_HEADER, parts[0]);
+    accessor.setLeaveMutable(true);
+    final Message<byte[]> message = MessageBuilder.createMessage(
+        Base64.getDecoder().decode(parts[3]), accessor.getMessageHeaders());
+    messagingTemplate.getObject().send(parts[1], message);
+  }
+
+  /**
+   * Take up to one batch of queued notifications without waiting.
+   */
+  List<String> drainPending() {
+    final List<String> pending = new ArrayList<>();
+    outbox.drainTo(pending, MAX_BATCH);
+    return pending;
+  }
+
+  private void publish() {
+    while (running) {
+      try (Connection connection = connect();
+           PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+        connection.setAutoCommit(false);
+        while (running) {
+          final String first = outbox.poll(POLL_MS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+          final List<String> batch = drainPending();
+          batch.add(0, first);
+          for (String notification : batch) {
+            notify.setString(1, channel);
+            notify.setString(2, notification);
+            notify.execute();
+          }
+          // Notifications are sent on commit, one round of them per batch
+          connection.commit();
+        }
+      } catch (SQLException e) {
+        logger.warn("Broker fan-out publisher lost its connection: {}", e.getMessage());
+        pause();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = connect()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          final PGNotification[] notifications = pgConnection.getNotifications((int) POLL_MS);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            deliverQuietly(notification.getParameter());
+          }
+        }
+      } catch (SQLException e) {
+        if (running) {
+          logger.warn("Broker fan-out listener lost its connection: {}", e.getMessage());
+          pause();
+        }
+      }
+    }
+  }
+
+  private void deliverQuietly(String notification) {
+    try {
+      deliver(notification);
+    } catch (RuntimeException e) {
+      logger.error("Cannot deliver fanned-out message", e);
+    }
+  }
+
+  private Connection connect() throws SQLException {
+    return DriverManager.getConnection(url, username, password);
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(RECONNECT_DELAY_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  private static Thread startWorker(String name, Runnable task) {
+    final Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+}
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset checkmate:7
+ALTER TABLE games ADD COLUMN ply_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE games g
+SET ply_count = (SELECT COUNT(*) FROM moves m WHERE m.game_id = g.id);
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset checkmate:8
+CREATE TABLE IF NOT EXISTS ratings (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id),
+    game_id UUID REFERENCES games(id),
+    old_rating INTEGER NOT NULL,
+    new_rating INTEGER NOT NULL,
+    rating_change INTEGER NOT NULL,
+    opponent_rating INTEGER NOT NULL,
+    game_result VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE ratings ADD COLUMN opponent_glicko_rating DOUBLE PRECISION NOT NULL DEFAULT 1500;
+ALTER TABLE ratings ADD COLUMN opponent_glicko_rd DOUBLE PRECISION NOT NULL DEFAULT 350;
+ALTER TABLE ratings ADD COLUMN glicko_applied BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_ratings_user_created ON ratings(user_id, created_at DESC);
+CREATE INDEX idx_ratings_game ON ratings(game_id);
+CREATE INDEX idx_ratings_glicko_pending ON ratings(created_at) WHERE glicko_applied = FALSE;
+
+ALTER TABLE users ADD COLUMN glicko_rating DOUBLE PRECISION DEFAULT 1500;
+ALTER TABLE users ADD COLUMN glicko_rd DOUBLE PRECISION DEFAULT 350;
+ALTER TABLE users ADD COLUMN glicko_volatility DOUBLE PRECISION DEFAULT 0.06;
+ALTER TABLE users ADD COLUMN glicko_period BIGINT;
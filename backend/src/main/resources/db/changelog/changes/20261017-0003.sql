@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset checkmate:9
+ALTER TABLE moves ADD COLUMN ply INTEGER;
+ALTER TABLE moves ADD COLUMN move_code SMALLINT;
+
+UPDATE moves m
+SET ply = numbered.ply
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY game_id ORDER BY move_number, created_at, id) - 1 AS ply
+    FROM moves
+) numbered
+WHERE m.id = numbered.id;
+
+ALTER TABLE moves ALTER COLUMN ply SET NOT NULL;
+ALTER TABLE moves ALTER COLUMN fen_after_move DROP NOT NULL;
+
+-- (game_id, ply) identifies a move and serves range reads for replay
+DROP INDEX IF EXISTS idx_moves_game_move_number;
+DROP INDEX IF EXISTS idx_moves_game_id;
+CREATE UNIQUE INDEX idx_moves_game_ply ON moves(game_id, ply);
+CREATE INDEX idx_moves_pending_code ON moves(game_id) WHERE move_code IS NULL;
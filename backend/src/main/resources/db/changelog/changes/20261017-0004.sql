@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset checkmate:10
+-- Imported games keep the player names from the PGN; their players have no account
+ALTER TABLE games ADD COLUMN white_name VARCHAR(100);
+ALTER TABLE games ADD COLUMN black_name VARCHAR(100);
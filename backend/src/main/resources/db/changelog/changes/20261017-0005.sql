@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset checkmate:11
+-- Optimistic locking: concurrent writers of a game or its clock conflict instead of
+-- overwriting each other
+ALTER TABLE games ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE game_clocks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
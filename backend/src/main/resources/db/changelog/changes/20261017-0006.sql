@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset checkmate:12
+-- Outbox of finished ranked games awaiting rating; the in-memory rating queue is only a
+-- fast path and is rebuilt from here after a restart
+CREATE TABLE IF NOT EXISTS rating_outbox (
+    game_id UUID PRIMARY KEY REFERENCES games(id),
+    white_player_id UUID NOT NULL REFERENCES users(id),
+    black_player_id UUID NOT NULL REFERENCES users(id),
+    winner VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_rating_outbox_created ON rating_outbox(created_at);
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset checkmate:13
+-- Instance running a clock or holding a queued player in memory (app.node.id); rows from
+-- before this change stay NULL until an instance claims them
+ALTER TABLE game_clocks ADD COLUMN owner_node VARCHAR(64);
+ALTER TABLE matchmaking_queue ADD COLUMN owner_node VARCHAR(64);
@@ -0,0 +1,287 @@
+package com.checkmate.chess.clock;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.checkmate.chess.model.GameClock;
+
+/**
+ * Unit tests for ClockEngine and LiveClock.
+ * Tests monotonic time accounting and deadline-based flag fall.
+ */
+@ExtendWith(MockitoExtension.class)
+class ClockEngineTest {
+
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private ClockEngine clockEngine;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    clockEngine = new ClockEngine(eventPublisher);
+    gameId = UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    clockEngine.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should charge elapsed time to the mover and add increment")
+  void testRecordMoveChargesElapsedTime() {
+    // Given: 5 minutes + 2 seconds, white thinks for 3 seconds
+    LiveClock clock = new LiveClock(gameId, 300000L, 300000L, 2000L, 0L, "white", false, 0L);
+
+    // When
+    ClockSnapshot snapshot = clock.recordMove("white", 3000 * MS);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(299000L);
+    assertThat(snapshot.blackTimeMs()).isEqualTo(300000L);
+    assertThat(snapshot.currentTurn()).isEqualTo("black");
+  }
+
+  @Test
+  @DisplayName("Should derive remaining time of the side to move from the turn start")
+  void testSnapshotDerivesRemainingTime() {
+    // Given
+    LiveClock clock = new LiveClock(gameId, 60000L, 60000L, 0L, 0L, "white", false, 0L);
+
+    // When
+    ClockSnapshot snapshot = clock.snapshot(1500 * MS);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(58500L);
+    assertThat(snapshot.blackTimeMs()).isEqualTo(60000L);
+  }
+
+  @Test
+  @DisplayName("Should not charge time within the delay")
+  void testDelayIsNotCharged() {
+    // Given: 3 second delay, white moves after 2 seconds
+    LiveClock clock = new LiveClock(gameId, 60000L, 60000L, 0L, 3000L, "white", false, 0L);
+
+    // When
+    ClockSnapshot snapshot = clock.recordMove("white", 2000 * MS);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(60000L);
+  }
+
+  @Test
+  @DisplayName("Should charge a premove no think time but add the increment")
+  void testPremoveIsFree() {
+    // Given: 2 second increment, the premove is played 40 ms into white's turn
+    LiveClock clock = new LiveClock(gameId, 300000L, 300000L, 2000L, 0L, "white", false, 0L);
+
+    // When
+    ClockSnapshot snapshot = clock.recordMove("white", 40 * MS, Long.MAX_VALUE);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(302000L);
+    assertThat(snapshot.currentTurn()).isEqualTo("black");
+  }
+
+  @Test
+  @DisplayName("Should take a lag compensation credit off the time charged")
+  void testCreditReducesTimeCharged() {
+    // Given: white's move arrives 3 seconds into the turn, 200 ms of it network transit
+    LiveClock clock = new LiveClock(gameId, 300000L, 300000L, 0L, 0L, "white", false, 0L);
+
+    // When
+    ClockSnapshot snapshot = clock.recordMove("white", 3000 * MS, 200L);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(297200L);
+    assertThat(snapshot.currentTurn()).isEqualTo("black");
+  }
+
+  @Test
+  @DisplayName("Should charge a move retried after a rollback once, from the original turn start")
+  void testRetriedMoveAfterRollback() {
+    // Given: 2 second increment, white moved after 3 seconds, then the move rolled back
+    LiveClock clock = new LiveClock(gameId, 300000L, 300000L, 2000L, 0L, "white", false, 0L);
+    LiveClock.State beforeMove = clock.state();
+    clock.recordMove("white", 3000 * MS);
+    clock.restore(beforeMove);
+
+    // When: the move is recorded again
+    ClockSnapshot snapshot = clock.recordMove("white", 3100 * MS);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(298900L);
+    assertThat(snapshot.blackTimeMs()).isEqualTo(300000L);
+    assertThat(snapshot.currentTurn()).isEqualTo("black");
+  }
+
+  @Test
+  @DisplayName("Should refuse a move of the side not to move")
+  void testRejectsMoveOutOfTurn() {
+    // Given
+    LiveClock clock = new LiveClock(gameId, 300000L, 300000L, 0L, 0L, "white", false, 0L);
+
+    // When/Then
+    assertThatThrownBy(() -> clock.recordMove("black", 1000 * MS))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(clock.snapshot(1000 * MS).blackTimeMs()).isEqualTo(300000L);
+  }
+
+  @Test
+  @DisplayName("Should bring back a clock stopped by a rolled back move")
+  void testRollbackRestartsStoppedClock() {
+    // Given: the last move of a game stopped its clock
+    clockEngine.start(new GameClock(gameId, 60000L, 0L, 0L));
+    ClockEngine.Checkpoint checkpoint = clockEngine.checkpoint(gameId);
+    clockEngine.recordMove(gameId, "white");
+    clockEngine.stop(gameId);
+
+    // When: the move's transaction rolls back
+    clockEngine.rollback(checkpoint);
+
+    // Then
+    assertThat(clockEngine.isRunning(gameId)).isTrue();
+    assertThat(clockEngine.snapshot(gameId).orElseThrow().currentTurn()).isEqualTo("white");
+  }
+
+  @Test
+  @DisplayName("Should stop a clock started since a checkpoint of none")
+  void testRollbackStopsClockStartedSince() {
+    // Given: a move took the clock over
+    ClockEngine.Checkpoint checkpoint = clockEngine.checkpoint(gameId);
+    clockEngine.start(new GameClock(gameId, 60000L, 0L, 0L));
+
+    // When: the move's transaction rolls back
+    clockEngine.rollback(checkpoint);
+
+    // Then
+    assertThat(clockEngine.isRunning(gameId)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should refuse moves and keep the clock down from a flag fall until it is cleared")
+  void testMoveRacingFlagFallRefused() {
+    // Given: a move's transaction checkpointed the clock just before white's flag fell
+    clockEngine.start(new GameClock(gameId, 50L, 0L, 0L));
+    ClockEngine.Checkpoint checkpoint = clockEngine.checkpoint(gameId);
+    verify(eventPublisher, timeout(2000)).publishEvent(any(FlagFallEvent.class));
+
+    // When/Then: the move is refused and its rollback does not bring the clock back
+    assertThat(clockEngine.isFlagged(gameId)).isTrue();
+    assertThatThrownBy(() -> clockEngine.recordMove(gameId, "white"))
+        .isInstanceOf(IllegalStateException.class);
+    clockEngine.rollback(checkpoint);
+    assertThat(clockEngine.isRunning(gameId)).isFalse();
+
+    // When/Then: once the game has ended on time
+    clockEngine.clearFlag(gameId);
+    assertThat(clockEngine.isFlagged(gameId)).isFalse();
+    assertThat(clockEngine.recordMove(gameId, "white")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should not run a paused clock")
+  void testPausedClockDoesNotRun() {
+    // Given
+    LiveClock clock = new LiveClock(gameId, 60000L, 60000L, 0L, 0L, "white", false, 0L);
+    clock.pause(1000 * MS);
+
+    // When
+    ClockSnapshot snapshot = clock.snapshot(10000 * MS);
+
+    // Then
+    assertThat(snapshot.whiteTimeMs()).isEqualTo(59000L);
+    assertThat(clock.isFlagged(120000 * MS)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should publish flag fall at the deadline of the side to move")
+  void testFlagFallAtDeadline() {
+    // Given: white has 50 ms left
+    GameClock clock = new GameClock(gameId, 50L, 0L, 0L);
+    clock.setBlackTimeMs(60000L);
+
+    // When
+    clockEngine.start(clock);
+
+    // Then
+    ArgumentCaptor<FlagFallEvent> captor = ArgumentCaptor.forClass(FlagFallEvent.class);
+    verify(eventPublisher, timeout(2000)).publishEvent(captor.capture());
+    assertThat(captor.getValue().gameId()).isEqualTo(gameId);
+    assertThat(captor.getValue().loser()).isEqualTo("white");
+    assertThat(clockEngine.isRunning(gameId)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should not hold up other games' flag falls while a listener is busy")
+  void testBusyFlagListenerDoesNotBlockTimer() throws InterruptedException {
+    // Given: the listener of the first flag fall waits until the second one arrives
+    final UUID otherGameId = UUID.randomUUID();
+    final CountDownLatch otherFlag = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      final FlagFallEvent event = invocation.getArgument(0);
+      if (event.gameId().equals(gameId)) {
+        otherFlag.await(5, TimeUnit.SECONDS);
+      } else {
+        otherFlag.countDown();
+      }
+      return null;
+    }).when(eventPublisher).publishEvent(any(Object.class));
+
+    // When
+    clockEngine.start(new GameClock(gameId, 20L, 0L, 0L));
+    clockEngine.start(new GameClock(otherGameId, 80L, 0L, 0L));
+
+    // Then
+    assertThat(otherFlag.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should report flag once the side to move has no time left")
+  void testFlaggedWhenTimeIsExhausted() {
+    // Given
+    LiveClock clock = new LiveClock(gameId, 60000L, 60000L, 0L, 0L, "white", false, 0L);
+
+    // Then
+    assertThat(clock.isFlagged(59999 * MS)).isFalse();
+    assertThat(clock.isFlagged(60000 * MS)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should stop tracking a clock and cancel its flag timer")
+  void testStopCancelsFlagTimer() throws InterruptedException {
+    // Given
+    GameClock clock = new GameClock(gameId, 100L, 0L, 0L);
+    clockEngine.start(clock);
+
+    // When
+    assertThat(clockEngine.stop(gameId)).isPresent();
+    Thread.sleep(300);
+
+    // Then
+    verify(eventPublisher, never()).publishEvent(org.mockito.ArgumentMatchers.any(Object.class));
+    assertThat(clockEngine.snapshots()).isEmpty();
+  }
+}
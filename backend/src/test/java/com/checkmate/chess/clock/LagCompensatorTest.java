@@ -0,0 +1,139 @@
+package com.checkmate.chess.clock;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.metrics.GameMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for LagCompensator.
+ * Tests transit measurement, the per-move cap, the per-player quota and the cleanup at game end.
+ */
+class LagCompensatorTest {
+
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private SimpleMeterRegistry registry;
+  private LagCompensator compensator;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    // 500 ms per move, 1200 ms quota refilled by 100 ms per move
+    compensator = new LagCompensator(new GameMetrics(registry), 500L, 1200L, 100L);
+    gameId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Should credit the server-measured time the client did not spend thinking")
+  void testCreditsTransit() {
+    // Given: the answer arrives 3 seconds after the broadcast, the client thought for 2.8
+    compensator.recordBroadcast(gameId, 0L);
+
+    // When
+    final long credit = compensator.credit(gameId, "black", 2800L, 3000 * MS);
+
+    // Then
+    assertThat(credit).isEqualTo(200L);
+    assertThat(registry.get("checkmate.clock.lag.transit").summary().totalAmount())
+        .isEqualTo(200.0);
+  }
+
+  @Test
+  @DisplayName("Should cap the credit of a single move")
+  void testCreditIsCapped() {
+    // Given
+    compensator.recordBroadcast(gameId, 0L);
+
+    // When: the client claims 2 of 3 seconds were transit
+    final long credit = compensator.credit(gameId, "black", 1000L, 3000 * MS);
+
+    // Then
+    assertThat(credit).isEqualTo(500L);
+  }
+
+  @Test
+  @DisplayName("Should stop crediting a player once the quota is used up")
+  void testQuotaLimitsCredit() {
+    // When: every move claims 2 seconds of transit
+    long credited = 0;
+    final long[] credits = new long[4];
+    for (int i = 0; i < credits.length; i++) {
+      compensator.recordBroadcast(gameId, 0L);
+      credits[i] = compensator.credit(gameId, "white", 0L, 2000 * MS);
+      credited += credits[i];
+    }
+
+    // Then: the quota goes 1200, 700, 300, then 0 after refilling to 400 and to 100
+    assertThat(credits).containsExactly(500L, 500L, 400L, 100L);
+    assertThat(compensator.stats(gameId, "white"))
+        .contains(new LagCompensator.LagStats(4, credited, 0L));
+  }
+
+  @Test
+  @DisplayName("Should draw a credit from the quota only when the move commits")
+  void testRolledBackCreditIsNotDrawn() {
+    // Given
+    compensator.recordBroadcast(gameId, 0L);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      compensator.credit(gameId, "white", 0L, 2000 * MS);
+
+      // When: the move rolls back
+      for (TransactionSynchronization synchronization
+          : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then: the retry is credited from the full quota, and only it counts
+    assertThat(compensator.stats(gameId, "white")).isEmpty();
+    assertThat(compensator.credit(gameId, "white", 0L, 2100 * MS)).isEqualTo(500L);
+    assertThat(compensator.stats(gameId, "white"))
+        .contains(new LagCompensator.LagStats(1, 500L, 700L));
+  }
+
+  @Test
+  @DisplayName("Should credit nothing without a client report or a broadcast to measure from")
+  void testNoCreditWithoutMeasurement() {
+    // When
+    final long beforeBroadcast = compensator.credit(gameId, "white", 0L, 2000 * MS);
+    compensator.recordBroadcast(gameId, 0L);
+    final long unreported = compensator.credit(gameId, "black", null, 2000 * MS);
+
+    // Then
+    assertThat(beforeBroadcast).isZero();
+    assertThat(unreported).isZero();
+    assertThat(registry.get("checkmate.clock.lag.credit").summary().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should record per-game totals and forget the game when it ends")
+  void testGameEndReleasesState() {
+    // Given
+    compensator.recordBroadcast(gameId, 0L);
+    compensator.credit(gameId, "white", 0L, 300 * MS);
+
+    // When
+    compensator.onGameEnded(new GameEndedEvent(
+        gameId, "ranked", UUID.randomUUID(), UUID.randomUUID(), "DRAW", "Stalemate", "draw"));
+
+    // Then
+    assertThat(compensator.stats(gameId, "white")).isEmpty();
+    assertThat(registry.get("checkmate.clock.lag.game.credit").summary().totalAmount())
+        .isEqualTo(300.0);
+  }
+}
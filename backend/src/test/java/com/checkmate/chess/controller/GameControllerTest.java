@@ -1,18 +1,35 @@
 package com.checkmate.chess.controller;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.checkmate.chess.dto.CreateGuestGameRequest;
 import com.checkmate.chess.dto.CreateGuestGameResponse;
 import com.checkmate.chess.dto.GameStateResponse;
 import com.checkmate.chess.dto.SuccessResponse;
+import com.checkmate.chess.security.JwtPrincipal;
+import com.checkmate.chess.service.GameService;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -23,6 +40,9 @@ class GameControllerTest {
   @Autowired
   private GameController gameController;
 
+  @Autowired
+  private GameService gameService;
+
   @Test
   @DisplayName("Should create guest game successfully")
   void shouldCreateGuestGameSuccessfully() {
@@ -251,5 +271,78 @@ class GameControllerTest {
             auth)
     );
   }
-}
 
+  @Test
+  @DisplayName("Should stream all finished games of the caller as one PGN")
+  void shouldStreamPlayerGamesAsPgn() throws IOException {
+    final CreateGuestGameResponse first =
+        gameController.createGuestGame(new CreateGuestGameRequest("Exporter")).getBody().data();
+    gameService.makeMove(first.gameId(), "e2", "e4", null);
+    gameService.makeMove(first.gameId(), "e7", "e5", null);
+    gameService.resignGame(first.gameId(), first.guestUserId());
+
+    final ResponseEntity<StreamingResponseBody> response =
+        gameController.exportPgnStream(null, null, null, null, caller(first.guestUserId()));
+
+    assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    final String pgn = write(response.getBody()).toString(StandardCharsets.UTF_8);
+    assertThat(pgn).contains("\"Exporter\"]", "1. e4 e5");
+  }
+
+  @Test
+  @DisplayName("Should gzip the PGN stream when the client accepts it")
+  void shouldGzipPgnStream() throws IOException {
+    final CreateGuestGameResponse game =
+        gameController.createGuestGame(new CreateGuestGameRequest("Zipped")).getBody().data();
+    gameService.resignGame(game.gameId(), game.guestUserId());
+    final LocalDate today = LocalDate.now();
+
+    final ResponseEntity<StreamingResponseBody> response = gameController.exportPgnStream(
+        game.guestUserId(), today, today, "gzip, deflate", caller(game.guestUserId()));
+
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    final byte[] compressed = write(response.getBody()).toByteArray();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+          .contains("[White \"", "\"Zipped\"]");
+    }
+  }
+
+  @Test
+  @DisplayName("Should leave games still in progress out of the PGN export")
+  void shouldSkipInProgressGamesInPgnExport() throws IOException {
+    final CreateGuestGameResponse game =
+        gameController.createGuestGame(new CreateGuestGameRequest("Playing")).getBody().data();
+    gameService.makeMove(game.gameId(), "e2", "e4", null);
+
+    final ResponseEntity<StreamingResponseBody> response =
+        gameController.exportPgnStream(null, null, null, null, caller(game.guestUserId()));
+
+    assertThat(write(response.getBody()).toString(StandardCharsets.UTF_8)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should refuse a PGN export of another player's games")
+  void shouldRejectPgnExportOfOtherPlayer() {
+    final CreateGuestGameResponse game =
+        gameController.createGuestGame(new CreateGuestGameRequest("Private")).getBody().data();
+
+    final ResponseEntity<StreamingResponseBody> response = gameController.exportPgnStream(
+        game.guestUserId(), null, null, null, caller(UUID.randomUUID()));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+  }
+
+  private static Authentication caller(final UUID userId) {
+    final JwtPrincipal principal = new JwtPrincipal(
+        "caller", userId, List.of("ROLE_GUEST"), Instant.now().plusSeconds(60));
+    return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+  }
+
+  private static ByteArrayOutputStream write(final StreamingResponseBody body) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.writeTo(out);
+    return out;
+  }
+}
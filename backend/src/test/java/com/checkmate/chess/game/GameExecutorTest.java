@@ -0,0 +1,145 @@
+package com.checkmate.chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for GameExecutor.
+ * Tests per-game serialization, reentrancy, error propagation, parallelism across games and
+ * the release of idle mailboxes.
+ */
+class GameExecutorTest {
+
+  private GameExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new GameExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should run the tasks of one game one at a time")
+  void testSerializesOneGame() throws Exception {
+    // Given
+    final UUID gameId = UUID.randomUUID();
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger overlaps = new AtomicInteger();
+    final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    // When
+    final List<Future<?>> calls = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      calls.add(callers.submit(() -> executor.run(gameId, () -> {
+        if (running.incrementAndGet() > 1) {
+          overlaps.incrementAndGet();
+        }
+        Thread.onSpinWait();
+        running.decrementAndGet();
+      })));
+    }
+    for (Future<?> call : calls) {
+      call.get(10, TimeUnit.SECONDS);
+    }
+    callers.shutdown();
+
+    // Then
+    assertThat(overlaps).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Should run a nested call for the same game inline")
+  void testReentrant() {
+    // Given
+    final UUID gameId = UUID.randomUUID();
+
+    // When
+    final String result = executor.call(gameId, () ->
+        executor.call(gameId, () -> Thread.currentThread().getName()));
+
+    // Then
+    assertThat(result).isEqualTo("game-" + gameId);
+  }
+
+  @Test
+  @DisplayName("Should rethrow the task's exception to the caller")
+  void testPropagatesFailure() {
+    assertThatThrownBy(() -> executor.call(UUID.randomUUID(), () -> {
+      throw new IllegalArgumentException("Illegal move");
+    })).isInstanceOf(IllegalArgumentException.class).hasMessage("Illegal move");
+  }
+
+  @Test
+  @DisplayName("Should run different games in parallel")
+  void testParallelAcrossGames() throws Exception {
+    // Given
+    final UUID first = UUID.randomUUID();
+    final UUID other = UUID.randomUUID();
+    final CountDownLatch bothStarted = new CountDownLatch(2);
+    final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    // When: each task waits for the other, which only completes if they run concurrently
+    final Future<Boolean> a = callers.submit(() -> executor.call(first, () -> await(bothStarted)));
+    final Future<Boolean> b = callers.submit(() -> executor.call(other, () -> await(bothStarted)));
+
+    // Then
+    assertThat(a.get(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(b.get(10, TimeUnit.SECONDS)).isTrue();
+    callers.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should drop a game's mailbox once its tasks are done")
+  void testReleasesIdleGames() throws InterruptedException {
+    // When
+    executor.run(UUID.randomUUID(), () -> { });
+    executor.run(UUID.randomUUID(), () -> { });
+
+    // Then: each mailbox closes right after completing the task its caller waited for
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+    while (executor.activeGames() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(executor.activeGames()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reject new tasks once shut down")
+  void testRejectsAfterShutdown() {
+    // When
+    executor.shutdown();
+
+    // Then
+    assertThatThrownBy(() -> executor.run(UUID.randomUUID(), () -> { }))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    latch.countDown();
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
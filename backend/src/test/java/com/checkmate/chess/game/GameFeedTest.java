@@ -0,0 +1,105 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.event.GameEndedEvent;
+
+/**
+ * Unit tests for GameFeed.
+ * Tests catching up from a seq, overruns, gaps and eviction.
+ */
+class GameFeedTest {
+
+  private GameFeed feed;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    feed = new GameFeed(4, 60);
+    gameId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Should return the moves after a seq in order")
+  void testSince() {
+    // Given
+    recordMoves(1, 3);
+
+    // Then
+    assertThat(feed.since(gameId, 1)).hasValueSatisfying(moves ->
+        assertThat(moves).extracting(MakeMoveResponse::seq).containsExactly(2, 3));
+    assertThat(feed.since(gameId, 3)).hasValue(List.of());
+    assertThat(feed.since(gameId, 0)).hasValueSatisfying(moves -> assertThat(moves).hasSize(3));
+    assertThat(feed.latestSeq(gameId)).hasValue(3);
+  }
+
+  @Test
+  @DisplayName("Should not answer for moves that were overwritten or not yet seen")
+  void testOverrun() {
+    // Given
+    recordMoves(1, 6);
+
+    // Then: the buffer holds moves 3 to 6
+    assertThat(feed.since(gameId, 2)).hasValueSatisfying(moves ->
+        assertThat(moves).extracting(MakeMoveResponse::seq).containsExactly(3, 4, 5, 6));
+    assertThat(feed.since(gameId, 1)).isEmpty();
+    assertThat(feed.since(gameId, 7)).isEmpty();
+    assertThat(feed.since(UUID.randomUUID(), 0)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should restart after a gap and ignore repeated moves")
+  void testGap() {
+    // Given
+    recordMoves(1, 2);
+    recordMoves(5, 6);
+    recordMoves(6, 6);
+
+    // Then
+    assertThat(feed.since(gameId, 2)).isEmpty();
+    assertThat(feed.since(gameId, 4)).hasValueSatisfying(moves ->
+        assertThat(moves).extracting(MakeMoveResponse::seq).containsExactly(5, 6));
+  }
+
+  @Test
+  @DisplayName("Should drop a game when it ends or goes idle")
+  void testEviction() {
+    // Given
+    recordMoves(1, 1);
+    final UUID other = UUID.randomUUID();
+    feed.record(other, move(1));
+
+    // When
+    feed.onGameEnded(new GameEndedEvent(
+        gameId, "ranked", UUID.randomUUID(), UUID.randomUUID(), "DRAW", "Stalemate", "draw"));
+
+    // Then
+    assertThat(feed.since(gameId, 0)).isEmpty();
+    assertThat(feed.size()).isEqualTo(1);
+
+    // When
+    final GameFeed idle = new GameFeed(4, 0);
+    idle.record(other, move(1));
+    idle.evictIdle();
+
+    // Then
+    assertThat(idle.size()).isZero();
+  }
+
+  private void recordMoves(int from, int to) {
+    for (int seq = from; seq <= to; seq++) {
+      feed.record(gameId, move(seq));
+    }
+  }
+
+  private static MakeMoveResponse move(int seq) {
+    return new MakeMoveResponse("m" + seq, "fen", false, false, false, seq);
+  }
+}
@@ -0,0 +1,144 @@
+package com.checkmate.chess.game;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.model.Game;
+
+/**
+ * Unit tests for GameTransactions.
+ * Tests bounded retries of conflicting changes and running inside a caller's transaction.
+ */
+@ExtendWith(MockitoExtension.class)
+class GameTransactionsTest {
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private GameExecutor gameExecutor;
+  private GameTransactions gameTransactions;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    gameExecutor = new GameExecutor();
+    gameTransactions = new GameTransactions(gameExecutor, transactionManager, 2);
+    gameId = UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    gameExecutor.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should retry a conflicting change in a new transaction on the game's thread")
+  void testRetriesConflicts() {
+    // Given: the first two attempts lose to a concurrent writer
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    final AtomicInteger attempts = new AtomicInteger();
+
+    // When
+    final String thread = gameTransactions.execute(gameId, () -> {
+      if (attempts.incrementAndGet() <= 2) {
+        throw conflict();
+      }
+      return Thread.currentThread().getName();
+    });
+
+    // Then
+    assertThat(thread).isEqualTo("game-" + gameId);
+    assertThat(attempts).hasValue(3);
+    verify(transactionManager, times(2)).rollback(any());
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  @DisplayName("Should give up once the retries are used")
+  void testGivesUp() {
+    // Given
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    final AtomicInteger attempts = new AtomicInteger();
+
+    // When/Then
+    assertThatThrownBy(() -> gameTransactions.run(gameId, () -> {
+      attempts.incrementAndGet();
+      throw conflict();
+    })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    assertThat(attempts).hasValue(3);
+  }
+
+  @Test
+  @DisplayName("Should not retry other failures")
+  void testDoesNotRetryOtherFailures() {
+    // Given
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    final AtomicInteger attempts = new AtomicInteger();
+
+    // When/Then
+    assertThatThrownBy(() -> gameTransactions.run(gameId, () -> {
+      attempts.incrementAndGet();
+      throw new IllegalStateException("Game is not in progress");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(attempts).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should run in place inside a caller's transaction")
+  void testJoinsCallerTransaction() {
+    // Given
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      // When
+      final String thread =
+          gameTransactions.execute(gameId, () -> Thread.currentThread().getName());
+
+      // Then
+      assertThat(thread).isEqualTo(Thread.currentThread().getName());
+      verify(transactionManager, never()).getTransaction(any());
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+  }
+
+  @Test
+  @DisplayName("Should run an in-memory change on the game's thread without a transaction")
+  void testInMemoryChangeOpensNoTransaction() {
+    // Given
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus(false));
+
+    // When
+    final String thread =
+        gameTransactions.executeInMemory(gameId, () -> Thread.currentThread().getName());
+
+    // Then
+    assertThat(thread).isEqualTo("game-" + gameId);
+    verify(transactionManager).getTransaction(argThat(definition ->
+        definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_SUPPORTS));
+  }
+
+  private ObjectOptimisticLockingFailureException conflict() {
+    return new ObjectOptimisticLockingFailureException(Game.class, gameId);
+  }
+}
@@ -0,0 +1,274 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Live Game Tests")
+class LiveGameTest {
+
+  private static final String STARTING_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  @Test
+  @DisplayName("Should apply legal move and return SAN with new FEN")
+  void shouldApplyLegalMove() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+
+    final MoveResult result = liveGame.play("e2", "e4", null);
+
+    assertThat(result.algebraicNotation()).isEqualTo("e4");
+    assertThat(result.fen()).contains("b KQkq");
+    assertThat(result.playerColor()).isEqualTo("white");
+    assertThat(result.isCheck()).isFalse();
+    assertThat(liveGame.getFen()).isEqualTo(result.fen());
+    assertThat(liveGame.getSideToMove()).isEqualTo("black");
+  }
+
+  @Test
+  @DisplayName("Should reject illegal move and keep position")
+  void shouldRejectIllegalMove() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+
+    assertThatThrownBy(() -> liveGame.play("e2", "e5", null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Illegal move");
+    assertThat(liveGame.getFen()).isEqualTo(STARTING_FEN);
+  }
+
+  @Test
+  @DisplayName("Should reject invalid square notation")
+  void shouldRejectInvalidSquare() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+
+    assertThatThrownBy(() -> liveGame.play("z9", "a1", null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Should detect checkmate in the same pass")
+  void shouldDetectCheckmate() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    liveGame.play("f2", "f3", null);
+    liveGame.play("e7", "e5", null);
+    liveGame.play("g2", "g4", null);
+
+    final MoveResult result = liveGame.play("d8", "h4", null);
+
+    assertThat(result.algebraicNotation()).isEqualTo("Qh4#");
+    assertThat(result.isCheck()).isTrue();
+    assertThat(result.isCheckmate()).isTrue();
+    assertThat(result.isStalemate()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should detect stalemate")
+  void shouldDetectStalemate() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "7k/8/6Q1/8/8/8/8/K7 w - - 0 1");
+
+    final MoveResult result = liveGame.play("g6", "f7", null);
+
+    assertThat(result.isStalemate()).isTrue();
+    assertThat(result.isCheckmate()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should format castling as O-O")
+  void shouldFormatCastling() {
+    final LiveGame liveGame =
+        new LiveGame(UUID.randomUUID(), "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQK2R w KQkq - 0 1");
+
+    final MoveResult result = liveGame.play("e1", "g1", null);
+
+    assertThat(result.algebraicNotation()).isEqualTo("O-O");
+  }
+
+  @Test
+  @DisplayName("Should promote black pawn to requested piece")
+  void shouldPromoteBlackPawn() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "4k3/8/8/8/8/8/p7/4K3 b - - 0 1");
+
+    final MoveResult result = liveGame.play("a2", "a1", "n");
+
+    assertThat(result.algebraicNotation()).isEqualTo("a1=N");
+    assertThat(result.fen()).startsWith("4k3/8/8/8/8/8/8/n3K3");
+  }
+
+  @Test
+  @DisplayName("Should disambiguate knight moves by file")
+  void shouldDisambiguateByFile() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+
+    final MoveResult result = liveGame.play("b1", "d2", null);
+
+    assertThat(result.algebraicNotation()).isEqualTo("Nbd2");
+  }
+
+  @Test
+  @DisplayName("Should detect threefold repetition from the Zobrist history")
+  void shouldDetectThreefoldRepetition() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    shuffleKnights(liveGame);
+    liveGame.play("g1", "f3", null);
+    liveGame.play("g8", "f6", null);
+    liveGame.play("f3", "g1", null);
+
+    final MoveResult result = liveGame.play("f6", "g8", null);
+
+    assertThat(result.drawRule()).isEqualTo(DrawRule.THREEFOLD_REPETITION);
+  }
+
+  @Test
+  @DisplayName("Should report fivefold repetition over threefold")
+  void shouldDetectFivefoldRepetition() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    shuffleKnights(liveGame);
+    shuffleKnights(liveGame);
+    shuffleKnights(liveGame);
+    liveGame.play("g1", "f3", null);
+    liveGame.play("g8", "f6", null);
+    liveGame.play("f3", "g1", null);
+
+    final MoveResult result = liveGame.play("f6", "g8", null);
+
+    assertThat(result.drawRule()).isEqualTo(DrawRule.FIVEFOLD_REPETITION);
+  }
+
+  @Test
+  @DisplayName("Should forget earlier positions after a pawn move")
+  void shouldResetRepetitionsOnIrreversibleMove() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    shuffleKnights(liveGame);
+    liveGame.play("e2", "e4", null);
+    liveGame.play("e7", "e5", null);
+    shuffleKnights(liveGame);
+
+    final MoveResult result = liveGame.play("g1", "f3", null);
+
+    assertThat(result.drawRule()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should count repetitions replayed when the game is rebuilt")
+  void shouldSeedHistoryFromEarlierPositions() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(),
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 4 3",
+        List.of(
+            STARTING_FEN,
+            "rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1",
+            "rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2",
+            "rnbqkb1r/pppppppp/5n2/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 3 2"));
+    liveGame.play("g1", "f3", null);
+    liveGame.play("g8", "f6", null);
+    liveGame.play("f3", "g1", null);
+
+    final MoveResult result = liveGame.play("f6", "g8", null);
+
+    assertThat(result.drawRule()).isEqualTo(DrawRule.THREEFOLD_REPETITION);
+  }
+
+  @Test
+  @DisplayName("Should detect the fifty-move rule")
+  void shouldDetectFiftyMoveRule() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "4k3/8/8/8/8/8/8/4K2R w K - 99 80");
+
+    final MoveResult result = liveGame.play("h1", "h2", null);
+
+    assertThat(result.drawRule()).isEqualTo(DrawRule.FIFTY_MOVE_RULE);
+  }
+
+  @Test
+  @DisplayName("Should detect the seventy-five-move rule")
+  void shouldDetectSeventyFiveMoveRule() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "4k3/8/8/8/8/8/8/4K2R w K - 149 110");
+
+    final MoveResult result = liveGame.play("h1", "h2", null);
+
+    assertThat(result.drawRule()).isEqualTo(DrawRule.SEVENTY_FIVE_MOVE_RULE);
+  }
+
+  @Test
+  @DisplayName("Should let checkmate take precedence over the move-count rules")
+  void shouldPreferCheckmateOverMoveCount() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), "k7/8/1K6/8/8/8/8/7R w - - 149 110");
+
+    final MoveResult result = liveGame.play("h1", "h8", null);
+
+    assertThat(result.isCheckmate()).isTrue();
+    assertThat(result.drawRule()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should read the halfmove clock from a FEN")
+  void shouldReadHalfmoveClock() {
+    assertThat(LiveGame.halfmoveClock(STARTING_FEN)).isZero();
+    assertThat(LiveGame.halfmoveClock("4k3/8/8/8/8/8/8/4K2R w K - 42 80")).isEqualTo(42);
+    assertThat(LiveGame.halfmoveClock("4k3/8/8/8/8/8/8/4K2R w K -")).isZero();
+  }
+
+  private static void shuffleKnights(final LiveGame liveGame) {
+    liveGame.play("g1", "f3", null);
+    liveGame.play("g8", "f6", null);
+    liveGame.play("f3", "g1", null);
+    liveGame.play("f6", "g8", null);
+  }
+
+  @Test
+  @DisplayName("Should extend the seeded movetext with every move")
+  void shouldExtendMovetext() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    liveGame.play("e2", "e4", null);
+    assertThat(liveGame.getMovetext()).isEmpty();
+
+    liveGame.setMovetext("1. e4", 1);
+    liveGame.play("e7", "e5", null);
+    liveGame.play("g1", "f3", null);
+
+    assertThat(liveGame.getMovetext()).contains("1. e4 e5 2. Nf3");
+  }
+
+  @Test
+  @DisplayName("Should hand out a premove only when its side is to move")
+  void shouldHoldPremoveUntilItsTurn() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+    final Premove premove = new Premove("e7", "e5", null);
+
+    liveGame.setPremove("black", premove);
+
+    assertThat(liveGame.takePremove()).isEmpty();
+    liveGame.play("e2", "e4", null);
+    assertThat(liveGame.takePremove()).contains(premove);
+    assertThat(liveGame.takePremove()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should replace and cancel premoves")
+  void shouldReplaceAndCancelPremoves() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+
+    liveGame.setPremove("black", new Premove("e7", "e5", null));
+    liveGame.setPremove("black", new Premove("c7", "c5", null));
+    liveGame.play("e2", "e4", null);
+
+    assertThat(liveGame.takePremove()).contains(new Premove("c7", "c5", null));
+
+    liveGame.setPremove("white", new Premove("g1", "f3", null));
+    liveGame.cancelPremove("white");
+    liveGame.play("c7", "c5", null);
+
+    assertThat(liveGame.takePremove()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should refuse a premove from the side to move")
+  void shouldRefusePremoveOnOwnTurn() {
+    final LiveGame liveGame = new LiveGame(UUID.randomUUID(), STARTING_FEN);
+
+    assertThatThrownBy(() -> liveGame.setPremove("white", new Premove("e2", "e4", null)))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
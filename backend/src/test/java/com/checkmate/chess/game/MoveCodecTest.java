@@ -0,0 +1,80 @@
+package com.checkmate.chess.game;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+@DisplayName("Move Codec Tests")
+class MoveCodecTest {
+
+  private static final String STARTING_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  @Test
+  @DisplayName("Should round-trip every square pair in 12 bits")
+  void shouldRoundTripSquares() {
+    final Move move = new Move(Square.H8, Square.A1);
+
+    final short code = MoveCodec.encode(move);
+
+    assertThat(code).isEqualTo((short) (63 | 0 << 6));
+    assertThat(MoveCodec.decode(code, Side.WHITE)).isEqualTo(move);
+  }
+
+  @Test
+  @DisplayName("Should keep the promotion piece and restore it for the side to move")
+  void shouldRoundTripPromotion() {
+    final Move move = new Move(Square.A2, Square.A1, Piece.BLACK_KNIGHT);
+
+    final short code = MoveCodec.encode(move);
+
+    assertThat(code).isPositive();
+    assertThat(MoveCodec.decode(code, Side.BLACK)).isEqualTo(move);
+  }
+
+  @Test
+  @DisplayName("Should replay encoded moves from a checkpoint")
+  void shouldReplay() {
+    final List<String> fens = MoveCodec.replay(STARTING_FEN, List.of(
+        MoveCodec.encode(new Move(Square.E2, Square.E4)),
+        MoveCodec.encode(new Move(Square.E7, Square.E5))));
+
+    assertThat(fens).hasSize(2);
+    assertThat(fens.get(1)).startsWith("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq");
+  }
+
+  @Test
+  @DisplayName("Should refuse to replay an illegal stored move")
+  void shouldRejectIllegalReplay() {
+    final List<Short> codes = List.of(MoveCodec.encode(new Move(Square.E2, Square.E5)));
+
+    assertThatThrownBy(() -> MoveCodec.replay(STARTING_FEN, codes))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("Should derive the move between two stored positions")
+  void shouldDeriveCode() {
+    final short code = MoveCodec.deriveCode(STARTING_FEN,
+        "rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1");
+
+    assertThat(MoveCodec.decode(code, Side.WHITE)).isEqualTo(new Move(Square.G1, Square.F3));
+  }
+
+  @Test
+  @DisplayName("Should place checkpoints every interval plies")
+  void shouldPlaceCheckpoints() {
+    assertThat(MoveCodec.isCheckpoint(0)).isTrue();
+    assertThat(MoveCodec.isCheckpoint(MoveCodec.CHECKPOINT_INTERVAL - 1)).isFalse();
+    assertThat(MoveCodec.checkpointBefore(MoveCodec.CHECKPOINT_INTERVAL + 3))
+        .isEqualTo(MoveCodec.CHECKPOINT_INTERVAL);
+  }
+}
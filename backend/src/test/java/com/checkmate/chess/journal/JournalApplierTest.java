@@ -0,0 +1,128 @@
+package com.checkmate.chess.journal;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.model.Game;
+import com.checkmate.chess.model.GameClock;
+import com.checkmate.chess.repository.GameClockRepository;
+import com.checkmate.chess.repository.GameRepository;
+import com.checkmate.chess.service.MoveService;
+
+/**
+ * Unit tests for JournalApplier.
+ * Tests that journaled moves reach the game, move and clock rows exactly once.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalApplierTest {
+
+  private static final String FEN =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+  @Mock
+  private GameRepository gameRepository;
+
+  @Mock
+  private GameClockRepository clockRepository;
+
+  @Mock
+  private MoveService moveService;
+
+  @InjectMocks
+  private JournalApplier applier;
+
+  private UUID gameId;
+  private Game game;
+
+  @BeforeEach
+  void setUp() {
+    gameId = UUID.randomUUID();
+    game = new Game();
+    game.setId(gameId);
+    game.setStatus("IN_PROGRESS");
+    game.setPlyCount(1);
+
+    when(gameRepository.findAllById(any())).thenReturn(List.of(game));
+    // Like the real service, storing a move advances the ply count
+    lenient().when(moveService.saveMove(eq(game), anyString(), anyShort(), anyString()))
+        .thenAnswer(invocation -> {
+          game.setPlyCount(game.getPlyCount() + 1);
+          return null;
+        });
+  }
+
+  @Test
+  @DisplayName("Should skip moves already stored and apply the rest in order")
+  void testSkipsStoredPlies() {
+    // Given
+    when(clockRepository.findByGameIdIn(any())).thenReturn(List.of());
+
+    // When
+    int stored = applier.apply(List.of(entry(0), entry(1), entry(2)));
+
+    // Then
+    assertThat(stored).isEqualTo(2);
+    assertThat(game.getPlyCount()).isEqualTo(3);
+    assertThat(game.getCurrentFen()).isEqualTo(FEN);
+    verify(moveService, never()).saveMove(game, "m0", (short) 0, FEN);
+    verify(gameRepository).saveAll(any());
+  }
+
+  @Test
+  @DisplayName("Should end the game and store the final clock")
+  void testEndsGameWithClock() {
+    // Given
+    GameClock clock = new GameClock(gameId, 300000L, 0L, 0L);
+    when(clockRepository.findByGameIdIn(any())).thenReturn(List.of(clock));
+    JournalEntry mate = new JournalEntry(gameId, 1, "Qh4#", (short) 0, FEN,
+        "CHECKMATE", "Checkmate", new ClockSnapshot(250000L, 290000L, "white", false));
+
+    // When
+    applier.apply(List.of(mate, entry(2)));
+
+    // Then
+    assertThat(game.getStatus()).isEqualTo("FINISHED");
+    assertThat(game.getResult()).isEqualTo("CHECKMATE");
+    assertThat(game.getPlyCount()).isEqualTo(2);
+    assertThat(clock.getWhiteTimeMs()).isEqualTo(250000L);
+    assertThat(clock.getBlackTimeMs()).isEqualTo(290000L);
+    assertThat(clock.getLastMoveTime()).isNotNull();
+    verify(clockRepository).saveAll(any());
+  }
+
+  @Test
+  @DisplayName("Should not store a move that leaves a gap in the game")
+  void testGap() {
+    // Given
+    when(clockRepository.findByGameIdIn(any())).thenReturn(List.of());
+
+    // When
+    int stored = applier.apply(List.of(entry(5)));
+
+    // Then
+    assertThat(stored).isZero();
+    assertThat(game.getPlyCount()).isEqualTo(1);
+  }
+
+  private JournalEntry entry(int ply) {
+    return new JournalEntry(gameId, ply, "m" + ply, (short) ply, FEN, null, null, null);
+  }
+}
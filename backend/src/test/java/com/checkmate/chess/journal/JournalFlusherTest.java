@@ -0,0 +1,158 @@
+package com.checkmate.chess.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.anyList;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for JournalFlusher.
+ * Tests batching, retry after a failed flush, parking of poison games and replay on startup.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalFlusherTest {
+
+  private static final String FEN =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+  @TempDir
+  Path directory;
+
+  @Mock
+  private JournalApplier applier;
+
+  private MoveJournal journal;
+  private JournalFlusher flusher;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    journal = new MoveJournal(true, directory.toString(), false);
+    // A long interval keeps the background pass out of the way of explicit flushes
+    flusher = new JournalFlusher(journal, applier, 3_600_000L, 2, 2);
+    gameId = UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    flusher.shutdown();
+    journal.close();
+  }
+
+  @Test
+  @DisplayName("Should store journaled moves in batches of the configured size")
+  void testFlushInBatches() {
+    // Given
+    journal.append(entry(0));
+    journal.append(entry(1));
+    journal.append(entry(2));
+
+    // When
+    flusher.flush();
+
+    // Then
+    verify(applier).apply(List.of(entry(0), entry(1)));
+    verify(applier).apply(List.of(entry(2)));
+    assertThat(journal.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep a batch the database rejected for the next flush")
+  void testRetryAfterFailure() {
+    // Given
+    journal.append(entry(0));
+    when(applier.apply(anyList()))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenReturn(1);
+
+    // When
+    assertThatThrownBy(flusher::flush).isInstanceOf(IllegalStateException.class);
+    assertThat(journal.pendingCount()).isEqualTo(1);
+    flusher.flush();
+
+    // Then
+    assertThat(journal.pendingCount()).isZero();
+    assertThat(journal.drain().isEmpty()).isTrue();
+    assertThat(flusher.pendingAge()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  @DisplayName("Should store other games and park a game the database keeps rejecting")
+  void testPoisonGameIsParked() throws IOException {
+    // Given: every batch holding a move of the poison game fails
+    final UUID poison = UUID.randomUUID();
+    when(applier.apply(anyList())).thenAnswer(invocation -> {
+      final List<JournalEntry> entries = invocation.getArgument(0);
+      if (entries.stream().anyMatch(entry -> entry.gameId().equals(poison))) {
+        throw new IllegalStateException("constraint violation");
+      }
+      return entries.size();
+    });
+    journal.append(entry(poison, 0));
+    journal.append(entry(gameId, 0));
+
+    // When: the first pass stores the other game and keeps the poison game for a retry
+    assertThatThrownBy(flusher::flush).isInstanceOf(IllegalStateException.class);
+    assertThat(journal.pendingCount()).isEqualTo(1);
+    journal.append(entry(gameId, 1));
+    flusher.flush();
+    journal.append(entry(poison, 1));
+    flusher.flush();
+
+    // Then
+    verify(applier).apply(List.of(entry(gameId, 0)));
+    verify(applier).apply(List.of(entry(gameId, 1)));
+    verify(applier, never()).apply(List.of(entry(poison, 1)));
+    assertThat(journal.pendingCount()).isZero();
+    assertThat(journal.deadLetterCount()).isEqualTo(2);
+    assertThat(MoveJournal.readSegment(directory.resolve("dead-letter.log")))
+        .containsExactly(entry(poison, 0), entry(poison, 1));
+  }
+
+  @Test
+  @DisplayName("Should replay moves left by the previous run on startup")
+  void testRecoverOnStartup() throws IOException {
+    // Given
+    journal.append(entry(0));
+    // Crash: the journal is closed without a final flush
+    journal.close();
+    journal = new MoveJournal(true, directory.toString(), false);
+    flusher = new JournalFlusher(journal, applier, 3_600_000L, 2, 2);
+
+    // When
+    flusher.afterSingletonsInstantiated();
+
+    // Then
+    verify(applier).apply(List.of(entry(0)));
+    try (Stream<Path> files = Files.list(directory)) {
+      // Only the new run's active segment is left
+      assertThat(files).hasSize(1);
+    }
+  }
+
+  private JournalEntry entry(int ply) {
+    return entry(gameId, ply);
+  }
+
+  private static JournalEntry entry(UUID gameId, int ply) {
+    return new JournalEntry(gameId, ply, "m" + ply, (short) ply, FEN, null, null, null);
+  }
+}
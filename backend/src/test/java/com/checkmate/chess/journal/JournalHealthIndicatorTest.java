@@ -0,0 +1,77 @@
+package com.checkmate.chess.journal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+/**
+ * Unit tests for JournalHealthIndicator.
+ * Tests the pending details and the switch to down once moves wait too long.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalHealthIndicatorTest {
+
+  @TempDir
+  Path directory;
+
+  @Mock
+  private JournalFlusher flusher;
+
+  private MoveJournal journal;
+  private JournalHealthIndicator indicator;
+
+  @BeforeEach
+  void setUp() {
+    journal = new MoveJournal(true, directory.toString(), false);
+    indicator = new JournalHealthIndicator(journal, flusher, 60_000L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
+
+  @Test
+  @DisplayName("Should stay up while failed moves wait less than the limit")
+  void testUpWhilePendingIsRecent() {
+    // Given
+    when(flusher.pendingCount()).thenReturn(3);
+    when(flusher.pendingAge()).thenReturn(Duration.ofSeconds(5));
+
+    // When
+    final Health health = indicator.health();
+
+    // Then
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails())
+        .containsEntry("pending", 3)
+        .containsEntry("pendingAgeMs", 5_000L)
+        .containsEntry("deadLettered", 0L);
+  }
+
+  @Test
+  @DisplayName("Should report down once failed moves wait longer than the limit")
+  void testDownWhenPendingIsStale() {
+    // Given
+    when(flusher.pendingCount()).thenReturn(3);
+    when(flusher.pendingAge()).thenReturn(Duration.ofMinutes(2));
+
+    // When
+    final Health health = indicator.health();
+
+    // Then
+    assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+  }
+}
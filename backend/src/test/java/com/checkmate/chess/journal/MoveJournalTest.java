@@ -0,0 +1,154 @@
+package com.checkmate.chess.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+
+/**
+ * Unit tests for MoveJournal.
+ * Tests record encoding, draining, requeueing and recovery of segments after a restart.
+ */
+class MoveJournalTest {
+
+  private static final String FEN =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+  @TempDir
+  Path directory;
+
+  private MoveJournal journal;
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    journal = new MoveJournal(true, directory.toString(), true);
+    gameId = UUID.randomUUID();
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
+
+  @Test
+  @DisplayName("Should round-trip every field of an entry")
+  void testEncodeDecode() throws IOException {
+    // Given
+    JournalEntry entry = new JournalEntry(gameId, 3, "Qxf7#", (short) 0x1234, FEN,
+        "CHECKMATE", "Checkmate", new ClockSnapshot(1000, 2000, "black", false));
+
+    // When
+    JournalEntry decoded = MoveJournal.decode(MoveJournal.encode(entry));
+
+    // Then
+    assertThat(decoded).isEqualTo(entry);
+  }
+
+  @Test
+  @DisplayName("Should hand out appended entries once and track the next ply")
+  void testDrain() {
+    // Given
+    journal.append(entry(0));
+    journal.append(entry(1));
+
+    // When
+    MoveJournal.Batch batch = journal.drain();
+
+    // Then
+    assertThat(batch.entries()).extracting(JournalEntry::ply).containsExactly(0, 1);
+    assertThat(batch.segments()).hasSize(1);
+    assertThat(journal.drain().isEmpty()).isTrue();
+    assertThat(journal.nextPly(gameId, 0)).isEqualTo(2);
+    assertThat(journal.nextPly(UUID.randomUUID(), 7)).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should delete stored segments and forget games that ended")
+  void testComplete() {
+    // Given
+    journal.append(entry(0));
+    journal.append(
+        new JournalEntry(gameId, 1, "Qh4#", (short) 1, FEN, "CHECKMATE", "Checkmate", null));
+    assertThat(journal.isEnded(gameId)).isTrue();
+    MoveJournal.Batch batch = journal.drain();
+
+    // When
+    journal.complete(batch);
+
+    // Then
+    assertThat(batch.segments()).allSatisfy(segment -> assertThat(segment).doesNotExist());
+    assertThat(journal.isEnded(gameId)).isFalse();
+    assertThat(journal.nextPly(gameId, 2)).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should retry a requeued batch before newer entries")
+  void testRequeue() {
+    // Given
+    journal.append(entry(0));
+    MoveJournal.Batch failed = journal.drain();
+    journal.append(entry(1));
+
+    // When
+    journal.requeue(failed);
+    MoveJournal.Batch retry = journal.drain();
+
+    // Then
+    assertThat(retry.entries()).extracting(JournalEntry::ply).containsExactly(0, 1);
+    assertThat(retry.segments()).hasSize(2).containsAll(failed.segments());
+  }
+
+  @Test
+  @DisplayName("Should recover unflushed entries after a restart and ignore a torn tail")
+  void testRecover() throws IOException {
+    // Given
+    journal.append(entry(0));
+    journal.append(entry(1));
+    journal.close();
+    Path segment;
+    try (var files = Files.list(directory)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+    // When
+    journal = new MoveJournal(true, directory.toString(), true);
+    MoveJournal.Batch recovered = journal.recover();
+
+    // Then
+    assertThat(recovered.entries()).extracting(JournalEntry::ply).containsExactly(0, 1);
+    assertThat(recovered.segments()).containsExactly(segment);
+    journal.append(entry(2));
+    assertThat(journal.drain().segments()).doesNotContain(segment);
+  }
+
+  @Test
+  @DisplayName("Should refuse appends when write-behind persistence is off")
+  void testDisabled() {
+    // Given
+    MoveJournal disabled = new MoveJournal(false, directory.resolve("unused").toString(), true);
+
+    // Then
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.drain().isEmpty()).isTrue();
+    assertThat(disabled.recover().entries()).isEmpty();
+    assertThatThrownBy(() -> disabled.append(entry(0))).isInstanceOf(IllegalStateException.class);
+    assertThat(directory.resolve("unused")).doesNotExist();
+  }
+
+  private JournalEntry entry(int ply) {
+    return new JournalEntry(gameId, ply, "e4", (short) 0, FEN, null, null, null);
+  }
+}
@@ -0,0 +1,142 @@
+package com.checkmate.chess.matchmaking;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Matchmaker.
+ * Tests nearest-rating pairing, window widening and queue bookkeeping.
+ */
+class MatchmakerTest {
+
+  private static final long NOW = 1_000_000L;
+
+  private Matchmaker matchmaker;
+
+  @BeforeEach
+  void setUp() {
+    matchmaker = new Matchmaker(200, 10, 600);
+  }
+
+  @Test
+  @DisplayName("Should pair each player with the nearest rating in the window")
+  void testPairsNearestRatings() {
+    // Given
+    final QueuedPlayer a = player(1500, NOW - 4000);
+    final QueuedPlayer b = player(1700, NOW - 3000);
+    final QueuedPlayer c = player(1510, NOW - 2000);
+    final QueuedPlayer d = player(1690, NOW - 1000);
+    List.of(a, b, c, d).forEach(matchmaker::enqueue);
+
+    // When
+    final List<MatchPair> pairs = matchmaker.pair("blitz", NOW);
+
+    // Then
+    assertThat(pairs).containsExactly(new MatchPair(a, c), new MatchPair(b, d));
+    assertThat(matchmaker.size("blitz")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should prefer the longer-waiting opponent on equal rating distance")
+  void testTieGoesToOlderOpponent() {
+    // Given
+    final QueuedPlayer first = player(1500, NOW - 3000);
+    final QueuedPlayer newer = player(1520, NOW - 1000);
+    final QueuedPlayer older = player(1480, NOW - 2000);
+    List.of(first, newer, older).forEach(matchmaker::enqueue);
+
+    // When
+    final List<MatchPair> pairs = matchmaker.pair("blitz", NOW);
+
+    // Then
+    assertThat(pairs).containsExactly(new MatchPair(first, older));
+    assertThat(matchmaker.isQueued(newer.userId())).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should widen the allowed difference with wait time up to the maximum")
+  void testWindowWidening() {
+    assertThat(matchmaker.allowedDifference(player(1500, NOW), NOW)).isEqualTo(200);
+    assertThat(matchmaker.allowedDifference(player(1500, NOW - 15_000), NOW)).isEqualTo(350);
+    assertThat(matchmaker.allowedDifference(player(1500, NOW - 600_000), NOW)).isEqualTo(600);
+  }
+
+  @Test
+  @DisplayName("Should move a player who re-queues in another time control")
+  void testRequeueMovesPool() {
+    // Given
+    final UUID userId = UUID.randomUUID();
+    matchmaker.enqueue(new QueuedPlayer(userId, 1500, "blitz", NOW));
+
+    // When
+    matchmaker.enqueue(new QueuedPlayer(userId, 1500, "rapid", NOW));
+
+    // Then
+    assertThat(matchmaker.size("blitz")).isZero();
+    assertThat(matchmaker.size("rapid")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should forget a dequeued player")
+  void testDequeue() {
+    // Given
+    final QueuedPlayer a = player(1500, NOW);
+    final QueuedPlayer b = player(1510, NOW);
+    matchmaker.enqueue(a);
+    matchmaker.enqueue(b);
+
+    // When
+    final boolean removed = matchmaker.dequeue(a.userId());
+
+    // Then
+    assertThat(removed).isTrue();
+    assertThat(matchmaker.dequeue(a.userId())).isFalse();
+    assertThat(matchmaker.pair("blitz", NOW)).isEmpty();
+    assertThat(matchmaker.isQueued(b.userId())).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should report positions in join order and estimate waits from paired players")
+  void testStatuses() {
+    // Given: One pair formed after 20 and 10 seconds, smoothing to an 18 second average
+    matchmaker.enqueue(player(1500, NOW - 20_000));
+    matchmaker.enqueue(player(1510, NOW - 10_000));
+    matchmaker.pair("blitz", NOW);
+    final QueuedPlayer older = player(2000, NOW - 5000);
+    final QueuedPlayer newer = player(1000, NOW - 1000);
+    matchmaker.enqueue(newer);
+    matchmaker.enqueue(older);
+
+    // When
+    final List<QueueStatus> statuses = matchmaker.statuses("blitz", NOW);
+
+    // Then
+    assertThat(statuses).extracting(QueueStatus::player).containsExactly(older, newer);
+    assertThat(statuses).extracting(QueueStatus::position).containsExactly(1, 2);
+    assertThat(statuses).extracting(QueueStatus::queueSize).containsOnly(2);
+    assertThat(statuses).extracting(QueueStatus::estimatedWaitMillis).containsExactly(13_000L, 17_000L);
+  }
+
+  @Test
+  @DisplayName("Should leave the wait estimate empty before any pair has formed")
+  void testNoEstimateWithoutHistory() {
+    // Given
+    matchmaker.enqueue(player(1500, NOW - 1000));
+
+    // When
+    final List<QueueStatus> statuses = matchmaker.statuses("blitz", NOW);
+
+    // Then
+    assertThat(statuses).singleElement()
+        .satisfies(status -> assertThat(status.estimatedWaitMillis()).isNull());
+  }
+
+  private QueuedPlayer player(int rating, long joinedAtMillis) {
+    return new QueuedPlayer(UUID.randomUUID(), rating, "blitz", joinedAtMillis);
+  }
+}
@@ -0,0 +1,170 @@
+package com.checkmate.chess.metrics;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for GameMetrics.
+ * Tests move timers, active game gauges with bounded tags, clock tick and lag recording.
+ */
+class GameMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private GameMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new GameMetrics(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("Should count active games by type and time control until they end")
+  void testActiveGames() {
+    // Given
+    final UUID first = UUID.randomUUID();
+    final UUID second = UUID.randomUUID();
+
+    // When
+    metrics.onMoveMade(moveMade(first, "ranked", "blitz"));
+    metrics.onMoveMade(moveMade(first, "ranked", "blitz"));
+    metrics.onMoveMade(moveMade(second, "ranked", "blitz"));
+    metrics.onGameEnded(gameEnded(first));
+
+    // Then
+    assertThat(activeGames("ranked", "blitz")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should map free-form game types and time controls onto a fixed tag set")
+  void testBoundedTags() {
+    // When
+    metrics.onMoveMade(moveMade(UUID.randomUUID(), "COMPUTER", "Advanced"));
+    metrics.onMoveMade(moveMade(UUID.randomUUID(), "my-own-type", "3+2"));
+    metrics.onMoveMade(moveMade(UUID.randomUUID(), "GUEST", null));
+
+    // Then
+    assertThat(activeGames("computer", "advanced")).isEqualTo(1.0);
+    assertThat(activeGames("other", "other")).isEqualTo(1.0);
+    assertThat(activeGames("guest", "none")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should tag move validation with its outcome")
+  void testMoveValidation() {
+    // When
+    metrics.recordMoveValidation(TimeUnit.MICROSECONDS.toNanos(50), true);
+    metrics.recordMoveValidation(TimeUnit.MICROSECONDS.toNanos(20), false);
+
+    // Then
+    assertThat(registry.get("checkmate.move.validation").tag("outcome", "accepted").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("checkmate.move.validation").tag("outcome", "rejected").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should time a database write until its transaction completes")
+  void testPersistWaitsForCompletion() {
+    // Given
+    TransactionSynchronizationManager.initSynchronization();
+
+    // When
+    metrics.recordMovePersisted(System.nanoTime());
+
+    // Then: nothing is recorded before completion
+    assertThat(registry.find("checkmate.move.persist").timer()).isNull();
+
+    // When
+    for (TransactionSynchronization synchronization
+        : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    // Then
+    final Timer failed = registry.get("checkmate.move.persist")
+        .tag("store", "database")
+        .tag("outcome", "failed")
+        .timer();
+    assertThat(failed.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should record journal appends immediately")
+  void testJournalAppend() {
+    // When
+    metrics.recordMoveJournaled(TimeUnit.MICROSECONDS.toNanos(300));
+
+    // Then
+    final Timer journaled = registry.get("checkmate.move.persist").tag("store", "journal").timer();
+    assertThat(journaled.count()).isEqualTo(1);
+    assertThat(journaled.totalTime(TimeUnit.MICROSECONDS)).isEqualTo(300.0);
+  }
+
+  @Test
+  @DisplayName("Should record clock tick lag, duration and broadcast count")
+  void testClockTick() {
+    // When
+    metrics.recordClockTick(TimeUnit.MILLISECONDS.toNanos(15), 1_000, 3);
+    metrics.recordClockTick(-5, 1_000, 2);
+
+    // Then
+    final Timer lag = registry.get("checkmate.clock.tick.lag").timer();
+    assertThat(lag.count()).isEqualTo(2);
+    assertThat(lag.max(TimeUnit.MILLISECONDS)).isEqualTo(15.0);
+    assertThat(registry.get("checkmate.clock.broadcasts").counter().count()).isEqualTo(5.0);
+  }
+
+  @Test
+  @DisplayName("Should record lag transit and credits per move and per game")
+  void testLagCompensation() {
+    // When
+    metrics.recordLagCompensation(800, 500);
+    metrics.recordLagCompensation(40, 40);
+    metrics.recordGameLagCredit(540);
+
+    // Then
+    assertThat(registry.get("checkmate.clock.lag.transit").summary().totalAmount())
+        .isEqualTo(840.0);
+    assertThat(registry.get("checkmate.clock.lag.credit").summary().max()).isEqualTo(500.0);
+    assertThat(registry.get("checkmate.clock.lag.game.credit").summary().count()).isEqualTo(1);
+  }
+
+  private double activeGames(String type, String timeControl) {
+    return registry.get("checkmate.games.active")
+        .tag("type", type)
+        .tag("time.control", timeControl)
+        .gauge()
+        .value();
+  }
+
+  private static MoveMadeEvent moveMade(UUID gameId, String gameType, String timeControl) {
+    return new MoveMadeEvent(gameId, gameType, timeControl, "white", null);
+  }
+
+  private static GameEndedEvent gameEnded(UUID gameId) {
+    return new GameEndedEvent(
+        gameId, "ranked", UUID.randomUUID(), UUID.randomUUID(), "DRAW", "Stalemate", "draw");
+  }
+}
@@ -0,0 +1,65 @@
+package com.checkmate.chess.metrics;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.checkmate.chess.matchmaking.Matchmaker;
+import com.checkmate.chess.matchmaking.QueuedPlayer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for MatchmakingMetrics.
+ * Tests queue depth gauges and wait timers per time control.
+ */
+class MatchmakingMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private Matchmaker matchmaker;
+  private MatchmakingMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    matchmaker = new Matchmaker(200, 10, 600);
+    metrics = new MatchmakingMetrics(registry, matchmaker);
+  }
+
+  @Test
+  @DisplayName("Should report the queue depth of every time control")
+  void testQueueDepth() {
+    // Given
+    matchmaker.enqueue(new QueuedPlayer(UUID.randomUUID(), 1500, "blitz", 0));
+    matchmaker.enqueue(new QueuedPlayer(UUID.randomUUID(), 1600, "blitz", 0));
+
+    // Then
+    assertThat(depth("blitz")).isEqualTo(2.0);
+    assertThat(depth("bullet")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should record waits per time control")
+  void testWaits() {
+    // When
+    metrics.recordWait("rapid", 4_000);
+    metrics.recordWait("rapid", 2_000);
+
+    // Then
+    assertThat(registry.get("checkmate.matchmaking.wait")
+        .tag("time.control", "rapid")
+        .timer()
+        .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6_000.0);
+  }
+
+  private double depth(String timeControl) {
+    return registry.get("checkmate.matchmaking.queue.depth")
+        .tag("time.control", timeControl)
+        .gauge()
+        .value();
+  }
+}
@@ -0,0 +1,94 @@
+package com.checkmate.chess.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for WebSocketMetrics.
+ * Tests session counting and outbound message counters per destination kind.
+ */
+class WebSocketMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private WebSocketMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new WebSocketMetrics(registry);
+  }
+
+  @Test
+  @DisplayName("Should track connected sessions")
+  void testSessions() {
+    // When
+    metrics.onConnected(new SessionConnectedEvent(this, connectedMessage("s1")));
+    metrics.onConnected(new SessionConnectedEvent(this, connectedMessage("s2")));
+    metrics.onDisconnected(new SessionDisconnectEvent(
+        this, connectedMessage("s1"), "s1", CloseStatus.NORMAL));
+    metrics.onDisconnected(new SessionDisconnectEvent(
+        this, connectedMessage("s1"), "s1", CloseStatus.NORMAL));
+
+    // Then
+    assertThat(registry.get("checkmate.websocket.sessions").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should count outbound messages by destination kind, not by game")
+  void testOutboundByDestination() {
+    // When
+    metrics.preSend(brokerMessage("/topic/game/6f1c0f7e-aaaa/moves"), null);
+    metrics.preSend(brokerMessage("/topic/game/0b7d3c55-bbbb/moves"), null);
+    metrics.preSend(brokerMessage("/topic/game/0b7d3c55-bbbb/clock"), null);
+    metrics.preSend(brokerMessage("/queue/matchmaking/0b7d3c55-cccc/status"), null);
+
+    // Then
+    assertThat(outbound("game.moves")).isEqualTo(2.0);
+    assertThat(outbound("game.clock")).isEqualTo(1.0);
+    assertThat(outbound("matchmaking.status")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should not count frames other than delivered messages")
+  void testIgnoresOtherFrames() {
+    // When
+    metrics.preSend(connectedMessage("s1"), null);
+
+    // Then
+    assertThat(registry.find("checkmate.websocket.messages.outbound").counters()).isEmpty();
+  }
+
+  private double outbound(String destination) {
+    return registry.get("checkmate.websocket.messages.outbound")
+        .tag("destination", destination)
+        .counter()
+        .count();
+  }
+
+  private static Message<byte[]> connectedMessage(String sessionId) {
+    final StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+    accessor.setSessionId(sessionId);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private static Message<byte[]> brokerMessage(String destination) {
+    final SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    accessor.setDestination(destination);
+    accessor.setSessionId("s1");
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkmate.chess.pgnimport;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.checkmate.chess.pgnimport.ImportedGame.ImportedMove;
+
+/**
+ * Unit tests for PgnGameValidator.
+ * Tests movetext parsing, SAN resolution and the mapping of tags onto game columns.
+ */
+class PgnGameValidatorTest {
+
+  private static final LocalDateTime IMPORTED_AT = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+  @Test
+  @DisplayName("Should replay a game, skipping comments, variations and NAGs")
+  void testReplaysAnnotatedGame() {
+    // Given
+    final PgnRecord record = record(
+        Map.of("White", "Alice", "Black", "Bob", "Result", "1-0", "Date", "2023.05.14"),
+        "1. e4 {best by test} e5 2. Bc4 (2. Nf3 Nc6 (2... d6)) Nc6 $1\n"
+            + "3. Qh5 Nf6?? ; greed\n4. Qxf7# 1-0");
+
+    // When
+    final ImportedGame game = PgnGameValidator.validate(record, IMPORTED_AT);
+
+    // Then
+    assertThat(game.moves()).extracting(ImportedMove::san)
+        .containsExactly("e4", "e5", "Bc4", "Nc6", "Qh5", "Nf6", "Qxf7#");
+    assertThat(game.pgn()).isEqualTo("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7#");
+    assertThat(game.result()).isEqualTo("WHITE_WINS");
+    assertThat(game.endReason()).isEqualTo("Checkmate");
+    assertThat(game.whiteName()).isEqualTo("Alice");
+    assertThat(game.playedAt()).isEqualTo(LocalDateTime.of(2023, 5, 14, 0, 0));
+    assertThat(game.moves().get(0).fenAfter()).isNotNull();
+    assertThat(game.moves().get(1).fenAfter()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should store other notations in the app's canonical SAN")
+  void testCanonicalNotation() {
+    // Given
+    final PgnRecord record = record(Map.of(),
+        "1.e2-e4 e7e5 2.Ng1f3 Nb8c6 3.Bc4 Bc5 4.0-0 Ng8-f6 5.Re1 0-0 6.c3 d6 7.d4 exd4 "
+            + "8.cxd4 Bb6 9.d5 Ne5 10.Nxe5 dxe5 11.Qd3 *");
+
+    // When
+    final ImportedGame game = PgnGameValidator.validate(record, IMPORTED_AT);
+
+    // Then
+    assertThat(game.moves()).extracting(ImportedMove::san)
+        .startsWith("e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5", "O-O", "Nf6", "Re1", "O-O");
+    assertThat(game.moves()).hasSize(21);
+    assertThat(game.result()).isNull();
+    assertThat(game.endReason()).isEqualTo("Imported");
+    assertThat(game.playedAt()).isEqualTo(IMPORTED_AT);
+  }
+
+  @Test
+  @DisplayName("Should reject a game with an illegal move and name the ply")
+  void testRejectsIllegalMove() {
+    // Given
+    final PgnRecord record = record(Map.of(), "1. e4 e5 2. Ke3 Nc6 0-1");
+
+    // Then
+    assertThatThrownBy(() -> PgnGameValidator.validate(record, IMPORTED_AT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Ke3")
+        .hasMessageContaining("ply 3");
+  }
+
+  @Test
+  @DisplayName("Should reject games from a set-up position")
+  void testRejectsSetUpPosition() {
+    // Given
+    final PgnRecord record = record(
+        Map.of("SetUp", "1", "FEN", "8/8/8/8/8/8/4k3/4K3 w - - 0 1"), "1. Kd1 *");
+
+    // Then
+    assertThatThrownBy(() -> PgnGameValidator.validate(record, IMPORTED_AT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("set-up position");
+  }
+
+  @Test
+  @DisplayName("Should map TimeControl tags onto the app's time controls")
+  void testTimeControl() {
+    assertThat(PgnGameValidator.timeControl("60+0")).isEqualTo("bullet");
+    assertThat(PgnGameValidator.timeControl("180+2")).isEqualTo("blitz");
+    assertThat(PgnGameValidator.timeControl("600+5")).isEqualTo("rapid");
+    assertThat(PgnGameValidator.timeControl("40/7200:3600")).isEqualTo("classical");
+    assertThat(PgnGameValidator.timeControl("-")).isNull();
+  }
+
+  private static PgnRecord record(Map<String, String> tags, String movetext) {
+    return new PgnRecord(new HashMap<>(tags), movetext, 1);
+  }
+}
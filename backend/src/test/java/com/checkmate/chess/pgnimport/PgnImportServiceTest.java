@@ -0,0 +1,88 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyList;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Unit tests for PgnImportService.
+ * Tests the read, validate and write pipeline and its counts.
+ */
+@ExtendWith(MockitoExtension.class)
+class PgnImportServiceTest {
+
+  private static final String GAME = """
+      [White "Alice"]
+      [Black "Bob"]
+      [Result "1-0"]
+
+      1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+      """;
+  private static final String ILLEGAL_GAME = """
+      [White "Carol"]
+      [Result "*"]
+
+      1. e4 e5 2. Ke3 *
+
+      """;
+
+  @Mock
+  private PgnImportWriter writer;
+
+  @Test
+  @DisplayName("Should store valid games and report rejected ones with their line")
+  void testImportsAndRejects() throws IOException {
+    // Given
+    when(writer.write(anyList())).thenAnswer(invocation -> {
+      final List<ImportedGame> games = invocation.getArgument(0);
+      return games.stream().mapToInt(game -> game.moves().size()).sum();
+    });
+    final PgnImportService service = new PgnImportService(writer, 2, 2, 60_000L);
+
+    // When
+    final PgnImportReport report = service.importPgn(pgn(GAME + GAME + ILLEGAL_GAME + GAME));
+
+    // Then
+    assertThat(report.gamesRead()).isEqualTo(4);
+    assertThat(report.gamesImported()).isEqualTo(3);
+    assertThat(report.gamesRejected()).isEqualTo(1);
+    assertThat(report.movesImported()).isEqualTo(21);
+    assertThat(report.errors()).singleElement().asString()
+        .startsWith("line 13:")
+        .contains("Ke3");
+  }
+
+  @Test
+  @DisplayName("Should count a chunk the database refuses as rejected and go on")
+  void testWriteFailure() throws IOException {
+    // Given
+    when(writer.write(anyList()))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"))
+        .thenReturn(7);
+    final PgnImportService service = new PgnImportService(writer, 1, 1, 60_000L);
+
+    // When
+    final PgnImportReport report = service.importPgn(pgn(GAME + GAME));
+
+    // Then
+    assertThat(report.gamesImported()).isEqualTo(1);
+    assertThat(report.gamesRejected()).isEqualTo(1);
+    assertThat(report.errors()).singleElement().asString().contains("duplicate key");
+  }
+
+  private static ByteArrayInputStream pgn(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,64 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.checkmate.chess.service.PgnService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("PGN Import Writer Integration Tests")
+class PgnImportWriterTest {
+
+  @Autowired
+  private PgnImportWriter writer;
+
+  @Autowired
+  private PgnService pgnService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Should batch-insert games and moves that export back as PGN")
+  void shouldWriteGamesThatExport() throws Exception {
+    // Given
+    final ImportedGame game = PgnGameValidator.validate(new PgnRecord(new HashMap<>(Map.of(
+        "White", "Alice", "Black", "Bob", "Result", "1-0", "Date", "2023.05.14")),
+        "1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0", 1), LocalDateTime.now());
+
+    // When
+    final int moves = writer.write(List.of(game));
+
+    // Then
+    assertThat(moves).isEqualTo(7);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM moves WHERE game_id = ?", Integer.class, game.id())).isEqualTo(7);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM moves WHERE game_id = ? AND fen_after_move IS NOT NULL",
+        Integer.class, game.id())).isEqualTo(1);
+
+    final StringWriter out = new StringWriter();
+    final int exported = pgnService.exportPgn(null,
+        LocalDateTime.of(2023, 5, 14, 0, 0), LocalDateTime.of(2023, 5, 15, 0, 0), out);
+    assertThat(exported).isEqualTo(1);
+    assertThat(out.toString())
+        .contains("[White \"Alice\"]")
+        .contains("[Black \"Bob\"]")
+        .contains("[Result \"1-0\"]")
+        .contains("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7#");
+  }
+}
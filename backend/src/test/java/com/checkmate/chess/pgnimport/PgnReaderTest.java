@@ -0,0 +1,79 @@
+package com.checkmate.chess.pgnimport;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PgnReader.
+ * Tests splitting a multi-game stream into tags and movetext.
+ */
+class PgnReaderTest {
+
+  @Test
+  @DisplayName("Should split games at the next tag section")
+  void testSplitsGames() throws IOException {
+    // Given
+    final String pgn = """
+        [Event "Rated Blitz"]
+        [White "Alice"]
+        [Black "Bob"]
+
+        1. e4 e5 2. Nf3 1-0
+
+        [Event "Rated Blitz"]
+        [White "Carol \\"The Rook\\""]
+        1. d4 d5
+        2. c4 1/2-1/2
+        """;
+
+    try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+      // When
+      final PgnRecord first = reader.next();
+      final PgnRecord second = reader.next();
+
+      // Then
+      assertThat(first.tag("White")).isEqualTo("Alice");
+      assertThat(first.movetext()).contains("1. e4 e5 2. Nf3 1-0");
+      assertThat(first.line()).isEqualTo(1);
+      assertThat(second.tag("White")).isEqualTo("Carol \"The Rook\"");
+      assertThat(second.movetext()).contains("2. c4 1/2-1/2");
+      assertThat(second.line()).isEqualTo(7);
+      assertThat(reader.next()).isNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep tag-like lines inside multi-line comments in the movetext")
+  void testMultiLineComment() throws IOException {
+    // Given
+    final String pgn = """
+        [White "Alice"]
+
+        1. e4 { a comment
+        [White "not a tag"] still the comment } e5 *
+        % an escaped line
+        """;
+
+    try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+      // When
+      final PgnRecord game = reader.next();
+
+      // Then
+      assertThat(game.tag("White")).isEqualTo("Alice");
+      assertThat(game.movetext()).contains("[White \"not a tag\"]").doesNotContain("escaped");
+      assertThat(reader.next()).isNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Should return nothing for an empty stream")
+  void testEmptyStream() throws IOException {
+    try (PgnReader reader = new PgnReader(new StringReader("\n\n"))) {
+      assertThat(reader.next()).isNull();
+    }
+  }
+}
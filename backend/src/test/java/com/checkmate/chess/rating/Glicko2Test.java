@@ -0,0 +1,72 @@
+package com.checkmate.chess.rating;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Glicko2.
+ * Tests against the worked example in Glickman's description of the system.
+ */
+class Glicko2Test {
+
+  private final Glicko2 glicko2 = new Glicko2(0.5, 86_400_000L);
+
+  @Test
+  @DisplayName("Should reproduce the reference example")
+  void testReferenceExample() {
+    // Given: 1500/200/0.06 beats 1400/30, loses to 1550/100 and 1700/300
+    Glicko2.GlickoRating player = new Glicko2.GlickoRating(1500, 200, 0.06);
+    List<Glicko2.Outcome> outcomes = List.of(
+        new Glicko2.Outcome(1400, 30, 1),
+        new Glicko2.Outcome(1550, 100, 0),
+        new Glicko2.Outcome(1700, 300, 0));
+
+    // When
+    Glicko2.GlickoRating rated = glicko2.rate(player, 0, outcomes);
+
+    // Then
+    assertThat(rated.rating()).isCloseTo(1464.06, within(0.05));
+    assertThat(rated.rd()).isCloseTo(151.52, within(0.05));
+    assertThat(rated.volatility()).isCloseTo(0.05999, within(0.00001));
+  }
+
+  @Test
+  @DisplayName("Should only widen the deviation for a period without games")
+  void testNoGames() {
+    // Given
+    Glicko2.GlickoRating player = new Glicko2.GlickoRating(1700, 50, 0.06);
+
+    // When
+    Glicko2.GlickoRating rated = glicko2.rate(player, 0, List.of());
+
+    // Then
+    assertThat(rated.rating()).isEqualTo(1700);
+    assertThat(rated.rd()).isGreaterThan(50);
+    assertThat(rated.volatility()).isEqualTo(0.06);
+  }
+
+  @Test
+  @DisplayName("Should never widen the deviation beyond 350")
+  void testDeviationCap() {
+    // Given: A long-idle player
+    Glicko2.GlickoRating player = new Glicko2.GlickoRating(1500, 340, 0.06);
+
+    // When
+    Glicko2.GlickoRating rated = glicko2.rate(player, 1000, List.of());
+
+    // Then
+    assertThat(rated.rd()).isEqualTo(350, within(1e-9));
+  }
+
+  @Test
+  @DisplayName("Should map timestamps to consecutive rating periods")
+  void testPeriods() {
+    assertThat(glicko2.periodOf(0)).isZero();
+    assertThat(glicko2.periodOf(86_399_999L)).isZero();
+    assertThat(glicko2.periodOf(86_400_000L)).isEqualTo(1);
+  }
+}
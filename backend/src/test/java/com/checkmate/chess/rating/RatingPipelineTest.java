@@ -0,0 +1,182 @@
+package com.checkmate.chess.rating;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.model.PendingRating;
+import com.checkmate.chess.repository.PendingRatingRepository;
+import com.checkmate.chess.service.RatingService;
+
+/**
+ * Unit tests for RatingPipeline.
+ * Tests queueing, batching, failure isolation and the rating outbox.
+ */
+@ExtendWith(MockitoExtension.class)
+class RatingPipelineTest {
+
+  @Mock
+  private RatingService ratingService;
+
+  @Mock
+  private PendingRatingRepository pendingRatingRepository;
+
+  private RatingPipeline pipeline;
+
+  @AfterEach
+  void tearDown() {
+    if (pipeline != null) {
+      pipeline.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should queue only ranked games")
+  void testOnGameEndedFiltersGameType() {
+    // Given
+    pipeline = newPipeline(100, 60_000L, 100);
+
+    // When
+    pipeline.onGameEnded(gameEnded("ranked"));
+    pipeline.onGameEnded(gameEnded("GUEST"));
+
+    // Then
+    assertThat(pipeline.pendingCount()).isEqualTo(1);
+    verify(ratingService, never()).applyBatch(any());
+  }
+
+  @Test
+  @DisplayName("Should apply queued games in batches of the configured size")
+  void testFlushBatches() {
+    // Given
+    pipeline = newPipeline(2, 60_000L, 100);
+    RatingUpdate first = update();
+    RatingUpdate second = update();
+    RatingUpdate third = update();
+    pipeline.submit(first);
+    pipeline.submit(second);
+    pipeline.submit(third);
+
+    // When
+    pipeline.flush();
+
+    // Then
+    verify(ratingService).applyBatch(List.of(first, second));
+    verify(ratingService).applyBatch(List.of(third));
+    assertThat(pipeline.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should retry a failed batch one game at a time")
+  void testFailedBatchRetriedIndividually() {
+    // Given
+    pipeline = newPipeline(10, 60_000L, 100);
+    RatingUpdate good = update();
+    RatingUpdate bad = update();
+    doThrow(new IllegalStateException("boom")).when(ratingService).applyBatch(List.of(good, bad));
+    doThrow(new IllegalStateException("boom")).when(ratingService).applyBatch(List.of(bad));
+    pipeline.submit(good);
+    pipeline.submit(bad);
+
+    // When
+    pipeline.flush();
+
+    // Then
+    verify(ratingService).applyBatch(List.of(good));
+    verify(ratingService).applyBatch(List.of(bad));
+  }
+
+  @Test
+  @DisplayName("Should rate synchronously when the queue is full")
+  void testQueueFull() {
+    // Given
+    pipeline = newPipeline(10, 60_000L, 1);
+    pipeline.submit(update());
+    RatingUpdate overflow = update();
+
+    // When
+    pipeline.submit(overflow);
+
+    // Then
+    verify(ratingService).applyBatch(List.of(overflow));
+    assertThat(pipeline.pendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should flush in the background")
+  void testBackgroundFlush() {
+    // Given
+    pipeline = newPipeline(10, 50L, 100);
+    RatingUpdate update = update();
+
+    // When
+    pipeline.submit(update);
+
+    // Then
+    verify(ratingService, timeout(2000)).applyBatch(List.of(update));
+  }
+
+  @Test
+  @DisplayName("Should record only ranked games in the outbox")
+  void testRecordPending() {
+    // Given
+    pipeline = newPipeline(100, 60_000L, 100);
+
+    // When
+    pipeline.recordPending(gameEnded("ranked"));
+    pipeline.recordPending(gameEnded("GUEST"));
+
+    // Then
+    verify(pendingRatingRepository).save(any(PendingRating.class));
+  }
+
+  @Test
+  @DisplayName("Should queue games left in the outbox")
+  void testSweepQueuesOutbox() {
+    // Given: A game that ended before the last shutdown
+    pipeline = newPipeline(100, 60_000L, 100);
+    PendingRating pending = new PendingRating(
+        UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "draw");
+    LocalDateTime now = LocalDateTime.now();
+    when(pendingRatingRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(any(), any()))
+        .thenReturn(List.of(pending));
+
+    // When
+    int queued = pipeline.sweep(now);
+    pipeline.flush();
+
+    // Then
+    assertThat(queued).isEqualTo(1);
+    verify(ratingService).applyBatch(List.of(new RatingUpdate(
+        pending.getGameId(), pending.getWhitePlayerId(), pending.getBlackPlayerId(), "draw")));
+  }
+
+  private RatingPipeline newPipeline(int batchSize, long flushIntervalMs, int maxPending) {
+    return new RatingPipeline(
+        ratingService, pendingRatingRepository, batchSize, flushIntervalMs, maxPending, 60_000L);
+  }
+
+  private RatingUpdate update() {
+    return new RatingUpdate(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "white");
+  }
+
+  private GameEndedEvent gameEnded(String gameType) {
+    return new GameEndedEvent(
+        UUID.randomUUID(), gameType, UUID.randomUUID(), UUID.randomUUID(), "CHECKMATE", "Checkmate", "white");
+  }
+}
@@ -1,7 +1,7 @@
 package com.checkmate.chess.scheduler;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -18,49 +20,44 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import com.checkmate.chess.clock.ClockEngine;
+import com.checkmate.chess.clock.ClockSnapshot;
 import com.checkmate.chess.dto.ClockUpdateMessage;
-import com.checkmate.chess.model.GameClock;
-import com.checkmate.chess.repository.GameClockRepository;
-import com.checkmate.chess.service.ChessClockService;
+import com.checkmate.chess.metrics.GameMetrics;
 
 /**
  * Unit tests for ClockUpdateScheduler.
- * Tests WebSocket clock update broadcasting.
+ * Tests WebSocket clock update broadcasting from the in-memory clock engine.
  */
 @ExtendWith(MockitoExtension.class)
 class ClockUpdateSchedulerTest {
 
   @Mock
-  private GameClockRepository clockRepository;
+  private ClockEngine clockEngine;
 
   @Mock
-  private ChessClockService clockService;
+  private SimpMessagingTemplate messagingTemplate;
 
   @Mock
-  private SimpMessagingTemplate messagingTemplate;
+  private GameMetrics gameMetrics;
 
   @InjectMocks
   private ClockUpdateScheduler scheduler;
 
   private UUID gameId;
-  private GameClock activeClock;
+  private ClockSnapshot activeClock;
 
   @BeforeEach
   void setUp() {
     gameId = UUID.randomUUID();
-    activeClock = new GameClock(gameId, 300000L, 2000L, 0L);
-    activeClock.setWhiteTimeMs(250000L);
-    activeClock.setBlackTimeMs(280000L);
-    activeClock.setCurrentTurn("white");
-    activeClock.setPaused(false);
+    activeClock = new ClockSnapshot(250000L, 280000L, "white", false);
   }
 
   @Test
-  @DisplayName("Should send clock updates for active games")
+  @DisplayName("Should send clock updates for running clocks")
   void testSendClockUpdates() {
     // Given
-    when(clockRepository.findAll()).thenReturn(Arrays.asList(activeClock));
-    when(clockService.checkTimeout(gameId)).thenReturn(false);
+    when(clockEngine.snapshots()).thenReturn(Map.of(gameId, activeClock));
 
     // When
     scheduler.sendClockUpdates();
@@ -68,7 +65,10 @@ class ClockUpdateSchedulerTest {
     // Then
     verify(messagingTemplate).convertAndSend(
         eq("/topic/game/" + gameId + "/clock"),
-        any(ClockUpdateMessage.class)
+        argThat((ClockUpdateMessage message) ->
+            message.whiteTimeMs() == 250000L
+                && message.blackTimeMs() == 280000L
+                && "white".equals(message.currentTurn()))
     );
   }
 
@@ -76,8 +76,8 @@ class ClockUpdateSchedulerTest {
   @DisplayName("Should not send updates for paused clocks")
   void testDoNotSendUpdatesForPausedClocks() {
     // Given
-    activeClock.setPaused(true);
-    when(clockRepository.findAll()).thenReturn(Arrays.asList(activeClock));
+    when(clockEngine.snapshots())
+        .thenReturn(Map.of(gameId, new ClockSnapshot(250000L, 280000L, "white", true)));
 
     // When
     scheduler.sendClockUpdates();
@@ -90,33 +90,14 @@ class ClockUpdateSchedulerTest {
   }
 
   @Test
-  @DisplayName("Should not send updates when timeout occurs")
-  void testDoNotSendUpdatesOnTimeout() {
-    // Given
-    when(clockRepository.findAll()).thenReturn(Arrays.asList(activeClock));
-    when(clockService.checkTimeout(gameId)).thenReturn(true);
-
-    // When
-    scheduler.sendClockUpdates();
-
-    // Then
-    verify(messagingTemplate, never()).convertAndSend(
-        eq("/topic/game/" + gameId + "/clock"),
-        any(ClockUpdateMessage.class)
-    );
-  }
-
-  @Test
-  @DisplayName("Should handle multiple active games")
+  @DisplayName("Should handle multiple running clocks")
   void testHandleMultipleGames() {
     // Given
     UUID gameId2 = UUID.randomUUID();
-    GameClock clock2 = new GameClock(gameId2, 300000L, 2000L, 0L);
-    clock2.setPaused(false);
-
-    when(clockRepository.findAll()).thenReturn(Arrays.asList(activeClock, clock2));
-    when(clockService.checkTimeout(gameId)).thenReturn(false);
-    when(clockService.checkTimeout(gameId2)).thenReturn(false);
+    Map<UUID, ClockSnapshot> snapshots = new LinkedHashMap<>();
+    snapshots.put(gameId, activeClock);
+    snapshots.put(gameId2, new ClockSnapshot(300000L, 300000L, "white", false));
+    when(clockEngine.snapshots()).thenReturn(snapshots);
 
     // When
     scheduler.sendClockUpdates();
@@ -130,19 +111,19 @@ class ClockUpdateSchedulerTest {
         eq("/topic/game/" + gameId2 + "/clock"),
         any(ClockUpdateMessage.class)
     );
+    verify(gameMetrics).recordClockTick(eq(0L), anyLong(), eq(2));
   }
 
   @Test
-  @DisplayName("Should handle empty clock list")
+  @DisplayName("Should handle no running clocks")
   void testHandleEmptyClockList() {
     // Given
-    when(clockRepository.findAll()).thenReturn(List.of());
+    when(clockEngine.snapshots()).thenReturn(Map.of());
 
     // When
     scheduler.sendClockUpdates();
 
     // Then
-    verify(clockService, never()).checkTimeout(any(UUID.class));
     verify(messagingTemplate, never()).convertAndSend(
         any(String.class),
         any(ClockUpdateMessage.class)
@@ -153,7 +134,7 @@ class ClockUpdateSchedulerTest {
   @DisplayName("Should handle exceptions gracefully")
   void testHandleExceptions() {
     // Given
-    when(clockRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+    when(clockEngine.snapshots()).thenThrow(new RuntimeException("Engine error"));
 
     // When/Then: Should not throw exception
     org.junit.jupiter.api.Assertions.assertDoesNotThrow(() -> scheduler.sendClockUpdates());
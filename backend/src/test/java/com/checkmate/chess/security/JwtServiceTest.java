@@ -1,8 +1,10 @@
 package com.checkmate.chess.security;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -163,4 +165,71 @@ class JwtServiceTest {
     assertThat(token).isNotNull();
     assertThat(jwtService.extractUsername(token)).isEqualTo("test@example.com");
   }
+
+  @Test
+  void shouldValidateAndExtractPrincipal() {
+    // Given
+    final var token = jwtService.generateToken(userDetails);
+
+    // When
+    final var principal = jwtService.validateAndExtract(token);
+
+    // Then
+    assertThat(principal.username()).isEqualTo("test@example.com");
+    assertThat(principal.expiresAt()).isAfter(Instant.now());
+  }
+
+  @Test
+  void shouldRejectExpiredTokenWhenExtractingPrincipal() {
+    // Given
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L); // Expired
+    final var token = jwtService.generateToken(userDetails);
+
+    // When/Then
+    assertThatThrownBy(() -> jwtService.validateAndExtract(token))
+        .isInstanceOf(ExpiredJwtException.class);
+  }
+
+  @Test
+  void shouldReuseSigningKeyAcrossCalls() {
+    // Given
+    jwtService.init();
+    final Object keysAtStartup = ReflectionTestUtils.getField(jwtService, "signingKeys");
+
+    // When
+    jwtService.validateAndExtract(jwtService.generateToken(userDetails));
+    jwtService.validateAndExtract(jwtService.generateToken(userDetails));
+
+    // Then
+    assertThat(ReflectionTestUtils.getField(jwtService, "signingKeys")).isSameAs(keysAtStartup);
+  }
+
+  @Test
+  void shouldCarryUserIdAndRolesAsClaims() {
+    // Given
+    final var userId = UUID.randomUUID();
+    final var token = jwtService.generateToken(userId, userDetails);
+
+    // When
+    final var principal = jwtService.validateAndExtract(token);
+
+    // Then
+    assertThat(principal.isSelfContained()).isTrue();
+    assertThat(principal.userId()).isEqualTo(userId);
+    assertThat(principal.roles()).containsExactly("USER");
+    assertThat(principal.getName()).isEqualTo("test@example.com");
+  }
+
+  @Test
+  void shouldFlagTokensWithoutUserIdAsNotSelfContained() {
+    // Given
+    final var token = jwtService.generateToken(userDetails);
+
+    // When
+    final var principal = jwtService.validateAndExtract(token);
+
+    // Then
+    assertThat(principal.isSelfContained()).isFalse();
+    assertThat(principal.roles()).containsExactly("USER");
+  }
 }
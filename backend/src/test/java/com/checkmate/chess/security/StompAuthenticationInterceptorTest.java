@@ -0,0 +1,158 @@
+package com.checkmate.chess.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.checkmate.chess.service.UserCache;
+
+/**
+ * Unit tests for StompAuthenticationInterceptor.
+ * Tests that CONNECT frames with a valid bearer token authenticate the session, and that
+ * matchmaking queues are only open to their own player.
+ */
+class StompAuthenticationInterceptorTest {
+
+  private JwtService jwtService;
+  private UserCache userCache;
+  private StompAuthenticationInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secret",
+        "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+    userCache = mock(UserCache.class);
+    interceptor = new StompAuthenticationInterceptor(jwtService, userCache);
+  }
+
+  @Test
+  @DisplayName("Should make the token's principal the user of a connecting session")
+  void testAuthenticatesConnect() {
+    // Given
+    final UUID userId = UUID.randomUUID();
+    final String token = jwtService.generateToken(userId, User.builder()
+        .username("player@example.com")
+        .password("password")
+        .authorities("ROLE_USER")
+        .build());
+
+    // When
+    final Message<?> message = interceptor.preSend(connect("Bearer " + token), null);
+
+    // Then
+    final StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    assertThat(accessor.getUser()).isInstanceOfSatisfying(JwtPrincipal.class,
+        principal -> assertThat(principal.userId()).isEqualTo(userId));
+  }
+
+  @Test
+  @DisplayName("Should leave a session without a valid token anonymous")
+  void testInvalidTokenStaysAnonymous() {
+    // When
+    final Message<?> message = interceptor.preSend(connect("Bearer not-a-token"), null);
+
+    // Then
+    assertThat(StompHeaderAccessor.wrap(message).getUser()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should let a player subscribe to their own matchmaking queues")
+  void testSubscribesToOwnMatchmakingQueue() {
+    // Given
+    final UUID userId = UUID.randomUUID();
+    final JwtPrincipal principal = principal(userId);
+
+    // When
+    final Message<?> match = interceptor.preSend(
+        frame(StompCommand.SUBSCRIBE, "/queue/matchmaking/" + userId, principal), null);
+    final Message<?> status = interceptor.preSend(
+        frame(StompCommand.SUBSCRIBE, "/queue/matchmaking/" + userId + "/status", principal), null);
+
+    // Then
+    assertThat(match).isNotNull();
+    assertThat(status).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should resolve the player of an older token without a user ID by email")
+  void testSubscribesWithOlderToken() {
+    // Given
+    final com.checkmate.chess.model.User user =
+        new com.checkmate.chess.model.User("player@example.com", "player", "hash");
+    user.setId(UUID.randomUUID());
+    when(userCache.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+
+    // When
+    final Message<?> message = interceptor.preSend(frame(StompCommand.SUBSCRIBE,
+        "/queue/matchmaking/" + user.getId(), principal(null)), null);
+
+    // Then
+    assertThat(message).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should refuse subscriptions to another player's matchmaking queues")
+  void testRefusesForeignMatchmakingQueue() {
+    // Given
+    final String destination = "/queue/matchmaking/" + UUID.randomUUID() + "/status";
+
+    // When/Then
+    assertThatThrownBy(() -> interceptor.preSend(
+        frame(StompCommand.SUBSCRIBE, destination, principal(UUID.randomUUID())), null))
+        .isInstanceOf(AccessDeniedException.class);
+    assertThatThrownBy(() -> interceptor.preSend(
+        frame(StompCommand.SUBSCRIBE, destination, null), null))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  @Test
+  @DisplayName("Should refuse messages sent to a matchmaking queue")
+  void testRefusesSendToMatchmakingQueue() {
+    // Given
+    final UUID userId = UUID.randomUUID();
+
+    // When/Then
+    assertThatThrownBy(() -> interceptor.preSend(
+        frame(StompCommand.SEND, "/queue/matchmaking/" + userId, principal(userId)), null))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+
+  private static JwtPrincipal principal(UUID userId) {
+    return new JwtPrincipal(
+        "player@example.com", userId, List.of("ROLE_USER"), Instant.now().plusSeconds(60));
+  }
+
+  private static Message<byte[]> frame(
+      StompCommand command, String destination, JwtPrincipal principal) {
+    final StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setDestination(destination);
+    accessor.setUser(principal);
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private static Message<byte[]> connect(String authorization) {
+    final StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    accessor.addNativeHeader("Authorization", authorization);
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -1,23 +1,49 @@
 package com.checkmate.chess.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.checkmate.chess.clock.ClockEngine;
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.clock.FlagFallEvent;
+import com.checkmate.chess.clock.LagCompensator;
+import com.checkmate.chess.config.NodeIdentity;
+import com.checkmate.chess.event.ClockUpdatedEvent;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.game.GameTransactions;
+import com.checkmate.chess.game.LiveGameRegistry;
+import com.checkmate.chess.journal.JournalFlusher;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.GameClock;
+import com.checkmate.chess.model.User;
 import com.checkmate.chess.repository.GameClockRepository;
 import com.checkmate.chess.repository.GameRepository;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Unit tests for ChessClockService.
@@ -32,6 +58,27 @@ class ChessClockServiceTest {
   @Mock
   private GameRepository gameRepository;
 
+  @Mock
+  private ClockEngine clockEngine;
+
+  @Mock
+  private LagCompensator lagCompensator;
+
+  @Mock
+  private LiveGameRegistry liveGameRegistry;
+
+  @Mock
+  private JournalFlusher journalFlusher;
+
+  @Mock
+  private GameTransactions gameTransactions;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private NodeIdentity nodeIdentity = new NodeIdentity("node-a", "relay");
+
   @InjectMocks
   private ChessClockService clockService;
 
@@ -42,6 +89,14 @@ class ChessClockServiceTest {
   @BeforeEach
   void setUp() {
     gameId = UUID.randomUUID();
+
+    // Run changes in place, as inside a caller's transaction
+    lenient().doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(1).run();
+      return null;
+    }).when(gameTransactions).run(any(), any());
+    lenient().when(gameTransactions.execute(any(), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     
     game = new Game();
     game.setId(gameId);
@@ -66,6 +121,31 @@ class ChessClockServiceTest {
     verify(clockRepository).save(any(GameClock.class));
   }
 
+  @Test
+  @DisplayName("Should start the engine clock only once the game has committed")
+  void testInitializeClockStartsAfterCommit() {
+    // Given
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // When
+      clockService.initializeClock(gameId, "bullet");
+
+      // Then: nothing runs before commit
+      verify(clockEngine, never()).start(any(GameClock.class));
+
+      // When
+      for (TransactionSynchronization synchronization
+          : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCommit();
+      }
+
+      // Then
+      verify(clockEngine).start(any(GameClock.class));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
   @Test
   @DisplayName("Should initialize clock for rapid game (10 minutes)")
   void testInitializeRapidClock() {
@@ -177,6 +257,7 @@ class ChessClockServiceTest {
     // Then: Turn switched to black
     assertThat(clock.getCurrentTurn()).isEqualTo("black");
     verify(clockRepository).save(clock);
+    verify(eventPublisher).publishEvent(any(ClockUpdatedEvent.class));
   }
 
   @Test
@@ -252,4 +333,219 @@ class ChessClockServiceTest {
     assertThat(clock.isPaused()).isFalse();
     verify(clockRepository).save(clock);
   }
+
+  @Test
+  @DisplayName("Should persist engine times when a move is recorded")
+  void testRecordMovePersistsSnapshot() {
+    // Given
+    when(clockEngine.isRunning(gameId)).thenReturn(true);
+    when(clockEngine.recordMove(gameId, "white", 0L))
+        .thenReturn(Optional.of(new ClockSnapshot(295000L, 300000L, "black", false)));
+    when(clockRepository.findByGameId(gameId)).thenReturn(Optional.of(clock));
+
+    // When
+    clockService.recordMove(gameId, "white");
+
+    // Then
+    assertThat(clock.getWhiteTimeMs()).isEqualTo(295000L);
+    assertThat(clock.getCurrentTurn()).isEqualTo("black");
+    verify(clockRepository).save(clock);
+    verify(eventPublisher).publishEvent(any(ClockUpdatedEvent.class));
+  }
+
+  @Test
+  @DisplayName("Should pass the lag credit of a move on to the engine")
+  void testRecordMoveAppliesLagCredit() {
+    // Given
+    when(clockEngine.isRunning(gameId)).thenReturn(true);
+    when(lagCompensator.credit(gameId, "white", 1800L)).thenReturn(200L);
+    when(clockEngine.recordMove(gameId, "white", 200L))
+        .thenReturn(Optional.of(new ClockSnapshot(295200L, 300000L, "black", false)));
+
+    // When
+    clockService.recordMove(gameId, "white", false, 1800L);
+
+    // Then
+    verify(clockEngine).recordMove(gameId, "white", 200L);
+    verify(eventPublisher).publishEvent(any(ClockUpdatedEvent.class));
+  }
+
+  @Test
+  @DisplayName("Should end game when the engine reports a flag fall")
+  void testFlagFallEndsGame() {
+    // Given
+    game.setStatus("IN_PROGRESS");
+    User white = new User("white@example.com", "white", "hash");
+    white.setId(UUID.randomUUID());
+    User black = new User("black@example.com", "black", "hash");
+    black.setId(UUID.randomUUID());
+    game.setWhitePlayer(white);
+    game.setBlackPlayer(black);
+    when(clockRepository.findByGameId(gameId)).thenReturn(Optional.of(clock));
+    when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+    // When
+    clockService.onFlagFall(
+        new FlagFallEvent(gameId, "white", new ClockSnapshot(0L, 120000L, "white", false)));
+
+    // Then
+    assertThat(game.getStatus()).isEqualTo("FINISHED");
+    assertThat(game.getResult()).isEqualTo("black");
+    assertThat(clock.getWhiteTimeMs()).isZero();
+    verify(liveGameRegistry).evict(gameId);
+    verify(eventPublisher).publishEvent(any(GameEndedEvent.class));
+    verify(clockEngine).stop(gameId);
+    verify(clockEngine).clearFlag(gameId);
+  }
+
+  @Test
+  @DisplayName("Should refuse a move racing a flag fall instead of taking the clock over")
+  void testMoveAfterFlagFallRefused() {
+    // Given: the flag fell and the clock stopped, the game has not ended yet
+    when(clockEngine.isRunning(gameId)).thenReturn(false);
+    when(clockEngine.isFlagged(gameId)).thenReturn(true);
+    when(clockEngine.recordMove(gameId, "white", 0L))
+        .thenThrow(new IllegalStateException("Time has expired"));
+
+    // When/Then
+    assertThatThrownBy(() -> clockService.recordMove(gameId, "white"))
+        .isInstanceOf(IllegalStateException.class);
+    verify(clockRepository, never()).findByGameId(gameId);
+    verify(clockEngine, never()).start(any());
+  }
+
+  @Test
+  @DisplayName("Should ignore a flag fall of a clock another instance has taken over")
+  void testFlagFallOfForeignClockIgnored() {
+    // Given
+    clock.setOwnerNode("node-b");
+    when(clockRepository.findByGameId(gameId)).thenReturn(Optional.of(clock));
+
+    // When
+    clockService.onFlagFall(
+        new FlagFallEvent(gameId, "white", new ClockSnapshot(0L, 120000L, "white", false)));
+
+    // Then
+    verify(gameRepository, never()).findById(any());
+    verify(clockRepository, never()).save(any(GameClock.class));
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  @DisplayName("Should restore only this instance's clocks and the unowned ones it claims")
+  void testRestoreClaimsClocks() {
+    // Given: one clock of this node, one unowned clock claimed, one claimed by a node racing us
+    clock.setOwnerNode("node-a");
+    GameClock unowned = new GameClock();
+    unowned.setGameId(UUID.randomUUID());
+    GameClock raced = new GameClock();
+    raced.setGameId(UUID.randomUUID());
+    when(clockRepository.findActiveClocksOf("node-a")).thenReturn(List.of(clock, unowned, raced));
+    when(clockRepository.claimUnowned(unowned.getGameId(), "node-a")).thenReturn(1);
+    when(clockRepository.claimUnowned(raced.getGameId(), "node-a")).thenReturn(0);
+
+    // When
+    clockService.restoreActiveClocks();
+
+    // Then
+    verify(clockEngine).start(clock);
+    verify(clockEngine).start(unowned);
+    verify(clockEngine, never()).start(raced);
+  }
+
+  @Test
+  @DisplayName("Should take a clock over when a move arrives for a game it does not run")
+  void testRecordMoveTakesClockOver() {
+    // Given: the game was running on another instance
+    clock.setOwnerNode("node-b");
+    when(clockEngine.isRunning(gameId)).thenReturn(false);
+    when(clockRepository.findByGameId(gameId)).thenReturn(Optional.of(clock));
+    when(clockEngine.recordMove(gameId, "white", 0L))
+        .thenReturn(Optional.of(new ClockSnapshot(295000L, 300000L, "black", false)));
+
+    // When
+    clockService.recordMove(gameId, "white");
+
+    // Then
+    assertThat(clock.getOwnerNode()).isEqualTo("node-a");
+    verify(clockEngine).start(clock);
+  }
+
+  @Test
+  @DisplayName("Should stop running clocks that other instances have claimed")
+  void testReleaseClaimedClocks() {
+    // Given
+    UUID foreign = UUID.randomUUID();
+    when(clockEngine.gameIds()).thenReturn(Set.of(gameId, foreign));
+    when(clockRepository.findClaimedElsewhere(Set.of(gameId, foreign), "node-a"))
+        .thenReturn(List.of(foreign));
+
+    // When
+    clockService.releaseClaimedClocks();
+
+    // Then
+    verify(clockEngine).stop(foreign);
+    verify(clockEngine, never()).stop(gameId);
+  }
+
+  @Test
+  @DisplayName("Should put the engine clock back when the move's transaction rolls back")
+  void testRollbackRestoresEngineClock() {
+    // Given: a move and a premove recorded in one transaction
+    ClockEngine.Checkpoint beforeMove = mock(ClockEngine.Checkpoint.class);
+    when(clockEngine.isRunning(gameId)).thenReturn(true);
+    when(clockEngine.checkpoint(gameId)).thenReturn(beforeMove);
+    when(clockEngine.recordMove(gameId, "white", 0L))
+        .thenReturn(Optional.of(new ClockSnapshot(295000L, 300000L, "black", false)));
+    when(clockEngine.recordPremove(gameId, "black"))
+        .thenReturn(Optional.of(new ClockSnapshot(295000L, 300000L, "white", false)));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      clockService.recordMove(gameId, "white", false);
+      clockService.recordPremove(gameId, "black", false);
+
+      // When
+      for (TransactionSynchronization synchronization
+          : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then: back to before the first move, not in between
+    verify(clockEngine, times(1)).checkpoint(gameId);
+    verify(clockEngine).rollback(beforeMove);
+  }
+
+  @Test
+  @DisplayName("Should stop a clock taken over by a move whose transaction rolls back")
+  void testRollbackStopsTakenOverClock() {
+    // Given: the game's clock was not running here when the move arrived
+    ClockEngine.Checkpoint noClock = mock(ClockEngine.Checkpoint.class);
+    clock.setOwnerNode("node-b");
+    when(clockEngine.isRunning(gameId)).thenReturn(false);
+    when(clockEngine.checkpoint(gameId)).thenReturn(noClock);
+    when(clockRepository.findByGameId(gameId)).thenReturn(Optional.of(clock));
+    when(clockEngine.recordMove(gameId, "white", 0L))
+        .thenReturn(Optional.of(new ClockSnapshot(295000L, 300000L, "black", false)));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      clockService.recordMove(gameId, "white", false);
+
+      // When
+      for (TransactionSynchronization synchronization
+          : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then: checkpointed before the takeover, so the rollback stops the clock again
+    InOrder order = inOrder(clockEngine);
+    order.verify(clockEngine).checkpoint(gameId);
+    order.verify(clockEngine).start(clock);
+    order.verify(clockEngine).rollback(noClock);
+  }
 }
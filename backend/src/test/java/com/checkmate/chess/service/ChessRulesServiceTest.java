@@ -1,14 +1,27 @@
 package com.checkmate.chess.service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.checkmate.chess.game.DrawRule;
+
 @DisplayName("Chess Rules Service Tests")
 class ChessRulesServiceTest {
 
+  // Piece placement and side to move of Nf3 Nf6 Ng1 Ng8, which returns to the start
+  private static final String[] KNIGHT_SHUFFLE = {
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+      "rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b",
+      "rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w",
+      "rnbqkb1r/pppppppp/5n2/8/8/8/PPPPPPPP/RNBQKBNR b"
+  };
+
   private ChessRulesService chessRulesService;
 
   @BeforeEach
@@ -208,38 +221,6 @@ class ChessRulesServiceTest {
     assertThat(isValid).isTrue();
   }
 
-  @Test
-  @DisplayName("Should detect threefold repetition")
-  void shouldDetectThreefoldRepetition() {
-    final String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
-    final java.util.List<String> history = java.util.Arrays.asList(
-        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
-        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
-        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
-        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
-        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
-    );
-
-    final boolean result = chessRulesService.isThreefoldRepetition(fen, history);
-
-    assertThat(result).isTrue();
-  }
-
-  @Test
-  @DisplayName("Should not detect threefold repetition with only two occurrences")
-  void shouldNotDetectThreefoldRepetitionWithTwoOccurrences() {
-    final String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
-    final java.util.List<String> history = java.util.Arrays.asList(
-        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
-        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
-        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
-    );
-
-    final boolean result = chessRulesService.isThreefoldRepetition(fen, history);
-
-    assertThat(result).isFalse();
-  }
-
   @Test
   @DisplayName("Should detect fifty-move rule")
   void shouldDetectFiftyMoveRule() {
@@ -269,5 +250,78 @@ class ChessRulesServiceTest {
 
     assertThat(result).isFalse();
   }
-}
 
+  @Test
+  @DisplayName("Should draw by threefold repetition")
+  void shouldDrawByThreefoldRepetition() {
+    final List<String> positions = knightShuffle(8);
+
+    final DrawRule rule = drawRuleAfter(positions, "f6", "g8");
+
+    assertThat(rule).isEqualTo(DrawRule.THREEFOLD_REPETITION);
+  }
+
+  @Test
+  @DisplayName("Should not draw by repetition with only two occurrences")
+  void shouldNotDrawByRepetitionWithOnlyTwoOccurrences() {
+    final List<String> positions = knightShuffle(4);
+
+    final DrawRule rule = drawRuleAfter(positions, "f6", "g8");
+
+    assertThat(rule).isNull();
+  }
+
+  @Test
+  @DisplayName("Should draw by fivefold repetition")
+  void shouldDrawByFivefoldRepetition() {
+    final List<String> positions = knightShuffle(16);
+
+    final DrawRule rule = drawRuleAfter(positions, "f6", "g8");
+
+    assertThat(rule).isEqualTo(DrawRule.FIVEFOLD_REPETITION);
+  }
+
+  @Test
+  @DisplayName("Should draw by the fifty-move rule on the hundredth quiet ply")
+  void shouldDrawByFiftyMoveRule() {
+    final String fen = "8/8/4k3/8/8/4K3/8/R7 w - - 99 60";
+
+    final DrawRule rule = drawRuleAfter(List.of(fen), "a1", "a2");
+
+    assertThat(rule).isEqualTo(DrawRule.FIFTY_MOVE_RULE);
+  }
+
+  @Test
+  @DisplayName("Should draw by the seventy-five-move rule on the hundred-fiftieth quiet ply")
+  void shouldDrawBySeventyFiveMoveRule() {
+    final String fen = "8/8/4k3/8/8/4K3/8/R7 w - - 149 85";
+
+    final DrawRule rule = drawRuleAfter(List.of(fen), "a1", "a2");
+
+    assertThat(rule).isEqualTo(DrawRule.SEVENTY_FIVE_MOVE_RULE);
+  }
+
+  @Test
+  @DisplayName("Should not draw by the fifty-move rule when a pawn move resets the count")
+  void shouldNotDrawByFiftyMoveRuleAfterPawnMove() {
+    final String fen = "8/8/4k3/8/8/4K3/P7/8 w - - 99 60";
+
+    final DrawRule rule = drawRuleAfter(List.of(fen), "a2", "a3");
+
+    assertThat(rule).isNull();
+  }
+
+  private DrawRule drawRuleAfter(final List<String> positions, final String from, final String to) {
+    final List<String> earlierFens = positions.subList(0, positions.size() - 1);
+    final String fen = positions.get(positions.size() - 1);
+    return chessRulesService.drawRuleAfterMove(earlierFens, fen, from, to, null);
+  }
+
+  private static List<String> knightShuffle(final int plies) {
+    final List<String> positions = new ArrayList<>();
+    for (int ply = 0; ply < plies; ply++) {
+      positions.add(KNIGHT_SHUFFLE[ply % 4] + " KQkq - " + ply + " " + (ply / 2 + 1));
+    }
+    return positions;
+  }
+}
@@ -0,0 +1,117 @@
+package com.checkmate.chess.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.dto.MoveDto;
+import com.checkmate.chess.model.Game;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Game Service Premove Tests")
+class GameServiceTest {
+
+  @Autowired
+  private GameService gameService;
+
+  private UUID gameId;
+  private UUID white;
+  private UUID black;
+
+  @BeforeEach
+  void setUp() {
+    gameId = gameService.createGuestGame("Premover").gameId();
+    final Game game = gameService.findById(gameId);
+    white = game.getWhitePlayer().getId();
+    black = game.getBlackPlayer().getId();
+  }
+
+  @Test
+  @DisplayName("Should play a queued premove right after the opponent's move")
+  void shouldPlayPremoveAfterOpponentMove() {
+    final Optional<MakeMoveResponse> queued =
+        gameService.premove(gameId, black, "e7", "e5", null);
+
+    final MakeMoveResponse response = gameService.makeMove(gameId, "e2", "e4", null);
+
+    assertThat(queued).isEmpty();
+    assertThat(response.algebraicNotation()).isEqualTo("e4");
+    assertThat(response.seq()).isEqualTo(1);
+    assertThat(gameService.getGameMoves(gameId))
+        .extracting(MoveDto::algebraicNotation)
+        .containsExactly("e4", "e5");
+    assertThat(gameService.getGameState(gameId).currentFen()).contains(" w ");
+  }
+
+  @Test
+  @DisplayName("Should let premoves of both players answer each other")
+  void shouldChainPremoves() {
+    gameService.makeMove(gameId, "e2", "e4", null);
+    gameService.premove(gameId, white, "g1", "f3", null);
+
+    gameService.makeMove(gameId, "e7", "e5", null);
+
+    assertThat(gameService.getGameMoves(gameId))
+        .extracting(MoveDto::algebraicNotation)
+        .containsExactly("e4", "e5", "Nf3");
+  }
+
+  @Test
+  @DisplayName("Should drop a premove that is illegal once the opponent has moved")
+  void shouldDropIllegalPremove() {
+    gameService.makeMove(gameId, "e2", "e4", null);
+    gameService.makeMove(gameId, "d7", "d5", null);
+    // Legal now, but the pawn will be gone
+    gameService.premove(gameId, black, "d5", "e4", null);
+
+    gameService.makeMove(gameId, "e4", "d5", null);
+
+    assertThat(gameService.getGameMoves(gameId))
+        .extracting(MoveDto::algebraicNotation)
+        .containsExactly("e4", "d5", "exd5");
+  }
+
+  @Test
+  @DisplayName("Should play a premove at once when it is already the player's turn")
+  void shouldPlayLatePremoveAsMove() {
+    final Optional<MakeMoveResponse> played =
+        gameService.premove(gameId, white, "d2", "d4", null);
+
+    assertThat(played).map(MakeMoveResponse::algebraicNotation).contains("d4");
+  }
+
+  @Test
+  @DisplayName("Should not play a cancelled premove")
+  void shouldNotPlayCancelledPremove() {
+    gameService.premove(gameId, black, "e7", "e5", null);
+    gameService.cancelPremove(gameId, black);
+
+    gameService.makeMove(gameId, "e2", "e4", null);
+
+    assertThat(gameService.getGameMoves(gameId)).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should refuse premoves from someone not playing the game")
+  void shouldRejectPremoveOfNonPlayer() {
+    final UUID spectator = UUID.randomUUID();
+
+    assertThatThrownBy(() -> gameService.premove(gameId, spectator, "e7", "e5", null))
+        .isInstanceOf(AccessDeniedException.class);
+    assertThatThrownBy(() -> gameService.cancelPremove(gameId, spectator))
+        .isInstanceOf(AccessDeniedException.class);
+  }
+}
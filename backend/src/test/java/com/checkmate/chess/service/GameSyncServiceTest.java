@@ -0,0 +1,129 @@
+package com.checkmate.chess.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.checkmate.chess.dto.GameStateResponse;
+import com.checkmate.chess.dto.GameSyncResponse;
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.dto.MoveDto;
+import com.checkmate.chess.game.GameFeed;
+import com.checkmate.chess.repository.GameRepository;
+
+/**
+ * Unit tests for GameSyncService.
+ * Tests the choice between buffered moves and a full snapshot.
+ */
+@ExtendWith(MockitoExtension.class)
+class GameSyncServiceTest {
+
+  @Mock
+  private GameFeed gameFeed;
+
+  @Mock
+  private GameService gameService;
+
+  @Mock
+  private GameRepository gameRepository;
+
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    gameId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Should answer from the feed when it holds the missed moves")
+  void testDeltas() {
+    // Given
+    final MakeMoveResponse move = new MakeMoveResponse("e5", "fen", false, false, false, 2);
+    when(gameFeed.since(gameId, 1)).thenReturn(Optional.of(List.of(move)));
+
+    // When
+    final GameSyncResponse response = service("simple").sync(gameId, 1);
+
+    // Then
+    assertThat(response.snapshot()).isFalse();
+    assertThat(response.seq()).isEqualTo(2);
+    assertThat(response.moves()).containsExactly(move);
+    verify(gameService, never()).getGameMoves(gameId);
+  }
+
+  @Test
+  @DisplayName("Should send a snapshot when the feed cannot answer")
+  void testSnapshot() {
+    // Given
+    final GameStateResponse state = gameState();
+    final List<MoveDto> history =
+        List.of(new MoveDto(1, "white", "e4"), new MoveDto(1, "black", "e5"));
+    when(gameFeed.since(gameId, 0)).thenReturn(Optional.empty());
+    when(gameService.getGameState(gameId)).thenReturn(state);
+    when(gameService.getGameMoves(gameId)).thenReturn(history);
+
+    // When
+    final GameSyncResponse response = service("simple").sync(gameId, 0);
+
+    // Then
+    assertThat(response.snapshot()).isTrue();
+    assertThat(response.seq()).isEqualTo(2);
+    assertThat(response.state()).isEqualTo(state);
+    assertThat(response.history()).isEqualTo(history);
+  }
+
+  @Test
+  @DisplayName("Should send a snapshot when another instance recorded later moves")
+  void testStaleFeedOnSeveralInstances() {
+    // Given
+    when(gameFeed.since(gameId, 1)).thenReturn(Optional.of(List.of()));
+    when(gameFeed.latestSeq(gameId)).thenReturn(OptionalInt.of(1));
+    when(gameRepository.findPlyCountById(gameId)).thenReturn(Optional.of(3));
+    when(gameService.getGameState(gameId)).thenReturn(gameState());
+    when(gameService.getGameMoves(gameId)).thenReturn(List.of());
+
+    // When
+    final GameSyncResponse response = service("postgres").sync(gameId, 1);
+
+    // Then
+    assertThat(response.snapshot()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should trust the feed on several instances when it is up to date")
+  void testCurrentFeedOnSeveralInstances() {
+    // Given
+    when(gameFeed.since(gameId, 3)).thenReturn(Optional.of(List.of()));
+    when(gameFeed.latestSeq(gameId)).thenReturn(OptionalInt.of(3));
+    when(gameRepository.findPlyCountById(gameId)).thenReturn(Optional.of(3));
+
+    // When
+    final GameSyncResponse response = service("relay").sync(gameId, 3);
+
+    // Then
+    assertThat(response.snapshot()).isFalse();
+    assertThat(response.seq()).isEqualTo(3);
+    assertThat(response.moves()).isEmpty();
+  }
+
+  private GameSyncService service(String brokerMode) {
+    return new GameSyncService(gameFeed, gameService, gameRepository, brokerMode);
+  }
+
+  private GameStateResponse gameState() {
+    return new GameStateResponse(gameId, "fen", "IN_PROGRESS", null, "", null, null,
+        "GUEST", null, null, null);
+  }
+}
@@ -1,22 +1,40 @@
 package com.checkmate.chess.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.checkmate.chess.config.NodeIdentity;
+import com.checkmate.chess.event.MatchFoundEvent;
+import com.checkmate.chess.matchmaking.Matchmaker;
+import com.checkmate.chess.matchmaking.QueuedPlayer;
+import com.checkmate.chess.metrics.MatchmakingMetrics;
 import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.MatchmakingQueue;
 import com.checkmate.chess.model.User;
@@ -40,6 +58,24 @@ class MatchmakingServiceTest {
   @Mock
   private GameRepository gameRepository;
 
+  @Mock
+  private ChessClockService clockService;
+
+  @Mock
+  private MatchmakingMetrics matchmakingMetrics;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private Matchmaker matchmaker = new Matchmaker(200, 10, 600);
+
+  @Spy
+  private NodeIdentity nodeIdentity = new NodeIdentity("node-a", "relay");
+
+  @Captor
+  private ArgumentCaptor<List<Game>> gamesCaptor;
+
   @InjectMocks
   private MatchmakingService matchmakingService;
 
@@ -47,9 +83,17 @@ class MatchmakingServiceTest {
   private User player2;
   private UUID player1Id;
   private UUID player2Id;
+  private List<MatchmakingQueue> rows;
 
   @BeforeEach
   void setUp() {
+    // The mirror table holds a row for every player enqueued through the helpers
+    rows = new ArrayList<>();
+    lenient().when(queueRepository.lockByUserIdIn(anyCollection())).thenAnswer(invocation -> {
+      Collection<?> userIds = invocation.getArgument(0);
+      return rows.stream().filter(row -> userIds.contains(row.getUserId())).toList();
+    });
+
     player1Id = UUID.randomUUID();
     player2Id = UUID.randomUUID();
 
@@ -74,80 +118,80 @@ class MatchmakingServiceTest {
     matchmakingService.joinQueue(player1Id, "blitz");
 
     // Then
-    verify(queueRepository).save(any(MatchmakingQueue.class));
+    ArgumentCaptor<MatchmakingQueue> saved = ArgumentCaptor.forClass(MatchmakingQueue.class);
+    verify(queueRepository).save(saved.capture());
+    assertThat(saved.getValue().getOwnerNode()).isEqualTo("node-a");
+    assertThat(matchmaker.isQueued(player1Id)).isTrue();
   }
 
   @Test
   @DisplayName("Should match players with similar ratings (within 200 ELO)")
   void testMatchPlayersWithSimilarRatings() {
     // Given: Two players with ratings 1500 and 1520 (within 200 ELO)
-    MatchmakingQueue queue1 = createQueueEntry(player1Id, 1500, "blitz");
-    MatchmakingQueue queue2 = createQueueEntry(player2Id, 1520, "blitz");
-    
-    // Stub all time controls
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("bullet")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("blitz"))
-        .thenReturn(Arrays.asList(queue1, queue2));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("rapid")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("classical")).thenReturn(List.of());
-    
-    when(userRepository.findById(player1Id)).thenReturn(Optional.of(player1));
-    when(userRepository.findById(player2Id)).thenReturn(Optional.of(player2));
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player2Id, 1520, "blitz");
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1, player2));
 
     // When
     matchmakingService.processPairing();
 
-    // Then: Game created and queue entries removed
-    verify(gameRepository).save(any(Game.class));
-    verify(queueRepository).delete(queue1);
-    verify(queueRepository).delete(queue2);
+    // Then: Game created and queue entries removed in one statement
+    verify(gameRepository).saveAll(gamesCaptor.capture());
+    assertThat(gamesCaptor.getValue()).hasSize(1);
+    verify(queueRepository).deleteByUserIdIn(Set.of(player1Id, player2Id));
+    verify(eventPublisher).publishEvent(any(MatchFoundEvent.class));
+    assertThat(matchmaker.isQueued(player1Id)).isFalse();
+    assertThat(matchmaker.isQueued(player2Id)).isFalse();
   }
 
   @Test
   @DisplayName("Should not match players with large rating difference (>200 ELO)")
   void testDoNotMatchPlayersWithLargeRatingDifference() {
     // Given: Two players with ratings 1500 and 1750 (>200 ELO difference)
+    UUID player3Id = UUID.randomUUID();
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player3Id, 1750, "blitz");
+
+    // When
+    matchmakingService.processPairing();
+
+    // Then: No game created
+    verify(gameRepository, never()).saveAll(any());
+    assertThat(matchmaker.size("blitz")).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should widen the rating window the longer a player waits")
+  void testWindowWidensWithWaitTime() {
+    // Given: 250 points apart, but the lower player has waited 10 seconds (window 300)
+    UUID player3Id = UUID.randomUUID();
     User player3 = new User();
-    player3.setId(UUID.randomUUID());
+    player3.setId(player3Id);
     player3.setEloRating(1750);
-    
-    MatchmakingQueue queue1 = createQueueEntry(player1Id, 1500, "blitz");
-    MatchmakingQueue queue3 = createQueueEntry(player3.getId(), 1750, "blitz");
-    
-    // Stub all time controls
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("bullet")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("blitz"))
-        .thenReturn(Arrays.asList(queue1, queue3));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("rapid")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("classical")).thenReturn(List.of());
+    enqueue(new QueuedPlayer(player1Id, 1500, "blitz", System.currentTimeMillis() - 10_000));
+    enqueue(player3Id, 1750, "blitz");
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1, player3));
 
     // When
     matchmakingService.processPairing();
 
-    // Then: No game created
-    verify(gameRepository, org.mockito.Mockito.never()).save(any(Game.class));
+    // Then
+    verify(gameRepository).saveAll(gamesCaptor.capture());
+    assertThat(gamesCaptor.getValue()).hasSize(1);
   }
 
   @Test
   @DisplayName("Should only match players with same time control")
   void testMatchOnlySameTimeControl() {
     // Given: Players in different time controls
-    MatchmakingQueue queue1 = createQueueEntry(player1Id, 1500, "blitz");
-    MatchmakingQueue queue2 = createQueueEntry(player2Id, 1520, "rapid");
-    
-    // Stub all time controls - each has only one player
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("bullet")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("blitz"))
-        .thenReturn(Arrays.asList(queue1));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("rapid"))
-        .thenReturn(Arrays.asList(queue2));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("classical")).thenReturn(List.of());
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player2Id, 1520, "rapid");
 
     // When
     matchmakingService.processPairing();
 
     // Then: No game created (need 2 players in same time control)
-    verify(gameRepository, org.mockito.Mockito.never()).save(any(Game.class));
+    verify(gameRepository, never()).saveAll(any());
   }
 
   @Test
@@ -155,6 +199,7 @@ class MatchmakingServiceTest {
   void testCancelQueue() {
     // Given
     MatchmakingQueue queue = createQueueEntry(player1Id, 1500, "blitz");
+    enqueue(player1Id, 1500, "blitz");
     when(queueRepository.findByUserId(player1Id)).thenReturn(Optional.of(queue));
 
     // When
@@ -162,6 +207,7 @@ class MatchmakingServiceTest {
 
     // Then
     verify(queueRepository).delete(queue);
+    assertThat(matchmaker.isQueued(player1Id)).isFalse();
   }
 
   @Test
@@ -170,6 +216,7 @@ class MatchmakingServiceTest {
     // Given: Queue entry older than 5 minutes
     MatchmakingQueue expiredQueue = createQueueEntry(player1Id, 1500, "blitz");
     expiredQueue.setCreatedAt(LocalDateTime.now().minusMinutes(6));
+    enqueue(player1Id, 1500, "blitz");
     
     when(queueRepository.findByCreatedAtBefore(any(LocalDateTime.class)))
         .thenReturn(Arrays.asList(expiredQueue));
@@ -179,66 +226,109 @@ class MatchmakingServiceTest {
 
     // Then
     verify(queueRepository).deleteAll(Arrays.asList(expiredQueue));
+    assertThat(matchmaker.isQueued(player1Id)).isFalse();
   }
 
   @Test
-  @DisplayName("Should match first two players in queue (FIFO)")
-  void testMatchFirstTwoPlayers() {
-    // Given: Three players in queue
+  @DisplayName("Should pair the longest-waiting player with the nearest rating")
+  void testMatchNearestRating() {
+    // Given: Three players; the oldest (1500) is closer to 1510 than to 1520
+    UUID player3Id = UUID.randomUUID();
     User player3 = new User();
-    player3.setId(UUID.randomUUID());
+    player3.setId(player3Id);
     player3.setEloRating(1510);
-    
-    MatchmakingQueue queue1 = createQueueEntry(player1Id, 1500, "blitz");
-    queue1.setCreatedAt(LocalDateTime.now().minusMinutes(3));
-    
-    MatchmakingQueue queue2 = createQueueEntry(player2Id, 1520, "blitz");
-    queue2.setCreatedAt(LocalDateTime.now().minusMinutes(2));
-    
-    MatchmakingQueue queue3 = createQueueEntry(player3.getId(), 1510, "blitz");
-    queue3.setCreatedAt(LocalDateTime.now().minusMinutes(1));
-    
-    // Stub all time controls
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("bullet")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("blitz"))
-        .thenReturn(Arrays.asList(queue1, queue2, queue3));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("rapid")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("classical")).thenReturn(List.of());
-    
-    when(userRepository.findById(player1Id)).thenReturn(Optional.of(player1));
-    when(userRepository.findById(player2Id)).thenReturn(Optional.of(player2));
+    long now = System.currentTimeMillis();
+    enqueue(new QueuedPlayer(player1Id, 1500, "blitz", now - 3000));
+    enqueue(new QueuedPlayer(player2Id, 1520, "blitz", now - 2000));
+    enqueue(new QueuedPlayer(player3Id, 1510, "blitz", now - 1000));
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1, player3));
 
     // When
     matchmakingService.processPairing();
 
-    // Then: First two players matched
-    verify(queueRepository).delete(queue1);
-    verify(queueRepository).delete(queue2);
-    verify(queueRepository, org.mockito.Mockito.never()).delete(queue3);
+    // Then: 1500 plays 1510, 1520 keeps waiting
+    verify(queueRepository).deleteByUserIdIn(Set.of(player1Id, player3Id));
+    assertThat(matchmaker.isQueued(player2Id)).isTrue();
   }
 
   @Test
   @DisplayName("Should assign colors randomly")
   void testRandomColorAssignment() {
     // Given
-    MatchmakingQueue queue1 = createQueueEntry(player1Id, 1500, "blitz");
-    MatchmakingQueue queue2 = createQueueEntry(player2Id, 1520, "blitz");
-    
-    // Stub all time controls
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("bullet")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("blitz"))
-        .thenReturn(Arrays.asList(queue1, queue2));
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("rapid")).thenReturn(List.of());
-    when(queueRepository.findByTimeControlOrderByCreatedAtAsc("classical")).thenReturn(List.of());
-    
-    when(userRepository.findById(player1Id)).thenReturn(Optional.of(player1));
-    when(userRepository.findById(player2Id)).thenReturn(Optional.of(player2));
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player2Id, 1520, "blitz");
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1, player2));
+
+    // When
+    matchmakingService.processPairing();
+
+    // Then: Game created with both players, one on each side
+    verify(gameRepository).saveAll(gamesCaptor.capture());
+    Game game = gamesCaptor.getValue().get(0);
+    assertThat(Set.of(game.getWhitePlayer(), game.getBlackPlayer())).containsExactlyInAnyOrder(player1, player2);
+    assertThat(game.getGameType()).isEqualTo("ranked");
+    assertThat(game.getTimeControl()).isEqualTo("blitz");
+  }
+
+  @Test
+  @DisplayName("Should re-queue the partner of a player whose account disappeared")
+  void testRequeuePartnerOfMissingUser() {
+    // Given: player2 no longer exists
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player2Id, 1520, "blitz");
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1));
+
+    // When
+    matchmakingService.processPairing();
+
+    // Then
+    verify(gameRepository).saveAll(gamesCaptor.capture());
+    assertThat(gamesCaptor.getValue()).isEmpty();
+    assertThat(matchmaker.isQueued(player1Id)).isTrue();
+    assertThat(matchmaker.isQueued(player2Id)).isFalse();
+    verify(queueRepository).deleteByUserIdIn(Set.of(player2Id));
+  }
+
+  @Test
+  @DisplayName("Should not pair a player whose queue row is gone and re-queue the partner")
+  void testSkipPlayerPairedElsewhere() {
+    // Given: another instance already paired player2 and deleted the row
+    enqueue(player1Id, 1500, "blitz");
+    enqueue(player2Id, 1520, "blitz");
+    rows.removeIf(row -> row.getUserId().equals(player2Id));
+    when(userRepository.findAllById(anyCollection())).thenReturn(List.of(player1, player2));
 
     // When
     matchmakingService.processPairing();
 
-    // Then: Game created (colors assigned randomly in implementation)
-    verify(gameRepository).save(any(Game.class));
+    // Then: no game, player1 waits on, nothing is deleted
+    verify(gameRepository).saveAll(gamesCaptor.capture());
+    assertThat(gamesCaptor.getValue()).isEmpty();
+    assertThat(matchmaker.isQueued(player1Id)).isTrue();
+    assertThat(matchmaker.isQueued(player2Id)).isFalse();
+    verify(queueRepository, never()).deleteByUserIdIn(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should restore this instance's queue entries and claim unowned ones")
+  void testRestoreQueue() {
+    // Given: one row of this node, one unowned row claimed, one claimed by a node racing us
+    MatchmakingQueue own = createQueueEntry(player1Id, 1500, "blitz");
+    own.setOwnerNode("node-a");
+    MatchmakingQueue unowned = createQueueEntry(player2Id, 1520, "rapid");
+    MatchmakingQueue raced = createQueueEntry(UUID.randomUUID(), 1600, "rapid");
+    when(queueRepository.findRestorable("node-a")).thenReturn(List.of(own, unowned, raced));
+    when(queueRepository.claimUnowned(unowned.getId(), "node-a")).thenReturn(1);
+    when(queueRepository.claimUnowned(raced.getId(), "node-a")).thenReturn(0);
+
+    // When
+    matchmakingService.restoreQueue();
+
+    // Then
+    assertThat(matchmaker.size("blitz")).isEqualTo(1);
+    assertThat(matchmaker.size("rapid")).isEqualTo(1);
+    assertThat(matchmaker.isQueued(player2Id)).isTrue();
+    verify(queueRepository, never()).claimUnowned(eq(own.getId()), anyString());
   }
 
   @Test
@@ -292,6 +382,15 @@ class MatchmakingServiceTest {
     );
   }
 
+  private void enqueue(UUID userId, int rating, String timeControl) {
+    enqueue(new QueuedPlayer(userId, rating, timeControl, System.currentTimeMillis()));
+  }
+
+  private void enqueue(QueuedPlayer player) {
+    matchmaker.enqueue(player);
+    rows.add(createQueueEntry(player.userId(), player.rating(), player.timeControl()));
+  }
+
   private MatchmakingQueue createQueueEntry(UUID userId, int rating, String timeControl) {
     MatchmakingQueue queue = new MatchmakingQueue();
     queue.setId(UUID.randomUUID());
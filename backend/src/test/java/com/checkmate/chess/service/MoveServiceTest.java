@@ -0,0 +1,192 @@
+package com.checkmate.chess.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkmate.chess.game.MoveCodec;
+import com.checkmate.chess.model.Game;
+import com.checkmate.chess.model.Move;
+import com.checkmate.chess.repository.MoveRepository;
+import com.github.bhlangonijr.chesslib.Square;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for MoveService.
+ * Tests incremental move numbering, movetext built on read and compact move storage.
+ */
+@ExtendWith(MockitoExtension.class)
+class MoveServiceTest {
+
+  private static final String AFTER_E4 =
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+  private static final String AFTER_E5 =
+      "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2";
+
+  @Mock
+  private MoveRepository moveRepository;
+
+  @InjectMocks
+  private MoveService moveService;
+
+  private Game game;
+
+  @BeforeEach
+  void setUp() {
+    game = new Game();
+    lenient().when(moveRepository.save(any(Move.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  @DisplayName("Should number plies without reloading moves or rewriting the PGN")
+  void testIncrementalSave() {
+    // When
+    moveService.saveMove(game, "e4", (short) 1, "fen1");
+    moveService.saveMove(game, "e5", (short) 2, "fen2");
+    moveService.saveMove(game, "Nf3", (short) 3, "fen3");
+
+    // Then
+    assertThat(game.getPgn()).isNull();
+    assertThat(game.getPlyCount()).isEqualTo(3);
+    verify(moveRepository, never()).findByGameIdOrderByPlyAsc(any());
+    verify(moveRepository, never()).countByGame(any(Game.class));
+  }
+
+  @Test
+  @DisplayName("Should build PGN movetext from the move rows")
+  void testMovetext() {
+    // Given
+    game.setId(UUID.randomUUID());
+    when(moveRepository.findByGameIdOrderByPlyAsc(game.getId())).thenReturn(List.of(
+        new Move(game, 0, "e4", (short) 1, null),
+        new Move(game, 1, "e5", (short) 2, null),
+        new Move(game, 2, "Nf3", (short) 3, null)));
+
+    // When
+    final String movetext = moveService.getMovetext(game);
+
+    // Then
+    assertThat(movetext).isEqualTo("1. e4 e5 2. Nf3");
+  }
+
+  @Test
+  @DisplayName("Should assign move number and color from the ply count")
+  void testMoveNumberAndColor() {
+    // Given: white has played five moves, black four
+    game.setPlyCount(9);
+
+    // When
+    moveService.saveMove(game, "Be7", (short) 4, "fen");
+
+    // Then
+    final ArgumentCaptor<Move> captor = ArgumentCaptor.forClass(Move.class);
+    verify(moveRepository).save(captor.capture());
+    assertThat(captor.getValue().getMoveNumber()).isEqualTo(5);
+    assertThat(captor.getValue().getPlayerColor()).isEqualTo("black");
+    assertThat(game.getPlyCount()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Should store the move code and keep the FEN only at checkpoint plies")
+  void testCheckpointFen() {
+    // Given: the next ply is a checkpoint, the one after is not
+    game.setPlyCount(MoveCodec.CHECKPOINT_INTERVAL);
+
+    // When
+    final Move checkpoint = moveService.saveMove(game, "Nf3", (short) 21, "fen1");
+    final Move regular = moveService.saveMove(game, "Nf6", (short) 22, "fen2");
+
+    // Then
+    assertThat(checkpoint.getPly()).isEqualTo(MoveCodec.CHECKPOINT_INTERVAL);
+    assertThat(checkpoint.getMoveCode()).isEqualTo((short) 21);
+    assertThat(checkpoint.getFenAfterMove()).isEqualTo("fen1");
+    assertThat(regular.getFenAfterMove()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should rebuild positions by replaying from the nearest checkpoint")
+  void testFindPositions() {
+    // Given: 1. e4 e5 2. Nf3 with only the first ply holding a FEN
+    final UUID gameId = UUID.randomUUID();
+    final List<Move> rows = List.of(
+        row(0, "e2e4", AFTER_E4),
+        row(1, "e7e5", null),
+        row(2, "g1f3", null));
+    when(moveRepository.findByGameIdAndPlyBetweenOrderByPlyAsc(gameId, 0, 2)).thenReturn(rows);
+
+    // When
+    final List<String> positions = moveService.findPositions(gameId, 1, 2);
+
+    // Then
+    assertThat(positions).hasSize(2);
+    assertThat(positions.get(0)).startsWith("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w");
+    assertThat(positions.get(1)).startsWith("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b");
+  }
+
+  @Test
+  @DisplayName("Should include the starting position while no move has been irreversible")
+  void testRepeatablePositionsIncludeStart() {
+    // Given: 1. Nf3 Nf6 2. Ng1 Ng8, back where the game started
+    game.setId(UUID.randomUUID());
+    game.setPlyCount(4);
+    final List<Move> rows = List.of(
+        row(0, "g1f3", "rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1"),
+        row(1, "g8f6", null),
+        row(2, "f3g1", null));
+    when(moveRepository.findByGameIdAndPlyBetweenOrderByPlyAsc(game.getId(), 0, 2))
+        .thenReturn(rows);
+
+    // When
+    final List<String> positions = moveService.findRepeatablePositions(game, 4);
+
+    // Then
+    assertThat(positions).hasSize(4);
+    assertThat(positions.get(0))
+        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    assertThat(positions.get(3)).startsWith("rnbqkb1r/pppppppp/5n2/8/8/8/PPPPPPPP/RNBQKBNR w");
+  }
+
+  @Test
+  @DisplayName("Should encode legacy moves from consecutive FENs and drop non-checkpoint FENs")
+  void testEncodeLegacyMoves() {
+    // Given: 1. e4 e5 stored before encoding
+    final UUID gameId = UUID.randomUUID();
+    final Move first = row(0, null, AFTER_E4);
+    final Move second = row(1, null, AFTER_E5);
+    when(moveRepository.findByGameIdOrderByPlyAsc(gameId)).thenReturn(List.of(first, second));
+
+    // When
+    final int encoded = moveService.encodeLegacyMoves(gameId);
+
+    // Then
+    assertThat(encoded).isEqualTo(2);
+    assertThat(first.getMoveCode()).isEqualTo(code("e2e4"));
+    assertThat(first.getFenAfterMove()).isEqualTo(AFTER_E4);
+    assertThat(second.getMoveCode()).isEqualTo(code("e7e5"));
+    assertThat(second.getFenAfterMove()).isNull();
+    verify(moveRepository).saveAll(List.of(first, second));
+  }
+
+  private Move row(final int ply, final String uci, final String fen) {
+    return new Move(game, ply, "?", uci == null ? null : code(uci), fen);
+  }
+
+  private static short code(final String uci) {
+    return MoveCodec.encode(new com.github.bhlangonijr.chesslib.move.Move(
+        Square.valueOf(uci.substring(0, 2).toUpperCase()),
+        Square.valueOf(uci.substring(2, 4).toUpperCase())));
+  }
+}
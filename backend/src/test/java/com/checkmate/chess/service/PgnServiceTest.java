@@ -1,9 +1,12 @@
 package com.checkmate.chess.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -18,6 +22,7 @@ import com.checkmate.chess.model.Game;
 import com.checkmate.chess.model.Move;
 import com.checkmate.chess.model.User;
 import com.checkmate.chess.repository.MoveRepository;
+import com.checkmate.chess.repository.PgnExportRow;
 
 /**
  * Unit tests for PgnService.
@@ -57,7 +62,7 @@ class PgnServiceTest {
   @Test
   void generatePgn_shouldIncludeHeaders() {
     // Given
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -73,6 +78,23 @@ class PgnServiceTest {
     assertThat(pgn).contains("[TimeControl \"10+0\"]");
   }
 
+  @Test
+  void generatePgn_shouldUseImportedNamesForGamesWithoutAccounts() {
+    // Given
+    testGame.setWhitePlayer(null);
+    testGame.setBlackPlayer(null);
+    testGame.setWhiteName("Tal, Mikhail");
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
+        .thenReturn(List.of());
+
+    // When
+    String pgn = pgnService.generatePgn(testGame);
+
+    // Then
+    assertThat(pgn).contains("[White \"Tal, Mikhail\"]");
+    assertThat(pgn).contains("[Black \"Guest\"]");
+  }
+
   @Test
   void generatePgn_shouldFormatMovesCorrectly() {
     // Given
@@ -81,7 +103,7 @@ class PgnServiceTest {
     Move move3 = createMove(2, "Nf3");
     Move move4 = createMove(2, "Nc6");
 
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(Arrays.asList(move1, move2, move3, move4));
 
     // When
@@ -96,7 +118,7 @@ class PgnServiceTest {
   void generatePgn_shouldHandleWhiteWin() {
     // Given
     testGame.setResult("WHITE_WINS");
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -111,7 +133,7 @@ class PgnServiceTest {
   void generatePgn_shouldHandleBlackWin() {
     // Given
     testGame.setResult("BLACK_WINS");
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -126,7 +148,7 @@ class PgnServiceTest {
   void generatePgn_shouldHandleDraw() {
     // Given
     testGame.setResult("DRAW");
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -137,12 +159,45 @@ class PgnServiceTest {
     assertThat(pgn).endsWith("1/2-1/2\n");
   }
 
+  @Test
+  void generatePgn_shouldExportDecisiveGameOfTheApp() {
+    // Given: fool's mate, stored as the app stores a checkmate
+    testGame.setResult("CHECKMATE");
+    testGame.setPlyCount(4);
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId())).thenReturn(List.of(
+        createMove(1, "f3"), createMove(1, "e5"), createMove(2, "g4"), createMove(2, "Qh4#")));
+
+    // When
+    String pgn = pgnService.generatePgn(testGame);
+
+    // Then
+    assertThat(pgn).contains("[Result \"0-1\"]");
+    assertThat(pgn).contains("1. f3 e5 2. g4 Qh4#");
+    assertThat(pgn).endsWith("0-1\n");
+  }
+
+  @Test
+  void generatePgn_shouldHandleResignationAndTimeout() {
+    // Given: black resigned on move 1, and a game black lost on time
+    testGame.setResult("RESIGNATION");
+    testGame.setPlyCount(1);
+    Game timeout = new Game();
+    timeout.setId(UUID.randomUUID());
+    timeout.setCreatedAt(testGame.getCreatedAt());
+    timeout.setResult("white");
+    when(moveRepository.findByGameIdOrderByPlyAsc(any())).thenReturn(List.of());
+
+    // When/Then
+    assertThat(pgnService.generatePgn(testGame)).contains("[Result \"1-0\"]");
+    assertThat(pgnService.generatePgn(timeout)).contains("[Result \"1-0\"]");
+  }
+
   @Test
   void generatePgn_shouldHandleGuestPlayers() {
     // Given
     testGame.setWhitePlayer(null);
     testGame.setBlackPlayer(null);
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -157,7 +212,7 @@ class PgnServiceTest {
   void generatePgn_shouldHandleOngoingGame() {
     // Given
     testGame.setResult(null);
-    when(moveRepository.findByGameIdOrderByMoveNumberAsc(testGame.getId()))
+    when(moveRepository.findByGameIdOrderByPlyAsc(testGame.getId()))
         .thenReturn(List.of());
 
     // When
@@ -168,6 +223,76 @@ class PgnServiceTest {
     assertThat(pgn).endsWith("*\n");
   }
 
+  @Test
+  void exportPgn_shouldWriteEveryGameOfTheCursorInOrder() throws IOException {
+    // Given: two games with moves and one without, as the export query returns them
+    UUID userId = UUID.randomUUID();
+    LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    LocalDateTime created = LocalDateTime.of(2024, 1, 15, 10, 30);
+    when(moveRepository.streamPgnExportForUser(userId, from, to)).thenReturn(Stream.of(
+        new PgnExportRow(first, created, "Alice", "Bob", "WHITE_WINS", "blitz", 3, 0, "e4"),
+        new PgnExportRow(first, created, "Alice", "Bob", "WHITE_WINS", "blitz", 3, 1, "e5"),
+        new PgnExportRow(first, created, "Alice", "Bob", "WHITE_WINS", "blitz", 3, 2, "Qh5"),
+        new PgnExportRow(second, created, "Bob", null, "DRAW", null, 1, 0, "d4"),
+        new PgnExportRow(third, created, "Alice", "Bob", null, "rapid", 0, null, null)));
+    StringWriter out = new StringWriter();
+
+    // When
+    int games = pgnService.exportPgn(userId, from, to, out);
+
+    // Then
+    assertThat(games).isEqualTo(3);
+    String[] exported = out.toString().split("\n\n(?=\\[Event)");
+    assertThat(exported).hasSize(3);
+    assertThat(exported[0]).contains("[White \"Alice\"]", "1. e4 e5 2. Qh5", "1-0");
+    assertThat(exported[1]).contains("[Black \"Guest\"]", "1. d4", "1/2-1/2");
+    assertThat(exported[1]).doesNotContain("[TimeControl");
+    assertThat(exported[2]).contains("[TimeControl \"rapid\"]", "[Result \"*\"]");
+    assertThat(out.toString()).endsWith("*\n\n");
+  }
+
+  @Test
+  void exportPgn_shouldExportDecisiveGameOfTheApp() throws IOException {
+    // Given: fool's mate, stored as the app stores a checkmate
+    LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+    UUID gameId = UUID.randomUUID();
+    LocalDateTime created = LocalDateTime.of(2024, 1, 15, 10, 30);
+    when(moveRepository.streamPgnExport(from, to)).thenReturn(Stream.of(
+        new PgnExportRow(gameId, created, "Alice", "Bob", "CHECKMATE", "blitz", 4, 0, "f3"),
+        new PgnExportRow(gameId, created, "Alice", "Bob", "CHECKMATE", "blitz", 4, 1, "e5"),
+        new PgnExportRow(gameId, created, "Alice", "Bob", "CHECKMATE", "blitz", 4, 2, "g4"),
+        new PgnExportRow(gameId, created, "Alice", "Bob", "CHECKMATE", "blitz", 4, 3, "Qh4#")));
+    StringWriter out = new StringWriter();
+
+    // When
+    pgnService.exportPgn(null, from, to, out);
+
+    // Then
+    assertThat(out.toString()).contains("[Result \"0-1\"]", "1. f3 e5 2. g4 Qh4#");
+    assertThat(out.toString()).endsWith("0-1\n\n");
+  }
+
+  @Test
+  void exportPgn_shouldUseTheUnfilteredQueryWithoutPlayer() throws IOException {
+    // Given
+    LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 1, 2, 0, 0);
+    when(moveRepository.streamPgnExport(from, to)).thenReturn(Stream.empty());
+    StringWriter out = new StringWriter();
+
+    // When
+    int games = pgnService.exportPgn(null, from, to, out);
+
+    // Then
+    assertThat(games).isZero();
+    assertThat(out.toString()).isEmpty();
+  }
+
   private Move createMove(int moveNumber, String algebraicNotation) {
     Move move = new Move();
     move.setMoveNumber(moveNumber);
@@ -1,6 +1,8 @@
 package com.checkmate.chess.service;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -8,20 +10,30 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.checkmate.chess.event.RatingsUpdatedEvent;
 import com.checkmate.chess.model.Rating;
 import com.checkmate.chess.model.User;
+import com.checkmate.chess.rating.Glicko2;
+import com.checkmate.chess.rating.RatingUpdate;
+import com.checkmate.chess.repository.PendingRatingRepository;
 import com.checkmate.chess.repository.RatingRepository;
 import com.checkmate.chess.repository.UserRepository;
 
 /**
- * Unit tests for RatingService - ELO rating calculation.
+ * Unit tests for RatingService - ELO rating calculation and Glicko-2 rating periods.
  * Tests cover all ELO calculation scenarios with 100% coverage.
  */
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +45,21 @@ class RatingServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PendingRatingRepository pendingRatingRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private Glicko2 glicko2 = new Glicko2(0.5, 86_400_000L);
+
   @InjectMocks
   private RatingService ratingService;
 
+  @Captor
+  private ArgumentCaptor<List<Rating>> historyCaptor;
+
   private User whitePlayer;
   private User blackPlayer;
   private UUID whitePlayerId;
@@ -53,14 +77,19 @@ class RatingServiceTest {
     blackPlayer = new User();
     blackPlayer.setId(blackPlayerId);
     blackPlayer.setEloRating(1500);
+
+    lenient().when(pendingRatingRepository.claim(any())).thenReturn(1);
+  }
+
+  private void stubPlayers() {
+    when(userRepository.findAllById(any())).thenReturn(List.of(whitePlayer, blackPlayer));
   }
 
   @Test
   @DisplayName("Should calculate ELO for white win against equal opponent")
   void testWhiteWinEqualRating() {
     // Given: Both players at 1500 ELO
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: White wins
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -74,8 +103,7 @@ class RatingServiceTest {
   @DisplayName("Should calculate ELO for black win against equal opponent")
   void testBlackWinEqualRating() {
     // Given: Both players at 1500 ELO
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: Black wins
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "black");
@@ -89,8 +117,7 @@ class RatingServiceTest {
   @DisplayName("Should calculate ELO for draw between equal opponents")
   void testDrawEqualRating() {
     // Given: Both players at 1500 ELO
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: Draw
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "draw");
@@ -106,8 +133,7 @@ class RatingServiceTest {
     // Given: White 1300, Black 1500
     whitePlayer.setEloRating(1300);
     blackPlayer.setEloRating(1500);
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: Lower rated white wins (upset)
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -123,8 +149,7 @@ class RatingServiceTest {
     // Given: White 1700, Black 1500
     whitePlayer.setEloRating(1700);
     blackPlayer.setEloRating(1500);
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: Higher rated white wins (expected)
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -140,14 +165,118 @@ class RatingServiceTest {
   @DisplayName("Should persist rating history")
   void testPersistRatingHistory() {
     // Given
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
 
-    // Then: Rating history saved for both players (2 times)
-    verify(ratingRepository, org.mockito.Mockito.times(2)).save(any(Rating.class));
+    // Then: Rating history saved for both players in one call
+    verify(ratingRepository).saveAll(historyCaptor.capture());
+    assertThat(historyCaptor.getValue()).hasSize(2);
+    assertThat(historyCaptor.getValue()).extracting(Rating::getGameResult)
+        .containsExactly("win", "loss");
+  }
+
+  @Test
+  @DisplayName("Should rate a batch of games in order and record their game IDs")
+  void testApplyBatch() {
+    // Given: Two games between the same players
+    stubPlayers();
+    UUID firstGameId = UUID.randomUUID();
+    UUID secondGameId = UUID.randomUUID();
+    int gamesPlayed = whitePlayer.getGamesPlayed();
+    int losses = blackPlayer.getLosses();
+
+    // When
+    ratingService.applyBatch(List.of(
+        new RatingUpdate(firstGameId, whitePlayerId, blackPlayerId, "white"),
+        new RatingUpdate(secondGameId, whitePlayerId, blackPlayerId, "white")));
+
+    // Then: The second game starts from the first game's result
+    assertThat(whitePlayer.getEloRating()).isEqualTo(1531);
+    // Game counts, and with them the K-factor bracket, are not touched by rating
+    assertThat(whitePlayer.getGamesPlayed()).isEqualTo(gamesPlayed);
+    assertThat(blackPlayer.getLosses()).isEqualTo(losses);
+    verify(userRepository).saveAll(any());
+    verify(ratingRepository).saveAll(historyCaptor.capture());
+    assertThat(historyCaptor.getValue()).extracting(Rating::getGameId)
+        .containsExactly(firstGameId, firstGameId, secondGameId, secondGameId);
+    assertThat(historyCaptor.getValue().get(2).getOldRating()).isEqualTo(1516);
+    verify(eventPublisher).publishEvent(
+        new RatingsUpdatedEvent(Set.of(whitePlayerId, blackPlayerId)));
+  }
+
+  @Test
+  @DisplayName("Should not rate a game already claimed from the outbox")
+  void testApplyBatchSkipsRatedGame() {
+    // Given: The game was rated by an earlier batch
+    UUID gameId = UUID.randomUUID();
+    when(pendingRatingRepository.claim(gameId)).thenReturn(0);
+
+    // When
+    ratingService.applyBatch(List.of(
+        new RatingUpdate(gameId, whitePlayerId, blackPlayerId, "white")));
+
+    // Then
+    verify(userRepository, never()).findAllById(any());
+    verify(ratingRepository, never()).saveAll(any());
+    verify(eventPublisher, never()).publishEvent(any(RatingsUpdatedEvent.class));
+  }
+
+  @Test
+  @DisplayName("Should skip games whose players no longer exist")
+  void testApplyBatchSkipsMissingPlayer() {
+    // Given: Only white exists
+    when(userRepository.findAllById(any())).thenReturn(List.of(whitePlayer));
+
+    // When
+    ratingService.applyBatch(List.of(
+        new RatingUpdate(UUID.randomUUID(), whitePlayerId, blackPlayerId, "white")));
+
+    // Then
+    assertThat(whitePlayer.getEloRating()).isEqualTo(1500);
+    verify(ratingRepository).saveAll(historyCaptor.capture());
+    assertThat(historyCaptor.getValue()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should apply pending Glicko-2 results when the rating period closes")
+  void testCloseRatingPeriod() {
+    // Given: White beat an equally rated opponent during the previous period
+    Rating result = new Rating();
+    result.setUserId(whitePlayerId);
+    result.setOpponentGlickoRating(1500.0);
+    result.setOpponentGlickoRd(350.0);
+    result.setGameResult("win");
+    when(ratingRepository.findByGlickoAppliedFalseAndCreatedAtBefore(any(LocalDateTime.class)))
+        .thenReturn(List.of(result));
+    when(userRepository.findAllById(any())).thenReturn(List.of(whitePlayer));
+
+    // When
+    int rated = ratingService.closeRatingPeriod();
+
+    // Then
+    assertThat(rated).isEqualTo(1);
+    assertThat(whitePlayer.getGlickoRating()).isGreaterThan(1500.0);
+    assertThat(whitePlayer.getGlickoRd()).isLessThan(350.0);
+    assertThat(whitePlayer.getGlickoPeriod()).isNotNull();
+    assertThat(result.getGlickoApplied()).isTrue();
+    verify(ratingRepository).saveAll(List.of(result));
+  }
+
+  @Test
+  @DisplayName("Should do nothing when no Glicko-2 results are pending")
+  void testCloseRatingPeriodWithoutResults() {
+    // Given
+    when(ratingRepository.findByGlickoAppliedFalseAndCreatedAtBefore(any(LocalDateTime.class)))
+        .thenReturn(List.of());
+
+    // When
+    int rated = ratingService.closeRatingPeriod();
+
+    // Then
+    assertThat(rated).isZero();
+    verify(userRepository, never()).saveAll(any());
   }
 
   @Test
@@ -156,8 +285,7 @@ class RatingServiceTest {
     // Given: New players
     whitePlayer.setGamesPlayed(10);
     blackPlayer.setGamesPlayed(15);
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: White wins
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -174,8 +302,7 @@ class RatingServiceTest {
     whitePlayer.setEloRating(1800);
     blackPlayer.setGamesPlayed(60);
     blackPlayer.setEloRating(1800);
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: White wins
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -192,8 +319,7 @@ class RatingServiceTest {
     whitePlayer.setEloRating(2500);
     blackPlayer.setGamesPlayed(120);
     blackPlayer.setEloRating(2500);
-    when(userRepository.findById(whitePlayerId)).thenReturn(Optional.of(whitePlayer));
-    when(userRepository.findById(blackPlayerId)).thenReturn(Optional.of(blackPlayer));
+    stubPlayers();
 
     // When: White wins
     ratingService.updateRatings(whitePlayerId, blackPlayerId, "white");
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.checkmate.chess.metrics.EngineMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -21,7 +25,7 @@ class StockfishServiceTest {
   void setUp() {
     // Note: These tests will be skipped if Stockfish is not installed
     // For CI/CD, we'll mock the engine or use a test double
-    stockfishService = new StockfishService();
+    stockfishService = new StockfishService(new EngineMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
@@ -165,4 +169,31 @@ class StockfishServiceTest {
     assertNotNull(move);
     assertTrue(move.matches("[a-h][1-8][a-h][1-8][qrbn]?"));
   }
+
+  @Test
+  @DisplayName("Should serve concurrent requests without interleaving engine output")
+  void testConcurrentRequests() throws Exception {
+    // Given: More concurrent games than pooled workers
+    String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    java.util.concurrent.ExecutorService executor =
+        java.util.concurrent.Executors.newFixedThreadPool(4);
+
+    try {
+      // When: Request moves in parallel
+      java.util.List<java.util.concurrent.Future<String>> futures = new java.util.ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(() -> stockfishService.getBestMove(fen, "beginner")));
+      }
+
+      // Then: Every request gets its own well-formed move
+      for (java.util.concurrent.Future<String> future : futures) {
+        String move = future.get(10, java.util.concurrent.TimeUnit.SECONDS);
+        assertNotNull(move);
+        assertTrue(move.matches("[a-h][1-8][a-h][1-8][qrbn]?"), "Unexpected move: " + move);
+      }
+    } finally {
+      executor.shutdownNow();
+      stockfishService.shutdown();
+    }
+  }
 }
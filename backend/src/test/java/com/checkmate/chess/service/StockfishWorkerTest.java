@@ -0,0 +1,43 @@
+package com.checkmate.chess.service;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+/**
+ * Unit tests for StockfishWorker.
+ * Tests that an engine hanging in the UCI handshake is killed instead of blocking the pool.
+ */
+class StockfishWorkerTest {
+
+  private ScheduledExecutorService watchdog;
+
+  @BeforeEach
+  void setUp() {
+    watchdog = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    watchdog.shutdownNow();
+  }
+
+  @Test
+  @EnabledOnOs({OS.LINUX, OS.MAC})
+  @DisplayName("Should kill an engine that never answers the UCI handshake")
+  void testHandshakeTimesOut() {
+    // Given: cat echoes "uci" back but never says "uciok"
+    // When / Then
+    assertThatThrownBy(() -> StockfishWorker.start(1, "cat", watchdog, 200))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("within 200 ms");
+  }
+}
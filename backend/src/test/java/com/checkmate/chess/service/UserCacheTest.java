@@ -0,0 +1,117 @@
+package com.checkmate.chess.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkmate.chess.event.RatingsUpdatedEvent;
+import com.checkmate.chess.model.User;
+import com.checkmate.chess.repository.UserRepository;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for UserCache.
+ * Tests hit/miss behaviour, TTL and size bounds, and eviction once ratings are updated.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User("player@example.com", "player", "hash");
+    user.setId(UUID.randomUUID());
+  }
+
+  @Test
+  @DisplayName("Should serve repeated lookups from the cache")
+  void testCacheHit() {
+    // Given
+    UserCache cache = new UserCache(userRepository, true, 100, 60000L);
+    when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+
+    // When
+    cache.findByEmail("player@example.com");
+    Optional<User> cached = cache.findByEmail("player@example.com");
+
+    // Then
+    assertThat(cached).contains(user);
+    verify(userRepository, times(1)).findByEmail("player@example.com");
+  }
+
+  @Test
+  @DisplayName("Should reload entries after the TTL")
+  void testTtlExpiry() {
+    // Given: Entries expire immediately
+    UserCache cache = new UserCache(userRepository, true, 100, 0L);
+    when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+
+    // When
+    cache.findByEmail("player@example.com");
+    cache.findByEmail("player@example.com");
+
+    // Then
+    verify(userRepository, times(2)).findByEmail("player@example.com");
+  }
+
+  @Test
+  @DisplayName("Should drop the least recently used entry beyond the size bound")
+  void testSizeBound() {
+    // Given
+    UserCache cache = new UserCache(userRepository, true, 1, 60000L);
+    User other = new User("other@example.com", "other", "hash");
+    when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+    when(userRepository.findByEmail("other@example.com")).thenReturn(Optional.of(other));
+
+    // When
+    cache.findByEmail("player@example.com");
+    cache.findByEmail("other@example.com");
+
+    // Then
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should evict players once their new ratings have committed")
+  void testEvictOnRatingsUpdated() {
+    // Given
+    UserCache cache = new UserCache(userRepository, true, 100, 60000L);
+    when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+    cache.findByEmail("player@example.com");
+
+    // When
+    cache.onRatingsUpdated(new RatingsUpdatedEvent(Set.of(user.getId(), UUID.randomUUID())));
+
+    // Then
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should always hit the repository when disabled")
+  void testDisabled() {
+    // Given
+    UserCache cache = new UserCache(userRepository, false, 100, 60000L);
+    when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+
+    // When
+    cache.findByEmail("player@example.com");
+    cache.findByEmail("player@example.com");
+
+    // Then
+    verify(userRepository, times(2)).findByEmail("player@example.com");
+    assertThat(cache.size()).isZero();
+  }
+}
@@ -0,0 +1,228 @@
+package com.checkmate.chess.websocket;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+import com.checkmate.chess.service.GameService;
+import com.checkmate.chess.service.StockfishService;
+
+/**
+ * Unit tests for ComputerMoveDispatcher.
+ * Tests event-driven scheduling, cancellation and back-pressure.
+ */
+@ExtendWith(MockitoExtension.class)
+class ComputerMoveDispatcherTest {
+
+  private static final String AFTER_E4_FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+  private static final String START_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+  private static final String AFTER_D5_FEN =
+      "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2";
+
+  @Mock
+  private GameService gameService;
+
+  @Mock
+  private StockfishService stockfishService;
+
+  private ComputerMoveDispatcher dispatcher;
+
+  @AfterEach
+  void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should search and apply the computer reply")
+  void testDispatchPlaysAndBroadcasts() {
+    // Given
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 0L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    final MakeMoveResponse response = new MakeMoveResponse("e5", "fen", false, false, false, 1);
+    when(gameService.findComputerTurnFen(gameId)).thenReturn(Optional.of(AFTER_E4_FEN));
+    when(stockfishService.getBestMove(AFTER_E4_FEN, "advanced")).thenReturn("e7e5");
+    when(gameService.makeMove(gameId, "e7", "e5", null)).thenReturn(response);
+
+    // When
+    assertThat(dispatcher.dispatch(gameId, "advanced")).isTrue();
+
+    // Then
+    verify(gameService, timeout(2000)).makeMove(gameId, "e7", "e5", null);
+  }
+
+  @Test
+  @DisplayName("Should answer a human premove played right after the computer's move")
+  void testAnswersPremoveAfterComputerMove() {
+    // Given: the human premoved d5, played as soon as the computer's e4 committed
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 0L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    final MakeMoveResponse premove = new MakeMoveResponse("d5", "fen", false, false, false, 2);
+    when(gameService.findComputerTurnFen(gameId))
+        .thenReturn(Optional.of(START_FEN), Optional.of(AFTER_D5_FEN), Optional.of(AFTER_D5_FEN),
+            Optional.empty());
+    when(stockfishService.getBestMove(START_FEN, "beginner")).thenReturn("e2e4");
+    when(stockfishService.getBestMove(AFTER_D5_FEN, "beginner")).thenReturn("e4d5");
+    when(gameService.makeMove(gameId, "e2", "e4", null)).thenAnswer(invocation -> {
+      // The premove's event arrives while the computer's turn is still pending
+      dispatcher.onMoveMade(new MoveMadeEvent(gameId, "COMPUTER", "beginner", "black", premove));
+      return new MakeMoveResponse("e4", "fen", false, false, false, 1);
+    });
+    when(gameService.makeMove(gameId, "e4", "d5", null))
+        .thenReturn(new MakeMoveResponse("exd5", "fen", false, false, false, 3));
+
+    // When
+    dispatcher.dispatch(gameId, "beginner");
+
+    // Then
+    verify(gameService, timeout(2000)).makeMove(gameId, "e4", "d5", null);
+  }
+
+  @Test
+  @DisplayName("Should skip the search when it is not the computer's turn")
+  void testDispatchSkipsHumanTurn() {
+    // Given
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 0L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    when(gameService.findComputerTurnFen(gameId)).thenReturn(Optional.empty());
+
+    // When
+    dispatcher.dispatch(gameId, null);
+
+    // Then
+    verify(gameService, timeout(2000)).findComputerTurnFen(gameId);
+    verify(stockfishService, after(200).never()).getBestMove(anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should not play a reply cancelled during the thinking delay")
+  void testCancelDuringDelay() {
+    // Given
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 200L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    dispatcher.dispatch(gameId, "beginner");
+
+    // When
+    dispatcher.cancel(gameId);
+
+    // Then
+    verify(gameService, after(400).never()).findComputerTurnFen(any());
+    assertThat(dispatcher.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should not interrupt the computer's move when that move ends the game")
+  void testGameEndDuringOwnMoveDoesNotInterrupt() {
+    // Given: the computer's move mates, and the game end arrives while it is applied
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 0L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    final AtomicBoolean interrupted = new AtomicBoolean();
+    when(gameService.findComputerTurnFen(gameId)).thenReturn(Optional.of(AFTER_E4_FEN));
+    when(stockfishService.getBestMove(AFTER_E4_FEN, "beginner")).thenReturn("d8h4");
+    when(gameService.makeMove(gameId, "d8", "h4", null)).thenAnswer(invocation -> {
+      dispatcher.onGameEnded(new GameEndedEvent(
+          gameId, "COMPUTER", UUID.randomUUID(), UUID.randomUUID(), "CHECKMATE", "Checkmate",
+          "black"));
+      interrupted.set(Thread.currentThread().isInterrupted());
+      return new MakeMoveResponse("Qh4#", "fen", false, true, true, 4);
+    });
+
+    // When
+    dispatcher.dispatch(gameId, "beginner");
+
+    // Then
+    verify(gameService, timeout(2000)).makeMove(gameId, "d8", "h4", null);
+    verify(gameService, after(200).times(1)).findComputerTurnFen(gameId);
+    assertThat(interrupted).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should reject new work when the pipeline is saturated")
+  void testBackPressure() {
+    // Given: Room for a single pending reply
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 10000L, 1, 1);
+    dispatcher.dispatch(UUID.randomUUID(), "beginner");
+
+    // When
+    final boolean accepted = dispatcher.dispatch(UUID.randomUUID(), "beginner");
+
+    // Then
+    assertThat(accepted).isFalse();
+    assertThat(dispatcher.pendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should retry a deferred request once the pipeline has room")
+  void testDeferredRequestIsRetried() {
+    // Given: the only slot is taken by a reply still in its thinking delay
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 10000L, 1, 1);
+    final UUID busy = UUID.randomUUID();
+    final UUID waiting = UUID.randomUUID();
+    dispatcher.dispatch(busy, "beginner");
+    assertThat(dispatcher.dispatch(waiting, "beginner")).isFalse();
+
+    // When: the slot frees up
+    dispatcher.cancel(busy);
+
+    // Then: the deferred game gets its reply scheduled
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+    while (dispatcher.pendingCount() == 0 && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertThat(dispatcher.pendingCount()).isEqualTo(1);
+    dispatcher.cancel(waiting);
+    assertThat(dispatcher.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should schedule a reply only for moves in computer games")
+  void testOnMoveMadeFiltersGameType() {
+    // Given
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 10000L, 2, 16);
+    final MakeMoveResponse move = new MakeMoveResponse("e4", "fen", false, false, false, 1);
+
+    // When
+    dispatcher.onMoveMade(new MoveMadeEvent(UUID.randomUUID(), "COMPUTER", "beginner", "white", move));
+    dispatcher.onMoveMade(new MoveMadeEvent(UUID.randomUUID(), "ranked", "blitz", "white", move));
+
+    // Then
+    assertThat(dispatcher.pendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should cancel the pending reply when the game ends")
+  void testOnGameEndedCancels() {
+    // Given
+    dispatcher = new ComputerMoveDispatcher(gameService, stockfishService, 10000L, 2, 16);
+    final UUID gameId = UUID.randomUUID();
+    dispatcher.dispatch(gameId, "beginner");
+
+    // When
+    dispatcher.onGameEnded(new GameEndedEvent(
+        gameId, "COMPUTER", UUID.randomUUID(), UUID.randomUUID(), "RESIGNATION", "Player resigned", "black"));
+
+    // Then
+    assertThat(dispatcher.pendingCount()).isZero();
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkmate.chess.websocket;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.checkmate.chess.clock.ClockSnapshot;
+import com.checkmate.chess.dto.ClockUpdateMessage;
+import com.checkmate.chess.dto.GameEndMessage;
+import com.checkmate.chess.dto.MakeMoveResponse;
+import com.checkmate.chess.event.ClockUpdatedEvent;
+import com.checkmate.chess.event.GameEndedEvent;
+import com.checkmate.chess.event.MoveMadeEvent;
+import com.checkmate.chess.game.GameFeed;
+
+/**
+ * Unit tests for GameEventBroadcaster.
+ * Tests mapping of domain events to STOMP destinations.
+ */
+@ExtendWith(MockitoExtension.class)
+class GameEventBroadcasterTest {
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  @Mock
+  private GameFeed gameFeed;
+
+  @InjectMocks
+  private GameEventBroadcaster broadcaster;
+
+  private UUID gameId;
+
+  @BeforeEach
+  void setUp() {
+    gameId = UUID.randomUUID();
+  }
+
+  @Test
+  @DisplayName("Should record moves in the game feed and broadcast them to the moves topic")
+  void testBroadcastMove() {
+    // Given
+    MakeMoveResponse move = new MakeMoveResponse("e4", "fen", false, false, false, 1);
+
+    // When
+    broadcaster.onMoveMade(new MoveMadeEvent(gameId, "ranked", "blitz", "white", move));
+
+    // Then
+    verify(gameFeed).record(gameId, move);
+    verify(messagingTemplate).convertAndSend("/topic/game/" + gameId + "/moves", move);
+  }
+
+  @Test
+  @DisplayName("Should broadcast clock changes to the game clock topic")
+  void testBroadcastClock() {
+    // When
+    broadcaster.onClockUpdated(
+        new ClockUpdatedEvent(gameId, new ClockSnapshot(295000L, 300000L, "black", false)));
+
+    // Then
+    verify(messagingTemplate).convertAndSend(
+        eq("/topic/game/" + gameId + "/clock"),
+        argThat((ClockUpdateMessage message) ->
+            message.whiteTimeMs() == 295000L && "black".equals(message.currentTurn())));
+  }
+
+  @Test
+  @DisplayName("Should broadcast game end to the game end topic")
+  void testBroadcastGameEnd() {
+    // When
+    broadcaster.onGameEnded(new GameEndedEvent(
+        gameId, "ranked", UUID.randomUUID(), UUID.randomUUID(), "black", "timeout", "black"));
+
+    // Then
+    verify(messagingTemplate).convertAndSend(
+        eq("/topic/game/" + gameId + "/end"),
+        argThat((GameEndMessage message) -> "timeout".equals(message.reason())));
+  }
+
+  @Test
+  @DisplayName("Should not propagate broker failures to the publisher")
+  void testBrokerFailureIsContained() {
+    // Given
+    doThrow(new IllegalStateException("Broker down"))
+        .when(messagingTemplate).convertAndSend(any(String.class), any(Object.class));
+    MakeMoveResponse move = new MakeMoveResponse("e4", "fen", false, false, false, 1);
+
+    // When/Then
+    assertThatCode(() -> broadcaster.onMoveMade(new MoveMadeEvent(gameId, "ranked", "blitz", "white", move)))
+        .doesNotThrowAnyException();
+  }
+}
@@ -0,0 +1,90 @@
+package com.checkmate.chess.websocket;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.checkmate.chess.dto.MatchFoundMessage;
+import com.checkmate.chess.dto.QueueStatusMessage;
+import com.checkmate.chess.event.MatchFoundEvent;
+import com.checkmate.chess.matchmaking.Matchmaker;
+import com.checkmate.chess.matchmaking.QueuedPlayer;
+
+/**
+ * Unit tests for MatchmakingNotifier.
+ * Tests per-user match and queue status destinations.
+ */
+@ExtendWith(MockitoExtension.class)
+class MatchmakingNotifierTest {
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  private Matchmaker matchmaker;
+  private MatchmakingNotifier notifier;
+
+  @BeforeEach
+  void setUp() {
+    matchmaker = new Matchmaker(200, 10, 600);
+    notifier = new MatchmakingNotifier(messagingTemplate, matchmaker);
+  }
+
+  @Test
+  @DisplayName("Should tell each player their game and color")
+  void testMatchFound() {
+    // Given
+    UUID gameId = UUID.randomUUID();
+    UUID whiteId = UUID.randomUUID();
+    UUID blackId = UUID.randomUUID();
+
+    // When
+    notifier.onMatchFound(new MatchFoundEvent(gameId, whiteId, blackId, "blitz"));
+
+    // Then
+    verify(messagingTemplate).convertAndSend("/queue/matchmaking/" + whiteId,
+        new MatchFoundMessage(gameId, "white", whiteId, blackId, "blitz"));
+    verify(messagingTemplate).convertAndSend("/queue/matchmaking/" + blackId,
+        new MatchFoundMessage(gameId, "black", whiteId, blackId, "blitz"));
+  }
+
+  @Test
+  @DisplayName("Should send the queue status to every waiting player")
+  void testBroadcastQueueStatus() {
+    // Given
+    UUID firstId = UUID.randomUUID();
+    UUID secondId = UUID.randomUUID();
+    long now = System.currentTimeMillis();
+    matchmaker.enqueue(new QueuedPlayer(firstId, 1500, "blitz", now - 2000));
+    matchmaker.enqueue(new QueuedPlayer(secondId, 2200, "blitz", now - 1000));
+
+    // When
+    notifier.broadcastQueueStatus();
+
+    // Then
+    verify(messagingTemplate).convertAndSend(eq("/queue/matchmaking/" + firstId + "/status"),
+        argThat((QueueStatusMessage status) -> status.position() == 1 && status.queueSize() == 2));
+    verify(messagingTemplate).convertAndSend(eq("/queue/matchmaking/" + secondId + "/status"),
+        argThat((QueueStatusMessage status) -> status.position() == 2 && status.queueSize() == 2));
+  }
+
+  @Test
+  @DisplayName("Should send nothing when nobody is waiting")
+  void testEmptyQueue() {
+    // When
+    notifier.broadcastQueueStatus();
+
+    // Then
+    verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+  }
+}
@@ -0,0 +1,141 @@
+package com.checkmate.chess.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Unit tests for PostgresBrokerFanout.
+ * Tests encoding of outgoing broker messages and their delivery on another node.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostgresBrokerFanoutTest {
+
+  private static final String DESTINATION = "/topic/game/6f1c0f7e/moves";
+
+  @Mock
+  private ObjectProvider<SimpMessagingTemplate> providerA;
+
+  @Mock
+  private ObjectProvider<SimpMessagingTemplate> providerB;
+
+  @Mock
+  private SimpMessagingTemplate templateB;
+
+  @Captor
+  private ArgumentCaptor<Message<?>> messageCaptor;
+
+  private PostgresBrokerFanout nodeA;
+  private PostgresBrokerFanout nodeB;
+
+  @BeforeEach
+  void setUp() {
+    nodeA = fanout(providerA);
+    nodeB = fanout(providerB);
+  }
+
+  @Test
+  @DisplayName("Should deliver a message sent on one node to the broker of another")
+  void testDeliversToOtherNode() {
+    // Given
+    when(providerB.getObject()).thenReturn(templateB);
+    final byte[] payload = "{\"san\":\"e4\"}".getBytes(StandardCharsets.UTF_8);
+
+    // When
+    nodeA.preSend(brokerMessage(DESTINATION, payload), null);
+    final List<String> notifications = nodeA.drainPending();
+    notifications.forEach(nodeB::deliver);
+
+    // Then
+    assertThat(notifications).hasSize(1);
+    verify(templateB).send(eq(DESTINATION), messageCaptor.capture());
+    final Message<?> delivered = messageCaptor.getValue();
+    assertThat((byte[]) delivered.getPayload()).isEqualTo(payload);
+    assertThat(delivered.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString())
+        .isEqualTo("application/json");
+    assertThat(delivered.getHeaders()).containsKey(PostgresBrokerFanout.ORIGIN_HEADER);
+  }
+
+  @Test
+  @DisplayName("Should ignore its own notifications")
+  void testIgnoresOwnNotifications() {
+    // When
+    nodeA.preSend(brokerMessage(DESTINATION, new byte[] {1}), null);
+    nodeA.drainPending().forEach(nodeA::deliver);
+
+    // Then
+    verify(providerA, never()).getObject();
+  }
+
+  @Test
+  @DisplayName("Should not publish messages received from another node again")
+  void testDoesNotRepublish() {
+    // Given
+    final SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    accessor.setDestination(DESTINATION);
+    accessor.setHeader(PostgresBrokerFanout.ORIGIN_HEADER, "another-node");
+
+    // When
+    nodeB.preSend(MessageBuilder.createMessage(new byte[] {1}, accessor.getMessageHeaders()), null);
+
+    // Then
+    assertThat(nodeB.drainPending()).isEmpty();
+    verify(templateB, never()).send(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("Should keep messages too large for NOTIFY local")
+  void testSkipsOversizedMessages() {
+    // When
+    nodeA.preSend(brokerMessage(DESTINATION, new byte[8000]), null);
+
+    // Then
+    assertThat(nodeA.drainPending()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject channel names that cannot be used in LISTEN")
+  void testRejectsInvalidChannel() {
+    assertThatThrownBy(() -> new PostgresBrokerFanout(
+        providerA, "jdbc:postgresql://localhost/checkmate", "", "", "bad; DROP", 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static PostgresBrokerFanout fanout(ObjectProvider<SimpMessagingTemplate> provider) {
+    return new PostgresBrokerFanout(
+        provider, "jdbc:postgresql://localhost/checkmate", "", "", "checkmate_stomp", 10);
+  }
+
+  private static Message<byte[]> brokerMessage(String destination, byte[] payload) {
+    final SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    accessor.setDestination(destination);
+    accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+    return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+  }
+}
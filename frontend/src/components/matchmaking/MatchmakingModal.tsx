@@ -1,7 +1,7 @@
 import { useEffect, useState } from 'react';
 import { joinMatchmakingQueue, leaveMatchmakingQueue } from '../../api/matchmakingApi';
 import { useAuth } from '../../context/AuthContext';
-import { useGameWebSocket } from '../../hooks/useGameWebSocket';
+import { QueueStatus, useGameWebSocket } from '../../hooks/useGameWebSocket';
 import './MatchmakingModal.css';
 
 interface MatchmakingModalProps {
@@ -16,6 +16,7 @@ interface MatchmakingModalProps {
 const MatchmakingModal = ({ timeControl, onCancel, onGameFound }: MatchmakingModalProps) => {
   const [elapsedTime, setElapsedTime] = useState(0);
   const [error, setError] = useState<string | null>(null);
+  const [queueStatus, setQueueStatus] = useState<QueueStatus | null>(null);
   const { user } = useAuth();
 
   // Subscribe to matchmaking events
@@ -25,6 +26,7 @@ const MatchmakingModal = ({ timeControl, onCancel, onGameFound }: MatchmakingMod
       console.log('Game found:', game);
       onGameFound(game.gameId);
     },
+    onQueueStatus: setQueueStatus,
   });
 
   useEffect(() => {
@@ -93,6 +95,13 @@ const MatchmakingModal = ({ timeControl, onCancel, onGameFound }: MatchmakingMod
             <p className="elapsed-time">
               Searching for {formatTime(elapsedTime)}
             </p>
+            {queueStatus && (
+              <p className="queue-info">
+                Position {queueStatus.position} of {queueStatus.queueSize}
+                {queueStatus.estimatedWaitMs !== null &&
+                  ` · about ${formatTime(Math.ceil(queueStatus.estimatedWaitMs / 1000))} left`}
+              </p>
+            )}
             {user?.eloRating && (
               <p className="rating-info">
                 Your Rating: <strong>{user.eloRating}</strong>
@@ -9,17 +9,27 @@ interface ClockUpdate {
 
 interface GameFoundEvent {
   gameId: string;
+  color: 'white' | 'black';
   whitePlayerId: string;
   blackPlayerId: string;
   timeControl: string;
 }
 
+export interface QueueStatus {
+  timeControl: string;
+  position: number;
+  queueSize: number;
+  waitedMs: number;
+  estimatedWaitMs: number | null;
+}
+
 interface UseGameWebSocketProps {
   gameId?: string;
   userId?: string;
   onMove?: (move: any) => void;
   onClockUpdate?: (clock: ClockUpdate) => void;
   onGameFound?: (game: GameFoundEvent) => void;
+  onQueueStatus?: (status: QueueStatus) => void;
   onTimeout?: (winner: string) => void;
 }
 
@@ -33,6 +43,7 @@ export const useGameWebSocket = ({
   onMove,
   onClockUpdate,
   onGameFound,
+  onQueueStatus,
   onTimeout,
 }: UseGameWebSocketProps) => {
   const { subscribe, isConnected } = useWebSocket();
@@ -79,7 +90,7 @@ export const useGameWebSocket = ({
   useEffect(() => {
     if (!userId || !isConnected) return;
 
-    const unsubscribe = subscribe(`/user/${userId}/queue`, (message: GameFoundEvent) => {
+    const unsubscribe = subscribe(`/queue/matchmaking/${userId}`, (message: GameFoundEvent) => {
       console.log('[WebSocket] Game found:', message);
       if (onGameFound) {
         onGameFound(message);
@@ -89,6 +100,17 @@ export const useGameWebSocket = ({
     return unsubscribe;
   }, [userId, isConnected, subscribe, onGameFound]);
 
+  // Subscribe to matchmaking queue status
+  useEffect(() => {
+    if (!userId || !isConnected || !onQueueStatus) return;
+
+    const unsubscribe = subscribe(`/queue/matchmaking/${userId}/status`, (message: QueueStatus) => {
+      onQueueStatus(message);
+    });
+
+    return unsubscribe;
+  }, [userId, isConnected, subscribe, onQueueStatus]);
+
   return {
     isConnected,
     clockState,